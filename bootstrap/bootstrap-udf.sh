@@ -50,6 +50,18 @@ echo "topn"
 curl -s -X POST "http://${host}:${port}/api/v1/catalog/streams/udfs" -F udfJarFile=@${jarFile} -F udfConfig='{"name":"TOPN", "displayName": "TOPN", "description": "Top N", "type":"AGGREGATE", "className":"org.apache.streamline.streams.udaf.Topn"};type=application/json'
 echo
 
+echo "approx_count_distinct"
+curl -s -X POST "http://${host}:${port}/api/v1/catalog/streams/udfs" -F udfJarFile=@${jarFile} -F udfConfig='{"name":"APPROX_COUNT_DISTINCT", "displayName": "APPROX_COUNT_DISTINCT", "description": "Approximate distinct count", "type":"AGGREGATE", "className":"org.apache.streamline.streams.udaf.ApproxCountDistinct"};type=application/json'
+echo
+
+echo "approx_percentile"
+curl -s -X POST "http://${host}:${port}/api/v1/catalog/streams/udfs" -F udfJarFile=@${jarFile} -F udfConfig='{"name":"APPROX_PERCENTILE", "displayName": "APPROX_PERCENTILE", "description": "Approximate percentile", "type":"AGGREGATE", "className":"org.apache.streamline.streams.udaf.ApproxPercentile"};type=application/json'
+echo
+
+echo "approx_topk"
+curl -s -X POST "http://${host}:${port}/api/v1/catalog/streams/udfs" -F udfJarFile=@${jarFile} -F udfConfig='{"name":"APPROX_TOPK", "displayName": "APPROX_TOPK", "description": "Approximate top K frequent values", "type":"AGGREGATE", "className":"org.apache.streamline.streams.udaf.ApproxTopk"};type=application/json'
+echo
+
 # Dummy entries for built in functions so that it shows up in the UI
 echo "Adding dummy entries for builtin functions"
 curl -s -X POST "http://${host}:${port}/api/v1/catalog/streams/udfs" -F udfConfig='{"name":"MIN", "displayName": "MIN", "description": "Minimum", "type":"AGGREGATE", "argTypes":["BOOLEAN|BYTE|SHORT|INTEGER|LONG|FLOAT|DOUBLE|STRING"], "className":"builtin"};type=application/json' -F builtin=true
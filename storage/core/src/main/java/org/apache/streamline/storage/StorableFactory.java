@@ -20,6 +20,10 @@ package org.apache.streamline.storage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,7 +34,11 @@ import java.util.Map;
 public class StorableFactory {
     private static final Logger LOG = LoggerFactory.getLogger(StorableFactory.class);
 
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Storable.class);
+
     private final Map<String, Class<? extends Storable>> nameSpaceWithClass = new HashMap<>();
+    // no-arg constructors of the registered classes, looked up once
+    private final Map<String, MethodHandle> nameSpaceWithConstructor = new HashMap<>();
 
     public StorableFactory() {
     }
@@ -47,21 +55,28 @@ public class StorableFactory {
                 }
 
                 nameSpaceWithClass.put(nameSpace, clazz);
-            } catch (InstantiationException | IllegalAccessException e) {
+                Constructor<? extends Storable> constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                nameSpaceWithConstructor.put(nameSpace,
+                        MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE));
+            } catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
                 throw new RuntimeException(e);
             }
         }
     }
 
     public Storable create(String nameSpace) {
-        if (!nameSpaceWithClass.containsKey(nameSpace)) {
+        MethodHandle constructor = nameSpaceWithConstructor.get(nameSpace);
+        if (constructor == null) {
             throw new IllegalArgumentException("No factory supported with the given namespace: " + nameSpace);
         }
 
         try {
-            return nameSpaceWithClass.get(nameSpace).newInstance();
-        } catch (InstantiationException  | IllegalAccessException e) {
-            throw new RuntimeException(e);
+            return (Storable) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable th) {
+            throw new RuntimeException(th);
         }
     }
 }
@@ -3,14 +3,12 @@ package org.apache.streamline.storage.catalog;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.streamline.common.Schema;
 import org.apache.streamline.common.exception.ParserException;
-import org.apache.streamline.common.util.ReflectionHelper;
 import org.apache.streamline.storage.Storable;
 import org.apache.streamline.storage.StorableKey;
 import org.apache.streamline.storage.exception.StorageException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -38,17 +36,14 @@ public abstract class AbstractStorable implements Storable {
      * @return
      */
     public Map<String, Object> toMap() {
-        Set<String> instanceVariableNames = ReflectionHelper.getFieldNamesToTypes(this.getClass()).keySet();
+        StorableAccessor accessor = StorableAccessor.of(this.getClass());
+        Set<String> instanceVariableNames = accessor.getFieldNamesToTypes().keySet();
         Map<String, Object> fieldToVal = new HashMap<>();
         for(String fieldName : instanceVariableNames) {
-            try {
-                Object val = ReflectionHelper.invokeGetter(fieldName, this);
-                fieldToVal.put(fieldName, val);
-                if(LOG.isTraceEnabled()) {
-                    LOG.trace("toMap: Adding fieldName {} = {} ", fieldName, val);
-                }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
-                throw new StorageException(e);
+            Object val = accessor.get(this, fieldName);
+            fieldToVal.put(fieldName, val);
+            if(LOG.isTraceEnabled()) {
+                LOG.trace("toMap: Adding fieldName {} = {} ", fieldName, val);
             }
         }
 
@@ -62,13 +57,10 @@ public abstract class AbstractStorable implements Storable {
      * @return
      */
     public Storable fromMap(Map<String, Object> map) {
+        StorableAccessor accessor = StorableAccessor.of(this.getClass());
         for(Map.Entry<String, Object> entry: map.entrySet()) {
-            try {
-                if(entry.getValue() != null) {
-                    ReflectionHelper.invokeSetter(entry.getKey(), this, entry.getValue());
-                }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
-                throw new StorageException(e);
+            if(entry.getValue() != null) {
+                accessor.set(this, entry.getKey(), entry.getValue());
             }
         }
         return this;
@@ -81,12 +73,12 @@ public abstract class AbstractStorable implements Storable {
      */
     @JsonIgnore
     public Schema getSchema() {
-        Map<String, Class> fieldNamesToTypes = ReflectionHelper.getFieldNamesToTypes(this.getClass());
+        StorableAccessor accessor = StorableAccessor.of(this.getClass());
         List<Schema.Field> fields = new ArrayList<>();
 
-        for(Map.Entry<String, Class> entry : fieldNamesToTypes.entrySet()) {
+        for(Map.Entry<String, Class> entry : accessor.getFieldNamesToTypes().entrySet()) {
             try {
-                Object val = ReflectionHelper.invokeGetter(entry.getKey(), this);
+                Object val = accessor.get(this, entry.getKey());
                 Schema.Type type;
                 if(val != null) {
                     type = Schema.fromJavaType(val);
@@ -97,7 +89,7 @@ public abstract class AbstractStorable implements Storable {
                 if(LOG.isTraceEnabled()) {
                     LOG.trace("getSchema: Adding {} = {} ", entry.getKey(), type);
                 }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException|ParserException e) {
+            } catch (ParserException e) {
                 throw new StorageException(e);
             }
         }
@@ -0,0 +1,148 @@
+package org.apache.streamline.storage.catalog;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.streamline.common.util.ReflectionHelper;
+import org.apache.streamline.storage.exception.StorageException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per class accessor metadata for storables, so that mapping a storable to and from a map does not
+ * look up the fields and the getter and setter methods by reflection for every row.
+ * <p>
+ * The instance field names and types are read once per class. The getters and setters are looked up by
+ * the same POJO convention as {@link ReflectionHelper#invokeGetter(String, Object)} and
+ * {@link ReflectionHelper#invokeSetter(String, Object, Object)} the first time a property is accessed,
+ * and cached as {@link MethodHandle}s.
+ * </p>
+ */
+public final class StorableAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<StorableAccessor> ACCESSORS = new ClassValue<StorableAccessor>() {
+        @Override
+        protected StorableAccessor computeValue(Class<?> type) {
+            return new StorableAccessor(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    private final Map<String, Class> fieldNamesToTypes;
+    private final ConcurrentHashMap<String, MethodHandle> getters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Setter[]> setters = new ConcurrentHashMap<>();
+
+    private static final class Setter {
+        final Class<?> parameterType;
+        final MethodHandle handle;
+
+        Setter(Class<?> parameterType, MethodHandle handle) {
+            this.parameterType = parameterType;
+            this.handle = handle;
+        }
+    }
+
+    private StorableAccessor(Class<?> clazz) {
+        this.clazz = clazz;
+        this.fieldNamesToTypes = Collections.unmodifiableMap(
+                new LinkedHashMap<>(ReflectionHelper.getFieldNamesToTypes(clazz)));
+    }
+
+    public static StorableAccessor of(Class<?> clazz) {
+        return ACCESSORS.get(clazz);
+    }
+
+    /**
+     * The names of all the instance fields of the class and its super classes -> type.
+     */
+    public Map<String, Class> getFieldNamesToTypes() {
+        return fieldNamesToTypes;
+    }
+
+    /**
+     * Returns the value of the property by invoking its public getter.
+     */
+    public Object get(Object object, String propertyName) {
+        MethodHandle getter = getters.get(propertyName);
+        if (getter == null) {
+            getter = findGetter(propertyName);
+            getters.putIfAbsent(propertyName, getter);
+        }
+        try {
+            return getter.invokeExact(object);
+        } catch (Throwable th) {
+            throw propagate(th);
+        }
+    }
+
+    /**
+     * Sets the property by invoking its public setter whose parameter type is the class of the value.
+     */
+    public void set(Object object, String propertyName, Object value) {
+        Setter[] candidates = setters.get(propertyName);
+        if (candidates == null) {
+            candidates = findSetters(propertyName);
+            setters.putIfAbsent(propertyName, candidates);
+        }
+        for (Setter setter : candidates) {
+            if (setter.parameterType == value.getClass()) {
+                try {
+                    setter.handle.invokeExact(object, value);
+                } catch (Throwable th) {
+                    throw propagate(th);
+                }
+                return;
+            }
+        }
+        throw new StorageException(new NoSuchMethodException(clazz.getName() + ".set"
+                + StringUtils.capitalize(propertyName) + "(" + value.getClass().getName() + ")"));
+    }
+
+    private MethodHandle findGetter(String propertyName) {
+        String methodName = "get" + StringUtils.capitalize(propertyName);
+        try {
+            return unreflect(clazz.getMethod(methodName)).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private Setter[] findSetters(String propertyName) {
+        String methodName = "set" + StringUtils.capitalize(propertyName);
+        List<Setter> result = new ArrayList<>();
+        for (Method method : clazz.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                result.add(new Setter(method.getParameterTypes()[0], unreflect(method).asType(SETTER_TYPE)));
+            }
+        }
+        return result.toArray(new Setter[result.size()]);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            // public methods of non public classes are accessible via reflection only this way
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable th) {
+        if (th instanceof Error) {
+            throw (Error) th;
+        }
+        return new StorageException(th);
+    }
+}
@@ -30,7 +30,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -247,77 +246,78 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         private <T extends Storable> Collection<T> getStorablesFromResultSet(ResultSet resultSet, String nameSpace) {
             final Collection<T> storables = new ArrayList<>();
-            // maps contains the data to populate the state of Storable objects
-            final List<Map<String, Object>> maps = getMapsFromResultSet(resultSet);
-            if (maps != null && !maps.isEmpty()) {
-                for (Map<String, Object> map : maps) {
-                    if (map != null) {
-                        T storable = newStorableInstance(nameSpace);
-                        storable.fromMap(map);      // populates the Storable object state
-                        storables.add(storable);
-                    }
-                }
-            }
-            return storables;
-        }
-
-        // returns null for empty ResultSet or ResultSet with no rows
-        private List<Map<String, Object>> getMapsFromResultSet(ResultSet resultSet) {
-            List<Map<String, Object>> maps = null;
-
             try {
-                boolean next = resultSet.next();
-                if(next) {
-                    maps = new LinkedList<>();
-                    ResultSetMetaData rsMetadata = resultSet.getMetaData();
+                if (resultSet.next()) {
+                    // the column labels and types are resolved once for all the rows
+                    final ResultSetMetaData rsMetadata = resultSet.getMetaData();
+                    final int columnCount = rsMetadata.getColumnCount();
+                    final String[] columnLabels = new String[columnCount];
+                    final Class[] columnJavaTypes = new Class[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        columnLabels[i] = rsMetadata.getColumnLabel(i + 1);
+                        columnJavaTypes[i] = getColumnJavaType(columnLabels[i], rsMetadata.getColumnType(i + 1));
+                    }
                     do {
-                        Map<String, Object> map = newMapWithRowContents(resultSet, rsMetadata);
-                        maps.add(map);
-                    } while(resultSet.next());
+                        T storable = newStorableInstance(nameSpace);
+                        // populates the Storable object state
+                        storable.fromMap(newMapWithRowContents(resultSet, rsMetadata, columnLabels, columnJavaTypes));
+                        storables.add(storable);
+                    } while (resultSet.next());
                 }
             } catch (SQLException e) {
                 log.error("Exception occurred while processing result set.", e);
             }
-            return maps;
+            return storables;
         }
 
         private <T extends Storable> T newStorableInstance(String nameSpace) {
             return (T) storableFactory.create(nameSpace);
         }
 
-        private Map<String, Object> newMapWithRowContents(ResultSet resultSet, ResultSetMetaData rsMetadata) throws SQLException {
+        private Class getColumnJavaType(String columnLabel, int columnType) {
+            final Class columnJavaType = Util.getJavaType(columnType);
+            if (columnJavaType.equals(String.class) || columnJavaType.equals(Integer.class)
+                    || columnJavaType.equals(Double.class) || columnJavaType.equals(Float.class)
+                    || columnJavaType.equals(Short.class) || columnJavaType.equals(Boolean.class)
+                    || columnJavaType.equals(byte[].class) || columnJavaType.equals(Long.class)
+                    || columnJavaType.equals(Date.class) || columnJavaType.equals(Time.class)
+                    || columnJavaType.equals(Timestamp.class)) {
+                return columnJavaType;
+            }
+            throw new StorageException("type =  [" + columnType + "] for column [" + columnLabel + "] not supported.");
+        }
+
+        private Map<String, Object> newMapWithRowContents(ResultSet resultSet, ResultSetMetaData rsMetadata,
+                                                          String[] columnLabels, Class[] columnJavaTypes) throws SQLException {
             final Map<String, Object> map = new HashMap<>();
-            final int columnCount = rsMetadata.getColumnCount();
 
-            for (int i = 1 ; i <= columnCount; i++) {
-                final String columnLabel = rsMetadata.getColumnLabel(i);
-                final int columnType = rsMetadata.getColumnType(i);
-                final Class columnJavaType = Util.getJavaType(columnType);
+            for (int i = 0; i < columnLabels.length; i++) {
+                final String columnLabel = columnLabels[i];
+                final Class columnJavaType = columnJavaTypes[i];
+                final int columnIndex = i + 1;
 
                 if (columnJavaType.equals(String.class)) {
-                    map.put(columnLabel, resultSet.getString(columnLabel));
+                    map.put(columnLabel, resultSet.getString(columnIndex));
                 } else if (columnJavaType.equals(Integer.class)) {
-                    map.put(columnLabel, resultSet.getInt(columnLabel));
+                    map.put(columnLabel, resultSet.getInt(columnIndex));
                 } else if (columnJavaType.equals(Double.class)) {
-                    map.put(columnLabel, resultSet.getDouble(columnLabel));
+                    map.put(columnLabel, resultSet.getDouble(columnIndex));
                 } else if (columnJavaType.equals(Float.class)) {
-                    map.put(columnLabel, resultSet.getFloat(columnLabel));
+                    map.put(columnLabel, resultSet.getFloat(columnIndex));
                 } else if (columnJavaType.equals(Short.class)) {
-                    map.put(columnLabel, resultSet.getShort(columnLabel));
+                    map.put(columnLabel, resultSet.getShort(columnIndex));
                 } else if (columnJavaType.equals(Boolean.class)) {
-                    map.put(columnLabel, resultSet.getBoolean(columnLabel));
+                    map.put(columnLabel, resultSet.getBoolean(columnIndex));
                 } else if (columnJavaType.equals(byte[].class)) {
-                    map.put(columnLabel, resultSet.getBytes(columnLabel));
+                    map.put(columnLabel, resultSet.getBytes(columnIndex));
                 } else if (columnJavaType.equals(Long.class)) {
-                    map.put(columnLabel, resultSet.getLong(columnLabel));
+                    map.put(columnLabel, resultSet.getLong(columnIndex));
                 } else if (columnJavaType.equals(Date.class)) {
-                    map.put(columnLabel, resultSet.getDate(columnLabel));
+                    map.put(columnLabel, resultSet.getDate(columnIndex));
                 } else if (columnJavaType.equals(Time.class)) {
-                    map.put(columnLabel, resultSet.getTime(columnLabel));
+                    map.put(columnLabel, resultSet.getTime(columnIndex));
                 } else if (columnJavaType.equals(Timestamp.class)) {
-                    map.put(columnLabel, resultSet.getTimestamp(columnLabel));
-                } else {
-                    throw new StorageException("type =  [" + columnType + "] for column [" + columnLabel + "] not supported.");
+                    map.put(columnLabel, resultSet.getTimestamp(columnIndex));
                 }
             }
             if (log.isDebugEnabled()) {
@@ -0,0 +1,112 @@
+package org.apache.streamline.storage.catalog;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.storage.PrimaryKey;
+import org.apache.streamline.storage.Storable;
+import org.apache.streamline.storage.StorableFactory;
+import org.apache.streamline.storage.exception.StorageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+public class AbstractStorableTest {
+
+    public static class Parent extends AbstractStorable {
+        private Long id;
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getNameSpace() {
+            return "test";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+    }
+
+    public static class Child extends Parent {
+        private static final String IGNORED = "ignored";
+        private String name;
+        private Integer count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    public void testToMapFromMap() throws Exception {
+        Child child = new Child();
+        child.setId(1L);
+        child.setName("a");
+        child.setCount(2);
+        Map<String, Object> map = child.toMap();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("id", "name", "count")), map.keySet());
+        Assert.assertEquals(1L, map.get("id"));
+        Assert.assertEquals("a", map.get("name"));
+        Assert.assertEquals(2, map.get("count"));
+
+        Child copy = (Child) new Child().fromMap(map);
+        Assert.assertEquals(Long.valueOf(1L), copy.getId());
+        Assert.assertEquals("a", copy.getName());
+        Assert.assertEquals(Integer.valueOf(2), copy.getCount());
+    }
+
+    @Test
+    public void testGetSchema() throws Exception {
+        Child child = new Child();
+        child.setName("a");
+        Map<String, Schema.Type> types = new HashMap<>();
+        for (Schema.Field field : child.getSchema().getFields()) {
+            types.put(field.getName(), field.getType());
+        }
+        Assert.assertEquals(Schema.Type.LONG, types.get("id"));
+        Assert.assertEquals(Schema.Type.STRING, types.get("name"));
+        Assert.assertEquals(Schema.Type.INTEGER, types.get("count"));
+        Assert.assertEquals(3, types.size());
+    }
+
+    @Test(expected = StorageException.class)
+    public void testFromMapWithWrongType() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        // setId takes a Long
+        map.put("id", 1);
+        new Child().fromMap(map);
+    }
+
+    @Test
+    public void testStorableFactory() throws Exception {
+        StorableFactory factory = new StorableFactory();
+        factory.addStorableClasses(Collections.<Class<? extends Storable>>singletonList(Child.class));
+        Storable storable = factory.create("test");
+        Assert.assertEquals(Child.class, storable.getClass());
+        Assert.assertNotSame(storable, factory.create("test"));
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Base class of the benchmarks which process events of a varying number of fields.
+ * <p>
+ * The events are generated in the setup of the benchmark and then reused in a round robin, so that
+ * the generation is not measured and the benchmarked code does not see the same event every time.
+ * The setup of the subclasses should call {@link #generateEvents()} first.
+ * </p>
+ */
+@State(Scope.Thread)
+public abstract class AbstractEventsBenchmark {
+    protected static final int NUM_EVENTS = 1024;
+
+    @Param({"10", "50", "200"})
+    public int width;
+
+    protected EventGenerator generator;
+    protected List<StreamlineEventImpl> events;
+    private int next;
+
+    protected void generateEvents() {
+        generator = new EventGenerator(width);
+        events = generator.nextEvents(NUM_EVENTS);
+        next = 0;
+    }
+
+    protected StreamlineEventImpl nextEvent() {
+        StreamlineEventImpl event = events.get(next);
+        next = (next + 1) % NUM_EVENTS;
+        return event;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates events with a given number of fields for the benchmarks.
+ * <p>
+ * The fields are named {@code f0}, {@code f1}, ... and cycle through the types integer, long, double, string
+ * and boolean, so {@code f0} is always an integer between 0 and 99. Every other string value refers to
+ * {@code f0} as a variable, like {@code ${f0}}. The values are random but generated from a fixed seed,
+ * so every run of a benchmark sees the same events.
+ * </p>
+ */
+public class EventGenerator {
+    public static final String DATA_SOURCE_ID = "benchmark";
+    public static final String INPUT_STREAM = "inputstream";
+    public static final String OUTPUT_STREAM = "outputstream";
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final Schema.Type[] TYPES = {Schema.Type.INTEGER, Schema.Type.LONG, Schema.Type.DOUBLE,
+            Schema.Type.STRING, Schema.Type.BOOLEAN};
+    private static final String CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private final Schema schema;
+    private final Random random;
+
+    public EventGenerator(int width) {
+        this(width, DEFAULT_SEED);
+    }
+
+    public EventGenerator(int width, long seed) {
+        if (width < TYPES.length) {
+            throw new IllegalArgumentException("width should be at least " + TYPES.length + ", got " + width);
+        }
+        List<Schema.Field> fields = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            fields.add(Schema.Field.of(fieldName(i), TYPES[i % TYPES.length]));
+        }
+        this.schema = new Schema.SchemaBuilder().fields(fields).build();
+        this.random = new Random(seed);
+    }
+
+    public static String fieldName(int i) {
+        return "f" + i;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public Map<String, Object> nextKeyValues() {
+        Map<String, Object> keyValues = new LinkedHashMap<>();
+        List<Schema.Field> fields = schema.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            keyValues.put(fields.get(i).getName(), nextValue(i, fields.get(i).getType()));
+        }
+        return keyValues;
+    }
+
+    /**
+     * Returns a new event from the {@link #INPUT_STREAM}.
+     */
+    public StreamlineEventImpl nextEvent() {
+        return new StreamlineEventImpl(nextKeyValues(), DATA_SOURCE_ID, Collections.<String, Object>emptyMap(), INPUT_STREAM);
+    }
+
+    public List<StreamlineEventImpl> nextEvents(int count) {
+        List<StreamlineEventImpl> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(nextEvent());
+        }
+        return events;
+    }
+
+    private Object nextValue(int index, Schema.Type type) {
+        switch (type) {
+            case INTEGER:
+                return index == 0 ? random.nextInt(100) : random.nextInt();
+            case LONG:
+                return random.nextLong();
+            case DOUBLE:
+                return random.nextDouble() * 1000;
+            case STRING:
+                String value = nextString(8 + random.nextInt(16));
+                return index % (2 * TYPES.length) == 3 ? value + "-${f0}" : value;
+            case BOOLEAN:
+                return random.nextBoolean();
+            default:
+                throw new IllegalArgumentException("Unsupported type " + type);
+        }
+    }
+
+    private String nextString(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
+        }
+        return sb.toString();
+    }
+}
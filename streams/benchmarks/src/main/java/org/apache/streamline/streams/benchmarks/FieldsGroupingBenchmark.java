@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.storm.generated.GlobalStreamId;
+import org.apache.streamline.streams.runtime.storm.grouping.FieldsGroupingAsCustomGrouping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FieldsGroupingAsCustomGrouping#chooseTasks(int, List)}, which is called for every event
+ * sent over a fields grouping. The events are grouped by an integer and a string field, or by an integer,
+ * a long, a double and a string field.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldsGroupingBenchmark extends AbstractEventsBenchmark {
+    private static final int NUM_TASKS = 16;
+
+    @Param({"2", "4"})
+    public int numGroupingFields;
+
+    private FieldsGroupingAsCustomGrouping grouping;
+    private List<List<Object>> values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        generateEvents();
+        String[] groupingFields = numGroupingFields == 2
+                ? new String[]{EventGenerator.fieldName(0), EventGenerator.fieldName(3)}
+                : new String[]{EventGenerator.fieldName(0), EventGenerator.fieldName(1), EventGenerator.fieldName(2),
+                EventGenerator.fieldName(3)};
+        grouping = new FieldsGroupingAsCustomGrouping(groupingFields);
+        List<Integer> targetTasks = new ArrayList<>(NUM_TASKS);
+        for (int i = 0; i < NUM_TASKS; i++) {
+            targetTasks.add(i + 1);
+        }
+        grouping.prepare(null, new GlobalStreamId("source", EventGenerator.INPUT_STREAM), targetTasks);
+        // storm passes the tuple values, which is the event alone for streamline components
+        values = new ArrayList<>(NUM_EVENTS);
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            values.add(Collections.<Object>singletonList(nextEvent()));
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public List<Integer> chooseTasks() {
+        List<Object> tupleValues = values.get(next);
+        next = (next + 1) % NUM_EVENTS;
+        return grouping.chooseTasks(0, tupleValues);
+    }
+}
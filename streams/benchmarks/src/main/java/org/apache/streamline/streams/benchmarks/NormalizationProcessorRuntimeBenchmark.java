@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.Result;
+import org.apache.streamline.streams.exception.ProcessingException;
+import org.apache.streamline.streams.layout.component.Stream;
+import org.apache.streamline.streams.layout.component.impl.normalization.FieldBasedNormalizationConfig;
+import org.apache.streamline.streams.layout.component.impl.normalization.FieldValueGenerator;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationConfig;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import org.apache.streamline.streams.layout.component.impl.normalization.Transformer;
+import org.apache.streamline.streams.runtime.normalization.NormalizationProcessorRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link NormalizationProcessorRuntime} with a field based normalization which renames {@code f0},
+ * converts {@code f2} with a script, removes {@code f1} and adds a field with a default value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizationProcessorRuntimeBenchmark extends AbstractEventsBenchmark {
+    private NormalizationProcessorRuntime normalizationProcessorRuntime;
+
+    @Setup
+    public void setUp() {
+        generateEvents();
+        normalizationProcessorRuntime = new NormalizationProcessorRuntime(createNormalizationProcessor(generator.getSchema()));
+        normalizationProcessorRuntime.initialize(new HashMap<String, Object>());
+    }
+
+    @TearDown
+    public void tearDown() {
+        normalizationProcessorRuntime.cleanup();
+    }
+
+    @Benchmark
+    public List<Result> process() throws ProcessingException {
+        return normalizationProcessorRuntime.process(nextEvent());
+    }
+
+    private static NormalizationProcessor createNormalizationProcessor(Schema inputSchema) {
+        List<Schema.Field> inputFields = inputSchema.getFields();
+        Schema.Field id = Schema.Field.of("id", Schema.Type.INTEGER);
+        Schema.Field scaled = Schema.Field.of("scaled", Schema.Type.DOUBLE);
+        Schema.Field source = Schema.Field.of("source", Schema.Type.STRING);
+
+        Transformer scaleTransformer = new Transformer(inputFields.get(2), scaled);
+        scaleTransformer.setConverterScript(inputFields.get(2).getName() + " * 2");
+        List<Transformer> transformers = Arrays.asList(new Transformer(inputFields.get(0), id), scaleTransformer);
+        List<String> fieldsToBeFiltered = Collections.singletonList(inputFields.get(1).getName());
+        List<FieldValueGenerator> fieldValueGenerators = Collections.singletonList(
+                new FieldValueGenerator(source, EventGenerator.DATA_SOURCE_ID));
+
+        List<Schema.Field> outputFields = new ArrayList<>();
+        outputFields.add(id);
+        outputFields.add(scaled);
+        outputFields.addAll(inputFields.subList(3, inputFields.size()));
+        outputFields.add(source);
+
+        Map<String, NormalizationConfig> normalizationConfigs = Collections.<String, NormalizationConfig>singletonMap(
+                EventGenerator.INPUT_STREAM,
+                new FieldBasedNormalizationConfig(inputSchema, transformers, fieldsToBeFiltered, fieldValueGenerators));
+        return new NormalizationProcessor(normalizationConfigs,
+                new Stream(EventGenerator.OUTPUT_STREAM, outputFields), NormalizationProcessor.Type.fineGrained);
+    }
+}
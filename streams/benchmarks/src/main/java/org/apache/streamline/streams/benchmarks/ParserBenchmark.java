@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.registries.parser.json.JsonParser;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.runtime.storm.spout.AvroStreamlineEventDecoder;
+import org.apache.streamline.streams.runtime.storm.spout.AvroStreamsSnapshotDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading events from the bytes received by the sources, with {@link JsonParser} and
+ * with the avro conversion of {@link AvroStreamsSnapshotDeserializer}.
+ * <p>
+ * The avro benchmark decodes the records with a {@link GenericDatumReader} and converts them to maps, as the
+ * deserializer did before decoding records directly, and the avroDecoder benchmark decodes them with the
+ * {@link AvroStreamlineEventDecoder} the deserializer now uses, so neither needs a schema registry.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    private static final int NUM_PAYLOADS = 1024;
+
+    @Param({"10", "50", "200"})
+    public int width;
+
+    private final JsonParser jsonParser = new JsonParser();
+    private GenericDatumReader<Object> avroReader;
+    private AvroStreamlineEventDecoder avroDecoder;
+    private byte[][] jsonPayloads;
+    private byte[][] avroPayloads;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        EventGenerator generator = new EventGenerator(width);
+        org.apache.avro.Schema avroSchema = toAvroSchema(generator.getSchema());
+        GenericDatumWriter<GenericRecord> avroWriter = new GenericDatumWriter<>(avroSchema);
+        avroReader = new GenericDatumReader<>(avroSchema);
+        avroDecoder = new AvroStreamlineEventDecoder(avroSchema, avroSchema);
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonPayloads = new byte[NUM_PAYLOADS][];
+        avroPayloads = new byte[NUM_PAYLOADS][];
+        List<StreamlineEventImpl> events = generator.nextEvents(NUM_PAYLOADS);
+        for (int i = 0; i < NUM_PAYLOADS; i++) {
+            StreamlineEventImpl event = events.get(i);
+            jsonPayloads[i] = objectMapper.writeValueAsBytes(event);
+
+            GenericRecord record = new GenericData.Record(avroSchema);
+            for (Map.Entry<String, Object> entry : event.entrySet()) {
+                record.put(entry.getKey(), entry.getValue());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            avroWriter.write(record, encoder);
+            encoder.flush();
+            avroPayloads[i] = out.toByteArray();
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Map<String, Object> json() throws Exception {
+        return jsonParser.parse(jsonPayloads[nextIndex()]);
+    }
+
+    @Benchmark
+    public Map<String, Object> avro() throws IOException {
+        Object record = avroReader.read(null, DecoderFactory.get().binaryDecoder(avroPayloads[nextIndex()], null));
+        return AvroStreamsSnapshotDeserializer.toKeyValues(record);
+    }
+
+    @Benchmark
+    public Map<String, Object> avroDecoder() throws IOException {
+        return avroDecoder.decode(new ByteArrayInputStream(avroPayloads[nextIndex()]), null);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (next + 1) % NUM_PAYLOADS;
+        return index;
+    }
+
+    private static org.apache.avro.Schema toAvroSchema(Schema schema) {
+        StringBuilder fields = new StringBuilder();
+        for (Schema.Field field : schema.getFields()) {
+            if (fields.length() > 0) {
+                fields.append(',');
+            }
+            fields.append("{\"name\":\"").append(field.getName())
+                    .append("\",\"type\":\"").append(toAvroType(field.getType())).append("\"}");
+        }
+        return new org.apache.avro.Schema.Parser().parse(
+                "{\"type\":\"record\",\"name\":\"event\",\"fields\":[" + fields + "]}");
+    }
+
+    private static String toAvroType(Schema.Type type) {
+        switch (type) {
+            case INTEGER:
+                return "int";
+            case LONG:
+                return "long";
+            case DOUBLE:
+                return "double";
+            case STRING:
+                return "string";
+            case BOOLEAN:
+                return "boolean";
+            default:
+                throw new IllegalArgumentException("Unsupported type " + type);
+        }
+    }
+}
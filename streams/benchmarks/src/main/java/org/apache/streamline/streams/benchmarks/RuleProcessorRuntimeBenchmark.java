@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.Result;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.exception.ProcessingException;
+import org.apache.streamline.streams.layout.Transform;
+import org.apache.streamline.streams.layout.component.Stream;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.rule.Rule;
+import org.apache.streamline.streams.layout.component.rule.action.Action;
+import org.apache.streamline.streams.layout.component.rule.action.TransformAction;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link RuleProcessorRuntime} evaluating the rule {@code f0 > 10 AND f2 < 500} for each
+ * script type, which matches about half of the events. The matched events are passed as is to the output stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleProcessorRuntimeBenchmark extends AbstractEventsBenchmark {
+    private static final int BATCH_SIZE = 64;
+
+    @Param({"GROOVY", "SQL", "JAVA"})
+    public String scriptType;
+
+    private RuleProcessorRuntime ruleProcessorRuntime;
+    private List<StreamlineEvent> batch;
+
+    @Setup
+    public void setUp() {
+        generateEvents();
+        batch = new ArrayList<StreamlineEvent>(events.subList(0, BATCH_SIZE));
+        ruleProcessorRuntime = new RuleProcessorRuntime(createRulesProcessor(generator.getSchema()),
+                RuleProcessorRuntime.ScriptType.valueOf(scriptType));
+        ruleProcessorRuntime.initialize(new HashMap<String, Object>());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ruleProcessorRuntime.cleanup();
+    }
+
+    @Benchmark
+    public List<Result> process() throws ProcessingException {
+        return ruleProcessorRuntime.process(nextEvent());
+    }
+
+    @Benchmark
+    public List<List<Result>> processBatch() throws ProcessingException {
+        return ruleProcessorRuntime.processBatch(batch);
+    }
+
+    private static RulesProcessor createRulesProcessor(Schema schema) {
+        RulesProcessor rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId("1");
+        rulesProcessor.setName("rule_processor_1");
+        rulesProcessor.addOutputStream(new Stream(EventGenerator.OUTPUT_STREAM, schema));
+
+        Condition condition = new Condition();
+        condition.setExpression(new BinaryExpression(Operator.AND,
+                new BinaryExpression(Operator.GREATER_THAN,
+                        new FieldExpression(Schema.Field.of(EventGenerator.fieldName(0), Schema.Type.INTEGER)),
+                        new Literal("10")),
+                new BinaryExpression(Operator.LESS_THAN,
+                        new FieldExpression(Schema.Field.of(EventGenerator.fieldName(2), Schema.Type.DOUBLE)),
+                        new Literal("500"))));
+
+        Rule rule = new Rule();
+        rule.setId(1L);
+        rule.setName("rule_1");
+        rule.setDescription("rule_1_desc");
+        rule.setRuleProcessorName(rulesProcessor.getName());
+        rule.setStreams(Collections.singleton(EventGenerator.INPUT_STREAM));
+        rule.setCondition(condition);
+        rule.setActions(Collections.<Action>singletonList(new TransformAction(Collections.<Transform>emptyList(),
+                Collections.singleton(EventGenerator.OUTPUT_STREAM))));
+        rulesProcessor.setRules(Collections.singletonList(rule));
+        return rulesProcessor;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating and copying {@link StreamlineEventImpl}, which is done for every event by the sources
+ * and by most of the processors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamlineEventBenchmark extends AbstractEventsBenchmark {
+    private final Map<String, Object> header = Collections.<String, Object>singletonMap("source", "benchmark");
+    private final Map<String, Object> extraFields = Collections.<String, Object>singletonMap("extra", 1);
+    private FieldIndex fieldIndex;
+
+    @Setup
+    public void setUp() {
+        generateEvents();
+        fieldIndex = FieldIndex.of(generator.getSchema());
+    }
+
+    @Benchmark
+    public StreamlineEvent create() {
+        return new StreamlineEventImpl(nextEvent(), EventGenerator.DATA_SOURCE_ID, header, EventGenerator.INPUT_STREAM);
+    }
+
+    @Benchmark
+    public StreamlineEvent createIndexed() {
+        return new IndexedStreamlineEvent(fieldIndex, nextEvent(), EventGenerator.DATA_SOURCE_ID);
+    }
+
+    @Benchmark
+    public StreamlineEvent copy() {
+        return new StreamlineEventImpl(nextEvent());
+    }
+
+    @Benchmark
+    public StreamlineEvent addFieldsAndValues() {
+        return nextEvent().addFieldsAndValues(extraFields);
+    }
+}
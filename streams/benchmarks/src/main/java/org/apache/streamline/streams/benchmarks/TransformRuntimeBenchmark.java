@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.layout.component.rule.action.transform.ProjectionTransform;
+import org.apache.streamline.streams.layout.component.rule.action.transform.SubstituteTransform;
+import org.apache.streamline.streams.runtime.transform.ProjectionTransformRuntime;
+import org.apache.streamline.streams.runtime.transform.SubstituteTransformRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ProjectionTransformRuntime}, projecting every other field, and {@link SubstituteTransformRuntime},
+ * substituting the variables in all the string fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformRuntimeBenchmark extends AbstractEventsBenchmark {
+    private ProjectionTransformRuntime projectionTransformRuntime;
+    private SubstituteTransformRuntime substituteTransformRuntime;
+
+    @Setup
+    public void setUp() {
+        generateEvents();
+        Set<String> projectionFields = new HashSet<>();
+        List<Schema.Field> fields = generator.getSchema().getFields();
+        for (int i = 0; i < fields.size(); i += 2) {
+            projectionFields.add(fields.get(i).getName());
+        }
+        projectionTransformRuntime = new ProjectionTransformRuntime(new ProjectionTransform("projection", projectionFields));
+        substituteTransformRuntime = new SubstituteTransformRuntime(new SubstituteTransform());
+    }
+
+    @Benchmark
+    public List<StreamlineEvent> projection() {
+        return projectionTransformRuntime.execute(nextEvent());
+    }
+
+    @Benchmark
+    public List<StreamlineEvent> substitute() {
+        return substituteTransformRuntime.execute(nextEvent());
+    }
+}
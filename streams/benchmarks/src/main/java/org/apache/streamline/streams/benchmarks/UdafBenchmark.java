@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.benchmarks;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.UDAF2;
+import org.apache.streamline.streams.udaf.ApproxCountDistinct;
+import org.apache.streamline.streams.udaf.ApproxPercentile;
+import org.apache.streamline.streams.udaf.ApproxTopk;
+import org.apache.streamline.streams.udaf.CollectList;
+import org.apache.streamline.streams.udaf.Mean;
+import org.apache.streamline.streams.udaf.NumberSum;
+import org.apache.streamline.streams.udaf.Stddev;
+import org.apache.streamline.streams.udaf.Stddevp;
+import org.apache.streamline.streams.udaf.Topn;
+import org.apache.streamline.streams.udaf.Variance;
+import org.apache.streamline.streams.udaf.Variancep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the built-in aggregate functions.
+ * <p>
+ * Each invocation aggregates a window of {@link #WINDOW_SIZE} values of a field of the generated events, from
+ * the initial aggregate to the result, and the time is reported per value. The integer field {@code f0} has
+ * 100 distinct values, the double field {@code f2} and the string field {@code f3} have unique values.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(UdafBenchmark.WINDOW_SIZE)
+public class UdafBenchmark {
+    static final int WINDOW_SIZE = 1000;
+    private static final int N = 10;
+    private static final double PERCENTILE = 0.95;
+
+    private final Mean mean = new Mean();
+    private final Stddev stddev = new Stddev();
+    private final Stddevp stddevp = new Stddevp();
+    private final Variance variance = new Variance();
+    private final Variancep variancep = new Variancep();
+    private final NumberSum numberSum = new NumberSum();
+    private final CollectList collectList = new CollectList();
+    private final ApproxCountDistinct approxCountDistinct = new ApproxCountDistinct();
+    private final Topn<Integer> topn = new Topn<>();
+    private final ApproxTopk approxTopk = new ApproxTopk();
+    private final ApproxPercentile approxPercentile = new ApproxPercentile();
+
+    private List<Integer> integers;
+    private List<Double> doubles;
+    private List<String> strings;
+
+    @Setup
+    public void setUp() {
+        integers = new ArrayList<>(WINDOW_SIZE);
+        doubles = new ArrayList<>(WINDOW_SIZE);
+        strings = new ArrayList<>(WINDOW_SIZE);
+        EventGenerator generator = new EventGenerator(5);
+        for (StreamlineEvent event : generator.nextEvents(WINDOW_SIZE)) {
+            integers.add((Integer) event.get(EventGenerator.fieldName(0)));
+            doubles.add((Double) event.get(EventGenerator.fieldName(2)));
+            strings.add((String) event.get(EventGenerator.fieldName(3)));
+        }
+    }
+
+    @Benchmark
+    public Object mean() {
+        return aggregate(mean, doubles);
+    }
+
+    @Benchmark
+    public Object stddev() {
+        return aggregate(stddev, doubles);
+    }
+
+    @Benchmark
+    public Object stddevp() {
+        return aggregate(stddevp, doubles);
+    }
+
+    @Benchmark
+    public Object variance() {
+        return aggregate(variance, doubles);
+    }
+
+    @Benchmark
+    public Object variancep() {
+        return aggregate(variancep, doubles);
+    }
+
+    @Benchmark
+    public Object numberSum() {
+        return aggregate(numberSum, integers);
+    }
+
+    @Benchmark
+    public Object collectList() {
+        return aggregate(collectList, integers);
+    }
+
+    @Benchmark
+    public Object approxCountDistinct() {
+        return aggregate(approxCountDistinct, strings);
+    }
+
+    @Benchmark
+    public Object topn() {
+        return aggregate(topn, N, integers);
+    }
+
+    @Benchmark
+    public Object approxTopk() {
+        return aggregate(approxTopk, N, integers);
+    }
+
+    @Benchmark
+    public Object approxPercentile() {
+        return aggregate(approxPercentile, PERCENTILE, doubles);
+    }
+
+    private static <A, V, R> R aggregate(UDAF<A, ? super V, R> udaf, List<V> values) {
+        A aggregate = udaf.init();
+        for (V value : values) {
+            aggregate = udaf.add(aggregate, value);
+        }
+        return udaf.result(aggregate);
+    }
+
+    private static <A, V1, V2, R> R aggregate(UDAF2<A, V1, ? super V2, R> udaf, V1 arg, List<V2> values) {
+        A aggregate = udaf.init();
+        for (V2 value : values) {
+            aggregate = udaf.add(aggregate, arg, value);
+        }
+        return udaf.result(aggregate);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.common;
+
+import org.apache.streamline.common.Schema;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable mapping of field names to slot positions, typically derived from the top level
+ * fields of a {@link Schema}. Instances are meant to be created once per component and shared by
+ * all the {@link IndexedStreamlineEvent}s it produces.
+ */
+public final class FieldIndex implements Serializable {
+    private final String[] names;
+    // open addressing table, keys[i] holds the name stored at slots[i]
+    private final String[] keys;
+    private final int[] slots;
+    private final int mask;
+    private final long fingerprint;
+
+    private FieldIndex(List<String> fieldNames) {
+        Set<String> uniqueNames = new LinkedHashSet<>();
+        for (String name : fieldNames) {
+            if (name == null) {
+                throw new IllegalArgumentException("Field name can not be null");
+            }
+            uniqueNames.add(name);
+        }
+        this.names = uniqueNames.toArray(new String[uniqueNames.size()]);
+        int capacity = Integer.highestOneBit(Math.max(2, names.length * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < names.length; i++) {
+            int pos = spread(names[i].hashCode()) & mask;
+            while (keys[pos] != null) {
+                pos = (pos + 1) & mask;
+            }
+            keys[pos] = names[i];
+            slots[pos] = i;
+        }
+        this.fingerprint = fingerprint(names);
+    }
+
+    // 64 bit FNV-1a over the field names, stable across JVMs
+    private static long fingerprint(String[] names) {
+        long hash = 0xcbf29ce484222325L;
+        for (String name : names) {
+            for (int i = 0; i < name.length(); i++) {
+                hash ^= name.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a field index from the top level fields of the given schema, in declaration order.
+     */
+    public static FieldIndex of(Schema schema) {
+        List<String> fieldNames = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            fieldNames.add(field.getName());
+        }
+        return new FieldIndex(fieldNames);
+    }
+
+    /**
+     * Creates a field index from the given field names. Duplicate names are ignored.
+     */
+    public static FieldIndex of(List<String> fieldNames) {
+        return new FieldIndex(fieldNames);
+    }
+
+    public static FieldIndex of(String... fieldNames) {
+        return new FieldIndex(Arrays.asList(fieldNames));
+    }
+
+    /**
+     * Returns the slot position of the given field or -1 if the field is not part of this index.
+     */
+    public int indexOf(Object fieldName) {
+        if (!(fieldName instanceof String)) {
+            return -1;
+        }
+        int pos = spread(fieldName.hashCode()) & mask;
+        String key;
+        while ((key = keys[pos]) != null) {
+            if (key == fieldName || key.equals(fieldName)) {
+                return slots[pos];
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the name of the field at the given slot position.
+     */
+    public String nameAt(int slot) {
+        return names[slot];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns a hash of the field names and their order which is the same across processes,
+     * so that the index can be identified without sending the field names.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<String> getFieldNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FieldIndex that = (FieldIndex) o;
+
+        return Arrays.equals(names, that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldIndex{" +
+                "names=" + Arrays.toString(names) +
+                '}';
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.common;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Collections2;
+import org.apache.streamline.streams.StreamlineEvent;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link StreamlineEvent} that keeps the values of the fields known by a {@link FieldIndex} in a
+ * positional array instead of a hash table. Fields which are not part of the index are kept in an
+ * overflow map, so the event can be used wherever a {@code Map<String, Object>} is expected.
+ * <p>
+ * Events derived through {@link #addFieldsAndValues(Map)} and {@link #addHeaders(Map)} share the
+ * underlying storage with this event and copy it only on the first write. Ids are generated from a
+ * per-process prefix and a sequence and are materialized only when {@link #getId()} is called, or
+ * when the event is serialized, so that it keeps its id in other processes.
+ * </p>
+ * Like {@link StreamlineEventImpl}, instances are not thread safe.
+ */
+public class IndexedStreamlineEvent extends AbstractMap<String, Object> implements StreamlineEvent, Serializable {
+    private static final Object ABSENT = new Absent();
+    private static final String ID_PREFIX = UUID.randomUUID().toString();
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final FieldIndex fieldIndex;
+    private final String dataSourceId;
+    private final String sourceStream;
+    private final long sequence;
+    private String id;
+    private Map<String, Object> header;
+    private Object[] values;
+    private Map<String, Object> overflow;
+    private Map<String, Object> auxiliaryFieldsAndValues;
+    private int size;
+    // storage shared with another event, which has to be copied before the first write
+    private boolean valuesShared;
+    private boolean overflowShared;
+    private boolean auxiliaryShared;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Creates an event with the given fieldIndex, keyValues and dataSourceId.
+     */
+    public IndexedStreamlineEvent(FieldIndex fieldIndex, Map<String, Object> keyValues, String dataSourceId) {
+        this(fieldIndex, keyValues, dataSourceId, null, null, DEFAULT_SOURCE_STREAM, null);
+    }
+
+    /**
+     * Creates an event with the given fieldIndex, keyValues, dataSourceId, header and sourceStream.
+     */
+    public IndexedStreamlineEvent(FieldIndex fieldIndex, Map<String, Object> keyValues, String dataSourceId,
+                                  Map<String, Object> header, String sourceStream) {
+        this(fieldIndex, keyValues, dataSourceId, null, header, sourceStream, null);
+    }
+
+    /**
+     * Creates an event with the given fieldIndex, keyValues, dataSourceId, id, header, sourceStream and
+     * auxiliary fields. A new id is generated if the given id is null.
+     */
+    public IndexedStreamlineEvent(FieldIndex fieldIndex, Map<String, Object> keyValues, String dataSourceId, String id,
+                                  Map<String, Object> header, String sourceStream,
+                                  Map<String, Object> auxiliaryFieldsAndValues) {
+        this.fieldIndex = fieldIndex;
+        this.dataSourceId = dataSourceId;
+        this.sourceStream = sourceStream;
+        this.sequence = id == null ? ID_SEQUENCE.incrementAndGet() : -1;
+        this.id = id;
+        this.header = header;
+        this.auxiliaryFieldsAndValues = auxiliaryFieldsAndValues != null ? new HashMap<>(auxiliaryFieldsAndValues) : null;
+        if (keyValues instanceof IndexedStreamlineEvent && fieldIndex.equals(((IndexedStreamlineEvent) keyValues).fieldIndex)) {
+            IndexedStreamlineEvent other = (IndexedStreamlineEvent) keyValues;
+            shareFieldsOf(other);
+        } else {
+            this.values = newValues(fieldIndex.size());
+            if (keyValues != null) {
+                putAll(keyValues);
+            }
+        }
+    }
+
+    private IndexedStreamlineEvent(IndexedStreamlineEvent other, Map<String, Object> header) {
+        this.fieldIndex = other.fieldIndex;
+        this.dataSourceId = other.dataSourceId;
+        this.sourceStream = other.sourceStream;
+        this.sequence = other.sequence;
+        this.id = other.id;
+        this.header = header;
+        shareFieldsOf(other);
+        if (other.auxiliaryFieldsAndValues != null) {
+            this.auxiliaryFieldsAndValues = other.auxiliaryFieldsAndValues;
+            this.auxiliaryShared = other.auxiliaryShared = true;
+        }
+    }
+
+    private void shareFieldsOf(IndexedStreamlineEvent other) {
+        this.values = other.values;
+        this.size = other.size;
+        this.valuesShared = other.valuesShared = true;
+        if (other.overflow != null) {
+            this.overflow = other.overflow;
+            this.overflowShared = other.overflowShared = true;
+        }
+    }
+
+    private static Object[] newValues(int length) {
+        Object[] values = new Object[length];
+        Arrays.fill(values, ABSENT);
+        return values;
+    }
+
+    public FieldIndex getFieldIndex() {
+        return fieldIndex;
+    }
+
+    /**
+     * Returns the value at the given slot of the {@link FieldIndex} or null if the field is not set.
+     */
+    public Object getAt(int slot) {
+        Object value = values[slot];
+        return value == ABSENT ? null : value;
+    }
+
+    /**
+     * Returns true if the field at the given slot of the {@link FieldIndex} is set, possibly to null.
+     */
+    public boolean isSet(int slot) {
+        return values[slot] != ABSENT;
+    }
+
+    /**
+     * Sets the value at the given slot of the {@link FieldIndex} and returns the previous value.
+     */
+    public Object setAt(int slot, Object value) {
+        if (valuesShared) {
+            values = values.clone();
+            valuesShared = false;
+        }
+        Object previous = values[slot];
+        values[slot] = value;
+        if (previous == ABSENT) {
+            size++;
+            return null;
+        }
+        return previous;
+    }
+
+    private Object removeAt(int slot) {
+        Object previous = values[slot];
+        if (previous == ABSENT) {
+            return null;
+        }
+        if (valuesShared) {
+            values = values.clone();
+            valuesShared = false;
+        }
+        values[slot] = ABSENT;
+        size--;
+        return previous;
+    }
+
+    private Map<String, Object> writableOverflow() {
+        if (overflow == null) {
+            overflow = new HashMap<>();
+        } else if (overflowShared) {
+            overflow = new HashMap<>(overflow);
+            overflowShared = false;
+        }
+        return overflow;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = fieldIndex.indexOf(key);
+        if (slot >= 0) {
+            return getAt(slot);
+        }
+        return overflow != null ? overflow.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = fieldIndex.indexOf(key);
+        if (slot >= 0) {
+            return values[slot] != ABSENT;
+        }
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int slot = fieldIndex.indexOf(key);
+        if (slot >= 0) {
+            return setAt(slot, value);
+        }
+        return writableOverflow().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = fieldIndex.indexOf(key);
+        if (slot >= 0) {
+            return removeAt(slot);
+        }
+        return overflow != null && overflow.containsKey(key) ? writableOverflow().remove(key) : null;
+    }
+
+    @Override
+    public void clear() {
+        values = newValues(fieldIndex.size());
+        valuesShared = false;
+        overflow = null;
+        overflowShared = false;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Map<String, Object> getAuxiliaryFieldsAndValues() {
+        if (auxiliaryFieldsAndValues == null) {
+            auxiliaryFieldsAndValues = new HashMap<>();
+        } else if (auxiliaryShared) {
+            auxiliaryFieldsAndValues = new HashMap<>(auxiliaryFieldsAndValues);
+            auxiliaryShared = false;
+        }
+        return auxiliaryFieldsAndValues;
+    }
+
+    @Override
+    public void addAuxiliaryFieldAndValue(String field, Object value) {
+        getAuxiliaryFieldsAndValues().put(field, value);
+    }
+
+    @Override
+    public Map<String, Object> getHeader() {
+        if (header == null) {
+            header = new HashMap<>();
+        }
+        return header;
+    }
+
+    @Override
+    public String getId() {
+        if (id == null) {
+            id = ID_PREFIX + "-" + sequence;
+        }
+        return id;
+    }
+
+    @Override
+    public String getDataSourceId() {
+        String res = dataSourceId;
+        if (res == null && header != null) {
+            Object dataSourceIds = header.get("dataSourceIds");
+            if (dataSourceIds instanceof List) {
+                res = Joiner.on(",").join(Collections2.filter((List) dataSourceIds, new Predicate() {
+                    @Override
+                    public boolean apply(Object input) {
+                        return input != null;
+                    }
+                }));
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public String getSourceStream() {
+        return sourceStream;
+    }
+
+    /**
+     * Returns a new event with the given fieldsAndValues added to the existing fieldsAndValues.
+     * The field storage is shared with this event until one of them is modified.
+     *
+     * @param fieldsAndValues the map of fieldsAndValues to add
+     * @return the new StreamlineEvent
+     */
+    @Override
+    public StreamlineEvent addFieldsAndValues(Map<String, Object> fieldsAndValues) {
+        IndexedStreamlineEvent result = new IndexedStreamlineEvent(this, header);
+        result.putAll(fieldsAndValues);
+        return result;
+    }
+
+    /**
+     * Returns a new event with the given headers added to the existing headers. The header of this
+     * event is left unchanged and the field storage is shared with this event until one of them is modified.
+     *
+     * @param headers the map of fieldsAndValues to add or overwrite
+     * @return the new StreamlineEvent
+     */
+    @Override
+    public StreamlineEvent addHeaders(Map<String, Object> headers) {
+        Map<String, Object> newHeader = header != null ? new HashMap<>(header) : new HashMap<String, Object>();
+        newHeader.putAll(headers);
+        return new IndexedStreamlineEvent(this, newHeader);
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return this.toString().getBytes();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof StreamlineEventWithStream) {
+            o = ((StreamlineEventWithStream) o).getEvent();
+        }
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IndexedStreamlineEvent that = (IndexedStreamlineEvent) o;
+
+        return getId().equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedStreamlineEvent{" +
+                "header=" + header +
+                ", sourceStream='" + sourceStream + '\'' +
+                ", fieldsAndValues=" + super.toString() +
+                ", auxiliaryFieldsAndValues=" + auxiliaryFieldsAndValues +
+                ", dataSourceId='" + dataSourceId + '\'' +
+                ", id='" + getId() + '\'' +
+                '}';
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the prefix and the sequence are only meaningful in this process
+        getId();
+        out.defaultWriteObject();
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return IndexedStreamlineEvent.this.size();
+        }
+
+        @Override
+        public void clear() {
+            IndexedStreamlineEvent.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next = advance(0);
+        private int current = -1;
+        private Map<String, Object> iteratedOverflow;
+        private Iterator<Entry<String, Object>> overflowIterator;
+        private String currentOverflowKey;
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == ABSENT) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            if (overflowIterator == null) {
+                if (overflow == null) {
+                    return false;
+                }
+                iteratedOverflow = overflow;
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < values.length) {
+                current = next;
+                next = advance(next + 1);
+                return new SlotEntry(current);
+            }
+            current = -1;
+            Entry<String, Object> entry = overflowIterator.next();
+            currentOverflowKey = entry.getKey();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (current >= 0) {
+                if (values[current] == ABSENT) {
+                    throw new IllegalStateException();
+                }
+                removeAt(current);
+            } else if (currentOverflowKey != null) {
+                // a shared overflow is copied on the first removal, the iteration continues over the original
+                Map<String, Object> target = writableOverflow();
+                if (target == iteratedOverflow) {
+                    overflowIterator.remove();
+                } else {
+                    target.remove(currentOverflowKey);
+                }
+                currentOverflowKey = null;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final class SlotEntry implements Entry<String, Object> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return fieldIndex.nameAt(slot);
+        }
+
+        @Override
+        public Object getValue() {
+            return getAt(slot);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return setAt(slot, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object value = getValue();
+            return getKey().equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    // marker for unset slots, resolved back to the singleton when deserialized
+    private static final class Absent implements Serializable {
+        private Object readResolve() {
+            return ABSENT;
+        }
+    }
+}
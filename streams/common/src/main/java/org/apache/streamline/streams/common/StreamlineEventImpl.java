@@ -171,6 +171,10 @@ public class StreamlineEventImpl  extends HashMap<String,Object> implements Stre
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
+        // a view rebinding the source stream is equal to the event it wraps
+        if (o instanceof StreamlineEventWithStream) {
+            o = ((StreamlineEventWithStream) o).getEvent();
+        }
         if (o == null || getClass() != o.getClass()) return false;
 
         StreamlineEventImpl that = (StreamlineEventImpl) o;
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.common;
+
+import com.google.common.collect.ForwardingMap;
+import org.apache.streamline.streams.StreamlineEvent;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A view of a {@link StreamlineEvent} bound to a different source stream. All the map operations,
+ * the header, id and data source id are delegated to the underlying event, so rebinding an event to the
+ * stream it was received on does not copy its fields.
+ * <p>
+ * The auxiliary fields are copied from the underlying event the first time they are accessed, so that
+ * actions adding auxiliary fields do not modify the event received from the upstream component.
+ * </p>
+ */
+public class StreamlineEventWithStream extends ForwardingMap<String, Object> implements StreamlineEvent, Serializable {
+    private final StreamlineEvent event;
+    private final String sourceStream;
+    private Map<String, Object> auxiliaryFieldsAndValues;
+
+    private StreamlineEventWithStream(StreamlineEvent event, String sourceStream) {
+        this.event = event;
+        this.sourceStream = sourceStream;
+    }
+
+    /**
+     * Returns a view of the given event with the given source stream. If the event is itself a view
+     * whose auxiliary fields were not touched, the view is created over the underlying event instead.
+     */
+    public static StreamlineEventWithStream of(StreamlineEvent event, String sourceStream) {
+        if (event instanceof StreamlineEventWithStream) {
+            StreamlineEventWithStream other = (StreamlineEventWithStream) event;
+            if (other.auxiliaryFieldsAndValues == null) {
+                return new StreamlineEventWithStream(other.event, sourceStream);
+            }
+        }
+        return new StreamlineEventWithStream(event, sourceStream);
+    }
+
+    @Override
+    protected Map<String, Object> delegate() {
+        return event;
+    }
+
+    /**
+     * The event this view delegates to.
+     */
+    public StreamlineEvent getEvent() {
+        return event;
+    }
+
+    @Override
+    public Map<String, Object> getAuxiliaryFieldsAndValues() {
+        if (auxiliaryFieldsAndValues == null) {
+            Map<String, Object> eventAuxiliaryFieldsAndValues = event.getAuxiliaryFieldsAndValues();
+            auxiliaryFieldsAndValues = eventAuxiliaryFieldsAndValues != null
+                    ? new HashMap<>(eventAuxiliaryFieldsAndValues) : new HashMap<String, Object>();
+        }
+        return auxiliaryFieldsAndValues;
+    }
+
+    @Override
+    public void addAuxiliaryFieldAndValue(String field, Object value) {
+        getAuxiliaryFieldsAndValues().put(field, value);
+    }
+
+    @Override
+    public Map<String, Object> getHeader() {
+        return event.getHeader();
+    }
+
+    @Override
+    public String getId() {
+        return event.getId();
+    }
+
+    @Override
+    public String getDataSourceId() {
+        return event.getDataSourceId();
+    }
+
+    @Override
+    public String getSourceStream() {
+        return sourceStream;
+    }
+
+    @Override
+    public StreamlineEvent addFieldsAndValues(Map<String, Object> fieldsAndValues) {
+        return withAuxiliaryFieldsAndValues(new StreamlineEventWithStream(event.addFieldsAndValues(fieldsAndValues), sourceStream));
+    }
+
+    @Override
+    public StreamlineEvent addHeaders(Map<String, Object> headers) {
+        return withAuxiliaryFieldsAndValues(new StreamlineEventWithStream(event.addHeaders(headers), sourceStream));
+    }
+
+    private StreamlineEventWithStream withAuxiliaryFieldsAndValues(StreamlineEventWithStream result) {
+        if (auxiliaryFieldsAndValues != null) {
+            result.auxiliaryFieldsAndValues = new HashMap<>(auxiliaryFieldsAndValues);
+        }
+        return result;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return event.getBytes();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof StreamlineEventWithStream) {
+            return event.equals(((StreamlineEventWithStream) o).event);
+        }
+        return event.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return event.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamlineEventWithStream{" +
+                "sourceStream='" + sourceStream + '\'' +
+                ", auxiliaryFieldsAndValues=" + auxiliaryFieldsAndValues +
+                ", event=" + event +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package org.apache.streamline.streams.common;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedStreamlineEventTest {
+    private static final FieldIndex FIELD_INDEX = FieldIndex.of(Schema.of(Schema.Field.of("a", Schema.Type.STRING),
+            Schema.Field.of("b", Schema.Type.STRING), Schema.Field.of("c", Schema.Type.INTEGER)));
+
+    private static Map<String, Object> fieldsAndValues() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", "aval");
+        map.put("b", null);
+        map.put("d", "dval");
+        return map;
+    }
+
+    @Test
+    public void testMapContract() throws Exception {
+        Map<String, Object> map = fieldsAndValues();
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, map, "1");
+
+        assertEquals(map, event);
+        assertEquals(event.entrySet(), map.entrySet());
+        assertEquals(3, event.size());
+        assertTrue(event.containsKey("b"));
+        assertFalse(event.containsKey("c"));
+        assertEquals("dval", event.get("d"));
+
+        event.put("c", 10);
+        assertEquals(10, event.getAt(FIELD_INDEX.indexOf("c")));
+        assertEquals(4, event.size());
+        assertEquals("aval", event.remove("a"));
+        assertEquals("dval", event.remove("d"));
+        assertNull(event.remove("a"));
+        assertEquals(2, event.size());
+        assertFalse(event.containsKey("a"));
+
+        Iterator<Map.Entry<String, Object>> it = event.entrySet().iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(event.isEmpty());
+    }
+
+    @Test
+    public void testAddFieldsAndValuesCopyOnWrite() throws Exception {
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1");
+        StreamlineEvent result = event.addFieldsAndValues(Collections.<String, Object>singletonMap("a", "newval"));
+
+        assertEquals("newval", result.get("a"));
+        assertEquals("aval", event.get("a"));
+        assertEquals(event.getId(), result.getId());
+
+        event.put("d", "changed");
+        assertEquals("dval", result.get("d"));
+        result.getAuxiliaryFieldsAndValues().put("x", "y");
+        assertTrue(event.getAuxiliaryFieldsAndValues().isEmpty());
+    }
+
+    @Test
+    public void testAddHeaders() throws Exception {
+        Map<String, Object> header = new HashMap<>();
+        header.put("h1", "v1");
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1", header, "stream");
+        StreamlineEvent result = event.addHeaders(Collections.<String, Object>singletonMap("h2", "v2"));
+
+        assertEquals(2, result.getHeader().size());
+        assertEquals(1, event.getHeader().size());
+        assertEquals(event, result);
+        assertEquals("stream", result.getSourceStream());
+
+        result.put("a", "newval");
+        assertEquals("aval", event.get("a"));
+    }
+
+    @Test
+    public void testGetId() throws Exception {
+        StreamlineEvent event1 = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1");
+        StreamlineEvent event2 = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1");
+        assertNotEquals(event1.getId(), event2.getId());
+        assertNotEquals(event1, event2);
+
+        StreamlineEvent event3 = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1", event1.getId(),
+                null, StreamlineEvent.DEFAULT_SOURCE_STREAM, null);
+        assertEquals(event1, event3);
+        assertEquals(event1.hashCode(), event3.hashCode());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(event);
+        }
+        IndexedStreamlineEvent deserialized;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            deserialized = (IndexedStreamlineEvent) ois.readObject();
+        }
+        assertEquals(event, deserialized);
+        assertEquals(fieldsAndValues(), deserialized);
+        assertFalse(deserialized.containsKey("c"));
+    }
+
+    @Test
+    public void testSerializationMaterializesId() throws Exception {
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "1");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(event);
+        }
+        IndexedStreamlineEvent deserialized;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            deserialized = (IndexedStreamlineEvent) ois.readObject();
+        }
+        // the id is sent with the event instead of being generated again from the prefix of the receiving process
+        Field id = IndexedStreamlineEvent.class.getDeclaredField("id");
+        id.setAccessible(true);
+        assertEquals(event.getId(), id.get(deserialized));
+    }
+}
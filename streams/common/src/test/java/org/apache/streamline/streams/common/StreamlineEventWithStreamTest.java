@@ -0,0 +1,65 @@
+package org.apache.streamline.streams.common;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StreamlineEventWithStreamTest {
+
+    private static StreamlineEvent createEvent() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", "aval");
+        map.put("b", "bval");
+        Map<String, Object> auxiliaryFieldsAndValues = new HashMap<>();
+        auxiliaryFieldsAndValues.put("x", "xval");
+        return new StreamlineEventImpl(map, "1", "id1", new HashMap<String, Object>(), "stream", auxiliaryFieldsAndValues);
+    }
+
+    @Test
+    public void testDelegates() throws Exception {
+        StreamlineEvent event = createEvent();
+        StreamlineEvent eventWithStream = StreamlineEventWithStream.of(event, "other");
+
+        assertEquals("other", eventWithStream.getSourceStream());
+        assertEquals("stream", event.getSourceStream());
+        assertEquals(event, eventWithStream);
+        assertEquals(eventWithStream, event);
+        assertEquals(event.hashCode(), eventWithStream.hashCode());
+        assertEquals("aval", eventWithStream.get("a"));
+        assertEquals("id1", eventWithStream.getId());
+        assertEquals("1", eventWithStream.getDataSourceId());
+        assertSame(event.getHeader(), eventWithStream.getHeader());
+    }
+
+    @Test
+    public void testAuxiliaryFieldsAreNotShared() throws Exception {
+        StreamlineEvent event = createEvent();
+        StreamlineEvent eventWithStream = StreamlineEventWithStream.of(event, "other");
+
+        eventWithStream.addAuxiliaryFieldAndValue("y", "yval");
+        assertEquals(2, eventWithStream.getAuxiliaryFieldsAndValues().size());
+        assertEquals(1, event.getAuxiliaryFieldsAndValues().size());
+
+        StreamlineEvent result = eventWithStream.addFieldsAndValues(Collections.<String, Object>singletonMap("c", "cval"));
+        assertEquals("other", result.getSourceStream());
+        assertEquals("cval", result.get("c"));
+        assertEquals("yval", result.getAuxiliaryFieldsAndValues().get("y"));
+        assertTrue(!event.containsKey("c"));
+    }
+
+    @Test
+    public void testRebindUnwraps() throws Exception {
+        StreamlineEvent event = createEvent();
+        StreamlineEventWithStream eventWithStream = StreamlineEventWithStream.of(StreamlineEventWithStream.of(event, "s1"), "s2");
+
+        assertEquals("s2", eventWithStream.getSourceStream());
+        assertSame(event, eventWithStream.getEvent());
+    }
+}
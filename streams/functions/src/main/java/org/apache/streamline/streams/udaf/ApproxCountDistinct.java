@@ -0,0 +1,31 @@
+package org.apache.streamline.streams.udaf;
+
+import org.apache.streamline.streams.rule.MergeableUDAF;
+
+/**
+ * Approximate count of the distinct values of a group, in constant memory. The estimate is
+ * within about 1.6% of the exact count for most groups.
+ */
+public class ApproxCountDistinct implements MergeableUDAF<HyperLogLog, Object, Long> {
+    private static final int PRECISION = 12;
+
+    @Override
+    public HyperLogLog init() {
+        return new HyperLogLog(PRECISION);
+    }
+
+    @Override
+    public HyperLogLog add(HyperLogLog aggregate, Object val) {
+        return aggregate.add(val);
+    }
+
+    @Override
+    public HyperLogLog merge(HyperLogLog aggregate, HyperLogLog other) {
+        return aggregate.merge(other);
+    }
+
+    @Override
+    public Long result(HyperLogLog aggregate) {
+        return aggregate.cardinality();
+    }
+}
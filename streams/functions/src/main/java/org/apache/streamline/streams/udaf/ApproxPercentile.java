@@ -0,0 +1,51 @@
+package org.apache.streamline.streams.udaf;
+
+import org.apache.streamline.streams.rule.MergeableUDAF2;
+
+import java.io.Serializable;
+
+/**
+ * Approximate percentile of the values of a group, in memory growing with the logarithm of the number
+ * of values. The first argument is the fraction of the percentile, e.g. 0.95 for p95.
+ */
+public class ApproxPercentile implements MergeableUDAF2<ApproxPercentile.Aggregate, Number, Number, Double> {
+    private static final int K = 200;
+
+    public static class Aggregate implements Serializable {
+        private double fraction = 0.5;
+        private final KllSketch sketch = new KllSketch(K);
+
+        public KllSketch getSketch() {
+            return sketch;
+        }
+    }
+
+    @Override
+    public Aggregate init() {
+        return new Aggregate();
+    }
+
+    @Override
+    public Aggregate add(Aggregate aggregate, Number fraction, Number val) {
+        if (fraction.doubleValue() < 0 || fraction.doubleValue() > 1) {
+            throw new IllegalArgumentException("Percentile should be between 0 and 1: " + fraction);
+        }
+        aggregate.fraction = fraction.doubleValue();
+        aggregate.sketch.add(val.doubleValue());
+        return aggregate;
+    }
+
+    @Override
+    public Aggregate merge(Aggregate aggregate, Aggregate other) {
+        if (other.sketch.getCount() > 0) {
+            aggregate.fraction = other.fraction;
+            aggregate.sketch.merge(other.sketch);
+        }
+        return aggregate;
+    }
+
+    @Override
+    public Double result(Aggregate aggregate) {
+        return aggregate.sketch.quantile(aggregate.fraction);
+    }
+}
@@ -0,0 +1,61 @@
+package org.apache.streamline.streams.udaf;
+
+import org.apache.streamline.streams.rule.MergeableUDAF2;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Approximate k most frequent values of a group, in decreasing order of frequency, counting at most
+ * a fixed multiple of k distinct values. The first argument is k.
+ */
+public class ApproxTopk implements MergeableUDAF2<ApproxTopk.Aggregate, Integer, Object, List<Object>> {
+    // the number of values counted for each of the top k values
+    private static final int CAPACITY_FACTOR = 10;
+    private static final int MIN_CAPACITY = 100;
+
+    public static class Aggregate implements Serializable {
+        private int k;
+        private SpaceSaving sketch;
+
+        public SpaceSaving getSketch() {
+            return sketch;
+        }
+    }
+
+    @Override
+    public Aggregate init() {
+        return new Aggregate();
+    }
+
+    @Override
+    public Aggregate add(Aggregate aggregate, Integer k, Object val) {
+        if (k <= 0) {
+            return aggregate;
+        }
+        if (aggregate.sketch == null) {
+            aggregate.k = k;
+            aggregate.sketch = new SpaceSaving(Math.max(MIN_CAPACITY, k * CAPACITY_FACTOR));
+        }
+        aggregate.sketch.add(val);
+        return aggregate;
+    }
+
+    @Override
+    public Aggregate merge(Aggregate aggregate, Aggregate other) {
+        if (other.sketch != null) {
+            if (aggregate.sketch == null) {
+                aggregate.k = other.k;
+                aggregate.sketch = new SpaceSaving(Math.max(MIN_CAPACITY, other.k * CAPACITY_FACTOR));
+            }
+            aggregate.sketch.merge(other.sketch);
+        }
+        return aggregate;
+    }
+
+    @Override
+    public List<Object> result(Aggregate aggregate) {
+        return aggregate.sketch != null ? aggregate.sketch.top(aggregate.k) : Collections.emptyList();
+    }
+}
@@ -1,6 +1,7 @@
 package org.apache.streamline.streams.udaf;
 
-import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,7 +9,8 @@ import java.util.List;
 /**
  * Collects elements within a group and returns the list of aggregated objects
  */
-public class CollectList implements UDAF<List<Object>, Object, List<Object>> {
+public class CollectList implements MergeableUDAF<List<Object>, Object, List<Object>>,
+        RetractableUDAF<List<Object>, Object, List<Object>> {
     @Override
     public List<Object> init() {
         return new ArrayList<>();
@@ -20,8 +22,24 @@ public class CollectList implements UDAF<List<Object>, Object, List<Object>> {
         return aggregate;
     }
 
+    /**
+     * Removes the first occurrence of the value, values are expected to be removed in the order they were added.
+     */
     @Override
-    public List<Object> result(List<Object> aggregate) {
+    public List<Object> retract(List<Object> aggregate, Object val) {
+        aggregate.remove(val);
+        return aggregate;
+    }
+
+    @Override
+    public List<Object> merge(List<Object> aggregate, List<Object> other) {
+        aggregate.addAll(other);
         return aggregate;
     }
+
+    @Override
+    public List<Object> result(List<Object> aggregate) {
+        // the aggregate keeps changing after the result is emitted
+        return new ArrayList<>(aggregate);
+    }
 }
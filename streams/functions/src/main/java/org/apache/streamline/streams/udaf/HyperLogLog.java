@@ -0,0 +1,135 @@
+package org.apache.streamline.streams.udaf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct values using the HyperLogLog algorithm of Flajolet et al.,
+ * with linear counting for small cardinalities. With a precision of p the sketch uses 2^p bytes
+ * and the relative standard error of the estimate is about 1.04 / sqrt(2^p).
+ */
+public class HyperLogLog implements Serializable {
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision should be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public HyperLogLog add(Object value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // the position of the first set bit in the remaining bits, at most 64 - precision + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+        return this;
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /*
+     * Integral numbers hash the same regardless of their type, like floating point numbers.
+     */
+    static long hash(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()) ^ 0x9E3779B97F4A7C15L);
+        }
+        byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        // FNV-1a, mixed since its low bits are weak
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // the finalizer of MurmurHash3
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(registers.length + 1);
+        bytes.write(precision);
+        bytes.write(registers, 0, registers.length);
+        return bytes.toByteArray();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog hyperLogLog = new HyperLogLog(bytes[0]);
+        if (bytes.length != hyperLogLog.registers.length + 1) {
+            throw new IllegalArgumentException("Invalid HyperLogLog of " + bytes.length + " bytes");
+        }
+        System.arraycopy(bytes, 1, hyperLogLog.registers, 0, hyperLogLog.registers.length);
+        return hyperLogLog;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HyperLogLog that = (HyperLogLog) o;
+        return precision == that.precision && Arrays.equals(registers, that.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * precision + Arrays.hashCode(registers);
+    }
+}
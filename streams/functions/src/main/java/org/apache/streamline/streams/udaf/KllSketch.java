@@ -0,0 +1,198 @@
+package org.apache.streamline.streams.udaf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estimates the quantiles of a stream of values using the KLL sketch of Karnin, Lang and Liberty.
+ * The values are kept in compactors of increasing weight; when the sketch is full the values of
+ * a compactor are sorted and every other value is promoted to the next compactor. The memory used
+ * grows with the logarithm of the number of values, the rank error of a quantile is about 1.7 / k.
+ */
+public class KllSketch implements Serializable {
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private long count;
+    private double[][] compactors = new double[0][];
+    private int[] sizes = new int[0];
+    private int size;
+    private int maxSize;
+
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k should be at least 8: " + k);
+        }
+        this.k = k;
+        grow();
+    }
+
+    public KllSketch add(double value) {
+        append(0, value);
+        ++size;
+        ++count;
+        if (size >= maxSize) {
+            compress();
+        }
+        return this;
+    }
+
+    public KllSketch merge(KllSketch other) {
+        while (compactors.length < other.compactors.length) {
+            grow();
+        }
+        for (int level = 0; level < other.compactors.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.compactors[level][i]);
+            }
+        }
+        size += other.size;
+        count += other.count;
+        while (size >= maxSize) {
+            compress();
+        }
+        return this;
+    }
+
+    /**
+     * Returns an estimate of the value at the given fraction of the sorted values, or null if
+     * there are no values.
+     */
+    public Double quantile(double fraction) {
+        if (count == 0) {
+            return null;
+        }
+        double[] values = new double[size];
+        long[] weights = new long[size];
+        int n = 0;
+        for (int level = 0; level < compactors.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                values[n] = compactors[level][i];
+                weights[n++] = 1L << level;
+            }
+        }
+        Integer[] order = new Integer[n];
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            totalWeight += weights[i];
+        }
+        Arrays.sort(order, (i, j) -> Double.compare(values[i], values[j]));
+        double rank = fraction * totalWeight;
+        long cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= rank) {
+                return values[i];
+            }
+        }
+        return values[order[n - 1]];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private int capacity(int level) {
+        int depth = compactors.length - level - 1;
+        return (int) Math.ceil(Math.pow(CAPACITY_DECAY, depth) * k) + 1;
+    }
+
+    private void grow() {
+        int levels = compactors.length + 1;
+        compactors = Arrays.copyOf(compactors, levels);
+        sizes = Arrays.copyOf(sizes, levels);
+        compactors[levels - 1] = new double[8];
+        maxSize = 0;
+        for (int level = 0; level < levels; level++) {
+            maxSize += capacity(level);
+        }
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == compactors[level].length) {
+            compactors[level] = Arrays.copyOf(compactors[level], sizes[level] * 2);
+        }
+        compactors[level][sizes[level]++] = value;
+    }
+
+    // compacts the lowest full compactor, promoting half of its values to the next compactor
+    private void compress() {
+        for (int level = 0; level < compactors.length; level++) {
+            if (sizes[level] >= capacity(level)) {
+                if (level + 1 >= compactors.length) {
+                    grow();
+                }
+                double[] values = compactors[level];
+                int n = sizes[level];
+                Arrays.sort(values, 0, n);
+                // an odd value out stays in the compactor
+                int compacted = n & ~1;
+                int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+                for (int i = offset; i < compacted; i += 2) {
+                    append(level + 1, values[i]);
+                }
+                if ((n & 1) == 1) {
+                    values[0] = values[n - 1];
+                    sizes[level] = 1;
+                } else {
+                    sizes[level] = 0;
+                }
+                size -= compacted / 2;
+                if (size < maxSize) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(k);
+            out.writeLong(count);
+            out.writeInt(compactors.length);
+            for (int level = 0; level < compactors.length; level++) {
+                out.writeInt(sizes[level]);
+                for (int i = 0; i < sizes[level]; i++) {
+                    out.writeDouble(compactors[level][i]);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static KllSketch fromBytes(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            KllSketch sketch = new KllSketch(in.readInt());
+            long count = in.readLong();
+            int levels = in.readInt();
+            while (sketch.compactors.length < levels) {
+                sketch.grow();
+            }
+            for (int level = 0; level < levels; level++) {
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    sketch.append(level, in.readDouble());
+                }
+                sketch.size += n;
+            }
+            sketch.count = count;
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid KLL sketch", e);
+        }
+    }
+}
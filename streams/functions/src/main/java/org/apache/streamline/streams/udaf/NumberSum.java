@@ -1,8 +1,16 @@
 package org.apache.streamline.streams.udaf;
 
-import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class NumberSum implements MergeableUDAF<Number, Number, Number>, RetractableUDAF<Number, Number, Number> {
+    // the result has the type of the widest value
+    private static final List<Class<? extends Number>> TYPES = Arrays.<Class<? extends Number>>asList(
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
 
-public class NumberSum implements UDAF<Number, Number, Number> {
     @Override
     public Number init() {
         return 0;
@@ -26,6 +34,30 @@ public class NumberSum implements UDAF<Number, Number, Number> {
         throw new IllegalArgumentException("Value type " + val.getClass());
     }
 
+    @Override
+    public Number retract(Number aggregate, Number val) {
+        if (val instanceof Byte) {
+            return (byte) (aggregate.byteValue() - val.byteValue());
+        } else if (val instanceof Short) {
+            return (short) (aggregate.shortValue() - val.shortValue());
+        } else if (val instanceof Integer) {
+            return aggregate.intValue() - val.intValue();
+        } else if (val instanceof Long) {
+            return aggregate.longValue() - val.longValue();
+        } else if (val instanceof Float) {
+            return aggregate.floatValue() - val.floatValue();
+        } else if (val instanceof Double) {
+            return aggregate.doubleValue() - val.doubleValue();
+        }
+        throw new IllegalArgumentException("Value type " + val.getClass());
+    }
+
+    @Override
+    public Number merge(Number aggregate, Number other) {
+        return TYPES.indexOf(other.getClass()) >= TYPES.indexOf(aggregate.getClass())
+                ? add(aggregate, other) : add(other, aggregate);
+    }
+
     @Override
     public Number result(Number aggregate) {
         return aggregate;
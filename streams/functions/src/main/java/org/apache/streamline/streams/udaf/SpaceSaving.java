@@ -0,0 +1,148 @@
+package org.apache.streamline.streams.udaf;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds the most frequent values of a stream using the Space-Saving algorithm of Metwally et al.
+ * At most {@code capacity} values are counted; a new value replaces the value with the lowest count
+ * and inherits its count, which becomes the error of the new value. Every value occurring more than
+ * count / capacity times is guaranteed to be counted.
+ * <p>
+ * Two sketches are merged by adding the counts of their values, a value missing from a full sketch
+ * counting as the minimum count of that sketch, and keeping the values with the highest counts.
+ * </p>
+ */
+public class SpaceSaving implements Serializable {
+    private final int capacity;
+    private final Map<Object, Counter> counters = new HashMap<>();
+    // the values by count, to find the value with the lowest count
+    private final TreeMap<Long, Set<Object>> buckets = new TreeMap<>();
+
+    private static class Counter implements Serializable {
+        private long count;
+        private long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public SpaceSaving add(Object value) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            increment(value, counter, 1);
+        } else if (counters.size() < capacity) {
+            put(value, new Counter(1, 0));
+        } else {
+            Map.Entry<Long, Set<Object>> lowest = buckets.firstEntry();
+            Iterator<Object> iterator = lowest.getValue().iterator();
+            Object evicted = iterator.next();
+            iterator.remove();
+            if (lowest.getValue().isEmpty()) {
+                buckets.remove(lowest.getKey());
+            }
+            counters.remove(evicted);
+            put(value, new Counter(lowest.getKey() + 1, lowest.getKey()));
+        }
+        return this;
+    }
+
+    public SpaceSaving merge(SpaceSaving other) {
+        long minCount = minCount();
+        long otherMinCount = other.minCount();
+        Map<Object, Counter> merged = new HashMap<>();
+        for (Map.Entry<Object, Counter> entry : counters.entrySet()) {
+            Counter otherCounter = other.counters.get(entry.getKey());
+            merged.put(entry.getKey(), otherCounter != null
+                    ? new Counter(entry.getValue().count + otherCounter.count, entry.getValue().error + otherCounter.error)
+                    : new Counter(entry.getValue().count + otherMinCount, entry.getValue().error + otherMinCount));
+        }
+        for (Map.Entry<Object, Counter> entry : other.counters.entrySet()) {
+            if (!counters.containsKey(entry.getKey())) {
+                merged.put(entry.getKey(), new Counter(entry.getValue().count + minCount, entry.getValue().error + minCount));
+            }
+        }
+        List<Map.Entry<Object, Counter>> entries = new ArrayList<>(merged.entrySet());
+        entries.sort((e1, e2) -> Long.compare(e2.getValue().count, e1.getValue().count));
+        counters.clear();
+        buckets.clear();
+        for (Map.Entry<Object, Counter> entry : entries.subList(0, Math.min(capacity, entries.size()))) {
+            put(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the values with the highest estimated counts, in decreasing order of count.
+     */
+    public List<Object> top(int k) {
+        List<Object> top = new ArrayList<>(Math.min(k, counters.size()));
+        for (Set<Object> values : buckets.descendingMap().values()) {
+            for (Object value : values) {
+                if (top.size() == k) {
+                    return top;
+                }
+                top.add(value);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Returns the estimated count of a value, which can exceed its actual count by at most its error.
+     */
+    public long count(Object value) {
+        Counter counter = counters.get(value);
+        return counter != null ? counter.count : minCount();
+    }
+
+    public long error(Object value) {
+        Counter counter = counters.get(value);
+        return counter != null ? counter.error : minCount();
+    }
+
+    // the count of a value which is not counted is at most the lowest count if the sketch is full
+    private long minCount() {
+        return counters.size() < capacity || buckets.isEmpty() ? 0 : buckets.firstKey();
+    }
+
+    private void put(Object value, Counter counter) {
+        counters.put(value, counter);
+        bucket(counter.count).add(value);
+    }
+
+    private void increment(Object value, Counter counter, long delta) {
+        Set<Object> bucket = buckets.get(counter.count);
+        bucket.remove(value);
+        if (bucket.isEmpty()) {
+            buckets.remove(counter.count);
+        }
+        counter.count += delta;
+        bucket(counter.count).add(value);
+    }
+
+    private Set<Object> bucket(long count) {
+        Set<Object> bucket = buckets.get(count);
+        if (bucket == null) {
+            bucket = new LinkedHashSet<>();
+            buckets.put(count, bucket);
+        }
+        return bucket;
+    }
+}
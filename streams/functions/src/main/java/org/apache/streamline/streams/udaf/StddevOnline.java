@@ -3,6 +3,8 @@ package org.apache.streamline.streams.udaf;
 /**
  * Computes online variance and stddev of values using
  * B.P. Welford's algorithm described in Knuth's TAOCP Vol2. p232, 3rd edition.
+ * Values are removed by inverting the update, and aggregates are merged using
+ * the pairwise update of Chan, Golub and LeVeque.
  */
 public class StddevOnline {
     private int n;
@@ -17,6 +19,36 @@ public class StddevOnline {
         return this;
     }
 
+    StddevOnline retract(Number val) {
+        if (n <= 1) {
+            n = 0;
+            mean = 0;
+            aggregate = 0;
+            return this;
+        }
+        double prevMean = (n * mean - val.doubleValue()) / (n - 1);
+        aggregate -= (val.doubleValue() - prevMean) * (val.doubleValue() - mean);
+        mean = prevMean;
+        --n;
+        // rounding errors can make the sum of squares slightly negative
+        if (aggregate < 0) {
+            aggregate = 0;
+        }
+        return this;
+    }
+
+    StddevOnline merge(StddevOnline other) {
+        if (other.n == 0) {
+            return this;
+        }
+        int total = n + other.n;
+        double delta = other.mean - mean;
+        aggregate += other.aggregate + delta * delta * n * other.n / total;
+        mean += delta * other.n / total;
+        n = total;
+        return this;
+    }
+
     double stddevp() {
         return Math.sqrt(variancep());
     }
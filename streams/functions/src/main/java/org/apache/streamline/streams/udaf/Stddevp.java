@@ -1,11 +1,13 @@
 package org.apache.streamline.streams.udaf;
 
-import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF;
 
 /**
  * Population stddev
  */
-public class Stddevp implements UDAF<StddevOnline, Number, Double> {
+public class Stddevp implements MergeableUDAF<StddevOnline, Number, Double>,
+        RetractableUDAF<StddevOnline, Number, Double> {
     @Override
     public StddevOnline init() {
         return new StddevOnline();
@@ -16,6 +18,16 @@ public class Stddevp implements UDAF<StddevOnline, Number, Double> {
         return aggregate.add(val);
     }
 
+    @Override
+    public StddevOnline retract(StddevOnline aggregate, Number val) {
+        return aggregate.retract(val);
+    }
+
+    @Override
+    public StddevOnline merge(StddevOnline aggregate, StddevOnline other) {
+        return aggregate.merge(other);
+    }
+
     @Override
     public Double result(StddevOnline aggregate) {
         return aggregate.stddevp();
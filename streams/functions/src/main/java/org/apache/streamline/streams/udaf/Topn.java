@@ -1,6 +1,6 @@
 package org.apache.streamline.streams.udaf;
 
-import org.apache.streamline.streams.rule.UDAF2;
+import org.apache.streamline.streams.rule.MergeableUDAF2;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -8,12 +8,13 @@ import java.util.List;
 import java.util.PriorityQueue;
 
 /**
- * Computes streaming top n values of a group of values
+ * Computes streaming top n values of a group of values. The values can not be removed since only the
+ * top n values are kept, but the top n values of parts of a group can be merged.
  */
-public class Topn<T extends Comparable<T>> implements UDAF2<PriorityQueue<T>, Integer, T, List<T>> {
+public class Topn<T extends Comparable<T>> implements MergeableUDAF2<PriorityQueue<T>, Integer, T, List<T>> {
     @Override
     public PriorityQueue<T> init() {
-        return new PriorityQueue<>();
+        return new TopnQueue<>();
     }
 
     @Override
@@ -21,6 +22,9 @@ public class Topn<T extends Comparable<T>> implements UDAF2<PriorityQueue<T>, In
         if (n <= 0) {
             return aggregate;
         }
+        if (aggregate instanceof TopnQueue) {
+            ((TopnQueue<T>) aggregate).n = n;
+        }
         if (aggregate.size() >= n) {
             if (val.compareTo(aggregate.peek()) > 0) {
                 aggregate.remove();
@@ -33,10 +37,30 @@ public class Topn<T extends Comparable<T>> implements UDAF2<PriorityQueue<T>, In
 
     }
 
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> aggregate, PriorityQueue<T> other) {
+        int n = Math.max(limit(aggregate), limit(other));
+        for (T val : other) {
+            add(aggregate, n, val);
+        }
+        return aggregate;
+    }
+
+    private int limit(PriorityQueue<T> aggregate) {
+        return aggregate instanceof TopnQueue ? ((TopnQueue<T>) aggregate).n : aggregate.size();
+    }
+
     @Override
     public List<T> result(PriorityQueue<T> aggregate) {
         List<T> res = new ArrayList<>(aggregate);
         Collections.reverse(res);
         return res;
     }
+
+    /*
+     * Remembers n, which is needed to merge queues holding less than n values.
+     */
+    private static class TopnQueue<T> extends PriorityQueue<T> {
+        private int n;
+    }
 }
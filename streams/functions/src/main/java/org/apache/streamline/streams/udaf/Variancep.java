@@ -1,8 +1,10 @@
 package org.apache.streamline.streams.udaf;
 
-import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF;
 
-public class Variancep implements UDAF<StddevOnline, Number, Double> {
+public class Variancep implements MergeableUDAF<StddevOnline, Number, Double>,
+        RetractableUDAF<StddevOnline, Number, Double> {
     @Override
     public StddevOnline init() {
         return new StddevOnline();
@@ -13,6 +15,16 @@ public class Variancep implements UDAF<StddevOnline, Number, Double> {
         return aggregate.add(val);
     }
 
+    @Override
+    public StddevOnline retract(StddevOnline aggregate, Number val) {
+        return aggregate.retract(val);
+    }
+
+    @Override
+    public StddevOnline merge(StddevOnline aggregate, StddevOnline other) {
+        return aggregate.merge(other);
+    }
+
     @Override
     public Double result(StddevOnline aggregate) {
         return aggregate.variancep();
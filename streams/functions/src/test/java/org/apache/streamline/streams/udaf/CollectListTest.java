@@ -0,0 +1,21 @@
+package org.apache.streamline.streams.udaf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CollectListTest {
+    @Test
+    public void testResultNotChangedByLaterValues() {
+        CollectList collectList = new CollectList();
+        List<Object> aggregate = collectList.add(collectList.add(collectList.init(), 1), 2);
+        List<Object> result = collectList.result(aggregate);
+        aggregate = collectList.retract(collectList.add(aggregate, 3), 1);
+        Assert.assertEquals(Arrays.<Object>asList(1, 2), result);
+        Assert.assertEquals(Arrays.<Object>asList(2, 3), collectList.result(aggregate));
+        Assert.assertEquals(Arrays.<Object>asList(2, 3, 4),
+                collectList.result(collectList.merge(aggregate, collectList.add(collectList.init(), 4))));
+    }
+}
@@ -21,6 +21,19 @@ public class NumberSumTest {
         test(longArr, Long.class);
     }
 
+    @Test
+    public void testMergeAndRetract() {
+        NumberSum sum = new NumberSum();
+        Number ints = sum.add(sum.add(sum.init(), 1), 2);
+        Number longs = sum.add(sum.init(), 4L);
+        Number merged = sum.merge(longs, ints);
+        Assert.assertEquals(Long.class, merged.getClass());
+        Assert.assertEquals(7L, merged);
+        Assert.assertEquals(7L, sum.merge(sum.add(sum.init(), 1), sum.merge(sum.add(sum.init(), 2), longs)));
+        Assert.assertEquals(3L, sum.retract(merged, 4L));
+        Assert.assertEquals(2.5, sum.retract(sum.add(sum.add(sum.init(), 1.5), 2.5), 1.5));
+    }
+
     void test(Number[] arr, Class<? extends Number> clazz) {
         NumberSum sum = new NumberSum();
         Number agg = sum.init();
@@ -0,0 +1,87 @@
+package org.apache.streamline.streams.udaf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class SketchTest {
+    @Test
+    public void testApproxCountDistinct() throws Exception {
+        ApproxCountDistinct countDistinct = new ApproxCountDistinct();
+        HyperLogLog first = countDistinct.init();
+        HyperLogLog second = countDistinct.init();
+        for (int i = 0; i < 100000; i++) {
+            first = countDistinct.add(first, "device-" + (i % 30000));
+            second = countDistinct.add(second, (long) (i % 50000) + 20000);
+        }
+        Assert.assertEquals(30000, countDistinct.result(first), 30000 * 0.05);
+        Assert.assertEquals(50000, countDistinct.result(second), 50000 * 0.05);
+        HyperLogLog merged = countDistinct.merge(countDistinct.merge(countDistinct.init(), first), second);
+        Assert.assertEquals(80000, countDistinct.result(merged), 80000 * 0.05);
+        // small cardinalities are exact in practice, integers hash alike regardless of their type
+        HyperLogLog small = countDistinct.init();
+        for (Object value : Arrays.asList(1, 1L, 2, "a", "b", "a", 2.5)) {
+            small = countDistinct.add(small, value);
+        }
+        Assert.assertEquals(5L, (long) countDistinct.result(small));
+        Assert.assertEquals(merged, HyperLogLog.fromBytes(merged.toBytes()));
+    }
+
+    @Test
+    public void testApproxPercentile() throws Exception {
+        ApproxPercentile percentile = new ApproxPercentile();
+        Random random = new Random(11);
+        List<Double> values = new ArrayList<>();
+        ApproxPercentile.Aggregate first = percentile.init();
+        ApproxPercentile.Aggregate second = percentile.init();
+        for (int i = 0; i < 200000; i++) {
+            double latency = Math.exp(random.nextGaussian());
+            values.add(latency);
+            if (i % 3 == 0) {
+                first = percentile.add(first, 0.95, latency);
+            } else {
+                second = percentile.add(second, 0.95, latency);
+            }
+        }
+        Collections.sort(values);
+        ApproxPercentile.Aggregate merged = percentile.merge(percentile.merge(percentile.init(), first), second);
+        Assert.assertEquals(200000, merged.getSketch().getCount());
+        for (double fraction : new double[]{0.5, 0.95, 0.99}) {
+            double estimate = merged.getSketch().quantile(fraction);
+            int rank = Collections.binarySearch(values, estimate);
+            Assert.assertEquals(fraction, rank / (double) values.size(), 0.01);
+        }
+        Assert.assertEquals(merged.getSketch().quantile(0.95), percentile.result(merged));
+        KllSketch copy = KllSketch.fromBytes(merged.getSketch().toBytes());
+        Assert.assertEquals(merged.getSketch().getCount(), copy.getCount());
+        Assert.assertEquals(merged.getSketch().quantile(0.99), copy.quantile(0.99));
+        Assert.assertNull(percentile.result(percentile.init()));
+    }
+
+    @Test
+    public void testApproxTopk() throws Exception {
+        ApproxTopk topk = new ApproxTopk();
+        Random random = new Random(5);
+        ApproxTopk.Aggregate first = topk.init();
+        ApproxTopk.Aggregate second = topk.init();
+        for (int i = 0; i < 100000; i++) {
+            // the values 0 to 2 are frequent, the others are noise
+            Object value = i % 4 != 0 ? "hot-" + (i % 4) : "cold-" + random.nextInt(100000);
+            if (random.nextBoolean()) {
+                first = topk.add(first, 3, value);
+            } else {
+                second = topk.add(second, 3, value);
+            }
+        }
+        ApproxTopk.Aggregate merged = topk.merge(topk.merge(topk.init(), first), second);
+        List<Object> result = new ArrayList<>(topk.result(merged));
+        Collections.sort((List) result);
+        Assert.assertEquals(Arrays.asList("hot-1", "hot-2", "hot-3"), result);
+        Assert.assertTrue(topk.result(topk.init()).isEmpty());
+    }
+}
@@ -38,4 +38,36 @@ public class StddevpTest {
         Assert.assertEquals(sqsum / (arr.length - 1), variance.result(varianceAgg), .0001);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMergeAndRetract() throws Exception {
+        Variance variance = new Variance();
+        Mean mean = new Mean();
+        double arr[] = {1, 2, 2, 3, 3, 4, 5, 8, 13};
+        StddevOnline all = variance.init();
+        StddevOnline head = variance.init();
+        StddevOnline tail = variance.init();
+        StddevOnline expired = variance.init();
+        for (int i = 0; i < arr.length; i++) {
+            all = variance.add(all, arr[i]);
+            if (i < 4) {
+                head = variance.add(head, arr[i]);
+            } else {
+                tail = variance.add(tail, arr[i]);
+                expired = variance.add(expired, arr[i]);
+            }
+        }
+        StddevOnline merged = variance.merge(variance.merge(variance.init(), head), tail);
+        Assert.assertEquals(variance.result(all), variance.result(merged), .0001);
+        Assert.assertEquals(mean.result(all), mean.result(merged), .0001);
+        for (int i = 0; i < 4; i++) {
+            all = variance.retract(all, arr[i]);
+        }
+        Assert.assertEquals(variance.result(tail), variance.result(all), .0001);
+        Assert.assertEquals(mean.result(tail), mean.result(all), .0001);
+        for (int i = 4; i < arr.length; i++) {
+            expired = mean.retract(expired, arr[i]);
+        }
+        expired = mean.add(expired, 6);
+        Assert.assertEquals(6, mean.result(expired), .0001);
+    }
+}
@@ -0,0 +1,32 @@
+package org.apache.streamline.streams.udaf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class TopnTest {
+    @Test
+    public void testMerge() throws Exception {
+        Topn<Integer> topn = new Topn<>();
+        PriorityQueue<Integer> first = topn.init();
+        PriorityQueue<Integer> second = topn.init();
+        for (int val : new int[]{5, 1, 9}) {
+            first = topn.add(first, 4, val);
+        }
+        for (int val : new int[]{7, 3, 8}) {
+            second = topn.add(second, 4, val);
+        }
+        PriorityQueue<Integer> merged = topn.merge(topn.merge(topn.init(), first), second);
+        List<Integer> result = new ArrayList<>(topn.result(merged));
+        Collections.sort(result);
+        Assert.assertEquals(Arrays.asList(5, 7, 8, 9), result);
+        // the merged aggregates are not modified
+        Assert.assertEquals(3, first.size());
+        Assert.assertEquals(3, second.size());
+    }
+}
@@ -131,8 +131,6 @@ public final class TopologyLayoutConstants {
     public static final String JSON_KEY_CLUSTERS = "clusters";
     public static final String JSON_KEY_SERVICES = "services";
 
-    public static final String JAVA_JAR_COMMAND = "javaJarCommand";
-
     // validation error messages
     public final static String ERR_MSG_UINAME_DUP = "Uiname %s is already " +
             "used by other component.";
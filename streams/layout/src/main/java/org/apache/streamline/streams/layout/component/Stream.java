@@ -40,7 +40,11 @@ public class Stream implements Serializable {
         /**
          * Fields grouping
          */
-        FIELDS
+        FIELDS,
+        /**
+         * Fields grouping over a fixed number of key groups, assigned to the tasks by consistent hashing
+         */
+        KEY_GROUPS
     }
 
     private Stream() {
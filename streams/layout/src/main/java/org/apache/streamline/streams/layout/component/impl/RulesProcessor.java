@@ -41,6 +41,11 @@ public class RulesProcessor extends StreamlineProcessor {     //TODO: Rename to
 
     public static final String CONFIG_KEY_RULES = "rules";
     public static final String CONFIG_PROCESS_ALL = "processAll";
+    public static final String CONFIG_KEY_BATCH_SIZE = "batchSize";
+    public static final String CONFIG_KEY_BATCH_LINGER_MS = "batchLingerMs";
+    public static final String CONFIG_KEY_SCRIPT_TYPE = "scriptType";
+    public static final String CONFIG_KEY_SPILL_DIRECTORY = "spillDirectory";
+    public static final String CONFIG_KEY_HEAP_PANES = "heapPanes";
     private List<Rule> rules;
     private boolean processAll = true;
 
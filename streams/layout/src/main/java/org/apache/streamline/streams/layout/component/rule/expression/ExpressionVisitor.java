@@ -3,7 +3,7 @@ package org.apache.streamline.streams.layout.component.rule.expression;
 /**
  * For visiting the Condition expression tree.
  */
-interface ExpressionVisitor {
+public interface ExpressionVisitor {
     void visit(BinaryExpression binaryExpression);
     void visit(FieldExpression fieldExpression);
     void visit(ArrayFieldExpression arrayFieldExpression);
@@ -0,0 +1,10 @@
+package org.apache.streamline.streams.notification.service;
+
+/**
+ * The dispatch queue of a notifier is full and the notification was not enqueued.
+ */
+public class NotificationQueueFullException extends NotificationServiceException {
+    public NotificationQueueFullException(String message) {
+        super(message);
+    }
+}
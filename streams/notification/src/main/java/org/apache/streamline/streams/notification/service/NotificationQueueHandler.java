@@ -23,29 +23,75 @@ import org.apache.streamline.streams.notification.Notifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Asynchronously delivers notifications to notifiers.
+ * <p>
+ * Each notifier has its own dispatch queue holding at most {@code capacity} notifications which are not yet
+ * acked or finally failed, so that a slow notifier cannot exhaust the heap. When the queue is full the
+ * {@link OverflowPolicy} decides whether {@link #enqueue(Notifier, Notification)} blocks the caller or
+ * rejects the notification. At most {@code notifierConcurrency} notifications of a notifier are delivered
+ * at a time, so that one notifier cannot occupy all the threads. Failed notifications are re-delivered
+ * after an exponential backoff with jitter.
+ * </p>
  */
 public class NotificationQueueHandler {
     private static final Logger LOG = LoggerFactory.getLogger(NotificationQueueHandler.class);
     private static final int MAX_THREADS = 10;
+    private static final int DEFAULT_CAPACITY = 1000;
+    static final long DEFAULT_INITIAL_BACKOFF_MS = 500;
+    static final long DEFAULT_MAX_BACKOFF_MS = 30000;
+
+    /**
+     * What to do when the dispatch queue of a notifier is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the caller until a notification of the notifier is acked or finally failed.
+         */
+        BLOCK,
+        /**
+         * Throw a {@link NotificationQueueFullException}.
+         */
+        REJECT
+    }
+
     /**
      * Track the tasks so that it can be re-submitted in case of retry.
      */
     private final ConcurrentHashMap<String, NotificationQueueTask> taskMap;
+    private final Map<Notifier, DispatchQueue> dispatchQueues;
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService retryExecutorService;
+    private int capacity = DEFAULT_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private int notifierConcurrency;
+    private long initialBackoffMs = DEFAULT_INITIAL_BACKOFF_MS;
+    private long maxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
 
     private static class NotificationQueueTask implements Runnable {
         final Notifier notifier;
         final Notification notification;
+        final DispatchQueue dispatchQueue;
+        final AtomicInteger retries = new AtomicInteger();
 
-        NotificationQueueTask(Notifier notifier, Notification notification) {
+        NotificationQueueTask(Notifier notifier, Notification notification, DispatchQueue dispatchQueue) {
             this.notifier = notifier;
             this.notification = notification;
+            this.dispatchQueue = dispatchQueue;
         }
 
         @Override
@@ -56,50 +102,186 @@ public class NotificationQueueHandler {
                 LOG.error("Sending notification failed ", th);
                 // fail so that the framework can retry
                 notifier.getContext().fail(notification.getId());
-                throw th;
             }
         }
     }
 
-    private final ExecutorService executorService;
+    /**
+     * The notifications of a notifier which are not yet acked or finally failed.
+     */
+    private class DispatchQueue {
+        final Semaphore permits = new Semaphore(capacity);
+        final Queue<NotificationQueueTask> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger active = new AtomicInteger();
+        final int concurrency = notifierConcurrency;
+
+        void acquire(String notificationId) {
+            if (permits.tryAcquire()) {
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.REJECT) {
+                throw new NotificationQueueFullException("Dispatch queue is full, rejecting notification id "
+                                                                 + notificationId);
+            }
+            LOG.debug("Dispatch queue is full, waiting to enqueue notification id {}", notificationId);
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new NotificationServiceException("Interrupted while enqueuing notification id " + notificationId, ex);
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        void submit(NotificationQueueTask task) {
+            pending.add(task);
+            drain();
+        }
+
+        // hands pending tasks to the executor as long as less than concurrency tasks are running
+        void drain() {
+            while (!pending.isEmpty()) {
+                int running = active.get();
+                if (running >= concurrency) {
+                    return;
+                }
+                if (!active.compareAndSet(running, running + 1)) {
+                    continue;
+                }
+                final NotificationQueueTask task = pending.poll();
+                if (task == null) {
+                    active.decrementAndGet();
+                    continue;
+                }
+                try {
+                    executorService.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                task.run();
+                            } finally {
+                                active.decrementAndGet();
+                                drain();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    active.decrementAndGet();
+                    LOG.warn("Executor service is shut down, not delivering notification id {}", task.notification.getId());
+                    return;
+                }
+            }
+        }
+    }
 
     public NotificationQueueHandler() {
         this(MAX_THREADS);
     }
 
     public NotificationQueueHandler(int nThreads) {
-        // TODO: evaluate ThreadPoolExecutor with bounded queue size
+        // the work queue is bounded by the capacity of the dispatch queues
         executorService = Executors.newFixedThreadPool(nThreads);
+        retryExecutorService = Executors.newSingleThreadScheduledExecutor();
         taskMap = new ConcurrentHashMap<>();
+        dispatchQueues = new IdentityHashMap<>();
+        notifierConcurrency = nThreads;
+    }
+
+    /**
+     * The maximum number of notifications of a notifier which are enqueued and not yet acked or finally failed.
+     */
+    public NotificationQueueHandler withCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    public NotificationQueueHandler withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
     }
 
+    /**
+     * The maximum number of notifications of a notifier which are delivered concurrently.
+     */
+    public NotificationQueueHandler withNotifierConcurrency(int notifierConcurrency) {
+        if (notifierConcurrency <= 0) {
+            throw new IllegalArgumentException("Notifier concurrency should be positive: " + notifierConcurrency);
+        }
+        this.notifierConcurrency = notifierConcurrency;
+        return this;
+    }
 
+    /**
+     * The backoff before the first retry, doubled for every subsequent retry up to maxBackoffMs.
+     */
+    public NotificationQueueHandler withRetryBackoff(long initialBackoffMs, long maxBackoffMs) {
+        if (initialBackoffMs < 0 || maxBackoffMs < initialBackoffMs) {
+            throw new IllegalArgumentException("Invalid retry backoff " + initialBackoffMs + ", " + maxBackoffMs);
+        }
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        return this;
+    }
+
+    /**
+     * Enqueue the notification for delivery. Depending on the {@link OverflowPolicy}, blocks or throws
+     * a {@link NotificationQueueFullException} if the dispatch queue of the notifier is full.
+     */
     public void enqueue(Notifier notifier, Notification notification) {
-        NotificationQueueTask task = new NotificationQueueTask(notifier, notification);
-        taskMap.put(notification.getId(), task);
-        executorService.submit(task);
+        DispatchQueue dispatchQueue = getDispatchQueue(notifier);
+        dispatchQueue.acquire(notification.getId());
+        NotificationQueueTask task = new NotificationQueueTask(notifier, notification, dispatchQueue);
+        NotificationQueueTask previous = taskMap.put(notification.getId(), task);
+        if (previous != null) {
+            previous.dispatchQueue.release();
+        }
+        dispatchQueue.submit(task);
     }
 
     /**
-     * Attempt re-delivery of a previously enqueued notification.
+     * Attempt re-delivery of a previously enqueued notification after a backoff.
      *
      * @param notificationId id of a previously submitted notification.
      */
     public void resubmit(String notificationId) {
-        NotificationQueueTask task = taskMap.get(notificationId);
+        final NotificationQueueTask task = taskMap.get(notificationId);
         if (task == null) {
             throw new NotificationServiceException("Could not find a previously enqueued task" +
                                                            " for notification id " + notificationId);
         }
-        executorService.submit(task);
+        long backoffMs = backoffMs(task.retries.getAndIncrement());
+        LOG.debug("Retrying notification id {} in {} ms", notificationId, backoffMs);
+        try {
+            retryExecutorService.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    task.dispatchQueue.submit(task);
+                }
+            }, backoffMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            LOG.warn("Retry executor service is shut down, not retrying notification id {}", notificationId);
+        }
     }
 
+    /**
+     * Stop tracking the notification, freeing its slot in the dispatch queue.
+     */
     public void remove(String notificationId) {
-        taskMap.remove(notificationId);
+        NotificationQueueTask task = taskMap.remove(notificationId);
+        if (task != null) {
+            task.dispatchQueue.release();
+        }
     }
 
     public void shutdown() {
         LOG.info("Shutting down queue handler");
+        retryExecutorService.shutdownNow();
         executorService.shutdown();
         try {
             if (!executorService.awaitTermination(2, TimeUnit.SECONDS)) {
@@ -114,4 +296,25 @@ public class NotificationQueueHandler {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * Exponential backoff with equal jitter, so that notifications which failed together,
+     * say during an outage of the notifier, are not all retried at the same time.
+     */
+    long backoffMs(int retry) {
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(retry, 30));
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    private DispatchQueue getDispatchQueue(Notifier notifier) {
+        synchronized (dispatchQueues) {
+            DispatchQueue dispatchQueue = dispatchQueues.get(notifier);
+            if (dispatchQueue == null) {
+                dispatchQueue = new DispatchQueue();
+                dispatchQueues.put(notifier, dispatchQueue);
+            }
+            return dispatchQueue;
+        }
+    }
 }
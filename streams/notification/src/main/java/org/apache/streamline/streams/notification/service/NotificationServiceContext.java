@@ -31,7 +31,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A wrapper context used by the {@link NotificationService} to track the retry attempts
- * and update the status in the {@link NotificationStore}
+ * and update the status in the {@link NotificationStore}. The wrapped context is acked or failed
+ * only once the status update is persisted in the store.
  */
 public class NotificationServiceContext implements NotificationContext {
     private static final Logger LOG = LoggerFactory.getLogger(NotificationServiceContext.class);
@@ -41,14 +42,16 @@ public class NotificationServiceContext implements NotificationContext {
     private final NotificationContext wrappedContext;
     private final NotificationQueueHandler queueHandler;
     private final NotificationService notificationService;
+    private final NotificationStore notificationStore;
     private final ConcurrentHashMap<String, AtomicInteger> notificationMap;
     private final int maxAttempts;
 
     public NotificationServiceContext(NotificationContext context, NotificationQueueHandler queueHandler,
-                                      NotificationService notificationService) {
+                                      NotificationService notificationService, NotificationStore notificationStore) {
         this.wrappedContext = context;
         this.queueHandler = queueHandler;
         this.notificationService = notificationService;
+        this.notificationStore = notificationStore;
         this.notificationMap = new ConcurrentHashMap<>();
         Properties properties = context.getConfig().getProperties();
         String propRetryCount = null;
@@ -64,30 +67,66 @@ public class NotificationServiceContext implements NotificationContext {
     }
 
     @Override
-    public void ack(String notificationId) {
+    public void ack(final String notificationId) {
         LOG.debug("Updating status to DELIVERED for notification id {}", notificationId);
-        notificationService.updateNotificationStatus(notificationId, Notification.Status.DELIVERED);
         notificationMap.remove(notificationId);
-        queueHandler.remove(notificationId);
-        wrappedContext.ack(notificationId);
+        updateStatus(notificationId, Notification.Status.DELIVERED, new NotificationStore.FlushCallback() {
+            @Override
+            public void onSuccess() {
+                queueHandler.remove(notificationId);
+                wrappedContext.ack(notificationId);
+            }
+
+            @Override
+            public void onFailure(Exception ex) {
+                LOG.error("Persisting status DELIVERED failed for notification id {}", notificationId, ex);
+                queueHandler.remove(notificationId);
+                wrappedContext.fail(notificationId);
+            }
+        });
     }
 
     @Override
-    public void fail(String notificationId) {
+    public void fail(final String notificationId) {
         int attempt = currentAttempt(notificationId);
         LOG.info("Attempt [{}] failed. [{}] retries left.", attempt, maxAttempts - attempt);
         if (attempt >= maxAttempts) {
             LOG.info("Updating status to FAILED for notification id {}", notificationId);
-            notificationService.updateNotificationStatus(notificationId, Notification.Status.FAILED);
             notificationMap.remove(notificationId);
-            queueHandler.remove(notificationId);
-            wrappedContext.fail(notificationId);
+            updateStatus(notificationId, Notification.Status.FAILED, new NotificationStore.FlushCallback() {
+                @Override
+                public void onSuccess() {
+                    queueHandler.remove(notificationId);
+                    wrappedContext.fail(notificationId);
+                }
+
+                @Override
+                public void onFailure(Exception ex) {
+                    LOG.error("Persisting status FAILED failed for notification id {}", notificationId, ex);
+                    onSuccess();
+                }
+            });
         } else {
             // queue it again
             queueHandler.resubmit(notificationId);
         }
     }
 
+    /*
+     * The callback is registered once the status update is written, so that it is invoked by the flush persisting
+     * the update. If the update cannot be written, the callback fails right away, so that the notification still
+     * releases its place in the queue and the wrapped context is failed.
+     */
+    private void updateStatus(String notificationId, Notification.Status status, NotificationStore.FlushCallback callback) {
+        try {
+            notificationService.updateNotificationStatus(notificationId, status);
+        } catch (RuntimeException ex) {
+            callback.onFailure(ex);
+            return;
+        }
+        notificationStore.onFlush(callback);
+    }
+
     @Override
     public String toString() {
         return "NotificationServiceContext{" +
@@ -48,6 +48,11 @@ public class NotificationServiceImpl implements NotificationService {
     private static final String QUERY_PARAM_DESC = "desc";
 
     private static final String QUEUEHANDLER_THREADS = "queuehandler.threads";
+    private static final String QUEUEHANDLER_CAPACITY = "queuehandler.capacity";
+    private static final String QUEUEHANDLER_OVERFLOW_POLICY = "queuehandler.overflowPolicy";
+    private static final String QUEUEHANDLER_NOTIFIER_CONCURRENCY = "queuehandler.notifierConcurrency";
+    private static final String QUEUEHANDLER_RETRY_INITIAL_BACKOFF_MS = "queuehandler.retry.initialBackoffMs";
+    private static final String QUEUEHANDLER_RETRY_MAX_BACKOFF_MS = "queuehandler.retry.maxBackoffMs";
 
     private final ConcurrentHashMap<String, Notifier> notifiers = new ConcurrentHashMap<>();
 
@@ -74,11 +79,7 @@ public class NotificationServiceImpl implements NotificationService {
     public NotificationServiceImpl(Map<String, Object> config, NotificationStore store) {
         LOG.info("Initializing NotificationServiceImpl with config {}", config);
         this.notificationStore = store;
-        if(config.get(QUEUEHANDLER_THREADS) != null) {
-            this.queueHandler = new NotificationQueueHandler(((Number)config.get(QUEUEHANDLER_THREADS)).intValue());
-        } else {
-            this.queueHandler = new NotificationQueueHandler();
-        }
+        this.queueHandler = createQueueHandler(config);
         this.notifierProxyUtil = new ProxyUtil<>(Notifier.class);
     }
 
@@ -90,7 +91,7 @@ public class NotificationServiceImpl implements NotificationService {
         Notifier registeredNotifier = notifiers.putIfAbsent(notifierName, notifier);
         if (registeredNotifier == null) {
             LOG.info("Initializing notifier");
-            notifier.open(new NotificationServiceContext(ctx, queueHandler, this));
+            notifier.open(new NotificationServiceContext(ctx, queueHandler, this, notificationStore));
             registeredNotifier = notifier;
         }
         LOG.info("Notifier {} registered", notifierName);
@@ -175,6 +176,38 @@ public class NotificationServiceImpl implements NotificationService {
         queueHandler.shutdown();
     }
 
+    private NotificationQueueHandler createQueueHandler(Map<String, Object> config) {
+        NotificationQueueHandler handler;
+        if(config.get(QUEUEHANDLER_THREADS) != null) {
+            handler = new NotificationQueueHandler(((Number)config.get(QUEUEHANDLER_THREADS)).intValue());
+        } else {
+            handler = new NotificationQueueHandler();
+        }
+        if (config.get(QUEUEHANDLER_CAPACITY) != null) {
+            handler.withCapacity(((Number) config.get(QUEUEHANDLER_CAPACITY)).intValue());
+        }
+        if (config.get(QUEUEHANDLER_OVERFLOW_POLICY) != null) {
+            handler.withOverflowPolicy(NotificationQueueHandler.OverflowPolicy.valueOf(
+                    config.get(QUEUEHANDLER_OVERFLOW_POLICY).toString().toUpperCase()));
+        }
+        if (config.get(QUEUEHANDLER_NOTIFIER_CONCURRENCY) != null) {
+            handler.withNotifierConcurrency(((Number) config.get(QUEUEHANDLER_NOTIFIER_CONCURRENCY)).intValue());
+        }
+        if (config.get(QUEUEHANDLER_RETRY_INITIAL_BACKOFF_MS) != null
+                || config.get(QUEUEHANDLER_RETRY_MAX_BACKOFF_MS) != null) {
+            handler.withRetryBackoff(getLong(config, QUEUEHANDLER_RETRY_INITIAL_BACKOFF_MS,
+                                             NotificationQueueHandler.DEFAULT_INITIAL_BACKOFF_MS),
+                                     getLong(config, QUEUEHANDLER_RETRY_MAX_BACKOFF_MS,
+                                             NotificationQueueHandler.DEFAULT_MAX_BACKOFF_MS));
+        }
+        return handler;
+    }
+
+    private long getLong(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        return value != null ? ((Number) value).longValue() : defaultValue;
+    }
+
     /**
      * Loads the jar from jarPath and instantiates {@link Notifier} specified in className.
      */
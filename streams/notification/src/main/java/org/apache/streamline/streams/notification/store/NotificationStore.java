@@ -77,13 +77,50 @@ public interface NotificationStore {
      */
     <T> List<T> findEntities(Criteria<T> criteria);
 
+    /**
+     * Like {@link #findEntities(Criteria)}, but hands the entities to the consumer as they are read
+     * instead of collecting them in a list. The lookup stops once {@link Criteria#numRows()} entities
+     * are read or the consumer returns false.
+     */
+    <T> void findEntities(Criteria<T> criteria, EntityConsumer<T> consumer);
+
     /**
      * Close connections with the data store and clean up.
      */
     void close();
 
+    /**
+     * Persist the writes buffered so far.
+     */
+    void flush();
+
+    /**
+     * Invoke the callback once the writes issued so far are persisted,
+     * or with the error if they could not be persisted.
+     */
+    void onFlush(FlushCallback callback);
+
     /**
      * Update the notification status of the notification.
      */
     Notification updateNotificationStatus(String notificationId, Notification.Status status);
+
+    /**
+     * Consumer for {@link #findEntities(Criteria, EntityConsumer)}
+     */
+    interface EntityConsumer<T> {
+        /**
+         * @return false to stop the lookup
+         */
+        boolean accept(T entity);
+    }
+
+    /**
+     * Callback for {@link #onFlush(FlushCallback)}
+     */
+    interface FlushCallback {
+        void onSuccess();
+
+        void onFailure(Exception ex);
+    }
 }
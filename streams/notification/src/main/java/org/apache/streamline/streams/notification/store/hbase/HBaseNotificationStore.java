@@ -20,6 +20,7 @@ package org.apache.streamline.streams.notification.store.hbase;
 
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.notification.Notification;
+import org.apache.streamline.streams.notification.common.NotificationImpl;
 import org.apache.streamline.streams.notification.store.Criteria;
 import org.apache.streamline.streams.notification.store.NotificationStore;
 import org.apache.streamline.streams.notification.store.NotificationStoreException;
@@ -37,6 +38,8 @@ import org.apache.streamline.streams.notification.store.hbase.mappers.TimestampN
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Get;
@@ -50,17 +53,40 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Notification store implementation with HBase as the underlying storage.
+ * <p>
+ * Writes are buffered per table in a {@link BufferedMutator} and flushed when the write buffer
+ * (hbase.client.write.buffer) is full, periodically as configured by {@link #FLUSH_INTERVAL_MS_KEY}
+ * or on {@link #flush()}, so that storing a notification does not block on the round-trips to the
+ * notification and index tables.
+ * Reading a notification which is not yet flushed flushes the buffered writes first, while the status
+ * of a notification which is not yet flushed is updated from the notification last written.
+ * </p>
  */
 public class HBaseNotificationStore implements NotificationStore {
 
     private static final Logger LOG = LoggerFactory.getLogger(HBaseNotificationStore.class);
 
+    public static final String FLUSH_INTERVAL_MS_KEY = "notification.store.flush.interval.ms";
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 100;
+    /**
+     * Notification field values serialized to more than these many bytes are compressed, 0 disables compression.
+     */
+    public static final String COMPRESSION_THRESHOLD_KEY = "notification.store.compression.threshold.bytes";
+    private static final int MAX_SCAN_CACHING = 1000;
+
     private Configuration configuration;
     private Connection connection;
     /**
@@ -70,6 +96,32 @@ public class HBaseNotificationStore implements NotificationStore {
      */
     private final Map<String, ThreadLocal<Table>> tables = new HashMap<>();
 
+    /**
+     * A map of table name to the {@link BufferedMutator} used for writing to the table.
+     * The mutators are thread safe and shared by all the threads.
+     */
+    private final Map<String, BufferedMutator> mutators = new HashMap<>();
+
+    /**
+     * The notifications with writes which are not yet flushed, by id, as last written.
+     */
+    private final Map<String, Notification> unflushed = new ConcurrentHashMap<>();
+
+    /**
+     * Callbacks to be invoked on the next flush.
+     */
+    private final Queue<FlushCallback> flushCallbacks = new ConcurrentLinkedQueue<>();
+
+    private final Object flushLock = new Object();
+
+    /**
+     * Set if the mutators failed to flush when their write buffer was full,
+     * so that the next flush reports the failure to the callbacks.
+     */
+    private volatile IOException writeFailure;
+
+    private ScheduledExecutorService flushExecutor;
+
     /**
      * The mapper for converting notifications
      */
@@ -114,15 +166,39 @@ public class HBaseNotificationStore implements NotificationStore {
             notificationIndexMappers.add(new TimestampNotificationMapper());
             for (NotificationIndexMapper indexMapper : notificationIndexMappers) {
                 tables.put(indexMapper.getTableName(), tlHTable(indexMapper.getTableName()));
+                mutators.put(indexMapper.getTableName(), bufferedMutator(indexMapper.getTableName()));
             }
             notificationMapper = new NotificationMapper(notificationIndexMappers);
             tables.put(notificationMapper.getTableName(), tlHTable(notificationMapper.getTableName()));
+            mutators.put(notificationMapper.getTableName(), bufferedMutator(notificationMapper.getTableName()));
 
             eventMapper = new StreamlineEventMapper();
             tables.put(eventMapper.getTableName(), tlHTable(eventMapper.getTableName()));
 
+            int compressionThreshold = configuration.getInt(COMPRESSION_THRESHOLD_KEY, 0);
+            if (compressionThreshold > 0) {
+                Serializer serializer = new Serializer(Collections.<Class<?>>emptyList(), compressionThreshold);
+                notificationMapper.withSerializer(serializer);
+                for (NotificationIndexMapper indexMapper : notificationIndexMappers) {
+                    indexMapper.withSerializer(serializer);
+                }
+            }
+
             hBaseScanConfigBuilder = new HBaseScanConfigBuilder();
             hBaseScanConfigBuilder.addMappers(Notification.class, notificationIndexMappers);
+
+            long flushIntervalMs = configuration.getLong(FLUSH_INTERVAL_MS_KEY, DEFAULT_FLUSH_INTERVAL_MS);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor();
+            flushExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        flush();
+                    } catch (Exception ex) {
+                        LOG.error("Periodic flush failed", ex);
+                    }
+                }
+            }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -133,6 +209,7 @@ public class HBaseNotificationStore implements NotificationStore {
         try {
             LOG.debug("Storing notification {} in HBase", notification);
             store(notificationMapper.tableMutations(notification));
+            unflushed.put(notification.getId(), notification);
         } catch (IOException ex) {
             throw new NotificationStoreException("Error storing notification, id: " + notification.getId(), ex);
         }
@@ -142,21 +219,77 @@ public class HBaseNotificationStore implements NotificationStore {
         for (TableMutation tm : tableMutations) {
             LOG.debug("Insert/Update {} row(s), Delete {} row(s) in table {}",
                       tm.updates().size(), tm.deletes().size(), tm.tableName());
-            Table table = tables.get(tm.tableName()).get();
-            if (!tm.updates().isEmpty()) {
-                table.put(tm.updates());
+            BufferedMutator mutator = mutators.get(tm.tableName());
+            try {
+                if (!tm.updates().isEmpty()) {
+                    mutator.mutate(tm.updates());
+                }
+                if (!tm.deletes().isEmpty()) {
+                    mutator.mutate(tm.deletes());
+                }
+            } catch (IOException ex) {
+                writeFailure = ex;
+                throw ex;
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            // the writes issued before these callbacks were registered are buffered by now
+            List<FlushCallback> callbacks = new ArrayList<>();
+            FlushCallback callback;
+            while ((callback = flushCallbacks.poll()) != null) {
+                callbacks.add(callback);
+            }
+            Map<String, Notification> notifications = new HashMap<>(unflushed);
+            IOException failure = null;
+            for (BufferedMutator mutator : mutators.values()) {
+                try {
+                    mutator.flush();
+                } catch (IOException ex) {
+                    failure = ex;
+                }
+            }
+            if (failure == null) {
+                failure = writeFailure;
+            }
+            writeFailure = null;
+            // keeps the notifications written again since
+            for (Map.Entry<String, Notification> entry : notifications.entrySet()) {
+                unflushed.remove(entry.getKey(), entry.getValue());
             }
-            if (!tm.deletes().isEmpty()) {
-                table.delete(tm.deletes());
+            for (FlushCallback cb : callbacks) {
+                try {
+                    if (failure == null) {
+                        cb.onSuccess();
+                    } else {
+                        cb.onFailure(failure);
+                    }
+                } catch (Exception ex) {
+                    LOG.error("Flush callback failed", ex);
+                }
+            }
+            if (failure != null) {
+                throw new NotificationStoreException("Error flushing buffered writes", failure);
             }
         }
     }
 
+    @Override
+    public void onFlush(FlushCallback callback) {
+        flushCallbacks.add(callback);
+    }
+
     @Override
     public Notification getNotification(String notificationId) {
         try {
             String tableName = notificationMapper.getTableName();
             LOG.debug("getting notification with notificationId {} from table {}", notificationId, tableName);
+            if (unflushed.containsKey(notificationId)) {
+                flush();
+            }
             Get get = new Get(notificationId.getBytes(StandardCharsets.UTF_8));
             Result result = tables.get(tableName).get().get(get);
             return result.isEmpty() ? null : notificationMapper.entity(result);
@@ -167,11 +300,23 @@ public class HBaseNotificationStore implements NotificationStore {
 
     @Override
     public List<Notification> getNotifications(List<String> notificationIds) {
-        List<Notification> notifications = new ArrayList<>();
         for (String notificationId : notificationIds) {
-            notifications.add(getNotification(notificationId));
+            if (unflushed.containsKey(notificationId)) {
+                flush();
+                break;
+            }
+        }
+        try {
+            String tableName = notificationMapper.getTableName();
+            LOG.debug("getting notifications with notificationIds {} from table {}", notificationIds, tableName);
+            List<Notification> notifications = new ArrayList<>();
+            for (Result result : tables.get(tableName).get().get(gets(notificationIds))) {
+                notifications.add(result.isEmpty() ? null : notificationMapper.entity(result));
+            }
+            return notifications;
+        } catch (IOException ex) {
+            throw new NotificationStoreException("Error getting notification ids: " + notificationIds, ex);
         }
-        return notifications;
     }
 
     @Override
@@ -189,17 +334,37 @@ public class HBaseNotificationStore implements NotificationStore {
 
     @Override
     public List<StreamlineEvent> getEvents(List<String> eventIds) {
-        List<StreamlineEvent> events = new ArrayList<>();
-        for (String eventId : eventIds) {
-            events.add(getEvent(eventId));
+        try {
+            String tableName = eventMapper.getTableName();
+            LOG.debug("getting events with eventIds {} from table {}", eventIds, tableName);
+            List<StreamlineEvent> events = new ArrayList<>();
+            for (Result result : tables.get(tableName).get().get(gets(eventIds))) {
+                events.add(result.isEmpty() ? null : eventMapper.entity(result));
+            }
+            return events;
+        } catch (IOException ex) {
+            throw new NotificationStoreException("Error getting event ids: " + eventIds, ex);
         }
-        return events;
     }
 
     @Override
     public <T> List<T> findEntities(Criteria<T> criteria) {
-        List<T> entities = new ArrayList<>();
+        final List<T> entities = new ArrayList<>();
+        findEntities(criteria, new EntityConsumer<T>() {
+            @Override
+            public boolean accept(T entity) {
+                return entities.add(entity);
+            }
+        });
+        return entities;
+    }
+
+    @Override
+    public <T> void findEntities(Criteria<T> criteria, EntityConsumer<T> consumer) {
         LOG.debug("Finding entities from HBaseNotificationStore, Criteria {}", criteria);
+        if (!unflushed.isEmpty()) {
+            flush();
+        }
         try {
             HBaseScanConfig<T> scanConfig = hBaseScanConfigBuilder.getScanConfig(criteria);
             LOG.debug("HBaseScanConfig for scan {}", scanConfig);
@@ -215,21 +380,38 @@ public class HBaseNotificationStore implements NotificationStore {
                     scan = new Scan(startRow, stopRow);
                 }
                 scan.setFilter(scanConfig.filterList());
-                ResultScanner scanner = tables.get(scanConfig.getMapper().getTableName()).get().getScanner(scan);
-                for (Result result : scanner) {
-                    entities.add(scanConfig.getMapper().entity(result));
+                // fetch the requested rows in as few round trips as possible
+                int numRows = scanConfig.getNumRows();
+                scan.setCaching(Math.min(numRows, MAX_SCAN_CACHING));
+                try (ResultScanner scanner = tables.get(scanConfig.getMapper().getTableName()).get().getScanner(scan)) {
+                    int count = 0;
+                    Result result;
+                    while (count < numRows && (result = scanner.next()) != null) {
+                        count++;
+                        if (!consumer.accept(scanConfig.getMapper().entity(result))) {
+                            break;
+                        }
+                    }
                 }
             }
         } catch (IOException ex) {
             throw new NotificationStoreException("Error during scan", ex);
         }
-
-        return entities;
     }
 
     @Override
     public void close() {
+        flushExecutor.shutdownNow();
+        try {
+            flush();
+        } catch (NotificationStoreException ex) {
+            LOG.error("Got exception flushing in close", ex);
+        }
         try {
+            for (BufferedMutator mutator : mutators.values()) {
+                LOG.debug("Closing mutator {}", mutator);
+                mutator.close();
+            }
             for (ThreadLocal<Table> table : tables.values()) {
                 LOG.debug("Closing table {}", table);
                 table.get().close();
@@ -244,13 +426,36 @@ public class HBaseNotificationStore implements NotificationStore {
     @Override
     public Notification updateNotificationStatus(String notificationId, Notification.Status status) {
         try {
-            store(notificationMapper.status(getNotification(notificationId), status));
-            return getNotification(notificationId);
+            // a notification which is not yet flushed is usually updated right after being stored,
+            // its status is then updated without flushing and reading it back
+            Notification notification = unflushed.get(notificationId);
+            if (notification == null) {
+                notification = getNotification(notificationId);
+                if (notification == null) {
+                    throw new NotificationStoreException("Notification not found, id: " + notificationId);
+                }
+            }
+            store(notificationMapper.status(notification, status));
+            Notification updated = new NotificationImpl.Builder(notification).status(status).build();
+            unflushed.put(notificationId, updated);
+            return updated;
         } catch (IOException ex) {
             throw new NotificationStoreException("Error updating status, notification-id: " + notificationId, ex);
         }
     }
 
+    private List<Get> gets(List<String> rowKeys) {
+        List<Get> gets = new ArrayList<>(rowKeys.size());
+        for (String rowKey : rowKeys) {
+            gets.add(new Get(rowKey.getBytes(StandardCharsets.UTF_8)));
+        }
+        return gets;
+    }
+
+    private BufferedMutator bufferedMutator(String tableName) throws IOException {
+        return connection.getBufferedMutator(new BufferedMutatorParams(TableName.valueOf(tableName)));
+    }
+
     /**
      * Return a {@link ThreadLocal} wrapped HTable
      */
@@ -37,6 +37,7 @@ public class HBaseScanConfig<T> {
     private final FilterList filterList = new FilterList();
     private long startTs;
     private long endTs = Long.MAX_VALUE;
+    private int numRows = DEFAULT_NUM_ROWS;
 
     public void setMapper(IndexMapper<T> mapper) {
         this.mapper = mapper;
@@ -47,7 +48,16 @@ public class HBaseScanConfig<T> {
     }
 
     public void setNumRows(int n) {
-        this.filterList.addFilter(new PageFilter(n == 0 ? DEFAULT_NUM_ROWS : n));
+        this.numRows = n == 0 ? DEFAULT_NUM_ROWS : n;
+        this.filterList.addFilter(new PageFilter(numRows));
+    }
+
+    /**
+     * The max number of rows to return. The page filter limits the rows per region,
+     * so the scan should stop after these many rows.
+     */
+    public int getNumRows() {
+        return numRows;
     }
 
     public void setStartTs(long startTsMillis) {
@@ -101,6 +111,7 @@ public class HBaseScanConfig<T> {
                 ", filterList=" + filterList +
                 ", startTsMillis=" + startTs +
                 ", endTsMillis=" + endTs +
+                ", numRows=" + numRows +
                 '}';
     }
 }
@@ -19,19 +19,74 @@
 package org.apache.streamline.streams.notification.store.hbase;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * For serializing and de-serializing the values in the notification
  * fieldsAndValues for storing in hbase.
+ * <p>
+ * The serializer is thread safe. Each call borrows a {@link Kryo} instance along with its
+ * input and output buffers from a pool, so that the buffers are reused across calls.
+ * Values whose serialized form is larger than the compression threshold are deflated.
+ * </p>
  */
 public class Serializer {
-    private final Kryo kryo;
-    private final Output output;
+    /**
+     * Registered ahead of the classes passed in, in this order. Since the registration ids are stored
+     * along with the values, classes may only be appended to this list.
+     */
+    private static final List<Class<?>> COMMON_CLASSES = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+            byte[].class, BigDecimal.class, BigInteger.class, Date.class,
+            ArrayList.class, HashMap.class, LinkedHashMap.class));
+
+    /**
+     * Marks a deflated value. Kryo writes the class id of the value first, which never starts
+     * with this byte as long as fewer than 125 classes are registered.
+     */
+    private static final byte COMPRESSED = (byte) 0xFF;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int BUFFER_SIZE = 2000;
+    private static final int MAX_BUFFER_SIZE = 2000000000;
+    // buffers grown beyond this are not returned to the pool
+    private static final int MAX_POOLED_BUFFER_SIZE = 1 << 20;
+
+    private final List<Class<?>> classesToRegister;
+    private final int compressionThreshold;
+    private final Queue<Codec> pool = new ConcurrentLinkedQueue<>();
+
+    private final class Codec {
+        final Kryo kryo = new Kryo();
+        final Output output = new Output(BUFFER_SIZE, MAX_BUFFER_SIZE);
+        final Input input = new Input();
+        Deflater deflater;
+        Inflater inflater;
+
+        Codec() {
+            for (Class<?> klazz : COMMON_CLASSES) {
+                kryo.register(klazz);
+            }
+            for (Class<?> klazz : classesToRegister) {
+                kryo.register(klazz);
+            }
+        }
+    }
 
     /**
      * Constructs a {@link Serializer} instance with the given list
@@ -40,11 +95,19 @@ public class Serializer {
      * @param classesToRegister the classes to register.
      */
     public Serializer(List<Class<?>> classesToRegister) {
-        kryo = new Kryo();
-        output = new Output(2000, 2000000000);
-        for (Class<?> klazz : classesToRegister) {
-            kryo.register(klazz);
-        }
+        this(classesToRegister, 0);
+    }
+
+    /**
+     * Constructs a {@link Serializer} instance with the given list of classes registered in kryo,
+     * that deflates the values larger than the given number of bytes.
+     *
+     * @param classesToRegister    the classes to register.
+     * @param compressionThreshold the size in bytes above which the values are compressed, 0 to not compress.
+     */
+    public Serializer(List<Class<?>> classesToRegister, int compressionThreshold) {
+        this.classesToRegister = new ArrayList<>(classesToRegister);
+        this.compressionThreshold = compressionThreshold;
     }
 
     public Serializer() {
@@ -52,13 +115,94 @@ public class Serializer {
     }
 
     public byte[] serialize(Object obj) {
-        output.clear();
-        kryo.writeClassAndObject(output, obj);
-        return output.toBytes();
+        Codec codec = borrow();
+        try {
+            Output output = codec.output;
+            output.clear();
+            codec.kryo.writeClassAndObject(output, obj);
+            if (compressionThreshold > 0 && output.position() > compressionThreshold) {
+                return compress(codec, output.getBuffer(), output.position());
+            }
+            return output.toBytes();
+        } finally {
+            release(codec);
+        }
     }
 
     public Object deserialize(byte[] b) {
-        Input input = new Input(b);
-        return kryo.readClassAndObject(input);
+        Codec codec = borrow();
+        try {
+            Input input = codec.input;
+            if (b.length > 0 && b[0] == COMPRESSED) {
+                input.setBuffer(decompress(codec, b));
+            } else {
+                input.setBuffer(b);
+            }
+            return codec.kryo.readClassAndObject(input);
+        } finally {
+            // do not hold on to the value
+            codec.input.setBuffer(EMPTY);
+            release(codec);
+        }
+    }
+
+    // marker, uncompressed length and the deflated bytes
+    private byte[] compress(Codec codec, byte[] bytes, int length) {
+        if (codec.deflater == null) {
+            codec.deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        Deflater deflater = codec.deflater;
+        deflater.reset();
+        deflater.setInput(bytes, 0, length);
+        deflater.finish();
+        Output output = new Output(length / 2 + 16, MAX_BUFFER_SIZE);
+        output.writeByte(COMPRESSED);
+        output.writeInt(length, true);
+        byte[] chunk = new byte[Math.min(length, 8192)];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(chunk);
+            output.writeBytes(chunk, 0, n);
+        }
+        return output.toBytes();
+    }
+
+    private byte[] decompress(Codec codec, byte[] b) {
+        if (codec.inflater == null) {
+            codec.inflater = new Inflater();
+        }
+        Input header = new Input(b);
+        header.skip(1);
+        int length = header.readInt(true);
+        Inflater inflater = codec.inflater;
+        inflater.reset();
+        inflater.setInput(b, header.position(), b.length - header.position());
+        byte[] bytes = new byte[length];
+        try {
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int n = inflater.inflate(bytes, offset, length - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new KryoException("Truncated compressed value, expected " + length + " bytes, got " + offset);
+            }
+        } catch (DataFormatException ex) {
+            throw new KryoException("Invalid compressed value", ex);
+        }
+        return bytes;
+    }
+
+    private Codec borrow() {
+        Codec codec = pool.poll();
+        return codec != null ? codec : new Codec();
+    }
+
+    private void release(Codec codec) {
+        if (codec.output.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+            pool.offer(codec);
+        }
     }
 }
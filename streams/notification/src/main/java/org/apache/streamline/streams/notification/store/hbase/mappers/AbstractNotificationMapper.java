@@ -59,8 +59,11 @@ public abstract class AbstractNotificationMapper implements Mapper<Notification>
     // a map of Notification member name to hbase cf:cq
     private static final Map<String, List<byte[]>> memberMap = new HashMap<>();
 
+    // the serializer is thread safe, so the mappers share the default instance
+    private static final Serializer DEFAULT_SERIALIZER = new Serializer();
+
     // serializer instance
-    private final Serializer serializer = new Serializer();
+    private Serializer serializer = DEFAULT_SERIALIZER;
 
     static {
         // Right now support queries for status in addition to the indexed fields.
@@ -70,6 +73,14 @@ public abstract class AbstractNotificationMapper implements Mapper<Notification>
         memberMap.put("notifierName", Arrays.asList(CF_NOTIFIER_NAME));
     }
 
+    /**
+     * Use the given serializer for the notification field values, e.g. one that compresses large values.
+     */
+    public AbstractNotificationMapper withSerializer(Serializer serializer) {
+        this.serializer = serializer;
+        return this;
+    }
+
     @Override
     public List<byte[]> mapMemberValue(String memberName, String value) {
         List<byte[]> cfcq = memberMap.get(memberName);
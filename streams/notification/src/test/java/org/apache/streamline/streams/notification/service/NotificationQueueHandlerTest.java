@@ -0,0 +1,153 @@
+package org.apache.streamline.streams.notification.service;
+
+import org.apache.streamline.streams.notification.Notification;
+import org.apache.streamline.streams.notification.NotificationContext;
+import org.apache.streamline.streams.notification.Notifier;
+import org.apache.streamline.streams.notification.common.NotificationImpl;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NotificationQueueHandlerTest {
+
+    private NotificationQueueHandler queueHandler;
+
+    @After
+    public void tearDown() throws Exception {
+        if (queueHandler != null) {
+            queueHandler.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectWhenFull() throws Exception {
+        queueHandler = new NotificationQueueHandler(2)
+                .withCapacity(2)
+                .withOverflowPolicy(NotificationQueueHandler.OverflowPolicy.REJECT);
+        // never acks, so that the notifications stay in the queue
+        TestNotifier notifier = new TestNotifier(false, 0);
+        queueHandler.enqueue(notifier, notification("1"));
+        queueHandler.enqueue(notifier, notification("2"));
+        try {
+            queueHandler.enqueue(notifier, notification("3"));
+            fail("Expected NotificationQueueFullException");
+        } catch (NotificationQueueFullException ex) {
+            // expected
+        }
+        // a different notifier has its own queue
+        queueHandler.enqueue(new TestNotifier(false, 0), notification("4"));
+        queueHandler.remove("1");
+        queueHandler.enqueue(notifier, notification("3"));
+    }
+
+    @Test
+    public void testNotifierConcurrency() throws Exception {
+        queueHandler = new NotificationQueueHandler(4).withNotifierConcurrency(1);
+        TestNotifier notifier = new TestNotifier(true, 5);
+        notifier.delivered = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            queueHandler.enqueue(notifier, notification(String.valueOf(i)));
+        }
+        assertTrue(notifier.delivered.await(10, TimeUnit.SECONDS));
+        assertEquals(1, notifier.maxRunning.get());
+    }
+
+    @Test
+    public void testResubmitWithBackoff() throws Exception {
+        queueHandler = new NotificationQueueHandler(2).withRetryBackoff(50, 100);
+        TestNotifier notifier = new TestNotifier(true, 0);
+        notifier.failures.set(2);
+        notifier.delivered = new CountDownLatch(1);
+        queueHandler.enqueue(notifier, notification("1"));
+        assertTrue(notifier.delivered.await(10, TimeUnit.SECONDS));
+        List<Long> attempts = notifier.attempts;
+        assertEquals(3, attempts.size());
+        // 50 ms with jitter for the first retry, 100 ms with jitter for the second retry
+        assertTrue(attempts.get(1) - attempts.get(0) >= TimeUnit.MILLISECONDS.toNanos(25));
+        assertTrue(attempts.get(2) - attempts.get(1) >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testBackoff() throws Exception {
+        queueHandler = new NotificationQueueHandler(1).withRetryBackoff(100, 1000);
+        for (int retry = 0; retry < 64; retry++) {
+            long expected = Math.min(1000, 100L << Math.min(retry, 30));
+            long backoff = queueHandler.backoffMs(retry);
+            assertTrue(backoff >= expected / 2 && backoff <= expected);
+        }
+    }
+
+    private static Notification notification(String id) {
+        return new NotificationImpl.Builder(Collections.<String, Object>emptyMap())
+                .id(id)
+                .notifierName("test-notifier")
+                .build();
+    }
+
+    private class TestNotifier implements Notifier {
+        final boolean ack;
+        final long delayMs;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final List<Long> attempts = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(0);
+
+        TestNotifier(boolean ack, long delayMs) {
+            this.ack = ack;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public void open(NotificationContext ctx) {
+        }
+
+        @Override
+        public void notify(Notification notification) {
+            attempts.add(System.nanoTime());
+            int current = running.incrementAndGet();
+            maxRunning.set(Math.max(maxRunning.get(), current));
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                queueHandler.resubmit(notification.getId());
+            } else if (ack) {
+                queueHandler.remove(notification.getId());
+                delivered.countDown();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isPull() {
+            return false;
+        }
+
+        @Override
+        public List<String> getFields() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public NotificationContext getContext() {
+            return null;
+        }
+    }
+}
@@ -142,6 +142,7 @@ public class HBaseNotificationStoreIntegrationTest {
         Notification notification = NotificationTestObjectFactory.getOne();
 
         sut.store(notification);
+        sut.flush();
 
         // rely on result of tableMutations() to avoid checking manually
         // didn't check each cell's value but comparing will be covered by testGetNotification()
@@ -224,6 +225,7 @@ public class HBaseNotificationStoreIntegrationTest {
 
         Notification.Status newStatus = Notification.Status.FAILED;
         Notification fetchedNotification = sut.updateNotificationStatus(notification.getId(), newStatus);
+        sut.flush();
 
         assertEquals(fetchedNotification.getId(), notification.getId());
         assertEquals(fetchedNotification.getStatus(), newStatus);
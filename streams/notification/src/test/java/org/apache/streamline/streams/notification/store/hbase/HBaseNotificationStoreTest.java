@@ -22,6 +22,8 @@ import org.apache.streamline.streams.notification.Notification;
 import org.apache.streamline.streams.notification.common.NotificationImpl;
 import org.apache.streamline.streams.notification.store.Criteria;
 import org.apache.streamline.streams.notification.store.CriteriaImpl;
+import org.apache.streamline.streams.notification.store.NotificationStore;
+import org.apache.streamline.streams.notification.store.NotificationStoreException;
 import mockit.Expectations;
 import mockit.Mock;
 import mockit.MockUp;
@@ -30,9 +32,11 @@ import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
@@ -43,6 +47,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -51,8 +56,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 @RunWith(JMockit.class)
 public class HBaseNotificationStoreTest {
@@ -69,6 +76,9 @@ public class HBaseNotificationStoreTest {
     @Mocked
     Table mockHTable;
 
+    @Mocked
+    BufferedMutator mockMutator;
+
     @Mocked
     Result mockResult;
 
@@ -117,9 +127,80 @@ public class HBaseNotificationStoreTest {
 
         new Verifications() {
             {
-                List<Put> puts;
-                mockHTable.put(puts = withCapture()); times = 8;
+                List<Mutation> puts;
+                mockMutator.mutate(puts = withCapture()); times = 8;
                 //System.out.println("puts = " + puts);
+                mockHTable.put(withAny(new ArrayList<Put>())); times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        final AtomicInteger flushed = new AtomicInteger();
+        notificationStore.store(notification);
+        notificationStore.onFlush(new NotificationStore.FlushCallback() {
+            @Override
+            public void onSuccess() {
+                flushed.incrementAndGet();
+            }
+
+            @Override
+            public void onFailure(Exception ex) {
+                fail("Unexpected failure " + ex);
+            }
+        });
+        notificationStore.flush();
+        // invoked only once
+        notificationStore.flush();
+        assertEquals(1, flushed.get());
+        new Verifications() {
+            {
+                mockMutator.flush(); minTimes = 8;
+            }
+        };
+    }
+
+    @Test
+    public void testFlushFailure() throws Exception {
+        final AtomicInteger failed = new AtomicInteger();
+        new Expectations() {
+            {
+                mockMutator.flush();
+                result = new IOException("flush failed");
+            }
+        };
+        notificationStore.onFlush(new NotificationStore.FlushCallback() {
+            @Override
+            public void onSuccess() {
+                fail("Unexpected success");
+            }
+
+            @Override
+            public void onFailure(Exception ex) {
+                failed.incrementAndGet();
+            }
+        });
+        try {
+            notificationStore.flush();
+            fail("Expected NotificationStoreException");
+        } catch (NotificationStoreException ex) {
+            // expected
+        }
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    public void testUpdateStatusOfUnflushedNotification() throws Exception {
+        notificationStore.store(notification);
+        Notification updated = notificationStore.updateNotificationStatus("id1", Notification.Status.DELIVERED);
+        assertEquals("id1", updated.getId());
+        assertEquals(Notification.Status.DELIVERED, updated.getStatus());
+        // the status is updated from the stored notification, without flushing and reading it back
+        new Verifications() {
+            {
+                mockMutator.flush(); times = 0;
+                mockHTable.get(withAny(new Get(new byte[0]))); times = 0;
             }
         };
     }
@@ -153,6 +234,27 @@ public class HBaseNotificationStoreTest {
         };
     }
 
+    @Test
+    public void testGetNotifications() throws Exception {
+        new Expectations() {
+            {
+                mockHTable.get(withAny(new ArrayList<Get>())); times = 1;
+                result = new Result[]{mockResult, mockResult};
+                mockResult.isEmpty();
+                result = true;
+            }
+        };
+
+        List<Notification> notifications = notificationStore.getNotifications(Arrays.asList("n1", "n2"));
+        assertEquals(Arrays.asList(null, null), notifications);
+        new Verifications() {
+            {
+                List<Get> gets;
+                mockHTable.get(gets = withCapture()); times = 1;
+                assertEquals(2, gets.size());
+            }
+        };
+    }
 
     @Test
     public void testFindEntities() throws Exception {
@@ -166,8 +268,6 @@ public class HBaseNotificationStoreTest {
         final Map<byte[], byte[]> niMap = new TreeMap<>(new Bytes.ByteArrayComparator());
         niMap.put("nid".getBytes(), "1".getBytes());
 
-        final List<Result> results = Arrays.asList(mockResult);
-
         new Expectations() {
             {
                 mockCriteria.clazz(); times = 1;
@@ -176,8 +276,8 @@ public class HBaseNotificationStoreTest {
                 result = fr;
                 mockHTable.getScanner(withAny(new Scan())); times = 1;
                 result = mockResultScanner;
-                mockResultScanner.iterator();
-                result = results.iterator();
+                mockResultScanner.next();
+                returns(mockResult, null);
                 mockResult.getFamilyMap("ni".getBytes()); times = 1;
                 result = niMap;
                 mockResult.getValue("s".getBytes(), "qs".getBytes()); times = 1;
@@ -0,0 +1,90 @@
+package org.apache.streamline.streams.notification.store.hbase;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SerializerTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Serializer serializer = new Serializer();
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", 1L);
+        map.put("b", new BigDecimal("1.5"));
+        List<Object> values = new ArrayList<>();
+        values.add("A");
+        values.add(100);
+        values.add(map);
+        values.add(new byte[]{1, 2, 3});
+        for (Object value : values) {
+            Object result = serializer.deserialize(serializer.serialize(value));
+            if (value instanceof byte[]) {
+                assertArrayEquals((byte[]) value, (byte[]) result);
+            } else {
+                assertEquals(value, result);
+            }
+        }
+        assertNull(serializer.deserialize(serializer.serialize(null)));
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        Serializer serializer = new Serializer(Collections.<Class<?>>emptyList(), 100);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("temperature is high ");
+        }
+        String value = sb.toString();
+        byte[] bytes = serializer.serialize(value);
+        assertTrue(bytes.length < value.length() / 10);
+        assertEquals(value, serializer.deserialize(bytes));
+        // small values are not compressed
+        assertArrayEquals(new Serializer().serialize("A"), serializer.serialize("A"));
+        // compressed values can be read without compression enabled
+        assertEquals(value, new Serializer().deserialize(bytes));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        final Serializer serializer = new Serializer(Collections.<Class<?>>emptyList(), 64);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int id = t;
+                futures.add(executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int i = 0; i < 1000; i++) {
+                            String value = id + "-" + i + (i % 2 == 0 ? String.format("%0200d", i) : "");
+                            if (!value.equals(serializer.deserialize(serializer.serialize(value)))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.apache.streamline.streams.layout.storm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.streamline.streams.layout.component.StreamlineProcessor;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flux yaml generation implementation for a chain of processors fused into a single bolt. The processors
+ * are added as stages of the bolt in the order of the chain, along with the streams each of them consumes.
+ */
+public class FusedProcessorBoltFluxComponent extends AbstractFluxComponent {
+    private final List<StreamlineProcessor> processors;
+    private final List<List<String>> inputStreams;
+
+    public FusedProcessorBoltFluxComponent(List<StreamlineProcessor> processors, List<List<String>> inputStreams) {
+        if (processors.size() != inputStreams.size()) {
+            throw new IllegalArgumentException("The input streams of every processor are required");
+        }
+        this.processors = processors;
+        this.inputStreams = inputStreams;
+    }
+
+    @Override
+    protected void generateComponent() {
+        String boltId = "fusedProcessorBolt" + UUID_FOR_COMPONENTS;
+        String boltClassName = "org.apache.streamline.streams.runtime.storm.bolt.FusedProcessorBolt";
+        ObjectMapper mapper = new ObjectMapper();
+        String[] configMethodNames = new String[processors.size()];
+        Object[] values = new Object[processors.size()];
+        for (int i = 0; i < processors.size(); i++) {
+            StreamlineProcessor processor = processors.get(i);
+            String processorJson;
+            try {
+                processorJson = mapper.writeValueAsString(processor);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error creating json config string for " + processor, e);
+            }
+            if (processor instanceof NormalizationProcessor) {
+                configMethodNames[i] = "withNormalizationStage";
+                values[i] = new Object[]{processorJson, new ArrayList<>(inputStreams.get(i))};
+            } else if (processor instanceof RulesProcessor) {
+                configMethodNames[i] = "withRulesStage";
+                String scriptType = processor.getConfig().get(RulesProcessor.CONFIG_KEY_SCRIPT_TYPE, "SQL");
+                values[i] = new Object[]{processorJson, scriptType, new ArrayList<>(inputStreams.get(i))};
+            } else {
+                throw new IllegalArgumentException("Processor " + processor + " can not be fused");
+            }
+        }
+        List configMethods = getConfigMethodsYaml(configMethodNames, values);
+        component = createComponent(boltId, boltClassName, null, null, configMethods);
+        addParallelismToComponent();
+    }
+}
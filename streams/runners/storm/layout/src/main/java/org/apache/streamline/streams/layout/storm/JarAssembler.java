@@ -0,0 +1,230 @@
+package org.apache.streamline.streams.layout.storm;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Assembles the jar deployed for a topology by adding the topology artifacts to the root of the base storm jar.
+ * <p>
+ * The jar is written in a single pass, copying the entries of the base jar and then adding the artifacts.
+ * The assembled jars are cached in a directory by the digest of the base jar, the artifact names and contents,
+ * and the {@link DuplicateEntryPolicy}, so deploying a topology whose artifacts did not change reuses
+ * the previously assembled jar. The least recently used jars are removed when there are more than
+ * the configured number of jars in the cache.
+ * </p>
+ */
+public class JarAssembler {
+    private static final Logger LOG = LoggerFactory.getLogger(JarAssembler.class);
+    public static final int DEFAULT_MAX_CACHED_JARS = 32;
+    private static final String JAR_SUFFIX = ".jar";
+
+    /**
+     * What to do when an artifact has the same name as an entry of the base jar.
+     */
+    public enum DuplicateEntryPolicy {
+        /**
+         * The artifact replaces the entry of the base jar, like {@code jar uf} does.
+         */
+        REPLACE,
+        /**
+         * The entry of the base jar is kept and the artifact is not added.
+         */
+        KEEP,
+        /**
+         * The assembly fails.
+         */
+        FAIL
+    }
+
+    private final Path cacheDirectory;
+    private DuplicateEntryPolicy duplicateEntryPolicy = DuplicateEntryPolicy.REPLACE;
+    private int maxCachedJars = DEFAULT_MAX_CACHED_JARS;
+    // base jar path -> digest, invalidated when the size or the modification time of the jar changes
+    private final ConcurrentHashMap<Path, FileDigest> baseJarDigests = new ConcurrentHashMap<>();
+
+    private static final class FileDigest {
+        final long size;
+        final long lastModified;
+        final HashCode digest;
+
+        FileDigest(long size, long lastModified, HashCode digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+
+    public JarAssembler(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public JarAssembler withDuplicateEntryPolicy(DuplicateEntryPolicy duplicateEntryPolicy) {
+        this.duplicateEntryPolicy = duplicateEntryPolicy;
+        return this;
+    }
+
+    /**
+     * The maximum number of assembled jars kept in the cache directory.
+     */
+    public JarAssembler withMaxCachedJars(int maxCachedJars) {
+        if (maxCachedJars < 1) {
+            throw new IllegalArgumentException("maxCachedJars should be at least 1, got " + maxCachedJars);
+        }
+        this.maxCachedJars = maxCachedJars;
+        return this;
+    }
+
+    /**
+     * Returns a jar with the entries of the base jar and the given artifacts at its root, assembling it
+     * unless a jar with the same contents is in the cache.
+     */
+    public Path assemble(Path baseJar, List<File> artifacts) throws IOException {
+        List<File> sortedArtifacts = new ArrayList<>(artifacts);
+        Collections.sort(sortedArtifacts, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return f1.getName().compareTo(f2.getName());
+            }
+        });
+        Files.createDirectories(cacheDirectory);
+        Path cachedJar = cacheDirectory.resolve(getDigest(baseJar, sortedArtifacts) + JAR_SUFFIX);
+        if (Files.exists(cachedJar)) {
+            LOG.debug("Using cached jar {}", cachedJar);
+            // the modification time is the last use of the jar for the cache eviction
+            Files.setLastModifiedTime(cachedJar, FileTime.fromMillis(System.currentTimeMillis()));
+            return cachedJar;
+        }
+        Path tmpJar = Files.createTempFile(cacheDirectory, "assembly", ".tmp");
+        try {
+            write(baseJar, sortedArtifacts, tmpJar);
+            Files.move(tmpJar, cachedJar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpJar);
+        }
+        LOG.debug("Assembled jar {} from {} and {}", cachedJar, baseJar, sortedArtifacts);
+        evict(cachedJar);
+        return cachedJar;
+    }
+
+    private void write(Path baseJar, List<File> artifacts, Path target) throws IOException {
+        Map<String, File> artifactsByName = new LinkedHashMap<>();
+        for (File artifact : artifacts) {
+            artifactsByName.put(artifact.getName(), artifact);
+        }
+        try (ZipFile zipFile = new ZipFile(baseJar.toFile());
+             ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (artifactsByName.containsKey(entry.getName())) {
+                    switch (duplicateEntryPolicy) {
+                        case REPLACE:
+                            LOG.debug("Replacing entry {} of {}", entry.getName(), baseJar);
+                            continue;
+                        case KEEP:
+                            LOG.debug("Keeping entry {} of {}", entry.getName(), baseJar);
+                            artifactsByName.remove(entry.getName());
+                            break;
+                        case FAIL:
+                            throw new IOException("Artifact " + artifactsByName.get(entry.getName())
+                                    + " is already an entry of " + baseJar);
+                    }
+                }
+                ZipEntry copy = new ZipEntry(entry.getName());
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    ByteStreams.copy(in, out);
+                }
+                out.closeEntry();
+            }
+            for (File artifact : artifactsByName.values()) {
+                ZipEntry entry = new ZipEntry(artifact.getName());
+                entry.setTime(artifact.lastModified());
+                out.putNextEntry(entry);
+                Files.copy(artifact.toPath(), out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private String getDigest(Path baseJar, List<File> artifacts) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(duplicateEntryPolicy.name(), StandardCharsets.UTF_8)
+                .putBytes(getBaseJarDigest(baseJar).asBytes());
+        for (File artifact : artifacts) {
+            hasher.putString(artifact.getName(), StandardCharsets.UTF_8)
+                    .putBytes(digest(artifact).asBytes());
+        }
+        return hasher.hash().toString();
+    }
+
+    private HashCode getBaseJarDigest(Path baseJar) throws IOException {
+        File file = baseJar.toFile();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        FileDigest fileDigest = baseJarDigests.get(baseJar);
+        if (fileDigest == null || fileDigest.size != size || fileDigest.lastModified != lastModified) {
+            fileDigest = new FileDigest(size, lastModified, digest(file));
+            baseJarDigests.put(baseJar, fileDigest);
+        }
+        return fileDigest.digest;
+    }
+
+    private static HashCode digest(File file) throws IOException {
+        return com.google.common.io.Files.hash(file, Hashing.sha256());
+    }
+
+    private void evict(Path keep) {
+        File[] jars = cacheDirectory.toFile().listFiles();
+        if (jars == null || jars.length <= maxCachedJars) {
+            return;
+        }
+        List<File> cachedJars = new ArrayList<>();
+        for (File jar : jars) {
+            if (jar.getName().endsWith(JAR_SUFFIX) && !jar.toPath().equals(keep)) {
+                cachedJars.add(jar);
+            }
+        }
+        Collections.sort(cachedJars, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return Long.compare(f1.lastModified(), f2.lastModified());
+            }
+        });
+        // the jar just assembled is not in the list
+        for (int i = 0; i < cachedJars.size() - (maxCachedJars - 1); i++) {
+            File jar = cachedJars.get(i);
+            if (jar.delete()) {
+                LOG.debug("Removed cached jar {}", jar);
+            } else {
+                LOG.warn("Could not remove cached jar {}", jar);
+            }
+        }
+    }
+}
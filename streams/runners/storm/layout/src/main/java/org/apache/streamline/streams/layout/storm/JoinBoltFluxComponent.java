@@ -47,11 +47,13 @@ import java.util.Map;
   [
     {"type" : "left",  "stream": "s2", "key":"k2", "with": "s1"},
     {"type" : "left",  "stream": "s3", "key":"k3", "with": "s1"},
-    {"type" : "inner", "stream": "s4", "key":"k4", "with": "s2"}
+    {"type" : "inner", "stream": "s4", "key":"k4", "with": "s2"},
+    {"type" : "outer", "stream": "s5", "key":"k5", "with": "s1"}
   ],
   "outputKeys" : [ "k1", "k2" ],
   "window" : {"windowLength" : {"class":".Window$Count", "count":100}, "slidingInterval":{"class":".Window$Count", "count":100}, "tsField":null, "lagMs":0},
-  "outputStream" : "joinedStream1"
+  "outputStream" : "joinedStream1",
+  "incrementalResults" : false
 }
  */
 
@@ -96,6 +98,10 @@ public class JoinBoltFluxComponent extends AbstractFluxComponent {
                     result.add("join");
                 else if( joinType.compareToIgnoreCase("left")==0 )
                     result.add("leftJoin");
+                else if( joinType.compareToIgnoreCase("right")==0 )
+                    result.add("rightJoin");
+                else if( joinType.compareToIgnoreCase("outer")==0 )
+                    result.add("outerJoin");
                 else
                     throw new IllegalArgumentException("Unsupported Join type: " + joinType);
             }
@@ -118,6 +124,14 @@ public class JoinBoltFluxComponent extends AbstractFluxComponent {
             throw new IllegalArgumentException("'outputStream' is required and cannot be null");
         }
 
+        if( isIncrementalResults(conf) ) {
+            result.add("withIncrementalResults");
+        }
+
+        if( conf.get("spillDirectory") != null ) {
+            result.add("withSpilling");
+        }
+
         return result.toArray(new String[]{});
     }
 
@@ -147,9 +161,24 @@ public class JoinBoltFluxComponent extends AbstractFluxComponent {
         String outputStreamName = conf.get("outputStream").toString();
         result.add( new String[]{outputStreamName} );
 
+        // incremental results
+        if( isIncrementalResults(conf) ) {
+            result.add( new Object[]{} );
+        }
+
+        // spilled window state, the newest pane kept on heap unless configured
+        if( (val = conf.get("spillDirectory")) != null ) {
+            Object heapPanes = conf.get("heapPanes");
+            result.add( new Object[]{ val.toString(), heapPanes != null ? ((Number) heapPanes).intValue() : 1 } );
+        }
+
         return result.toArray(new Object[]{});
     }
 
+    private static boolean isIncrementalResults(Map<String, Object> conf) {
+        return Boolean.TRUE.equals(conf.get("incrementalResults"));
+    }
+
     private String[] getJoinArgs(Map<String, Object> ji) {
         return new String[]{ji.get("stream").toString(), ji.get("key").toString(), ji.get("with").toString()};
     }
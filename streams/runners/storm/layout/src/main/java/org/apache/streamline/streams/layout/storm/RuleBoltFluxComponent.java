@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +18,8 @@ import java.util.Map;
  */
 public class RuleBoltFluxComponent extends AbstractFluxComponent {
     private final Logger log = LoggerFactory.getLogger(RuleBoltFluxComponent.class);
+    // names of the RuleProcessorRuntime.ScriptType constants
+    private static final List<String> SCRIPT_TYPES = Arrays.asList("GROOVY", "SQL", "JAVA");
     protected RulesProcessor rulesProcessor;
 
     public RuleBoltFluxComponent() {
@@ -37,9 +40,12 @@ public class RuleBoltFluxComponent extends AbstractFluxComponent {
                     e);
         }
         boltConstructorArgs.add(rulesProcessorJson);
-        // hardcode script type enum for now.
-        boltConstructorArgs.add("SQL");
-        component = createComponent(boltId, boltClassName, null, boltConstructorArgs, null);
+        // script type enum, SQL unless configured
+        addArg(boltConstructorArgs, RulesProcessor.CONFIG_KEY_SCRIPT_TYPE, "SQL");
+        String[] configMethodNames = {"withBatchSize", "withBatchLingerMs"};
+        String[] configKeys = {RulesProcessor.CONFIG_KEY_BATCH_SIZE, RulesProcessor.CONFIG_KEY_BATCH_LINGER_MS};
+        List configMethods = getConfigMethodsYaml(configMethodNames, configKeys);
+        component = createComponent(boltId, boltClassName, null, boltConstructorArgs, configMethods);
         addParallelismToComponent();
     }
 
@@ -51,6 +57,16 @@ public class RuleBoltFluxComponent extends AbstractFluxComponent {
         if (rulesProcessorConfig == null) {
             throw new ComponentConfigException(String.format(TopologyLayoutConstants.ERR_MSG_MISSING_INVALID_CONFIG, fieldName));
         }
+        String[] batchFieldNames = {RulesProcessor.CONFIG_KEY_BATCH_SIZE, RulesProcessor.CONFIG_KEY_BATCH_LINGER_MS};
+        Integer[] mins = {1, 0};
+        Integer[] maxes = {Integer.MAX_VALUE, Integer.MAX_VALUE};
+        validateIntegerFields(batchFieldNames, false, mins, maxes);
+        validateStringFields(new String[] {RulesProcessor.CONFIG_KEY_SCRIPT_TYPE}, false);
+        Object scriptType = conf.get(RulesProcessor.CONFIG_KEY_SCRIPT_TYPE);
+        if (scriptType != null && !SCRIPT_TYPES.contains(scriptType)) {
+            throw new ComponentConfigException(String.format(TopologyLayoutConstants.ERR_MSG_MISSING_INVALID_CONFIG,
+                    RulesProcessor.CONFIG_KEY_SCRIPT_TYPE));
+        }
         /*
         Commenting the below code because of cyclic dependency between layout
         module and core module
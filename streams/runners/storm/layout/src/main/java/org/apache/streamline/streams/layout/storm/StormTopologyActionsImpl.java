@@ -1,7 +1,6 @@
 package org.apache.streamline.streams.layout.storm;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableList;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.streamline.common.Config;
@@ -45,7 +44,7 @@ public class StormTopologyActionsImpl implements TopologyActions {
     private String stormCliPath = "storm";
     private String stormJarLocation;
     private String catalogRootUrl;
-    private String javaJarCommand;
+    private JarAssembler jarAssembler;
     private StormRestAPIClient client;
     private Map<String, String> conf;
 
@@ -68,12 +67,6 @@ public class StormTopologyActionsImpl implements TopologyActions {
             }
             stormJarLocation = conf.get(StormTopologyLayoutConstants.STORM_JAR_LOCATION_KEY);
             catalogRootUrl = conf.get(StormTopologyLayoutConstants.YAML_KEY_CATALOG_ROOT_URL);
-            String res;
-            if ((res=conf.get(TopologyLayoutConstants.JAVA_JAR_COMMAND)) != null) {
-                javaJarCommand = res;
-            } else {
-                javaJarCommand = "jar";
-            }
 
             String stormApiRootUrl = null;
             if (conf != null) {
@@ -84,6 +77,16 @@ public class StormTopologyActionsImpl implements TopologyActions {
         }
         File f = new File (stormArtifactsLocation);
         f.mkdirs();
+        jarAssembler = new JarAssembler(Paths.get(stormArtifactsLocation, "jars-cache"));
+        if (conf != null) {
+            String res;
+            if ((res = conf.get(StormTopologyLayoutConstants.STORM_JAR_CACHE_SIZE_KEY)) != null) {
+                jarAssembler.withMaxCachedJars(Integer.parseInt(res));
+            }
+            if ((res = conf.get(StormTopologyLayoutConstants.STORM_JAR_DUPLICATE_ENTRY_POLICY_KEY)) != null) {
+                jarAssembler.withDuplicateEntryPolicy(JarAssembler.DuplicateEntryPolicy.valueOf(res));
+            }
+        }
     }
 
 
@@ -131,17 +134,16 @@ public class StormTopologyActionsImpl implements TopologyActions {
         Path jarFile = Paths.get(stormJarLocation);
         if (artifactsLocation.toFile().isDirectory()) {
             File[] artifacts = artifactsLocation.toFile().listFiles();
-            if (artifacts != null && artifacts.length > 0) {
-                Path newJar = Files.copy(jarFile, artifactsLocation.resolve(jarFile.getFileName()));
+            List<File> artifactFiles = new ArrayList<>();
+            if (artifacts != null) {
                 for (File artifact : artifacts) {
                     if (artifact.isFile()) {
-                        executeShellProcess(
-                                ImmutableList.of(javaJarCommand, "uf", newJar.toString(),
-                                        "-C", artifactsLocation.toString(), artifact.getName()));
-                        LOG.debug("Added file {} to jar {}", artifact, jarFile);
+                        artifactFiles.add(artifact);
                     }
                 }
-                return newJar;
+            }
+            if (!artifactFiles.isEmpty()) {
+                return jarAssembler.assemble(jarFile, artifactFiles);
             }
         } else {
             LOG.debug("Artifacts directory {} does not exist, not adding any artifacts to jar", artifactsLocation);
@@ -5,6 +5,8 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Multimap;
 import org.apache.streamline.common.Config;
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.layout.TopologyLayoutConstants;
 import org.apache.streamline.streams.layout.component.Component;
 import org.apache.streamline.streams.layout.component.Edge;
 import org.apache.streamline.streams.layout.component.InputComponent;
@@ -18,6 +20,7 @@ import org.apache.streamline.streams.layout.component.TopologyDag;
 import org.apache.streamline.streams.layout.component.TopologyDagVisitor;
 import org.apache.streamline.streams.layout.component.TopologyLayout;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
 import org.apache.streamline.streams.layout.component.rule.Rule;
 import org.apache.streamline.streams.layout.component.rule.expression.Window;
 import org.slf4j.Logger;
@@ -27,11 +30,15 @@ import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import static org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants.YAML_KEY_ID;
 import static org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants.YAML_KEY_STREAMS;
@@ -48,12 +55,19 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
     private final TopologyDag topologyDag;
     private final Map<String, String> config;
     private final Config topologyConfig;
+    private final Set<List<String>> streamFieldNames = new LinkedHashSet<>();
+    // the processors fused into a single bolt -> the chain they are part of
+    private final Map<Component, List<StreamlineProcessor>> fusedChains = new HashMap<>();
 
     public StormTopologyFluxGenerator(TopologyLayout topologyLayout, Map<String, String> config, Path extraJarsLocation) {
         this.topologyDag = topologyLayout.getTopologyDag();
         this.topologyConfig = topologyLayout.getConfig();
         this.config = config;
         fluxComponentFactory = new FluxComponentFactory(extraJarsLocation);
+        registerStreamlineEventSerializer();
+        if (topologyConfig.getBoolean(StormTopologyLayoutConstants.TOPOLOGY_FUSE_PROCESSORS, false)) {
+            findFusedChains();
+        }
     }
 
     @Override
@@ -70,6 +84,10 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
 
     @Override
     public void visit(StreamlineProcessor processor) {
+        if (fusedChains.containsKey(processor)) {
+            visitFused(processor);
+            return;
+        }
         keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_BOLTS,
                 getYamlComponents(fluxComponentFactory.getFluxComponent(processor), processor)));
     }
@@ -77,6 +95,10 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
     @Override
     public void visit(final RulesProcessor rulesProcessor) {
         rulesProcessor.getConfig().setAny("outputStreams", rulesProcessor.getOutputStreams());
+        if (fusedChains.containsKey(rulesProcessor)) {
+            visitFused(rulesProcessor);
+            return;
+        }
         List<Rule> rulesWithWindow = new ArrayList<>();
         List<Rule> rulesWithoutWindow = new ArrayList<>();
         for (Rule rule : rulesProcessor.getRules()) {
@@ -129,6 +151,108 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         }
     }
 
+    /*
+     * Finds the linear chains of processors that can run in a single bolt, i.e. the processors connected only
+     * to each other by shuffle groupings, with the same parallelism and whose runtimes are stateless.
+     */
+    private void findFusedChains() {
+        for (Component component : topologyDag.getComponents()) {
+            if (isFusable(component) && !isFusedWithPredecessor(component)) {
+                List<StreamlineProcessor> chain = new ArrayList<>();
+                StreamlineProcessor current = (StreamlineProcessor) component;
+                while (current != null) {
+                    chain.add(current);
+                    current = getFusableSuccessor(current);
+                }
+                if (chain.size() > 1) {
+                    LOG.debug("Fusing processors {}", chain);
+                    for (StreamlineProcessor processor : chain) {
+                        fusedChains.put(processor, chain);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isFusable(Component component) {
+        if (component instanceof NormalizationProcessor) {
+            return NormalizationBoltFluxComponent.class.getName().equals(((NormalizationProcessor) component).getTransformationClass());
+        } else if (component instanceof RulesProcessor) {
+            RulesProcessor rulesProcessor = (RulesProcessor) component;
+            if (!RuleBoltFluxComponent.class.getName().equals(rulesProcessor.getTransformationClass())
+                    || rulesProcessor.getConfig().getInt(RulesProcessor.CONFIG_KEY_BATCH_SIZE, 1) > 1) {
+                return false;
+            }
+            for (Rule rule : rulesProcessor.getRules()) {
+                if (rule.getWindow() != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private StreamlineProcessor getFusableSuccessor(StreamlineProcessor processor) {
+        List<Edge> edges = topologyDag.getEdgesFrom(processor);
+        if (edges.size() != 1) {
+            return null;
+        }
+        Edge edge = edges.get(0);
+        for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
+            if (!Stream.Grouping.SHUFFLE.equals(streamGrouping.getGrouping())) {
+                return null;
+            }
+        }
+        Component to = edge.getTo();
+        if (!isFusable(to) || topologyDag.getEdgesTo(to).size() != 1
+                || !Objects.equals(getParallelism(processor), getParallelism(to))) {
+            return null;
+        }
+        return (StreamlineProcessor) to;
+    }
+
+    private boolean isFusedWithPredecessor(Component component) {
+        List<Edge> edges = topologyDag.getEdgesTo(component);
+        return edges.size() == 1 && isFusable(edges.get(0).getFrom())
+                && component.equals(getFusableSuccessor((StreamlineProcessor) edges.get(0).getFrom()));
+    }
+
+    private Object getParallelism(Component component) {
+        return component.getConfig().getProperties().get(TopologyLayoutConstants.JSON_KEY_PARALLELISM);
+    }
+
+    /*
+     * The fused bolt is added once the last processor of the chain is visited, since the processors are
+     * visited in topological order and the visits may update their config.
+     */
+    private void visitFused(StreamlineProcessor processor) {
+        List<StreamlineProcessor> chain = fusedChains.get(processor);
+        addStreamFieldNames(processor);
+        if (processor.equals(chain.get(chain.size() - 1))) {
+            List<List<String>> inputStreams = new ArrayList<>();
+            for (StreamlineProcessor member : chain) {
+                List<String> streamIds = new ArrayList<>();
+                for (Edge edge : topologyDag.getEdgesTo(member)) {
+                    for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
+                        if (!streamIds.contains(streamGrouping.getStream().getId())) {
+                            streamIds.add(streamGrouping.getStream().getId());
+                        }
+                    }
+                }
+                inputStreams.add(streamIds);
+            }
+            StreamlineProcessor head = chain.get(0);
+            keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_BOLTS,
+                    getYamlComponents(new FusedProcessorBoltFluxComponent(chain, inputStreams), head)));
+        }
+    }
+
+    private boolean isFusedEdge(Edge edge) {
+        List<StreamlineProcessor> chain = fusedChains.get(edge.getFrom());
+        return chain != null && chain.contains(edge.getTo());
+    }
+
     private void mayBeUpdateTopologyConfig(Window window) {
         int messageTimeoutSecs = DELTA;
         int maxPending = DELTA;
@@ -153,6 +277,49 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         }
     }
 
+    /*
+     * Registers the kryo serializer for the streamline events and the classes of their nested
+     * values, keeping the registrations that are already part of the topology config.
+     */
+    private void registerStreamlineEventSerializer() {
+        List<Object> registrations = new ArrayList<>();
+        Object configured = topologyConfig.getProperties().get(StormTopologyLayoutConstants.TOPOLOGY_KRYO_REGISTER);
+        if (configured instanceof Collection) {
+            registrations.addAll((Collection<?>) configured);
+        } else if (configured != null) {
+            registrations.add(configured);
+        }
+        for (String eventClassName : StormTopologyLayoutConstants.STREAMLINE_EVENT_CLASSNAMES) {
+            Map<String, String> registration = Collections.singletonMap(eventClassName,
+                    StormTopologyLayoutConstants.STREAMLINE_EVENT_SERIALIZER_CLASSNAME);
+            if (!registrations.contains(registration)) {
+                registrations.add(registration);
+            }
+        }
+        for (String valueClassName : StormTopologyLayoutConstants.STREAMLINE_EVENT_VALUE_CLASSNAMES) {
+            if (!registrations.contains(valueClassName)) {
+                registrations.add(valueClassName);
+            }
+        }
+        topologyConfig.setAny(StormTopologyLayoutConstants.TOPOLOGY_KRYO_REGISTER, registrations);
+    }
+
+    // the field names of the output streams are shared with the serializer through the topology config
+    private void addStreamFieldNames(Component component) {
+        if (component instanceof OutputComponent) {
+            for (Stream stream : ((OutputComponent) component).getOutputStreams()) {
+                if (stream.getSchema() != null) {
+                    List<String> fieldNames = new ArrayList<>();
+                    for (Schema.Field field : stream.getSchema().getFields()) {
+                        fieldNames.add(field.getName());
+                    }
+                    streamFieldNames.add(fieldNames);
+                }
+            }
+            topologyConfig.setAny(StormTopologyLayoutConstants.STREAMLINE_EVENT_FIELD_INDEXES, new ArrayList<>(streamFieldNames));
+        }
+    }
+
     private void removeFluxStreamsTo(String componentId) {
         Iterator<Map.Entry<String, Map<String, Object>>> it = keysAndComponents.iterator();
         while (it.hasNext()) {
@@ -189,7 +356,7 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
 
     @Override
     public void visit(Edge edge) {
-        if (sourceYamlComponentExists(edge)) {
+        if (sourceYamlComponentExists(edge) && !isFusedEdge(edge)) {
             for (StreamGrouping streamGrouping : edge.getStreamGroupings()) {
                 addEdge(edge.getFrom(),
                         edge.getTo(),
@@ -225,6 +392,7 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         // below line is needed becuase kafka, normalization, notification and rules flux components need design time entities
         props.put(StormTopologyLayoutConstants.STREAMLINE_COMPONENT_CONF_KEY, topologyComponent);
         fluxComponent.withConfig(props);
+        addStreamFieldNames(topologyComponent);
 
         for (Map<String, Object> referencedComponent : fluxComponent.getReferencedComponents()) {
             keysAndComponents.add(makeEntry(StormTopologyLayoutConstants.YAML_KEY_COMPONENTS, referencedComponent));
@@ -245,6 +413,13 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
             customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASSNAME);
             customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CONSTRUCTOR_ARGS, fields);
             grouping.put(StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASS, customGroupingClass);
+        } else if (Stream.Grouping.KEY_GROUPS.equals(groupingType)) {
+            grouping.put(StormTopologyLayoutConstants.YAML_KEY_TYPE, StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING);
+            Map customGroupingClass = new LinkedHashMap<>();
+            customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME, StormTopologyLayoutConstants.YAML_KEY_KEY_GROUP_GROUPING_CLASSNAME);
+            // the fields are the varargs of the constructor
+            customGroupingClass.put(StormTopologyLayoutConstants.YAML_KEY_CONSTRUCTOR_ARGS, Collections.singletonList(fields));
+            grouping.put(StormTopologyLayoutConstants.YAML_KEY_CUSTOM_GROUPING_CLASS, customGroupingClass);
         } else if (Stream.Grouping.SHUFFLE.equals(groupingType)) {
             grouping.put(StormTopologyLayoutConstants.YAML_KEY_TYPE, StormTopologyLayoutConstants.YAML_KEY_LOCAL_OR_SHUFFLE_GROUPING);
         } else {
@@ -263,7 +438,12 @@ public class StormTopologyFluxGenerator extends TopologyDagVisitor {
         return new AbstractMap.SimpleImmutableEntry<>(key, component);
     }
 
+    // the processors of a fused chain share the id of the first processor
     private String getFluxId(Component component) {
+        List<StreamlineProcessor> chain = fusedChains.get(component);
+        if (chain != null) {
+            component = chain.get(0);
+        }
         return component.getId() + "-" + component.getName();
     }
 }
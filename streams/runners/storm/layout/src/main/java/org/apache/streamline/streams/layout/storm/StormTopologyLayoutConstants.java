@@ -9,9 +9,19 @@ public final class StormTopologyLayoutConstants {
     public static final String STORM_ARTIFACTS_LOCATION_KEY = "stormArtifactsDirectory";
     public static final String STORM_JAR_LOCATION_KEY = "streamlineStormJar";
     public static final String STORM_HOME_DIR = "stormHomeDir";
+    // number of assembled topology jars kept in the artifacts location for redeploys
+    public static final String STORM_JAR_CACHE_SIZE_KEY = "stormJarCacheSize";
+    // what to do when a topology artifact is already an entry of the storm jar, see JarAssembler.DuplicateEntryPolicy
+    public static final String STORM_JAR_DUPLICATE_ENTRY_POLICY_KEY = "stormJarDuplicateEntryPolicy";
     public static final String TOPOLOGY_MESSAGE_TIMEOUT_SECS = "topology.message.timeout.secs";
     public static final String TOPOLOGY_MAX_SPOUT_PENDING = "topology.max.spout.pending";
+    public static final String TOPOLOGY_KRYO_REGISTER = "topology.kryo.register";
+    // field names of the stream schemas, used by the StreamlineEvent serializer to avoid sending them with every event
+    public static final String STREAMLINE_EVENT_FIELD_INDEXES = "topology.streamline.event.field.indexes";
     public static final String STREAMLINE_COMPONENT_CONF_KEY = "streamlineComponent";
+    // whether chains of stateless processors are fused into a single bolt, disabled unless set to true since the
+    // metrics of the fused processors are then only reported under the bolt of the first processor of the chain
+    public static final String TOPOLOGY_FUSE_PROCESSORS = "topology.streamline.fuse.processors";
 
     // yaml key constants
     public static final String YAML_KEY_NAME = "name";
@@ -55,4 +65,19 @@ public final class StormTopologyLayoutConstants {
     public final static String YAML_KEY_PARALLELISM = "parallelism";
     public final static String YAML_KEY_CUSTOM_GROUPING_CLASS = "customClass";
     public final static String YAML_KEY_CUSTOM_GROUPING_CLASSNAME = "org.apache.streamline.streams.runtime.storm.grouping.FieldsGroupingAsCustomGrouping";
+    public final static String YAML_KEY_KEY_GROUP_GROUPING_CLASSNAME = "org.apache.streamline.streams.runtime.storm.grouping.KeyGroupGrouping";
+
+    // kryo serialization of the events
+    public final static String STREAMLINE_EVENT_SERIALIZER_CLASSNAME = "org.apache.streamline.streams.runtime.storm.serialization.StreamlineEventSerializer";
+    public final static String[] STREAMLINE_EVENT_CLASSNAMES = {
+            "org.apache.streamline.streams.common.StreamlineEventImpl",
+            "org.apache.streamline.streams.common.IndexedStreamlineEvent",
+            "org.apache.streamline.streams.common.StreamlineEventWithStream"
+    };
+    // the nested values of the events decoded from avro, written with the default kryo map and list serializers
+    public final static String[] STREAMLINE_EVENT_VALUE_CLASSNAMES = {
+            "org.apache.streamline.streams.runtime.storm.spout.AvroStreamlineEventDecoder$RecordView",
+            "org.apache.streamline.streams.runtime.storm.spout.AvroStreamlineEventDecoder$ObjectListView",
+            "org.apache.streamline.streams.runtime.storm.spout.AvroStreamlineEventDecoder$PrimitiveListView"
+    };
 }
@@ -7,6 +7,7 @@ import com.google.common.collect.Collections2;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
 import org.apache.streamline.streams.layout.component.rule.Rule;
 import org.apache.streamline.streams.layout.component.rule.expression.Window;
+import org.apache.streamline.streams.layout.exception.ComponentConfigException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,15 +41,34 @@ public class WindowRuleBoltFluxComponent extends RuleBoltFluxComponent {
                     e);
         }
         boltConstructorArgs.add(rulesProcessorJson);
-        // hardcode script type enum for now.
-        boltConstructorArgs.add("SQL");
+        // script type enum, SQL unless configured
+        addArg(boltConstructorArgs, RulesProcessor.CONFIG_KEY_SCRIPT_TYPE, "SQL");
         String[] configMethodNames = {"withWindowConfig"};
         Object[] configKeys = {getRefYaml(addWindowConfig())};
+        if (conf.get(RulesProcessor.CONFIG_KEY_SPILL_DIRECTORY) != null) {
+            configMethodNames = new String[] {"withWindowConfig", "withSpilling"};
+            configKeys = new Object[] {configKeys[0], new Object[] {conf.get(RulesProcessor.CONFIG_KEY_SPILL_DIRECTORY),
+                    getHeapPanes()}};
+        }
         List configMethods = getConfigMethodsYaml(configMethodNames, configKeys);
         component = createComponent(boltId, boltClassName, null, boltConstructorArgs, configMethods);
         addParallelismToComponent();
     }
 
+    @Override
+    public void validateConfig() throws ComponentConfigException {
+        super.validateConfig();
+        validateStringFields(new String[] {RulesProcessor.CONFIG_KEY_SPILL_DIRECTORY}, false);
+        validateIntegerFields(new String[] {RulesProcessor.CONFIG_KEY_HEAP_PANES}, false,
+                new Integer[] {0}, new Integer[] {Integer.MAX_VALUE});
+    }
+
+    // the newest pane is kept on heap unless configured
+    private int getHeapPanes() {
+        Object heapPanes = conf.get(RulesProcessor.CONFIG_KEY_HEAP_PANES);
+        return heapPanes != null ? ((Number) heapPanes).intValue() : 1;
+    }
+
     private String addWindowConfig() {
         String windowId = "window" + UUID_FOR_COMPONENTS;
         String windowClassName = "org.apache.streamline.streams.layout.component.rule.expression.Window";
@@ -0,0 +1,114 @@
+package org.apache.streamline.streams.layout.storm;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class JarAssemblerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path baseJar;
+    private File artifact;
+    private File duplicate;
+    private Path cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        baseJar = folder.getRoot().toPath().resolve("base.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(baseJar))) {
+            out.putNextEntry(new ZipEntry("org/Base.class"));
+            out.write("base".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("log4j2.xml"));
+            out.write("base log config".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        File artifacts = folder.newFolder("artifacts");
+        artifact = write(new File(artifacts, "rules.json"), "rules");
+        duplicate = write(new File(artifacts, "log4j2.xml"), "topology log config");
+        cacheDirectory = folder.getRoot().toPath().resolve("cache");
+    }
+
+    @Test
+    public void testAssemble() throws Exception {
+        Path jar = new JarAssembler(cacheDirectory).assemble(baseJar, Arrays.asList(artifact, duplicate));
+        Map<String, String> entries = read(jar);
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("base", entries.get("org/Base.class"));
+        Assert.assertEquals("rules", entries.get("rules.json"));
+        Assert.assertEquals("topology log config", entries.get("log4j2.xml"));
+    }
+
+    @Test
+    public void testKeepDuplicateEntry() throws Exception {
+        Path jar = new JarAssembler(cacheDirectory)
+                .withDuplicateEntryPolicy(JarAssembler.DuplicateEntryPolicy.KEEP)
+                .assemble(baseJar, Arrays.asList(artifact, duplicate));
+        Map<String, String> entries = read(jar);
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("base log config", entries.get("log4j2.xml"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailOnDuplicateEntry() throws Exception {
+        new JarAssembler(cacheDirectory)
+                .withDuplicateEntryPolicy(JarAssembler.DuplicateEntryPolicy.FAIL)
+                .assemble(baseJar, Arrays.asList(artifact, duplicate));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        JarAssembler jarAssembler = new JarAssembler(cacheDirectory).withMaxCachedJars(2);
+        Path jar = jarAssembler.assemble(baseJar, Arrays.asList(artifact, duplicate));
+        long lastModified = jar.toFile().lastModified();
+        // same contents in a different order
+        Assert.assertEquals(jar, jarAssembler.assemble(baseJar, Arrays.asList(duplicate, artifact)));
+
+        write(artifact, "updated rules");
+        Path updatedJar = jarAssembler.assemble(baseJar, Arrays.asList(artifact, duplicate));
+        Assert.assertNotEquals(jar, updatedJar);
+        Assert.assertEquals("updated rules", read(updatedJar).get("rules.json"));
+
+        // the least recently used jar is evicted
+        Assert.assertTrue(jar.toFile().setLastModified(lastModified - 60000));
+        Path otherJar = jarAssembler.assemble(baseJar, Collections.singletonList(duplicate));
+        Assert.assertFalse(Files.exists(jar));
+        Assert.assertTrue(Files.exists(updatedJar));
+        Assert.assertTrue(Files.exists(otherJar));
+    }
+
+    private static File write(File file, String contents) throws IOException {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static Map<String, String> read(Path jar) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    entries.put(entry.getName(), new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.dataformat.yaml.snakeyaml.DumperOptions;
 import com.fasterxml.jackson.dataformat.yaml.snakeyaml.Yaml;
 
 import org.apache.streamline.streams.layout.component.rule.expression.Window;
+import org.junit.Assert;
 import org.junit.Test;
 
 
@@ -27,6 +28,8 @@ public class JoinBoltFluxComponentTest {
         List<Map.Entry<String, Map<String, Object>>> map = getYamlComponents(me);
         String yamlStr = makeYaml(map);
         System.out.println(yamlStr);
+        Assert.assertTrue(yamlStr.contains("rightJoin"));
+        Assert.assertTrue(yamlStr.contains("outerJoin"));
 
     }
 
@@ -44,7 +47,9 @@ public class JoinBoltFluxComponentTest {
                 "  [\n" +
                 "    {\"type\" : \"left\",  \"stream\": \"s2\", \"key\":\"k2\", \"with\": \"s1\"},\n" +
                 "    {\"type\" : \"left\",  \"stream\": \"s3\", \"key\":\"k3\", \"with\": \"s1\"},\n" +
-                "    {\"type\" : \"inner\", \"stream\": \"s4\", \"key\":\"k4\", \"with\": \"s2\"}\n" +
+                "    {\"type\" : \"inner\", \"stream\": \"s4\", \"key\":\"k4\", \"with\": \"s2\"},\n" +
+                "    {\"type\" : \"right\", \"stream\": \"s5\", \"key\":\"k5\", \"with\": \"s1\"},\n" +
+                "    {\"type\" : \"outer\", \"stream\": \"s6\", \"key\":\"k6\", \"with\": \"s1\"}\n" +
                 "  ],\n" +
                 "  \"outputKeys\" : [ \"k1\", \"k2\" ],\n" +
                 "  \"window\" : {\"windowLength\":{\"class\":\".Window$Count\",\"count\":100},\"slidingInterval\":{\"class\":\".Window$Count\",\"count\":100},\"tsField\":null,\"lagMs\":0},\n" +
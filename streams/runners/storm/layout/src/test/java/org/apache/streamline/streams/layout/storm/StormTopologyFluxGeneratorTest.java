@@ -0,0 +1,208 @@
+package org.apache.streamline.streams.layout.storm;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.layout.TopologyLayoutConstants;
+import org.apache.streamline.streams.layout.component.Stream;
+import org.apache.streamline.streams.layout.component.StreamlineSink;
+import org.apache.streamline.streams.layout.component.StreamlineSource;
+import org.apache.streamline.streams.layout.component.TopologyDag;
+import org.apache.streamline.streams.layout.component.TopologyLayout;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationConfig;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import org.apache.streamline.streams.layout.component.rule.Rule;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class StormTopologyFluxGeneratorTest {
+    private static final String FUSED_BOLT_CLASSNAME = "org.apache.streamline.streams.runtime.storm.bolt.FusedProcessorBolt";
+    private static final String FUSION_ENABLED = "{\"" + StormTopologyLayoutConstants.TOPOLOGY_FUSE_PROCESSORS + "\": true}";
+
+    private StreamlineSource source;
+    private NormalizationProcessor normalizationProcessor;
+    private RulesProcessor rulesProcessor;
+    private StreamlineSink sink;
+    private TopologyDag topologyDag;
+
+    public static class TestSpoutFluxComponent extends AbstractFluxComponent {
+        @Override
+        protected void generateComponent() {
+            component = createComponent("testSpout", "TestSpout", null, null, null);
+        }
+    }
+
+    public static class TestBoltFluxComponent extends AbstractFluxComponent {
+        @Override
+        protected void generateComponent() {
+            component = createComponent("testBolt", "TestBolt", null, null, null);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        List<Schema.Field> fields = Collections.singletonList(Schema.Field.of("temperature", Schema.Type.INTEGER));
+        source = new StreamlineSource(Collections.singleton(new Stream("sourceStream", fields)));
+        source.setId("1");
+        source.setName("source");
+        source.setTransformationClass(TestSpoutFluxComponent.class.getName());
+
+        normalizationProcessor = new NormalizationProcessor(Collections.<String, NormalizationConfig>emptyMap(),
+                new Stream("normalizedStream", fields), NormalizationProcessor.Type.fineGrained);
+        normalizationProcessor.setId("2");
+        normalizationProcessor.setName("normalization");
+        normalizationProcessor.setTransformationClass(NormalizationBoltFluxComponent.class.getName());
+
+        rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId("3");
+        rulesProcessor.setName("rule");
+        rulesProcessor.addOutputStream(new Stream("ruleStream", fields));
+        rulesProcessor.setRules(new ArrayList<Rule>());
+        rulesProcessor.setTransformationClass(RuleBoltFluxComponent.class.getName());
+
+        sink = new StreamlineSink();
+        sink.setId("4");
+        sink.setName("sink");
+        sink.setTransformationClass(TestBoltFluxComponent.class.getName());
+
+        topologyDag = new TopologyDag();
+        topologyDag.add(source).add(normalizationProcessor).add(rulesProcessor).add(sink);
+        topologyDag.addEdge(source, normalizationProcessor);
+        topologyDag.addEdge(normalizationProcessor, rulesProcessor);
+    }
+
+    @Test
+    public void testFuseProcessors() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        List<Map.Entry<String, Map<String, Object>>> keysAndComponents = generate(FUSION_ENABLED);
+
+        List<Map<String, Object>> bolts = getComponents(keysAndComponents, StormTopologyLayoutConstants.YAML_KEY_BOLTS);
+        Assert.assertEquals(2, bolts.size());
+        Map<String, Object> fusedBolt = bolts.get(0);
+        Assert.assertEquals(FUSED_BOLT_CLASSNAME, fusedBolt.get(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME));
+        Assert.assertEquals("2-normalization", fusedBolt.get(StormTopologyLayoutConstants.YAML_KEY_ID));
+        List<Map<String, Object>> configMethods = (List<Map<String, Object>>) fusedBolt.get(StormTopologyLayoutConstants.YAML_KEY_CONFIG_METHODS);
+        Assert.assertEquals(2, configMethods.size());
+        Assert.assertEquals("withNormalizationStage", configMethods.get(0).get(StormTopologyLayoutConstants.YAML_KEY_NAME));
+        List<Object> args = (List<Object>) configMethods.get(0).get(StormTopologyLayoutConstants.YAML_KEY_ARGS);
+        Assert.assertEquals(Collections.singletonList("sourceStream"), args.get(1));
+        Assert.assertEquals("withRulesStage", configMethods.get(1).get(StormTopologyLayoutConstants.YAML_KEY_NAME));
+        args = (List<Object>) configMethods.get(1).get(StormTopologyLayoutConstants.YAML_KEY_ARGS);
+        Assert.assertEquals("SQL", args.get(1));
+        Assert.assertEquals(Collections.singletonList("normalizedStream"), args.get(2));
+
+        List<Map<String, Object>> streams = getComponents(keysAndComponents, StormTopologyLayoutConstants.YAML_KEY_STREAMS);
+        Assert.assertEquals(2, streams.size());
+        Assert.assertEquals("1-source", streams.get(0).get(StormTopologyLayoutConstants.YAML_KEY_FROM));
+        Assert.assertEquals("2-normalization", streams.get(0).get(StormTopologyLayoutConstants.YAML_KEY_TO));
+        Assert.assertEquals("2-normalization", streams.get(1).get(StormTopologyLayoutConstants.YAML_KEY_FROM));
+        Assert.assertEquals("4-sink", streams.get(1).get(StormTopologyLayoutConstants.YAML_KEY_TO));
+    }
+
+    @Test
+    public void testNoFusionAcrossFieldsGrouping() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        topologyDag.removeEdge(normalizationProcessor, rulesProcessor);
+        topologyDag.addEdge(normalizationProcessor, rulesProcessor, "normalizedStream", Stream.Grouping.FIELDS);
+        assertNotFused(generate(FUSION_ENABLED));
+    }
+
+    @Test
+    public void testNoFusionWithDifferentParallelism() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        rulesProcessor.getConfig().setAny(TopologyLayoutConstants.JSON_KEY_PARALLELISM, 2);
+        assertNotFused(generate(FUSION_ENABLED));
+    }
+
+    @Test
+    public void testNoFusionWithFanOut() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        topologyDag.addEdge(normalizationProcessor, sink);
+        assertNotFused(generate(FUSION_ENABLED));
+    }
+
+    @Test
+    public void testFusionDisabled() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        assertNotFused(generate("{\"" + StormTopologyLayoutConstants.TOPOLOGY_FUSE_PROCESSORS + "\": false}"));
+    }
+
+    @Test
+    public void testFusionDisabledByDefault() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        assertNotFused(generate(null));
+        assertNotFused(generate("{}"));
+    }
+
+    @Test
+    public void testKryoRegistrationsWithoutConfiguredRegistrations() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        for (String configStr : new String[] {null, "{}", "{\"topology.workers\": 2}"}) {
+            Assert.assertEquals(configStr, expectedEventRegistrations(), getKryoRegistrations(configStr));
+        }
+    }
+
+    @Test
+    public void testKryoRegistrationsKeepConfiguredRegistrations() throws Exception {
+        topologyDag.addEdge(rulesProcessor, sink);
+        List<Object> expected = new ArrayList<>();
+        expected.add("com.example.Reading");
+        expected.addAll(expectedEventRegistrations());
+        Assert.assertEquals(expected, getKryoRegistrations("{\"" + StormTopologyLayoutConstants.TOPOLOGY_KRYO_REGISTER
+                + "\": [\"com.example.Reading\"]}"));
+        Assert.assertEquals(expected, getKryoRegistrations("{\"" + StormTopologyLayoutConstants.TOPOLOGY_KRYO_REGISTER
+                + "\": \"com.example.Reading\"}"));
+    }
+
+    private List<Object> expectedEventRegistrations() {
+        List<Object> registrations = new ArrayList<>();
+        for (String eventClassName : StormTopologyLayoutConstants.STREAMLINE_EVENT_CLASSNAMES) {
+            registrations.add(Collections.singletonMap(eventClassName,
+                    StormTopologyLayoutConstants.STREAMLINE_EVENT_SERIALIZER_CLASSNAME));
+        }
+        registrations.addAll(Arrays.asList(StormTopologyLayoutConstants.STREAMLINE_EVENT_VALUE_CLASSNAMES));
+        return registrations;
+    }
+
+    private Object getKryoRegistrations(String configStr) throws Exception {
+        StormTopologyFluxGenerator fluxGenerator = newFluxGenerator(configStr);
+        topologyDag.traverse(fluxGenerator);
+        return fluxGenerator.getTopologyConfig().getProperties().get(StormTopologyLayoutConstants.TOPOLOGY_KRYO_REGISTER);
+    }
+
+    private void assertNotFused(List<Map.Entry<String, Map<String, Object>>> keysAndComponents) {
+        List<Map<String, Object>> bolts = getComponents(keysAndComponents, StormTopologyLayoutConstants.YAML_KEY_BOLTS);
+        Assert.assertEquals(3, bolts.size());
+        for (Map<String, Object> bolt : bolts) {
+            Assert.assertNotEquals(FUSED_BOLT_CLASSNAME, bolt.get(StormTopologyLayoutConstants.YAML_KEY_CLASS_NAME));
+        }
+    }
+
+    private List<Map.Entry<String, Map<String, Object>>> generate(String configStr) throws Exception {
+        StormTopologyFluxGenerator fluxGenerator = newFluxGenerator(configStr);
+        topologyDag.traverse(fluxGenerator);
+        return fluxGenerator.getYamlKeysAndComponents();
+    }
+
+    private StormTopologyFluxGenerator newFluxGenerator(String configStr) throws Exception {
+        TopologyLayout topologyLayout = new TopologyLayout(1L, "test", configStr, topologyDag);
+        return new StormTopologyFluxGenerator(topologyLayout, Collections.<String, String>emptyMap(), Paths.get("jars"));
+    }
+
+    private List<Map<String, Object>> getComponents(List<Map.Entry<String, Map<String, Object>>> keysAndComponents, String key) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> entry : keysAndComponents) {
+            if (entry.getKey().equals(key)) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+}
@@ -7,7 +7,7 @@ import org.apache.streamline.common.util.Utils;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.Result;
 import org.apache.streamline.streams.catalog.CatalogRestClient;
-import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
 import org.apache.streamline.streams.exception.ProcessingException;
 import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
 import org.apache.streamline.streams.runtime.CustomProcessorRuntime;
@@ -188,8 +188,7 @@ public class CustomProcessorBolt extends BaseRichBolt {
             final Object tupleField = input.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
             if (tupleField instanceof StreamlineEvent) {
                 StreamlineEvent event = (StreamlineEvent) tupleField;
-                for (Result result: customProcessorRuntime.process(new StreamlineEventImpl(event, event.getDataSourceId(), event
-                        .getId(), event.getHeader(), input.getSourceStreamId()))) {
+                for (Result result: customProcessorRuntime.process(StreamlineEventWithStream.of(event, input.getSourceStreamId()))) {
                     for (StreamlineEvent e: result.events) {
                         collector.emit(result.stream, input, new Values(e));
                     }
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.bolt;
+
+import org.apache.streamline.common.Constants;
+import org.apache.streamline.common.util.Utils;
+import org.apache.streamline.streams.Result;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
+import org.apache.streamline.streams.layout.component.Stream;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
+import org.apache.streamline.streams.runtime.ProcessorRuntime;
+import org.apache.streamline.streams.runtime.normalization.NormalizationProcessorRuntime;
+import org.apache.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs a linear chain of stateless processors in a single bolt. The events emitted by a stage on the streams
+ * the next stage subscribes to are passed to the next stage in-process, and only the events emitted by the
+ * last stage are emitted to the collector, anchored to the input tuple.
+ * <p>
+ * The stages are added in the order of the chain with the {@code with*Stage} methods, each with the ids of the
+ * streams it consumes.
+ * </p>
+ */
+public class FusedProcessorBolt extends AbstractProcessorBolt {
+    private final List<Stage> stages = new ArrayList<>();
+
+    private transient List<ProcessorRuntime> runtimes;
+
+    private abstract static class Stage implements Serializable {
+        final Set<String> inputStreams;
+
+        Stage(List<String> inputStreams) {
+            this.inputStreams = new HashSet<>(inputStreams);
+        }
+
+        abstract ProcessorRuntime createRuntime();
+
+        abstract Set<Stream> getOutputStreams();
+    }
+
+    private static class NormalizationStage extends Stage {
+        final NormalizationProcessor normalizationProcessor;
+
+        NormalizationStage(NormalizationProcessor normalizationProcessor, List<String> inputStreams) {
+            super(inputStreams);
+            this.normalizationProcessor = normalizationProcessor;
+        }
+
+        @Override
+        ProcessorRuntime createRuntime() {
+            return new NormalizationProcessorRuntime(normalizationProcessor);
+        }
+
+        @Override
+        Set<Stream> getOutputStreams() {
+            return normalizationProcessor.getOutputStreams();
+        }
+    }
+
+    private static class RulesStage extends Stage {
+        final RulesProcessor rulesProcessor;
+        final RuleProcessorRuntime.ScriptType scriptType;
+
+        RulesStage(RulesProcessor rulesProcessor, RuleProcessorRuntime.ScriptType scriptType, List<String> inputStreams) {
+            super(inputStreams);
+            this.rulesProcessor = rulesProcessor;
+            this.scriptType = scriptType;
+        }
+
+        @Override
+        ProcessorRuntime createRuntime() {
+            return new RuleProcessorRuntime(rulesProcessor, scriptType);
+        }
+
+        @Override
+        Set<Stream> getOutputStreams() {
+            return rulesProcessor.getOutputStreams();
+        }
+    }
+
+    /**
+     * Adds a normalization stage consuming the given streams.
+     */
+    public FusedProcessorBolt withNormalizationStage(String normalizationProcessorJson, List<String> inputStreams) {
+        stages.add(new NormalizationStage(Utils.createObjectFromJson(normalizationProcessorJson, NormalizationProcessor.class),
+                inputStreams));
+        return this;
+    }
+
+    /**
+     * Adds a rules stage consuming the given streams. The rules can not have a window.
+     *
+     * @param scriptType name of the {@link RuleProcessorRuntime.ScriptType}
+     */
+    public FusedProcessorBolt withRulesStage(String rulesProcessorJson, String scriptType, List<String> inputStreams) {
+        stages.add(new RulesStage(Utils.createObjectFromJson(rulesProcessorJson, RulesProcessor.class),
+                RuleProcessorRuntime.ScriptType.valueOf(scriptType), inputStreams));
+        return this;
+    }
+
+    @Override
+    public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
+        super.prepare(stormConf, context, collector);
+        if (stages.isEmpty()) {
+            throw new RuntimeException("At least one stage is required");
+        }
+        Map<String, Object> config = Collections.emptyMap();
+        if (stormConf != null) {
+            config = new HashMap<>();
+            config.put(Constants.CATALOG_ROOT_URL, stormConf.get(Constants.CATALOG_ROOT_URL));
+            config.put(Constants.LOCAL_FILES_PATH, stormConf.get(Constants.LOCAL_FILES_PATH));
+        }
+        runtimes = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            ProcessorRuntime runtime = stage.createRuntime();
+            runtime.initialize(config);
+            runtimes.add(runtime);
+        }
+    }
+
+    @Override
+    protected void process(Tuple inputTuple, StreamlineEvent event) throws Exception {
+        if (stages.get(0).inputStreams.contains(inputTuple.getSourceStreamId())) {
+            process(inputTuple, 0, StreamlineEventWithStream.of(event, inputTuple.getSourceStreamId()));
+        } else {
+            LOG.debug("Received tuple [{}] from stream not consumed by the first stage, ignoring", inputTuple);
+        }
+    }
+
+    private void process(Tuple inputTuple, int stageIndex, StreamlineEvent event) throws Exception {
+        List<Result> results = runtimes.get(stageIndex).process(event);
+        int next = stageIndex + 1;
+        if (next == stages.size()) {
+            for (Result result : results) {
+                for (StreamlineEvent e : result.events) {
+                    collector.emit(result.stream, inputTuple, new Values(e));
+                }
+            }
+        } else {
+            Set<String> nextInputStreams = stages.get(next).inputStreams;
+            for (Result result : results) {
+                if (nextInputStreams.contains(result.stream)) {
+                    for (StreamlineEvent e : result.events) {
+                        process(inputTuple, next, StreamlineEventWithStream.of(e, result.stream));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+        if (stages.isEmpty()) {
+            throw new RuntimeException("At least one stage is required");
+        }
+        for (Stream stream : stages.get(stages.size() - 1).getOutputStreams()) {
+            declarer.declareStream(stream.getId(), new Fields(StreamlineEvent.STREAMLINE_EVENT));
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (runtimes != null) {
+            for (ProcessorRuntime runtime : runtimes) {
+                runtime.cleanup();
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.bolt;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.collect.Iterables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * The panes of a window, oldest first. A window whose length is a multiple of its sliding interval is the
+ * union of its last length / interval panes, each holding the items of one sliding interval.
+ * <p>
+ * The newest panes are kept on heap. Older panes are written to files in a spill directory and mapped, so their
+ * items are deserialized while being iterated and the size of the window is bounded by the disk instead of the heap.
+ * Given a key function, each pane also indexes the positions of its items by key, so that the items of a key are
+ * found without reading the other items of the spilled panes. The indexes are kept on heap.
+ * Not thread safe.
+ * </p>
+ */
+public class PaneWindow<T> implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(PaneWindow.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PANE_FILE_PREFIX = "pane-";
+
+    private final File directory;
+    private final int heapPanes;
+    private final Kryo kryo;
+    private final Class<T> type;
+    private final Serializer<T> serializer;
+    private final Function<? super T, ?> keyFunction;
+    private final ArrayDeque<Pane<T>> panes = new ArrayDeque<>();
+    private int panesOnHeap;
+    private long nextPaneId;
+
+    /**
+     * @param directory the directory of the spilled panes, created if needed. The files of a previous
+     *                  instance left in the directory are deleted.
+     * @param heapPanes the number of newest panes kept on heap
+     */
+    public PaneWindow(File directory, int heapPanes, Kryo kryo, Class<T> type, Serializer<T> serializer) throws IOException {
+        this(directory, heapPanes, kryo, type, serializer, null);
+    }
+
+    /**
+     * @param directory   the directory of the spilled panes, created if needed. The files of a previous
+     *                    instance left in the directory are deleted.
+     * @param heapPanes   the number of newest panes kept on heap
+     * @param keyFunction the key of an item looked up by {@link #items(Object)}, items with a null key are not
+     *                    indexed. No index is kept if null.
+     */
+    public PaneWindow(File directory, int heapPanes, Kryo kryo, Class<T> type, Serializer<T> serializer,
+                      Function<? super T, ?> keyFunction) throws IOException {
+        if (heapPanes < 0) {
+            throw new IllegalArgumentException("Number of panes on heap cannot be negative: " + heapPanes);
+        }
+        this.directory = directory;
+        this.heapPanes = heapPanes;
+        this.kryo = kryo;
+        this.type = type;
+        this.serializer = serializer;
+        this.keyFunction = keyFunction;
+        Files.createDirectories(directory.toPath());
+        deleteFiles();
+    }
+
+    /**
+     * Adds the newest pane, spilling the oldest pane on heap if there are more than heapPanes of them.
+     */
+    public void add(List<T> items) throws IOException {
+        Pane<T> newest = new Pane<>(nextPaneId++, new ArrayList<>(items));
+        if (keyFunction != null) {
+            newest.index = index(newest.items);
+        }
+        panes.addLast(newest);
+        if (++panesOnHeap > heapPanes) {
+            for (Pane<T> pane : panes) {
+                if (pane.items != null) {
+                    spill(pane);
+                    break;
+                }
+            }
+            --panesOnHeap;
+        }
+    }
+
+    /**
+     * Removes the oldest pane and returns its items. The items of a spilled pane are read from its mapping,
+     * the file being deleted right away.
+     *
+     * @throws NoSuchElementException if the window has no pane
+     */
+    public Iterable<T> removeOldest() {
+        Pane<T> pane = panes.removeFirst();
+        if (pane.items != null) {
+            --panesOnHeap;
+            return pane.items;
+        }
+        delete(pane.file);
+        return read(pane.mapping);
+    }
+
+    /**
+     * The items of all the panes, oldest first.
+     */
+    public Iterable<T> items() {
+        List<Iterable<T>> items = new ArrayList<>(panes.size());
+        for (Pane<T> pane : panes) {
+            items.add(pane.items != null ? pane.items : read(pane.mapping));
+        }
+        return Iterables.concat(items);
+    }
+
+    /**
+     * The items of all the panes having the given key, oldest first. Only the items of the key are read from
+     * the spilled panes.
+     *
+     * @throws IllegalStateException if the window has no key function
+     */
+    public List<T> items(Object key) {
+        if (keyFunction == null) {
+            throw new IllegalStateException("Items are not indexed by key");
+        }
+        List<T> items = new ArrayList<>();
+        for (Pane<T> pane : panes) {
+            int[] positions = pane.index.get(key);
+            if (positions != null) {
+                for (int position : positions) {
+                    items.add(pane.items != null ? pane.items.get(position) : read(pane.mapping, position));
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * The number of panes in the window.
+     */
+    public int size() {
+        return panes.size();
+    }
+
+    /**
+     * Removes all the panes and deletes their files.
+     */
+    @Override
+    public void close() {
+        panes.clear();
+        panesOnHeap = 0;
+        deleteFiles();
+    }
+
+    private void spill(Pane<T> pane) throws IOException {
+        if (pane.items.isEmpty()) {
+            pane.mapping = ByteBuffer.allocate(4).putInt(0, 0);
+        } else {
+            File file = new File(directory, PANE_FILE_PREFIX + pane.id);
+            int[] offsets = new int[pane.items.size()];
+            try (Output output = new Output(new FileOutputStream(file), BUFFER_SIZE)) {
+                output.writeInt(pane.items.size());
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = (int) output.total();
+                    kryo.writeObject(output, pane.items.get(i), serializer);
+                }
+            }
+            if (pane.index != null) {
+                for (int[] positions : pane.index.values()) {
+                    for (int i = 0; i < positions.length; i++) {
+                        positions[i] = offsets[positions[i]];
+                    }
+                }
+            }
+            // a private mapping, since kryo modifies the buffer in place while reading ascii strings
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                pane.mapping = channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+            }
+            pane.file = file;
+            LOG.debug("Spilled {} items of pane {} to {}", pane.items.size(), pane.id, file);
+        }
+        pane.items = null;
+    }
+
+    private Iterable<T> read(final ByteBuffer mapping) {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                final Input input = new ByteBufferInput(mapping.duplicate());
+                final int count = input.readInt();
+                return new Iterator<T>() {
+                    private int read;
+
+                    @Override
+                    public boolean hasNext() {
+                        return read < count;
+                    }
+
+                    @Override
+                    public T next() {
+                        if (read == count) {
+                            throw new NoSuchElementException();
+                        }
+                        read++;
+                        return kryo.readObject(input, type, serializer);
+                    }
+                };
+            }
+        };
+    }
+
+    // kryo resets its references and class names after each item, so an item is read on its own from its offset
+    private T read(ByteBuffer mapping, int offset) {
+        ByteBuffer buffer = mapping.duplicate();
+        buffer.position(offset);
+        return kryo.readObject(new ByteBufferInput(buffer), type, serializer);
+    }
+
+    private Map<Object, int[]> index(List<T> items) {
+        Map<Object, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Object key = keyFunction.apply(items.get(i));
+            if (key != null) {
+                positions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (positions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Object, int[]> index = new HashMap<>(positions.size() * 4 / 3 + 1);
+        for (Map.Entry<Object, List<Integer>> entry : positions.entrySet()) {
+            index.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return index;
+    }
+
+    private void deleteFiles() {
+        File[] files = directory.listFiles();
+        for (File file : files != null ? files : new File[0]) {
+            if (file.getName().startsWith(PANE_FILE_PREFIX)) {
+                delete(file);
+            }
+        }
+    }
+
+    private static void delete(File file) {
+        if (file != null && !file.delete()) {
+            LOG.warn("Could not delete the spilled pane {}", file);
+        }
+    }
+
+    private static class Pane<T> {
+        final long id;
+        List<T> items;          // null once spilled
+        File file;              // null for an empty spilled pane
+        ByteBuffer mapping;
+        Map<Object, int[]> index; // positions of the items of each key, their offsets in mapping once spilled
+
+        Pane(long id, List<T> items) {
+            this.id = id;
+            this.items = items;
+        }
+    }
+}
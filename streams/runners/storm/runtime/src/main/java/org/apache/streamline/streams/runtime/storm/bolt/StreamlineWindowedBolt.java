@@ -1,17 +1,34 @@
 package org.apache.streamline.streams.runtime.storm.bolt;
 
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.base.BaseWindowedBolt;
+import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.layout.component.rule.expression.Window;
+import org.apache.streamline.streams.runtime.storm.serialization.StreamlineEventSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public abstract class StreamlineWindowedBolt extends BaseWindowedBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamlineWindowedBolt.class);
+
+    private Window windowConfig;
+    private String spillDirectory;
+    private int heapPanes;
+
     /** Supports configuring windowing related settings via Streamline GUI.
      *  Note: This will be kept Streamline specific and wont be migrated to Storm.
      * */
     public void withWindowConfig(Window windowConfig) throws IOException {
+        this.windowConfig = windowConfig;
         if (windowConfig.getWindowLength() instanceof Window.Duration) {
             Duration windowLength = new Duration(((Window.Duration) windowConfig.getWindowLength()).getDurationMs(), TimeUnit.MILLISECONDS);
             if (windowConfig.getSlidingInterval() instanceof Window.Duration) {
@@ -44,4 +61,93 @@ public abstract class StreamlineWindowedBolt extends BaseWindowedBolt {
             withTimestampField(windowConfig.getTsField());
         }
     }
+
+    /**
+     * Keeps the state of the window in panes of one sliding interval, the newest heapPanes panes on heap and the
+     * older ones spilled to files under spillDirectory. Storm then activates the bolt as a tumbling window of one
+     * sliding interval and the bolt keeps the panes of the window itself.
+     * Only applies to windows whose length is a multiple of their sliding interval, both counts or both durations,
+     * and to bolts able to process the window in panes.
+     * <p>
+     * Note that this weakens the at-least-once guarantee of the window: the tuples of a pane are acked once the
+     * pane has been processed, while its items are retained in the spill files until it expires. Since the spill
+     * files of a task are deleted when it is restarted, the items of the retained panes are not replayed and are
+     * missing from the windows computed after a restart, until they would have expired.
+     * </p>
+     */
+    public void withSpilling(String spillDirectory, int heapPanes) {
+        if (heapPanes < 0) {
+            throw new IllegalArgumentException("Number of panes on heap cannot be negative: " + heapPanes);
+        }
+        this.spillDirectory = spillDirectory;
+        this.heapPanes = heapPanes;
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        if (getPaneCount() > 0) {
+            Window.WindowParam slidingInterval = windowConfig.getSlidingInterval();
+            if (slidingInterval instanceof Window.Duration) {
+                withTumblingWindow(new Duration(((Window.Duration) slidingInterval).getDurationMs(), TimeUnit.MILLISECONDS));
+            } else {
+                withTumblingWindow(new Count(((Window.Count) slidingInterval).getCount()));
+            }
+        } else if (spillDirectory != null) {
+            LOG.warn("Window state is kept on heap, window {} cannot be processed in panes", windowConfig);
+        }
+        return super.getComponentConfiguration();
+    }
+
+    /**
+     * Whether the bolt can process its window in panes, see {@link #withSpilling(String, int)}.
+     */
+    protected boolean isSpillable() {
+        return false;
+    }
+
+    /**
+     * The number of panes of the window if its state is spilled, 0 otherwise.
+     */
+    protected int getPaneCount() {
+        if (spillDirectory == null || windowConfig == null || !isSpillable()) {
+            return 0;
+        }
+        Window.WindowParam windowLength = windowConfig.getWindowLength();
+        Window.WindowParam slidingInterval = windowConfig.getSlidingInterval();
+        long length;
+        long interval;
+        if (windowLength instanceof Window.Duration && slidingInterval instanceof Window.Duration) {
+            length = ((Window.Duration) windowLength).getDurationMs();
+            interval = ((Window.Duration) slidingInterval).getDurationMs();
+        } else if (windowLength instanceof Window.Count && slidingInterval instanceof Window.Count) {
+            length = ((Window.Count) windowLength).getCount();
+            interval = ((Window.Count) slidingInterval).getCount();
+        } else {
+            return 0;
+        }
+        return interval > 0 && length % interval == 0 ? (int) (length / interval) : 0;
+    }
+
+    /**
+     * Creates the panes of the window of this task, in a directory of the task under the spill directory.
+     * {@link StreamlineEvent}s nested in the items are written with the {@link StreamlineEventSerializer}.
+     */
+    protected <T> PaneWindow<T> createPaneWindow(Map stormConf, TopologyContext context, Class<T> type,
+                                                 Serializer<T> serializer) throws IOException {
+        return createPaneWindow(stormConf, context, type, serializer, null);
+    }
+
+    /**
+     * Creates the panes of the window of this task, indexing their items with the given key function,
+     * see {@link PaneWindow#items(Object)}.
+     */
+    protected <T> PaneWindow<T> createPaneWindow(Map stormConf, TopologyContext context, Class<T> type,
+                                                 Serializer<T> serializer, Function<? super T, ?> keyFunction)
+            throws IOException {
+        File directory = new File(spillDirectory,
+                context.getStormId() + "-" + context.getThisComponentId() + "-" + context.getThisTaskId());
+        Kryo kryo = new Kryo();
+        kryo.addDefaultSerializer(StreamlineEvent.class, new StreamlineEventSerializer(kryo, StreamlineEvent.class, stormConf));
+        return new PaneWindow<>(directory, heapPanes, kryo, type, serializer, keyFunction);
+    }
 }
@@ -20,7 +20,7 @@ package org.apache.streamline.streams.runtime.storm.bolt.normalization;
 import org.apache.streamline.common.util.Utils;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.Result;
-import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
 import org.apache.streamline.streams.layout.component.Stream;
 import org.apache.streamline.streams.layout.component.impl.normalization.NormalizationProcessor;
 import org.apache.streamline.streams.runtime.normalization.NormalizationProcessorRuntime;
@@ -68,8 +68,7 @@ public class NormalizationBolt extends AbstractProcessorBolt {
     public void process(Tuple inputTuple, StreamlineEvent event) throws Exception {
         LOG.debug("Normalizing received StreamlineEvent: [{}] with tuple: [{}]", event, inputTuple);
         //todo this bolt will be replaced with custom baseprocessor bolt.
-        StreamlineEventImpl eventWithStream = new StreamlineEventImpl(event, event.getDataSourceId(),
-                event.getId(), event.getHeader(), inputTuple.getSourceStreamId());
+        StreamlineEvent eventWithStream = StreamlineEventWithStream.of(event, inputTuple.getSourceStreamId());
         List<Result> outputEvents = normalizationProcessorRuntime.process(eventWithStream);
         LOG.debug("Emitting events to collector: [{}]", outputEvents);
         for (Result outputEvent : outputEvents) {
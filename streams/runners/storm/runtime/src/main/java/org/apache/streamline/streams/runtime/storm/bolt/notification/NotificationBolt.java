@@ -29,6 +29,7 @@ import org.apache.streamline.streams.layout.component.impl.NotificationSink;
 import org.apache.streamline.streams.notification.Notification;
 import org.apache.streamline.streams.notification.NotifierConfig;
 import org.apache.streamline.streams.notification.common.NotifierConfigImpl;
+import org.apache.streamline.streams.notification.service.NotificationQueueFullException;
 import org.apache.streamline.streams.notification.service.NotificationService;
 import org.apache.streamline.streams.notification.service.NotificationServiceImpl;
 import org.apache.streamline.streams.notification.store.hbase.HBaseNotificationStore;
@@ -121,8 +122,14 @@ public class NotificationBolt extends BaseRichBolt {
     public void execute(Tuple tuple) {
         Notification notification = new StreamlineEventAdapter((StreamlineEvent) tuple.getValueByField(StreamlineEvent.STREAMLINE_EVENT));
         notificationContext.track(notification.getId(), tuple);
-        // send to notifier
-        notificationService.notify(notificationSink.getNotifierName(), notification);
+        // send to notifier, blocks while the dispatch queue of the notifier is full unless
+        // the queue handler is configured to reject
+        try {
+            notificationService.notify(notificationSink.getNotifierName(), notification);
+        } catch (NotificationQueueFullException ex) {
+            LOG.warn("Failing notification id {} since the dispatch queue is full", notification.getId());
+            notificationContext.fail(notification.getId());
+        }
     }
 
     @Override
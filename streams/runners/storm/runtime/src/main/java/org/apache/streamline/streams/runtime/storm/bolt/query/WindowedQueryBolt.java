@@ -26,27 +26,56 @@ import org.apache.storm.tuple.Tuple;
 import org.apache.storm.windowing.TupleWindow;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.runtime.storm.bolt.PaneWindow;
 import org.apache.streamline.streams.runtime.storm.bolt.StreamlineWindowedBolt;
+import org.apache.streamline.streams.runtime.storm.serialization.TupleSerializer;
+import org.apache.streamline.streams.runtime.storm.tuple.FieldPath;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
+/**
+ * Joins the streams of a tuple window on their keys.
+ * <p>
+ * The tuples of every stream are kept hashed by key across window activations. On each activation only
+ * the tuples which expired from the window are removed and only the new tuples are added, so the hash tables
+ * are not built again from the whole window. By default all the joined records of the window are emitted on
+ * every activation. With {@link #withIncrementalResults()}, only the records joining at least one new tuple
+ * are emitted, found by probing the retained tuples of the other streams with the new tuples.
+ * </p>
+ * <p>
+ * With incremental results, the window can also be kept in panes spilled to disk, see
+ * {@link #withSpilling(String, int)}. Only the tuples sharing a key with the new tuples are then hashed,
+ * by streaming over the panes of the window on each activation.
+ * </p>
+ */
 public class WindowedQueryBolt extends StreamlineWindowedBolt {
 
     private OutputCollector collector;
 
-    // Map[StreamName -> Map[Key -> List<Tuple>]  ]
-    HashMap<String, HashMap<Object, ArrayList<Tuple> >> hashedInputs = new HashMap<>(); // holds remaining streams
+    // Map[StreamName -> Map[Key -> Tuples in arrival order]  ], retained across window activations
+    HashMap<String, HashMap<Object, ArrayDeque<Tuple> >> hashedInputs = new HashMap<>();
+    // the tuples of the first stream in arrival order, including those without key
+    ArrayDeque<Tuple> firstStreamTuples = new ArrayDeque<>();
+    private boolean incrementalResults = false;
+    private PaneWindow<Tuple> paneWindow;
 
     // Map[StreamName -> JoinInfo]
     LinkedHashMap<String, JoinInfo> joinCriteria = new LinkedHashMap<>();
-    private String[][] outputKeys;  // specified via bolt.select() ... used in declaring Output fields
+    private FieldPath[] outputKeys;  // specified via bolt.select() ... used in declaring Output fields
     private String[] dotSeparatedOutputKeyNames; // flattened (de nested) keyNames, used for naming output fields
     private boolean streamLineStyleProjection = false;
     private String outputStreamName;
@@ -78,6 +107,16 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     }
 
 
+    /**
+     * Emits only the joined records which were not emitted by a previous window activation, i.e. those
+     * joining at least one tuple that entered the window since the previous activation.
+     * Only inner joins are supported.
+     */
+    public WindowedQueryBolt withIncrementalResults() {
+        this.incrementalResults = true;
+        return this;
+    }
+
     /**
      * Performs inner Join.
      *  SQL    :   from priorStream inner join newStream on newStream.key = priorStream.key1
@@ -104,12 +143,36 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
         return join_common(newStream, key, priorStream, JoinType.LEFT);
     }
 
+    /**
+     * Performs right Join.
+     *  SQL    :   from stream1  right join stream2  on stream2.key = stream1.key1
+     *  same as:   new  WindowedQueryBolt(stream1, key1). rightJoin(stream2, key, stream1);
+     *
+     *  The tuples of stream2 matching no record are emitted once per window, without the fields of the
+     *  streams joined before.
+     *  Note: priorStream must be previously joined
+     */
+    public WindowedQueryBolt rightJoin(String newStream, String key, String priorStream) {
+        return join_common(newStream, key, priorStream, JoinType.RIGHT);
+    }
+
+    /**
+     * Performs full outer Join.
+     *  SQL    :   from stream1  full outer join stream2  on stream2.key = stream1.key1
+     *  same as:   new  WindowedQueryBolt(stream1, key1). outerJoin(stream2, key, stream1);
+     *
+     *  Combines leftJoin and rightJoin: records and tuples of stream2 without a match are both emitted.
+     *  Note: priorStream must be previously joined
+     */
+    public WindowedQueryBolt outerJoin(String newStream, String key, String priorStream) {
+        return join_common(newStream, key, priorStream, JoinType.OUTER);
+    }
+
     private WindowedQueryBolt join_common(String newStream, String key, String priorStream, JoinType joinType) {
-        hashedInputs.put(newStream, new HashMap<Object, ArrayList<Tuple>>());
         JoinInfo joinInfo = joinCriteria.get(priorStream);
         if( joinInfo==null )
             throw new IllegalArgumentException("Stream '" + priorStream + "' was not previously declared");
-        joinCriteria.put(newStream, new JoinInfo(key, priorStream, joinInfo, joinType) );
+        joinCriteria.put(newStream, new JoinInfo(key, joinCriteria.size(), priorStream, joinInfo, joinType) );
         return this;
     }
 
@@ -126,10 +189,10 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     public WindowedQueryBolt select(String commaSeparatedKeys) {
         String[] keyNames = commaSeparatedKeys.split(",");
         dotSeparatedOutputKeyNames = new String[keyNames.length];
-        outputKeys = new String[keyNames.length][];
+        outputKeys = new FieldPath[keyNames.length];
         for (int i = 0; i < keyNames.length; i++) {
             dotSeparatedOutputKeyNames[i] = keyNames[i].trim();
-            outputKeys[i] = dotSeparatedOutputKeyNames[i].split("\\.");
+            outputKeys[i] = FieldPath.of(dotSeparatedOutputKeyNames[i]);
         }
         return this;
     }
@@ -166,25 +229,67 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
         this.collector = collector;
         // initialize the hashedInputs data structure
-        int i=0;
+        hashedInputs.clear();
+        firstStreamTuples.clear();
         for ( String stream : joinCriteria.keySet() ) {
-            if(i>0) {
-                hashedInputs.put(stream, new HashMap<Object, ArrayList<Tuple>>());
-            }
-            ++i;
+            hashedInputs.put(stream, new HashMap<Object, ArrayDeque<Tuple>>());
         }
         if(outputKeys==null) {
             throw new IllegalArgumentException("Must specify output fields via .select() method.");
         }
+        if (incrementalResults) {
+            for (JoinInfo joinInfo : joinCriteria.values()) {
+                if (joinInfo.getJoinType() != null && joinInfo.getJoinType() != JoinType.INNER) {
+                    throw new IllegalArgumentException("Incremental results are only supported for inner joins");
+                }
+            }
+        }
+        if (getPaneCount() > 0) {
+            try {
+                // the retained tuples joining a new pane are looked up by key
+                paneWindow = createPaneWindow(stormConf, context, Tuple.class, new TupleSerializer(context),
+                        joinCriteria.size() > 1 ? this::getJoinKey : null);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not create the spilled window state", e);
+            }
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (paneWindow != null) {
+            paneWindow.close();
+        }
+    }
+
+    @Override
+    protected boolean isSpillable() {
+        return incrementalResults;
     }
 
     @Override
     public void execute(TupleWindow inputWindow) {
-        // 1) Perform Join
-        List<Tuple> currentWindow = inputWindow.get();
-        JoinAccumulator joinResult = hashJoin(currentWindow);
+        JoinAccumulator joinResult;
+        if (paneWindow != null) {
+            joinResult = paneJoin(inputWindow.get());
+        } else {
+            // 1) Update the hashed tuples with the tuples which entered and left the window
+            List<Tuple> newTuples = inputWindow.getNew();
+            List<Tuple> expiredTuples = inputWindow.getExpired();
+            if (newTuples == null || expiredTuples == null) {
+                newTuples = inputWindow.get();
+                clearHashedInputs();
+                insert(newTuples);
+            } else {
+                evict(expiredTuples);
+                insert(newTuples);
+            }
+
+            // 2) Perform Join
+            joinResult = incrementalResults ? incrementalJoin(newTuples) : hashJoin();
+        }
 
-        // 2) Emit results
+        // 3) Emit results
         for (ResultRecord resultRecord : joinResult.getRecords()) {
             ArrayList<Object> outputTuple = resultRecord.getOutputFields();
             if ( outputStreamName==null )
@@ -195,37 +300,74 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     }
 
     private void clearHashedInputs() {
-        for (HashMap<Object, ArrayList<Tuple>> mappings : hashedInputs.values()) {
+        for (HashMap<Object, ArrayDeque<Tuple>> mappings : hashedInputs.values()) {
             mappings.clear();
         }
+        firstStreamTuples.clear();
     }
 
-    protected JoinAccumulator hashJoin(List<Tuple> tuples) {
-        clearHashedInputs();
-
-        JoinAccumulator probe = new JoinAccumulator();
-
-        // 1) Build phase - Segregate tuples in the Window into streams.
-        //    First stream's tuples go into probe, rest into HashMaps in hashedInputs
+    private void insert(List<Tuple> tuples) {
         String firstStream = joinCriteria.keySet().iterator().next();
         for (Tuple tuple : tuples) {
             String streamId = getStreamSelector(tuple);
-            if ( ! streamId.equals(firstStream) ) {
-                Object key = getKeyField(streamId, tuple);
-                ArrayList<Tuple> recs = hashedInputs.get(streamId).get(key);
-                if(recs == null) {
-                    recs = new ArrayList<Tuple>();
-                    hashedInputs.get(streamId).put(key, recs);
+            HashMap<Object, ArrayDeque<Tuple>> mappings = hashedInputs.get(streamId);
+            if (mappings == null) {
+                continue; // not a stream being joined
+            }
+            if (streamId.equals(firstStream)) {
+                firstStreamTuples.addLast(tuple);
+            }
+            Object key = getKeyField(streamId, tuple);
+            if (key != null) { // tuples without key never match
+                ArrayDeque<Tuple> recs = mappings.get(key);
+                if (recs == null) {
+                    recs = new ArrayDeque<>();
+                    mappings.put(key, recs);
                 }
-                recs.add(tuple);
+                recs.addLast(tuple);
+            }
+        }
+    }
 
-            }  else {
-                ResultRecord probeRecord = new ResultRecord(tuple, joinCriteria.size() == 1);
-                probe.insert( probeRecord );  // first stream's data goes into the probe
+    // tuples expire in arrival order, so an expired tuple is usually the first one of its key
+    private void evict(List<Tuple> tuples) {
+        String firstStream = joinCriteria.keySet().iterator().next();
+        for (Tuple tuple : tuples) {
+            String streamId = getStreamSelector(tuple);
+            HashMap<Object, ArrayDeque<Tuple>> mappings = hashedInputs.get(streamId);
+            if (mappings == null) {
+                continue;
+            }
+            if (streamId.equals(firstStream)) {
+                firstStreamTuples.removeFirstOccurrence(tuple);
+            }
+            Object key = getKeyField(streamId, tuple);
+            if (key != null) {
+                ArrayDeque<Tuple> recs = mappings.get(key);
+                if (recs != null && recs.removeFirstOccurrence(tuple) && recs.isEmpty()) {
+                    mappings.remove(key);
+                }
             }
         }
+    }
 
-        // 2) Join the streams in order of streamJoinOrder
+    /**
+     * Joins the given tuples, discarding the tuples hashed by previous window activations.
+     */
+    protected JoinAccumulator hashJoin(List<Tuple> tuples) {
+        clearHashedInputs();
+        insert(tuples);
+        return hashJoin();
+    }
+
+    // joins all the hashed tuples, starting with the tuples of the first stream
+    private JoinAccumulator hashJoin() {
+        JoinAccumulator probe = new JoinAccumulator();
+        for (Tuple tuple : firstStreamTuples) {
+            probe.insert(new ResultRecord(tuple, joinCriteria.size() == 1));
+        }
+
+        // Join the streams in order of streamJoinOrder
         int i=0;
         for (String streamName : joinCriteria.keySet() ) {
             boolean finalJoin = (i==joinCriteria.size()-1);
@@ -235,12 +377,107 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
             ++i;
         }
 
-
         return probe;
     }
 
+    /*
+     * Each stream is joined on its key with the key of a prior stream, so the tuples of a joined record all
+     * have the same key. The records joining a new tuple are those of the keys of the new tuples, and each of
+     * them is found once by taking, for the first stream of the record with a new tuple, only the new tuples,
+     * for the streams before it only the old tuples and for the streams after it all the tuples.
+     */
+    private JoinAccumulator incrementalJoin(List<Tuple> newTuples) {
+        JoinAccumulator result = new JoinAccumulator();
+        List<String> streams = new ArrayList<>(joinCriteria.keySet());
+        if (streams.size() == 1) {
+            for (Tuple tuple : newTuples) {
+                if (streams.get(0).equals(getStreamSelector(tuple))) {
+                    result.insert(new ResultRecord(tuple, true));
+                }
+            }
+            return result;
+        }
+        Set<Tuple> isNew = Collections.newSetFromMap(new IdentityHashMap<Tuple, Boolean>());
+        Set<Object> keys = new LinkedHashSet<>();
+        for (Tuple tuple : newTuples) {
+            String streamId = getStreamSelector(tuple);
+            if (hashedInputs.containsKey(streamId)) {
+                Object key = getKeyField(streamId, tuple);
+                if (key != null) {
+                    isNew.add(tuple);
+                    keys.add(key);
+                }
+            }
+        }
+        for (Object key : keys) {
+            List<ArrayDeque<Tuple>> recs = new ArrayList<>(streams.size());
+            for (String stream : streams) {
+                ArrayDeque<Tuple> streamRecs = hashedInputs.get(stream).get(key);
+                if (streamRecs == null) {
+                    break;
+                }
+                recs.add(streamRecs);
+            }
+            if (recs.size() == streams.size()) {
+                for (int firstNew = 0; firstNew < streams.size(); firstNew++) {
+                    joinKey(null, 0, firstNew, recs, isNew, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Storm activates the bolt once per pane and the panes of the window are kept by paneWindow. The tuples of the
+     * retained panes sharing a key with the tuples of the new pane are looked up in the key indexes of the panes
+     * and hashed for this activation only, so that incrementalJoin finds the records joining the new tuples.
+     */
+    private JoinAccumulator paneJoin(List<Tuple> pane) {
+        while (paneWindow.size() >= getPaneCount()) {
+            paneWindow.removeOldest();
+        }
+        clearHashedInputs();
+        if (joinCriteria.size() > 1) {
+            Set<Object> keys = new HashSet<>();
+            for (Tuple tuple : pane) {
+                Object key = getJoinKey(tuple);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+            for (Object key : keys) {
+                insert(paneWindow.items(key));
+            }
+        }
+        insert(pane);
+        JoinAccumulator result = incrementalJoin(pane);
+        clearHashedInputs();
+        try {
+            paneWindow.add(pane);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not spill the window state", e);
+        }
+        return result;
+    }
+
+    private void joinKey(ResultRecord lhs, int stream, int firstNew, List<ArrayDeque<Tuple>> recs, Set<Tuple> isNew,
+                         JoinAccumulator result) {
+        boolean finalJoin = stream == recs.size() - 1;
+        for (Tuple tuple : recs.get(stream)) {
+            if (stream < firstNew && isNew.contains(tuple) || stream == firstNew && !isNew.contains(tuple)) {
+                continue;
+            }
+            ResultRecord record = new ResultRecord(lhs, stream, tuple, finalJoin);
+            if (finalJoin) {
+                result.insert(record);
+            } else {
+                joinKey(record, stream + 1, firstNew, recs, isNew, result);
+            }
+        }
+    }
+
     // Dispatches to the right join method (inner/left/right/outer) based on the joinInfo.joinType
-    protected JoinAccumulator doJoin(JoinAccumulator probe, HashMap<Object, ArrayList<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
+    protected JoinAccumulator doJoin(JoinAccumulator probe, HashMap<Object, ArrayDeque<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
         final JoinType joinType = joinInfo.getJoinType();
         switch ( joinType ) {
             case INNER:
@@ -248,20 +485,22 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
             case LEFT:
                 return doLeftJoin(probe, buildInput, joinInfo, finalJoin);
             case RIGHT:
+                return doRightJoin(probe, buildInput, joinInfo, finalJoin);
             case OUTER:
+                return doOuterJoin(probe, buildInput, joinInfo, finalJoin);
             default:
                 throw new RuntimeException("Unsupported join type : " + joinType.name() );
         }
     }
 
     // inner join - core implementation
-    protected JoinAccumulator doInnerJoin(JoinAccumulator probe, Map<Object, ArrayList<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
-        String[] probeKeyName = joinInfo.getOtherKey();
+    protected JoinAccumulator doInnerJoin(JoinAccumulator probe, Map<Object, ArrayDeque<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
+        FieldPath probeKeyName = joinInfo.getOtherKey();
         JoinAccumulator result = new JoinAccumulator();
         for (ResultRecord rec : probe.getRecords()) {
-            Object probeKey = rec.getField(joinInfo.otherStream, probeKeyName);
+            Object probeKey = rec.getField(joinInfo.otherStreamIndex, probeKeyName);
             if (probeKey!=null) {
-                ArrayList<Tuple> matchingBuildRecs = buildInput.get(probeKey);
+                ArrayDeque<Tuple> matchingBuildRecs = buildInput.get(probeKey);
                 if(matchingBuildRecs!=null) {
                     for (Tuple matchingRec : matchingBuildRecs) {
                         ResultRecord mergedRecord = new ResultRecord(rec, matchingRec, finalJoin);
@@ -274,13 +513,13 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     }
 
     // left join - core implementation
-    protected JoinAccumulator doLeftJoin(JoinAccumulator probe, Map<Object, ArrayList<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
-        String[] probeKeyName = joinInfo.getOtherKey();
+    protected JoinAccumulator doLeftJoin(JoinAccumulator probe, Map<Object, ArrayDeque<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
+        FieldPath probeKeyName = joinInfo.getOtherKey();
         JoinAccumulator result = new JoinAccumulator();
         for (ResultRecord rec : probe.getRecords()) {
-            Object probeKey = rec.getField(joinInfo.otherStream, probeKeyName);
+            Object probeKey = rec.getField(joinInfo.otherStreamIndex, probeKeyName);
             if (probeKey!=null) {
-                ArrayList<Tuple> matchingBuildRecs = buildInput.get(probeKey); // ok if its return null
+                ArrayDeque<Tuple> matchingBuildRecs = buildInput.get(probeKey); // ok if its return null
                 if (matchingBuildRecs!=null && !matchingBuildRecs.isEmpty() ) {
                     for (Tuple matchingRec : matchingBuildRecs) {
                         ResultRecord mergedRecord = new ResultRecord(rec, matchingRec, finalJoin);
@@ -296,6 +535,66 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
         return result;
     }
 
+    // right join - core implementation
+    protected JoinAccumulator doRightJoin(JoinAccumulator probe, Map<Object, ArrayDeque<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
+        FieldPath probeKeyName = joinInfo.getOtherKey();
+        JoinAccumulator result = new JoinAccumulator();
+        Set<Object> matchedKeys = new HashSet<>();
+        for (ResultRecord rec : probe.getRecords()) {
+            Object probeKey = rec.getField(joinInfo.otherStreamIndex, probeKeyName);
+            if (probeKey!=null) {
+                ArrayDeque<Tuple> matchingBuildRecs = buildInput.get(probeKey);
+                if(matchingBuildRecs!=null) {
+                    matchedKeys.add(probeKey);
+                    for (Tuple matchingRec : matchingBuildRecs) {
+                        ResultRecord mergedRecord = new ResultRecord(rec, matchingRec, finalJoin);
+                        result.insert(mergedRecord);
+                    }
+                }
+            }
+        }
+        insertUnmatched(buildInput, matchedKeys, joinInfo, finalJoin, result);
+        return result;
+    }
+
+    // full outer join - core implementation, a left join followed by the unmatched build tuples
+    protected JoinAccumulator doOuterJoin(JoinAccumulator probe, Map<Object, ArrayDeque<Tuple>> buildInput, JoinInfo joinInfo, boolean finalJoin) {
+        FieldPath probeKeyName = joinInfo.getOtherKey();
+        JoinAccumulator result = new JoinAccumulator();
+        Set<Object> matchedKeys = new HashSet<>();
+        for (ResultRecord rec : probe.getRecords()) {
+            Object probeKey = rec.getField(joinInfo.otherStreamIndex, probeKeyName);
+            if (probeKey!=null) {
+                ArrayDeque<Tuple> matchingBuildRecs = buildInput.get(probeKey);
+                if (matchingBuildRecs!=null && !matchingBuildRecs.isEmpty() ) {
+                    matchedKeys.add(probeKey);
+                    for (Tuple matchingRec : matchingBuildRecs) {
+                        ResultRecord mergedRecord = new ResultRecord(rec, matchingRec, finalJoin);
+                        result.insert(mergedRecord);
+                    }
+                } else {
+                    ResultRecord mergedRecord = new ResultRecord(rec, null, finalJoin);
+                    result.insert(mergedRecord);
+                }
+            }
+        }
+        insertUnmatched(buildInput, matchedKeys, joinInfo, finalJoin, result);
+        return result;
+    }
+
+    // The build tuples are hashed by key, so a probe record matching a key matches all the tuples of the key.
+    // The tuples of the keys no probe record matched are inserted once, without the streams joined before.
+    private void insertUnmatched(Map<Object, ArrayDeque<Tuple>> buildInput, Set<Object> matchedKeys, JoinInfo joinInfo,
+                                 boolean finalJoin, JoinAccumulator result) {
+        for (Map.Entry<Object, ArrayDeque<Tuple>> entry : buildInput.entrySet()) {
+            if (!matchedKeys.contains(entry.getKey())) {
+                for (Tuple unmatchedRec : entry.getValue()) {
+                    result.insert(new ResultRecord(null, joinInfo.streamIndex, unmatchedRec, finalJoin));
+                }
+            }
+        }
+    }
+
 
     // Identify the key for the stream, and look it up in 'tuple'. key can be nested key:  outerKey.innerKey
     private Object getKeyField(String streamId, Tuple tuple) {
@@ -303,25 +602,14 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
         if(ji==null) {
             throw new RuntimeException("Join information for '" + streamId + "' not found. Check the join clauses.");
         }
-        return getNestedField(ji.getNestedKeyName(), tuple);
-    }
-
-    // Steps down into a nested tuple based on the nestedKeyName
-    protected static Object getNestedField(String[] nestedKeyName, Tuple tuple) {
-        Object curr = null;
-        for (int i=0; i < nestedKeyName.length; i++) {
-            if (i==0) {
-                if (tuple.contains(nestedKeyName[i]) )
-                    curr = tuple.getValueByField(nestedKeyName[i]);
-                else
-                    return null;
-            }  else  {
-                curr = ((Map) curr).get(nestedKeyName[i]);
-                if (curr==null)
-                    return null;
-            }
-        }
-        return curr;
+        return ji.getKey().get(tuple);
+    }
+
+
+    // the key of a tuple of a joined stream, null for the tuples of the other streams
+    private Object getJoinKey(Tuple tuple) {
+        String streamId = getStreamSelector(tuple);
+        return hashedInputs.containsKey(streamId) ? getKeyField(streamId, tuple) : null;
     }
 
 
@@ -343,34 +631,48 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     protected static class JoinInfo implements Serializable {
         final static long serialVersionUID = 1L;
 
-        String[] nestedKeyName;    // nested  key name for the current stream:  outer.inner -> { "outer", "inner }
+        FieldPath key;             // nested key of the current stream:  outer.inner
+        int      streamIndex;      // position of the current stream in the join order
         String   otherStream;      // name of the other stream to join with
-        String[] otherKey;         // key name of the other stream
+        int      otherStreamIndex; // position of the other stream in the join order
+        FieldPath otherKey;        // key of the other stream
         JoinType joinType;         // nature of join
 
         // nestedKeys uses  dot separated key names...  outer.inner.innermostKey
         public JoinInfo(String nestedKey) {
-            this.nestedKeyName = nestedKey.split("\\.");
+            this.key = FieldPath.of(nestedKey);
+            this.streamIndex = 0;
             this.otherStream = null;
+            this.otherStreamIndex = -1;
             this.otherKey = null;
             this.joinType = null;
         }
-        public JoinInfo(String nestedKey, String otherStream, JoinInfo otherStreamJoinInfo,  JoinType joinType) {
-            this.nestedKeyName = nestedKey.split("\\.");
+        public JoinInfo(String nestedKey, int streamIndex, String otherStream, JoinInfo otherStreamJoinInfo,  JoinType joinType) {
+            this.key = FieldPath.of(nestedKey);
+            this.streamIndex = streamIndex;
             this.otherStream = otherStream;
-            this.otherKey = otherStreamJoinInfo.nestedKeyName;
+            this.otherStreamIndex = otherStreamJoinInfo.streamIndex;
+            this.otherKey = otherStreamJoinInfo.key;
             this.joinType = joinType;
         }
 
-        public String[] getNestedKeyName() {
-            return nestedKeyName;
+        public FieldPath getKey() {
+            return key;
+        }
+
+        public int getStreamIndex() {
+            return streamIndex;
         }
 
         public String getOtherStream() {
             return otherStream;
         }
 
-        public String[] getOtherKey() {
+        public int getOtherStreamIndex() {
+            return otherStreamIndex;
+        }
+
+        public FieldPath getOtherKey() {
             return otherKey;
         }
 
@@ -380,27 +682,31 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
 
     } // class JoinInfo
 
-    // Join helper to concat fields to the record
+    // Join helper to concat fields to the record. A record references the record it extends instead of copying
+    // its tuples, so the tuples are only collected for the records of the final stream being joined.
     protected class ResultRecord {
 
-        ArrayList<Tuple> tupleList = new ArrayList<>(); // contains one Tuple per Stream being joined
+        final ResultRecord lhs;  // the record of the streams joined before, null for the first stream
+                                 // and for the unmatched tuples of a right or outer join
+        final int stream;        // the position of the stream of this record in the join order
+        final Tuple tuple;       // the tuple of this stream, null if no tuple matched in a left or outer join
         ArrayList<Object> outputFields = null; // refs to fields that will be part of output fields
 
         // 'generateOutputFields' enables us to avoid projection unless it is the final stream being joined
         public ResultRecord(Tuple tuple, boolean generateOutputFields) {
-            tupleList.add(tuple);
-            if(generateOutputFields) {
-                outputFields = doProjection(tupleList, outputKeys);
-            }
+            this(null, 0, tuple, generateOutputFields);
         }
 
         public ResultRecord(ResultRecord lhs, Tuple rhs, boolean generateOutputFields) {
-            if(lhs!=null)
-                tupleList.addAll(lhs.tupleList);
-            if(rhs!=null)
-                tupleList.add(rhs);
+            this(lhs, lhs.stream + 1, rhs, generateOutputFields);
+        }
+
+        public ResultRecord(ResultRecord lhs, int stream, Tuple rhs, boolean generateOutputFields) {
+            this.lhs = lhs;
+            this.stream = stream;
+            this.tuple = rhs;
             if(generateOutputFields) {
-                outputFields = doProjection(tupleList, outputKeys);
+                outputFields = doProjection(getTuples(), outputKeys);
             }
         }
 
@@ -408,11 +714,25 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
             return outputFields;
         }
 
-        public Object getField(String stream, String[] nestedFieldName) {
-            for (Tuple tuple : tupleList) {
-                if(getStreamSelector(tuple).equals(stream))
-                    return getNestedField(nestedFieldName, tuple);
+        // the tuples of the record in the order the streams are joined
+        public ArrayList<Tuple> getTuples() {
+            ArrayList<Tuple> tuples = new ArrayList<>(joinCriteria.size());
+            for (ResultRecord record = this; record != null; record = record.lhs) {
+                if (record.tuple != null)
+                    tuples.add(record.tuple);
+            }
+            Collections.reverse(tuples);
+            return tuples;
+        }
+
+        // the records are linked in the join order, so the record of a stream is found by its position
+        public Object getField(int stream, FieldPath field) {
+            ResultRecord record = this;
+            while (record != null && record.stream > stream) {
+                record = record.lhs;
             }
+            if (record != null && record.stream == stream && record.tuple != null)
+                return field.get(record.tuple);
             return null;
         }
     }
@@ -430,7 +750,7 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     }
 
     // Performs projection on the tuples based on the 'projectionKeys'
-    protected ArrayList<Object> doProjection(ArrayList<Tuple> tuples, String[][] projectionKeys) {
+    protected ArrayList<Object> doProjection(ArrayList<Tuple> tuples, FieldPath[] projectionKeys) {
         if(streamLineStyleProjection)
             return doProjectionStreamLine(tuples, outputKeys);
 
@@ -439,7 +759,7 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
         for ( int i = 0; i < projectionKeys.length; i++ ) {
             boolean missingField = true;
             for ( Tuple tuple : tuples ) {
-                Object field = getNestedField(projectionKeys[i], tuple ) ;
+                Object field = projectionKeys[i].get(tuple);
                 if (field != null) {
                     result.add(field);
                     missingField=false;
@@ -454,7 +774,7 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
     }
 
     // Performs projection and creates output tuple structure as expected by StreamLine compliant
-    protected ArrayList<Object> doProjectionStreamLine(ArrayList<Tuple> tuplesRow, String[][] projectionKeys) {
+    protected ArrayList<Object> doProjectionStreamLine(ArrayList<Tuple> tuplesRow, FieldPath[] projectionKeys) {
 
         HashMap<String, Object> projection = new HashMap<>(projectionKeys.length);
 
@@ -462,7 +782,7 @@ public class WindowedQueryBolt extends StreamlineWindowedBolt {
         for ( int i = 0; i < projectionKeys.length; i++ ) {
             String flattenedKey = dotSeparatedOutputKeyNames[i];
             for ( Tuple cell : tuplesRow ) {
-                Object field = getNestedField(projectionKeys[i], cell) ;
+                Object field = projectionKeys[i].get(cell);
                 if (field != null) {
                     projection.put(flattenedKey, field);
                     break;
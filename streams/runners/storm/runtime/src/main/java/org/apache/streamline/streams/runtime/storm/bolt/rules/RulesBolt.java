@@ -22,10 +22,11 @@ import org.apache.streamline.common.Constants;
 import org.apache.streamline.common.util.Utils;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.Result;
-import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
 import org.apache.streamline.streams.layout.component.Stream;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
 import org.apache.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import org.apache.storm.Config;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
@@ -33,11 +34,14 @@ import org.apache.storm.topology.base.BaseRichBolt;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -50,6 +54,13 @@ public class RulesBolt extends BaseRichBolt {
 
     private OutputCollector collector;
 
+    // micro batching, disabled unless the batch size is greater than one
+    private int batchSize = 1;
+    private int batchLingerMs;
+    private transient List<Tuple> batchTuples;
+    private transient List<StreamlineEvent> batchEvents;
+    private transient long batchStartMs;
+
     public RulesBolt(RulesProcessor rulesProcessor, RuleProcessorRuntime.ScriptType scriptType) {
         this.rulesProcessor = rulesProcessor;
         this.scriptType = scriptType;
@@ -59,6 +70,34 @@ public class RulesBolt extends BaseRichBolt {
         this(Utils.createObjectFromJson(rulesProcessorJson, RulesProcessor.class), scriptType);
     }
 
+    /**
+     * Evaluate the rules for up to batchSize tuples at a time.
+     */
+    public RulesBolt withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize should be at least 1, got " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * The maximum time in milliseconds a tuple is buffered before its batch is evaluated. Buffered
+     * tuples are checked whenever a tuple arrives and on tick tuples, which have a granularity of one second.
+     * With no linger (0, the default) a batch is evaluated when it is full or on the next tick tuple.
+     */
+    public RulesBolt withBatchLingerMs(int batchLingerMs) {
+        if (batchLingerMs < 0) {
+            throw new IllegalArgumentException("batchLingerMs can not be negative, got " + batchLingerMs);
+        }
+        this.batchLingerMs = batchLingerMs;
+        return this;
+    }
+
+    private boolean isBatchingEnabled() {
+        return batchSize > 1;
+    }
+
     @Override
     public void prepare(Map stormConf, TopologyContext context, OutputCollector collector) {
         if (this.rulesProcessor == null) {
@@ -74,10 +113,28 @@ public class RulesBolt extends BaseRichBolt {
             config.put(Constants.LOCAL_FILES_PATH, stormConf.get(Constants.LOCAL_FILES_PATH));
         }
         ruleProcessorRuntime.initialize(config);
+        if (isBatchingEnabled()) {
+            batchTuples = new ArrayList<>(batchSize);
+            batchEvents = new ArrayList<>(batchSize);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        if (isBatchingEnabled()) {
+            Map<String, Object> conf = new HashMap<>();
+            conf.put(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, Math.max(1, batchLingerMs / 1000));
+            return conf;
+        }
+        return null;
     }
 
     @Override
     public void execute(Tuple input) {  // Input tuple is expected to be an StreamlineEvent
+        if (isBatchingEnabled()) {
+            executeBatched(input);
+            return;
+        }
         try {
             final Object event = input.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
             if (event instanceof StreamlineEvent) {
@@ -100,10 +157,72 @@ public class RulesBolt extends BaseRichBolt {
         }
     }
 
+    private void executeBatched(Tuple input) {
+        if (TupleUtils.isTick(input)) {
+            if (!batchTuples.isEmpty() && (batchLingerMs == 0 || isBatchLingerExpired())) {
+                flushBatch();
+            }
+            return;
+        }
+        final Object event = input.getValueByField(StreamlineEvent.STREAMLINE_EVENT);
+        if (event instanceof StreamlineEvent) {
+            if (batchTuples.isEmpty()) {
+                batchStartMs = System.currentTimeMillis();
+            }
+            batchTuples.add(input);
+            batchEvents.add(getStreamlineEventWithStream((StreamlineEvent) event, input));
+            if (batchTuples.size() >= batchSize || isBatchLingerExpired()) {
+                flushBatch();
+            }
+        } else {
+            LOG.debug("Invalid tuple received. Tuple disregarded and rules not evaluated.\n\tTuple [{}]." +
+                    "\n\tStreamlineEvent [{}].", input, event);
+            collector.ack(input);
+        }
+    }
+
+    private boolean isBatchLingerExpired() {
+        return batchLingerMs > 0 && System.currentTimeMillis() - batchStartMs >= batchLingerMs;
+    }
+
+    private void flushBatch() {
+        LOG.debug("++++++++ Executing batch of {} tuples", batchTuples.size());
+        List<List<Result>> batchResults = null;
+        try {
+            batchResults = ruleProcessorRuntime.processBatch(batchEvents);
+        } catch (Exception e) {
+            // evaluate the tuples one by one so that only the offending ones are failed
+            LOG.debug("Batch evaluation failed, evaluating tuples individually", e);
+        }
+        try {
+            // nothing is emitted before the evaluation, so each tuple is emitted, acked or failed exactly once
+            for (int i = 0; i < batchTuples.size(); i++) {
+                Tuple tuple = batchTuples.get(i);
+                try {
+                    emit(tuple, batchResults != null ? batchResults.get(i) : ruleProcessorRuntime.process(batchEvents.get(i)));
+                    collector.ack(tuple);
+                } catch (Exception ex) {
+                    collector.fail(tuple);
+                    collector.reportError(ex);
+                    LOG.debug("", ex);
+                }
+            }
+        } finally {
+            batchTuples.clear();
+            batchEvents.clear();
+        }
+    }
+
+    private void emit(Tuple input, List<Result> results) {
+        for (Result result : results) {
+            for (StreamlineEvent e : result.events) {
+                collector.emit(result.stream, input, new Values(e));
+            }
+        }
+    }
+
     private StreamlineEvent getStreamlineEventWithStream(StreamlineEvent event, Tuple tuple) {
-        return new StreamlineEventImpl(event,
-                event.getDataSourceId(), event.getId(),
-                event.getHeader(), tuple.getSourceStreamId(), event.getAuxiliaryFieldsAndValues());
+        return StreamlineEventWithStream.of(event, tuple.getSourceStreamId());
     }
 
     @Override
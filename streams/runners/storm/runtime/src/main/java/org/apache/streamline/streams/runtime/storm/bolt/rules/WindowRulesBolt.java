@@ -3,7 +3,7 @@ package org.apache.streamline.streams.runtime.storm.bolt.rules;
 import org.apache.streamline.common.util.Utils;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.Result;
-import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
 import org.apache.streamline.streams.exception.ProcessingException;
 import org.apache.streamline.streams.layout.component.Stream;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
@@ -16,10 +16,13 @@ import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.apache.storm.windowing.TupleWindow;
+import org.apache.streamline.streams.runtime.storm.bolt.PaneWindow;
 import org.apache.streamline.streams.runtime.storm.bolt.StreamlineWindowedBolt;
+import org.apache.streamline.streams.runtime.storm.serialization.StreamlineEventSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,6 +46,7 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
     private final RuleProcessorRuntime.ScriptType scriptType;
     private OutputCollector collector;
     private long windowId;
+    private PaneWindow<StreamlineEvent> paneWindow;
 
     public WindowRulesBolt(RulesProcessor rulesProcessor, RuleProcessorRuntime.ScriptType scriptType) {
         this.rulesProcessor = rulesProcessor;
@@ -61,6 +65,27 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
         ruleProcessorRuntime = new RuleProcessorRuntime(rulesProcessor, scriptType);
         Map<String, Object> config = Collections.emptyMap();
         ruleProcessorRuntime.initialize(config);
+        if (getPaneCount() > 0) {
+            try {
+                paneWindow = createPaneWindow(stormConf, context, StreamlineEvent.class,
+                        new StreamlineEventSerializer(null, null, stormConf));
+            } catch (IOException e) {
+                throw new RuntimeException("Could not create the spilled window state", e);
+            }
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (paneWindow != null) {
+            paneWindow.close();
+        }
+    }
+
+    // the rules aggregate the window incrementally, see executeIncremental
+    @Override
+    protected boolean isSpillable() {
+        return RuleProcessorRuntime.ScriptType.JAVA.equals(scriptType);
     }
 
     /**
@@ -70,6 +95,13 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
      */
     @Override
     public void execute(TupleWindow inputWindow) {
+        if (paneWindow != null) {
+            executePane(inputWindow);
+            return;
+        } else if (RuleProcessorRuntime.ScriptType.JAVA.equals(scriptType)) {
+            executeIncremental(inputWindow);
+            return;
+        }
         ++windowId;
         LOG.debug("Window activated, window id {}, number of tuples in window {}", windowId, inputWindow.get().size());
         List<Tuple> curGroup = new ArrayList<>();
@@ -90,6 +122,70 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
         }
     }
 
+    /*
+     * The rules aggregate the window incrementally, so only the tuples which expired from or entered the window
+     * since the last activation are processed. The results of the rules carry the event ids and data source ids
+     * of their groups in the header.
+     */
+    private void executeIncremental(TupleWindow inputWindow) {
+        LOG.debug("Window activated, {} new and {} expired tuples", inputWindow.getNew().size(), inputWindow.getExpired().size());
+        try {
+            StreamlineEvent event;
+            for (Tuple input : inputWindow.getExpired()) {
+                if ((event = getStreamlineEventFromTuple(input)) != null) {
+                    ruleProcessorRuntime.retract(event);
+                }
+            }
+            for (Tuple input : inputWindow.getNew()) {
+                if ((event = getStreamlineEventFromTuple(input)) != null) {
+                    ruleProcessorRuntime.process(event);
+                }
+            }
+            emitTriggered();
+        } catch (Exception e) {
+            collector.reportError(e);
+            LOG.debug("", e);
+        }
+    }
+
+    /*
+     * Like executeIncremental, with storm activating the bolt once per pane. The events of the pane which left
+     * the window are read back from the spilled window state.
+     */
+    private void executePane(TupleWindow inputWindow) {
+        LOG.debug("Pane activated, {} tuples in pane", inputWindow.get().size());
+        try {
+            List<StreamlineEvent> pane = new ArrayList<>();
+            StreamlineEvent event;
+            for (Tuple input : inputWindow.get()) {
+                if ((event = getStreamlineEventFromTuple(input)) != null) {
+                    pane.add(event);
+                }
+            }
+            paneWindow.add(pane);
+            if (paneWindow.size() > getPaneCount()) {
+                for (StreamlineEvent expired : paneWindow.removeOldest()) {
+                    ruleProcessorRuntime.retract(expired);
+                }
+            }
+            for (StreamlineEvent e : pane) {
+                ruleProcessorRuntime.process(e);
+            }
+            emitTriggered();
+        } catch (Exception e) {
+            collector.reportError(e);
+            LOG.debug("", e);
+        }
+    }
+
+    private void emitTriggered() throws ProcessingException {
+        for (Result result : ruleProcessorRuntime.process(GROUP_BY_TRIGGER_EVENT)) {
+            for (StreamlineEvent e : result.events) {
+                collector.emit(result.stream, new Values(e));
+            }
+        }
+    }
+
     private void processAndEmit(StreamlineEvent event, List<Tuple> curGroup) throws ProcessingException {
         for (Result result : ruleProcessorRuntime.process(eventWithWindowId(event))) {
             for (StreamlineEvent e : result.events) {
@@ -142,9 +238,7 @@ public class WindowRulesBolt extends StreamlineWindowedBolt {
     }
 
     private StreamlineEvent getStreamlineEventWithStream(StreamlineEvent event, Tuple tuple) {
-        return new StreamlineEventImpl(event,
-                event.getDataSourceId(), event.getId(),
-                event.getHeader(), tuple.getSourceStreamId(), event.getAuxiliaryFieldsAndValues());
+        return StreamlineEventWithStream.of(event, tuple.getSourceStreamId());
     }
 
     @Override
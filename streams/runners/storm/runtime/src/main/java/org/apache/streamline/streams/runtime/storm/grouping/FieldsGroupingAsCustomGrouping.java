@@ -5,12 +5,12 @@ import org.apache.storm.grouping.CustomStreamGrouping;
 import org.apache.storm.task.WorkerTopologyContext;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.runtime.storm.tuple.FieldPath;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This class is responsible for handling fields grouping for components connected in streamline topologies.
@@ -19,11 +19,10 @@ import java.util.Map;
  * the same downstream task
  */
 public class FieldsGroupingAsCustomGrouping implements CustomStreamGrouping {
-    private static final String NESTED_FIELD_SPLIT_REGEX = "\\.";
-    private final String[] groupingFields;
+    private final FieldPath[] groupingFields;
     private List<Integer> targetTasks;
     public FieldsGroupingAsCustomGrouping(String... groupingFields) {
-        this.groupingFields = groupingFields;
+        this.groupingFields = FieldPath.of(groupingFields);
     }
     @Override
     public void prepare(WorkerTopologyContext context, GlobalStreamId stream, List<Integer> targetTasks) {
@@ -34,23 +33,12 @@ public class FieldsGroupingAsCustomGrouping implements CustomStreamGrouping {
     public List<Integer> chooseTasks(int taskId, List<Object> values) {
         List<Integer> result = new ArrayList<>();
         StreamlineEvent streamlineEvent = (StreamlineEvent) values.get(0);
-        List<Object> groupByObjects = new ArrayList<>(groupingFields.length);
-        for (String groupingField: groupingFields) {
-            groupByObjects.add(getGroupingValue(streamlineEvent, groupingField));
+        Object[] groupByObjects = new Object[groupingFields.length];
+        for (int i = 0; i < groupingFields.length; i++) {
+            groupByObjects[i] = groupingFields[i].get(streamlineEvent);
         }
-        int taskIndex = Arrays.deepHashCode(groupByObjects.toArray()) % targetTasks.size();
+        int taskIndex = Math.floorMod(Arrays.deepHashCode(groupByObjects), targetTasks.size());
         result.add(targetTasks.get(taskIndex));
         return result;
     }
-
-    private static Object getGroupingValue(StreamlineEvent streamlineEvent, String groupingField) {
-        Map fieldValues = streamlineEvent;
-        String[] nestedKeys = groupingField.split(NESTED_FIELD_SPLIT_REGEX);
-        for (int i = 0; i < (nestedKeys.length - 1); ++i) {
-            if (fieldValues == null)
-                break;
-            fieldValues = (Map) fieldValues.get(nestedKeys[i]);
-        }
-        return fieldValues != null ? fieldValues.get(nestedKeys[nestedKeys.length - 1]) : null;
-    }
 }
@@ -0,0 +1,116 @@
+package org.apache.streamline.streams.runtime.storm.grouping;
+
+import org.apache.storm.generated.GlobalStreamId;
+import org.apache.storm.grouping.CustomStreamGrouping;
+import org.apache.storm.task.WorkerTopologyContext;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.runtime.storm.tuple.FieldPath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fields grouping over a fixed number of key groups. The values of the grouping fields are hashed to one of the
+ * key groups, and the key groups are assigned to the target tasks by consistent hashing: each task owns the key
+ * groups preceding its points on a hash ring. The points of a task only depend on its index among the target tasks,
+ * so changing the parallelism only moves the key groups of the tasks added or removed instead of reshuffling
+ * every key.
+ */
+public class KeyGroupGrouping implements CustomStreamGrouping {
+    public static final int DEFAULT_NUM_KEY_GROUPS = 128;
+    private static final int POINTS_PER_TASK = 64;
+
+    private final FieldPath[] groupingFields;
+    private int numKeyGroups = DEFAULT_NUM_KEY_GROUPS;
+
+    private List<List<Integer>> targets;   // the singleton list of each target task, by task index
+    private int[] keyGroupTasks;           // the task index owning each key group
+
+    public KeyGroupGrouping(String... groupingFields) {
+        this.groupingFields = FieldPath.of(groupingFields);
+    }
+
+    /**
+     * The number of key groups, which bounds the parallelism of the target component. Defaults to
+     * {@link #DEFAULT_NUM_KEY_GROUPS}. All the groupings of the topology sending to stateful components keyed by the
+     * same fields should use the same number.
+     */
+    public KeyGroupGrouping withNumKeyGroups(int numKeyGroups) {
+        if (numKeyGroups < 1) {
+            throw new IllegalArgumentException("Number of key groups should be positive: " + numKeyGroups);
+        }
+        this.numKeyGroups = numKeyGroups;
+        return this;
+    }
+
+    @Override
+    public void prepare(WorkerTopologyContext context, GlobalStreamId stream, List<Integer> targetTasks) {
+        List<Integer> tasks = new ArrayList<>(targetTasks);
+        Collections.sort(tasks);
+        targets = new ArrayList<>(tasks.size());
+        for (Integer task : tasks) {
+            targets.add(Collections.singletonList(task));
+        }
+        keyGroupTasks = assignKeyGroups(numKeyGroups, tasks.size());
+    }
+
+    @Override
+    public List<Integer> chooseTasks(int taskId, List<Object> values) {
+        StreamlineEvent streamlineEvent = (StreamlineEvent) values.get(0);
+        Object[] groupByObjects = new Object[groupingFields.length];
+        for (int i = 0; i < groupingFields.length; i++) {
+            groupByObjects[i] = groupingFields[i].get(streamlineEvent);
+        }
+        int keyGroup = keyGroup(Arrays.deepHashCode(groupByObjects), numKeyGroups);
+        return targets.get(keyGroupTasks[keyGroup]);
+    }
+
+    /**
+     * Returns the key group of the given hash.
+     */
+    static int keyGroup(int hash, int numKeyGroups) {
+        return Math.floorMod(fmix32(hash), numKeyGroups);
+    }
+
+    /**
+     * Assigns the key groups to the task indexes by consistent hashing. For each key group, returns the task index
+     * of the first point following the key group on the ring.
+     */
+    static int[] assignKeyGroups(int numKeyGroups, int numTasks) {
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int task = 0; task < numTasks; task++) {
+            for (int point = 0; point < POINTS_PER_TASK; point++) {
+                ring.put(fmix64(((long) task << 32) | point), task);
+            }
+        }
+        int[] keyGroupTasks = new int[numKeyGroups];
+        for (int keyGroup = 0; keyGroup < numKeyGroups; keyGroup++) {
+            Map.Entry<Long, Integer> entry = ring.ceilingEntry(fmix64(~(long) keyGroup));
+            keyGroupTasks[keyGroup] = (entry != null ? entry : ring.firstEntry()).getValue();
+        }
+        return keyGroupTasks;
+    }
+
+    // finalization mixes of murmur3
+    private static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
+import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kryo serializer for {@link StreamlineEvent}s exchanged between Storm workers.
+ * <p>
+ * Events backed by a {@link FieldIndex} are written as the fingerprint of the index followed by the
+ * field values in slot order. The field names are written only if the index is not one of the indexes
+ * declared in the topology config under {@link StormTopologyLayoutConstants#STREAMLINE_EVENT_FIELD_INDEXES},
+ * which the flux generator fills with the schemas of all the streams. Other events are written as
+ * key value pairs. Header keys, field names, source streams and data source ids are interned when read.
+ * </p>
+ * A {@link StreamlineEventWithStream} is written as the event it wraps, bound to the view's source stream.
+ */
+public class StreamlineEventSerializer extends Serializer<StreamlineEvent> {
+    private static final byte MAP_EVENT = 0;
+    private static final byte INDEXED_EVENT = 1;
+
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    // indexes known to every worker of the topology
+    private final Map<Long, FieldIndex> declaredFieldIndexes = new HashMap<>();
+    // indexes received with their field names
+    private final Map<Long, FieldIndex> receivedFieldIndexes = new HashMap<>();
+
+    public StreamlineEventSerializer() {
+        this(null, null, Collections.emptyMap());
+    }
+
+    /**
+     * Invoked by storm with the topology config when the serializer is registered via topology.kryo.register.
+     * A null config declares no index.
+     */
+    public StreamlineEventSerializer(Kryo kryo, Class type, Map stormConf) {
+        Object fieldIndexes = stormConf != null
+                ? stormConf.get(StormTopologyLayoutConstants.STREAMLINE_EVENT_FIELD_INDEXES) : null;
+        if (fieldIndexes instanceof List) {
+            for (Object fieldNames : (List) fieldIndexes) {
+                FieldIndex fieldIndex = FieldIndex.of(new ArrayList<String>((List<String>) fieldNames));
+                declaredFieldIndexes.put(fieldIndex.getFingerprint(), fieldIndex);
+            }
+        }
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, StreamlineEvent event) {
+        String sourceStream = event.getSourceStream();
+        Map<String, Object> auxiliaryFieldsAndValues = event.getAuxiliaryFieldsAndValues();
+        if (event instanceof StreamlineEventWithStream) {
+            event = ((StreamlineEventWithStream) event).getEvent();
+        }
+        boolean indexed = event instanceof IndexedStreamlineEvent;
+        output.writeByte(indexed ? INDEXED_EVENT : MAP_EVENT);
+        output.writeString(event.getId());
+        output.writeString(event.getDataSourceId());
+        output.writeString(sourceStream);
+        writeMap(kryo, output, event.getHeader());
+        writeMap(kryo, output, auxiliaryFieldsAndValues);
+        if (indexed) {
+            writeIndexedFields(kryo, output, (IndexedStreamlineEvent) event);
+        } else {
+            writeEntries(kryo, output, event);
+        }
+    }
+
+    private void writeIndexedFields(Kryo kryo, Output output, IndexedStreamlineEvent event) {
+        FieldIndex fieldIndex = event.getFieldIndex();
+        output.writeLong(fieldIndex.getFingerprint());
+        if (declaredFieldIndexes.containsKey(fieldIndex.getFingerprint())) {
+            output.writeBoolean(false);
+        } else {
+            output.writeBoolean(true);
+            output.writeInt(fieldIndex.size(), true);
+            for (String name : fieldIndex.getFieldNames()) {
+                output.writeString(name);
+            }
+        }
+        int size = fieldIndex.size();
+        // presence bitmap, since a slot can hold a null value
+        int set = 0;
+        long bits = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (event.isSet(slot)) {
+                bits |= 1L << (slot & 63);
+                set++;
+            }
+            if ((slot & 63) == 63 || slot == size - 1) {
+                output.writeLong(bits);
+                bits = 0;
+            }
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (event.isSet(slot)) {
+                kryo.writeClassAndObject(output, event.getAt(slot));
+            }
+        }
+        // fields which are not part of the index
+        int overflow = event.size() - set;
+        output.writeInt(overflow, true);
+        if (overflow > 0) {
+            for (Map.Entry<String, Object> entry : event.entrySet()) {
+                if (fieldIndex.indexOf(entry.getKey()) < 0) {
+                    output.writeString(entry.getKey());
+                    kryo.writeClassAndObject(output, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void writeEntries(Kryo kryo, Output output, Map<String, Object> map) {
+        output.writeInt(map.size(), true);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            output.writeString(entry.getKey());
+            kryo.writeClassAndObject(output, entry.getValue());
+        }
+    }
+
+    // like writeEntries, with 0 reserved for a null map
+    private void writeMap(Kryo kryo, Output output, Map<String, Object> map) {
+        if (map == null) {
+            output.writeInt(0, true);
+            return;
+        }
+        output.writeInt(map.size() + 1, true);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            output.writeString(entry.getKey());
+            kryo.writeClassAndObject(output, entry.getValue());
+        }
+    }
+
+    @Override
+    public StreamlineEvent read(Kryo kryo, Input input, Class<StreamlineEvent> type) {
+        byte kind = input.readByte();
+        String id = input.readString();
+        String dataSourceId = intern(input.readString());
+        String sourceStream = intern(input.readString());
+        Map<String, Object> header = readMap(kryo, input);
+        Map<String, Object> auxiliaryFieldsAndValues = readMap(kryo, input);
+        if (kind == INDEXED_EVENT) {
+            return readIndexedEvent(kryo, input, id, dataSourceId, sourceStream, header, auxiliaryFieldsAndValues);
+        } else if (kind == MAP_EVENT) {
+            StreamlineEventImpl event = new StreamlineEventImpl(null, dataSourceId, id,
+                    header != null ? header : new HashMap<String, Object>(), sourceStream, auxiliaryFieldsAndValues);
+            readEntries(kryo, input, event);
+            return event;
+        }
+        throw new KryoException("Unknown StreamlineEvent encoding: " + kind);
+    }
+
+    private StreamlineEvent readIndexedEvent(Kryo kryo, Input input, String id, String dataSourceId, String sourceStream,
+                                             Map<String, Object> header, Map<String, Object> auxiliaryFieldsAndValues) {
+        long fingerprint = input.readLong();
+        FieldIndex fieldIndex;
+        if (input.readBoolean()) {
+            int count = input.readInt(true);
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(intern(input.readString()));
+            }
+            fieldIndex = receivedFieldIndexes.get(fingerprint);
+            if (fieldIndex == null || !fieldIndex.getFieldNames().equals(names)) {
+                fieldIndex = FieldIndex.of(names);
+                receivedFieldIndexes.put(fingerprint, fieldIndex);
+            }
+        } else {
+            fieldIndex = declaredFieldIndexes.get(fingerprint);
+            if (fieldIndex == null) {
+                throw new KryoException("No field index declared in the topology config for fingerprint " + fingerprint);
+            }
+        }
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(fieldIndex, null, dataSourceId, id, header,
+                sourceStream, auxiliaryFieldsAndValues);
+        int size = fieldIndex.size();
+        long[] bitmap = new long[(size + 63) / 64];
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = input.readLong();
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if ((bitmap[slot >>> 6] & (1L << (slot & 63))) != 0) {
+                event.setAt(slot, kryo.readClassAndObject(input));
+            }
+        }
+        readEntries(kryo, input, event);
+        return event;
+    }
+
+    private Map<String, Object> readMap(Kryo kryo, Input input) {
+        int size = input.readInt(true);
+        if (size == 0) {
+            return null;
+        }
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < size - 1; i++) {
+            map.put(intern(input.readString()), kryo.readClassAndObject(input));
+        }
+        return map;
+    }
+
+    private void readEntries(Kryo kryo, Input input, Map<String, Object> map) {
+        int size = input.readInt(true);
+        for (int i = 0; i < size; i++) {
+            map.put(intern(input.readString()), kryo.readClassAndObject(input));
+        }
+    }
+
+    private static String intern(String value) {
+        return value != null ? STRINGS.intern(value) : null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kryo serializer for the {@link Tuple}s kept by a bolt, e.g. in the spilled panes of a window. A tuple is written
+ * as its source task, source stream and values, and read back as an unanchored tuple of the given topology context.
+ */
+public class TupleSerializer extends Serializer<Tuple> {
+    private final GeneralTopologyContext context;
+
+    public TupleSerializer(GeneralTopologyContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Tuple tuple) {
+        output.writeInt(tuple.getSourceTask(), true);
+        output.writeString(tuple.getSourceStreamId());
+        List<Object> values = tuple.getValues();
+        output.writeInt(values.size(), true);
+        for (Object value : values) {
+            kryo.writeClassAndObject(output, value);
+        }
+    }
+
+    @Override
+    public Tuple read(Kryo kryo, Input input, Class<Tuple> type) {
+        int taskId = input.readInt(true);
+        String streamId = input.readString();
+        int size = input.readInt(true);
+        List<Object> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(kryo.readClassAndObject(input));
+        }
+        return new TupleImpl(context, values, taskId, streamId);
+    }
+}
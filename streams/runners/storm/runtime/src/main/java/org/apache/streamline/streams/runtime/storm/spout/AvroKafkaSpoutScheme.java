@@ -55,7 +55,7 @@ public class AvroKafkaSpoutScheme implements MultiScheme {
         if (avroStreamsSnapshotDeserializer == null) {
             synchronized (this) {
                 if (avroStreamsSnapshotDeserializer == null) {
-                    AvroStreamsSnapshotDeserializer deserializer = new AvroStreamsSnapshotDeserializer();
+                    AvroStreamsSnapshotDeserializer deserializer = new AvroStreamsSnapshotDeserializer(dataSourceId);
                     Map<String, Object> config = new HashMap<>();
                     config.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), schemaRegistryUrl);
                     deserializer.init(config);
@@ -68,12 +68,16 @@ public class AvroKafkaSpoutScheme implements MultiScheme {
 
     @Override
     public Iterable<List<Object>> deserialize(ByteBuffer byteBuffer) {
-        Map<String, Object> keyValues = (Map<String, Object>) deserializer()
+        Object deserialized = deserializer()
                 .deserialize(new ByteBufferInputStream(byteBuffer),
                              schemaMetadata,
                              null);
 
-        return Collections.<List<Object>>singletonList(new Values(new StreamlineEventImpl(keyValues, dataSourceId)));
+        // records are already decoded into events of this data source
+        StreamlineEvent event = deserialized instanceof StreamlineEvent
+                ? (StreamlineEvent) deserialized
+                : new StreamlineEventImpl((Map<String, Object>) deserialized, dataSourceId);
+        return Collections.<List<Object>>singletonList(new Values(event));
     }
 
     @Override
@@ -0,0 +1,605 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.spout;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Decodes avro binary records of a given writer schema straight into {@link IndexedStreamlineEvent}s of the
+ * fields of a reader schema, without going through generic records.
+ * <p>
+ * The readers of the fields are built once from the reader schema, and the resolving and binary decoders are
+ * reused across records. The values are converted like {@link AvroStreamsSnapshotDeserializer#toKeyValues(Object)}
+ * does, except that nested records and arrays are returned as views over the decoded values. A nested record
+ * is a map backed by an array, and an array of ints, longs, floats or doubles a list backed by a primitive array
+ * which boxes its elements when they are read. The views are copied to a {@link LinkedHashMap} or an
+ * {@link ArrayList} on their first modification and when they are serialized with java serialization.
+ * </p>
+ * A decoder is not meant to be shared by threads which decode concurrently, since they would wait for each other.
+ */
+public class AvroStreamlineEventDecoder {
+    private final FieldIndex fieldIndex;
+    private final ValueReader[] fieldReaders;
+    private final ResolvingDecoder resolvingDecoder;
+    private BinaryDecoder binaryDecoder;
+
+    /**
+     * Creates a decoder of records written with the writer schema into events with the fields of the reader
+     * schema, which both must be records.
+     */
+    public AvroStreamlineEventDecoder(Schema writerSchema, Schema readerSchema) throws IOException {
+        if (!isRecord(writerSchema) || !isRecord(readerSchema)) {
+            throw new IllegalArgumentException("Only records can be decoded into events, got writer schema "
+                    + writerSchema + " and reader schema " + readerSchema);
+        }
+        RecordReader recordReader = new RecordReader(readerSchema, new IdentityHashMap<Schema, RecordReader>());
+        this.fieldIndex = recordReader.fieldIndex;
+        this.fieldReaders = recordReader.fieldReaders;
+        this.resolvingDecoder = DecoderFactory.get().resolvingDecoder(writerSchema, readerSchema, null);
+    }
+
+    public static boolean isRecord(Schema schema) {
+        return schema != null && schema.getType() == Schema.Type.RECORD;
+    }
+
+    public FieldIndex getFieldIndex() {
+        return fieldIndex;
+    }
+
+    /**
+     * Decodes the record in the given stream into an event of the given data source.
+     */
+    public synchronized IndexedStreamlineEvent decode(InputStream in, String dataSourceId) throws IOException {
+        binaryDecoder = DecoderFactory.get().binaryDecoder(in, binaryDecoder);
+        resolvingDecoder.configure(binaryDecoder);
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(fieldIndex, null, dataSourceId);
+        for (Schema.Field field : resolvingDecoder.readFieldOrder()) {
+            event.setAt(field.pos(), fieldReaders[field.pos()].read(resolvingDecoder));
+        }
+        resolvingDecoder.drain();
+        return event;
+    }
+
+    private static ValueReader readerOf(Schema schema, Map<Schema, RecordReader> recordReaders) {
+        switch (schema.getType()) {
+            case NULL:
+                return NULL_READER;
+            case BOOLEAN:
+                return BOOLEAN_READER;
+            case INT:
+                return INT_READER;
+            case LONG:
+                return LONG_READER;
+            case FLOAT:
+                return FLOAT_READER;
+            case DOUBLE:
+                return DOUBLE_READER;
+            case STRING:
+                return STRING_READER;
+            case BYTES:
+                return BYTES_READER;
+            case FIXED:
+                return new FixedReader(schema.getFixedSize());
+            case ENUM:
+                return new EnumReader(schema.getEnumSymbols());
+            case ARRAY:
+                Schema.Type elementType = schema.getElementType().getType();
+                if (PrimitiveArrayReader.supports(elementType)) {
+                    return new PrimitiveArrayReader(elementType);
+                }
+                return new ArrayReader(readerOf(schema.getElementType(), recordReaders));
+            case MAP:
+                return new MapReader(readerOf(schema.getValueType(), recordReaders));
+            case UNION:
+                List<Schema> types = schema.getTypes();
+                ValueReader[] branchReaders = new ValueReader[types.size()];
+                for (int i = 0; i < branchReaders.length; i++) {
+                    branchReaders[i] = readerOf(types.get(i), recordReaders);
+                }
+                return new UnionReader(branchReaders);
+            case RECORD:
+                RecordReader recordReader = recordReaders.get(schema);
+                return recordReader != null ? recordReader : new RecordReader(schema, recordReaders);
+            default:
+                throw new IllegalArgumentException("Unsupported avro type " + schema.getType());
+        }
+    }
+
+    private abstract static class ValueReader {
+        abstract Object read(ResolvingDecoder in) throws IOException;
+    }
+
+    private static final ValueReader NULL_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            in.readNull();
+            return null;
+        }
+    };
+
+    private static final ValueReader BOOLEAN_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readBoolean();
+        }
+    };
+
+    private static final ValueReader INT_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    private static final ValueReader LONG_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    private static final ValueReader FLOAT_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readFloat();
+        }
+    };
+
+    private static final ValueReader DOUBLE_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    private static final ValueReader STRING_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return in.readString();
+        }
+    };
+
+    private static final ValueReader BYTES_READER = new ValueReader() {
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            ByteBuffer byteBuffer = in.readBytes(null);
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            return bytes;
+        }
+    };
+
+    private static final class FixedReader extends ValueReader {
+        private final int size;
+
+        FixedReader(int size) {
+            this.size = size;
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            byte[] bytes = new byte[size];
+            in.readFixed(bytes);
+            return bytes;
+        }
+    }
+
+    private static final class EnumReader extends ValueReader {
+        private final String[] symbols;
+
+        EnumReader(List<String> symbols) {
+            this.symbols = symbols.toArray(new String[symbols.size()]);
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            // the index of the symbol in the reader schema
+            return symbols[in.readEnum()];
+        }
+    }
+
+    private static final class UnionReader extends ValueReader {
+        private final ValueReader[] branchReaders;
+
+        UnionReader(ValueReader[] branchReaders) {
+            this.branchReaders = branchReaders;
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            return branchReaders[in.readIndex()].read(in);
+        }
+    }
+
+    private static final class MapReader extends ValueReader {
+        private final ValueReader valueReader;
+
+        MapReader(ValueReader valueReader) {
+            this.valueReader = valueReader;
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (long n = in.readMapStart(); n != 0; n = in.mapNext()) {
+                for (long i = 0; i < n; i++) {
+                    String key = in.readString();
+                    map.put(key, valueReader.read(in));
+                }
+            }
+            return map;
+        }
+    }
+
+    private static final class ArrayReader extends ValueReader {
+        private final ValueReader elementReader;
+
+        ArrayReader(ValueReader elementReader) {
+            this.elementReader = elementReader;
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            Object[] elements = null;
+            int size = 0;
+            for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                elements = elements == null ? new Object[(int) n] : Arrays.copyOf(elements, size + (int) n);
+                for (long i = 0; i < n; i++) {
+                    elements[size++] = elementReader.read(in);
+                }
+            }
+            return new ObjectListView(elements != null ? elements : new Object[0]);
+        }
+    }
+
+    private static final class PrimitiveArrayReader extends ValueReader {
+        private final Schema.Type elementType;
+
+        PrimitiveArrayReader(Schema.Type elementType) {
+            this.elementType = elementType;
+        }
+
+        static boolean supports(Schema.Type elementType) {
+            return elementType == Schema.Type.INT || elementType == Schema.Type.LONG
+                    || elementType == Schema.Type.FLOAT || elementType == Schema.Type.DOUBLE;
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            switch (elementType) {
+                case INT: {
+                    int[] elements = new int[0];
+                    int size = 0;
+                    for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                        elements = Arrays.copyOf(elements, size + (int) n);
+                        for (long i = 0; i < n; i++) {
+                            elements[size++] = in.readInt();
+                        }
+                    }
+                    return new PrimitiveListView(elementType, elements, size);
+                }
+                case LONG: {
+                    long[] elements = new long[0];
+                    int size = 0;
+                    for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                        elements = Arrays.copyOf(elements, size + (int) n);
+                        for (long i = 0; i < n; i++) {
+                            elements[size++] = in.readLong();
+                        }
+                    }
+                    return new PrimitiveListView(elementType, elements, size);
+                }
+                case FLOAT: {
+                    float[] elements = new float[0];
+                    int size = 0;
+                    for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                        elements = Arrays.copyOf(elements, size + (int) n);
+                        for (long i = 0; i < n; i++) {
+                            elements[size++] = in.readFloat();
+                        }
+                    }
+                    return new PrimitiveListView(elementType, elements, size);
+                }
+                default: {
+                    double[] elements = new double[0];
+                    int size = 0;
+                    for (long n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                        elements = Arrays.copyOf(elements, size + (int) n);
+                        for (long i = 0; i < n; i++) {
+                            elements[size++] = in.readDouble();
+                        }
+                    }
+                    return new PrimitiveListView(elementType, elements, size);
+                }
+            }
+        }
+    }
+
+    private static final class RecordReader extends ValueReader {
+        private final FieldIndex fieldIndex;
+        private final ValueReader[] fieldReaders;
+
+        RecordReader(Schema schema, Map<Schema, RecordReader> recordReaders) {
+            // registered before reading the fields, since a field can be of the type of the record
+            recordReaders.put(schema, this);
+            List<Schema.Field> fields = schema.getFields();
+            List<String> fieldNames = new ArrayList<>(fields.size());
+            fieldReaders = new ValueReader[fields.size()];
+            for (Schema.Field field : fields) {
+                fieldNames.add(field.name());
+                fieldReaders[field.pos()] = readerOf(field.schema(), recordReaders);
+            }
+            fieldIndex = FieldIndex.of(fieldNames);
+        }
+
+        @Override
+        Object read(ResolvingDecoder in) throws IOException {
+            Object[] values = new Object[fieldReaders.length];
+            for (Schema.Field field : in.readFieldOrder()) {
+                values[field.pos()] = fieldReaders[field.pos()].read(in);
+            }
+            return new RecordView(fieldIndex, values);
+        }
+    }
+
+    /**
+     * A nested record, backed by the values of its fields in the order of a {@link FieldIndex}.
+     */
+    static final class RecordView extends AbstractMap<String, Object> implements Serializable {
+        private final FieldIndex fieldIndex;
+        private final Object[] values;
+        private Map<String, Object> copy;
+        private transient Set<Entry<String, Object>> entrySet;
+
+        // used by kryo, which adds the entries with put
+        private RecordView() {
+            this(FieldIndex.of(), new Object[0]);
+        }
+
+        RecordView(FieldIndex fieldIndex, Object[] values) {
+            this.fieldIndex = fieldIndex;
+            this.values = values;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (copy != null) {
+                return copy.get(key);
+            }
+            int slot = fieldIndex.indexOf(key);
+            return slot < 0 ? null : values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return copy != null ? copy.containsKey(key) : fieldIndex.indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return copy != null ? copy.size() : values.length;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return copy().put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return copy().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            copy().clear();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (copy != null) {
+                return copy.entrySet();
+            }
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        return copy != null ? copy.entrySet().iterator() : new EntryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return RecordView.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        private Map<String, Object> copy() {
+            if (copy == null) {
+                copy = new LinkedHashMap<>(this);
+            }
+            return copy;
+        }
+
+        private Object writeReplace() {
+            return new LinkedHashMap<>(this);
+        }
+
+        private final class EntryIterator implements Iterator<Entry<String, Object>> {
+            private int slot;
+
+            @Override
+            public boolean hasNext() {
+                return slot < values.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<String, Object> entry = new SimpleImmutableEntry<>(fieldIndex.nameAt(slot), values[slot]);
+                slot++;
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * An array, which is copied to an {@link ArrayList} on its first modification.
+     */
+    abstract static class ListView extends AbstractList<Object> implements RandomAccess, Serializable {
+        private List<Object> copy;
+
+        abstract Object getAt(int index);
+
+        abstract int length();
+
+        @Override
+        public Object get(int index) {
+            if (copy != null) {
+                return copy.get(index);
+            }
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length());
+            }
+            return getAt(index);
+        }
+
+        @Override
+        public int size() {
+            return copy != null ? copy.size() : length();
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            return copy().set(index, element);
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            copy().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Object remove(int index) {
+            Object removed = copy().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        private List<Object> copy() {
+            if (copy == null) {
+                copy = new ArrayList<>(this);
+            }
+            return copy;
+        }
+
+        protected Object writeReplace() {
+            return new ArrayList<>(this);
+        }
+    }
+
+    static final class ObjectListView extends ListView {
+        private final Object[] elements;
+
+        // used by kryo, which adds the elements with add
+        private ObjectListView() {
+            this(new Object[0]);
+        }
+
+        ObjectListView(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        Object getAt(int index) {
+            return elements[index];
+        }
+
+        @Override
+        int length() {
+            return elements.length;
+        }
+    }
+
+    /**
+     * An array of ints, longs, floats or doubles, whose elements are boxed when they are read.
+     */
+    static final class PrimitiveListView extends ListView {
+        private final Schema.Type elementType;
+        private final Object elements;
+        private final int length;
+
+        // used by kryo, which adds the elements with add
+        private PrimitiveListView() {
+            this(Schema.Type.INT, new int[0], 0);
+        }
+
+        PrimitiveListView(Schema.Type elementType, Object elements, int length) {
+            this.elementType = elementType;
+            this.elements = elements;
+            this.length = length;
+        }
+
+        @Override
+        Object getAt(int index) {
+            switch (elementType) {
+                case INT:
+                    return ((int[]) elements)[index];
+                case LONG:
+                    return ((long[]) elements)[index];
+                case FLOAT:
+                    return ((float[]) elements)[index];
+                default:
+                    return ((double[]) elements)[index];
+            }
+        }
+
+        @Override
+        int length() {
+            return length;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.streamline.streams.runtime.storm.spout;
 
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.registries.schemaregistry.SchemaMetadata;
+import org.apache.registries.schemaregistry.SchemaVersionKey;
 import org.apache.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
 import org.apache.registries.schemaregistry.serde.SerDesException;
 import org.apache.avro.Schema;
@@ -26,6 +27,7 @@ import org.apache.avro.generic.GenericEnumSymbol;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.IndexedRecord;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -33,17 +35,107 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- *
+ * Deserializes avro payloads into the field values of a {@link StreamlineEvent}.
+ * <p>
+ * Records are decoded straight into {@link org.apache.streamline.streams.common.IndexedStreamlineEvent}s by an
+ * {@link AvroStreamlineEventDecoder}, which is created once for each schema and pair of writer and reader versions.
+ * Other values are read by the avro datum reader and converted with {@link #toKeyValues(Object)}.
+ * </p>
  */
 public class AvroStreamsSnapshotDeserializer extends AvroSnapshotDeserializer {
+    private final String dataSourceId;
+    // decoders by schema name, writer version and reader version, empty for the payloads which are not records.
+    // The versions are boxed by the caller already, so looking up the decoder of known versions does not allocate.
+    private final ConcurrentMap<String, ConcurrentMap<Integer, ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>>>> decoders
+            = new ConcurrentHashMap<>();
+
+    public AvroStreamsSnapshotDeserializer() {
+        this(null);
+    }
+
+    /**
+     * Creates a deserializer of the events of the given data source.
+     */
+    public AvroStreamsSnapshotDeserializer(String dataSourceId) {
+        this.dataSourceId = dataSourceId;
+    }
 
     @Override
     protected Object doDeserialize(InputStream payloadInputStream, SchemaMetadata schemaMetadata,
                                    Integer writerSchemaVersion, Integer readerSchemaVersion) throws SerDesException {
+        // payloads without reader version are read with the writer schema
+        AvroStreamlineEventDecoder decoder = decoder(schemaMetadata.getName(), writerSchemaVersion,
+                readerSchemaVersion != null ? readerSchemaVersion : writerSchemaVersion);
+        if (decoder != null) {
+            try {
+                return decoder.decode(payloadInputStream, dataSourceId);
+            } catch (IOException e) {
+                throw new SerDesException(e);
+            }
+        }
         Object deserializedObj = super.doDeserialize(payloadInputStream, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+        return toKeyValues(deserializedObj);
+    }
+
+    private AvroStreamlineEventDecoder decoder(String schemaName, Integer writerSchemaVersion,
+                                               Integer readerSchemaVersion) throws SerDesException {
+        ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>> readerDecoders = readerDecoders(schemaName, writerSchemaVersion);
+        Optional<AvroStreamlineEventDecoder> decoder = readerDecoders.get(readerSchemaVersion);
+        if (decoder == null) {
+            Schema writerSchema = getSchema(new SchemaVersionKey(schemaName, writerSchemaVersion));
+            Schema readerSchema = readerSchemaVersion.equals(writerSchemaVersion)
+                    ? writerSchema
+                    : getSchema(new SchemaVersionKey(schemaName, readerSchemaVersion));
+            if (!AvroStreamlineEventDecoder.isRecord(writerSchema) || !AvroStreamlineEventDecoder.isRecord(readerSchema)) {
+                decoder = Optional.empty();
+            } else {
+                try {
+                    decoder = Optional.of(new AvroStreamlineEventDecoder(writerSchema, readerSchema));
+                } catch (IOException e) {
+                    throw new SerDesException(e);
+                }
+            }
+            Optional<AvroStreamlineEventDecoder> existing = readerDecoders.putIfAbsent(readerSchemaVersion, decoder);
+            if (existing != null) {
+                decoder = existing;
+            }
+        }
+        return decoder.orElse(null);
+    }
+
+    private ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>> readerDecoders(String schemaName,
+                                                                                      Integer writerSchemaVersion) {
+        ConcurrentMap<Integer, ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>>> writerDecoders = decoders.get(schemaName);
+        if (writerDecoders == null) {
+            writerDecoders = new ConcurrentHashMap<>();
+            ConcurrentMap<Integer, ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>>> existing
+                    = decoders.putIfAbsent(schemaName, writerDecoders);
+            if (existing != null) {
+                writerDecoders = existing;
+            }
+        }
+        ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>> readerDecoders = writerDecoders.get(writerSchemaVersion);
+        if (readerDecoders == null) {
+            readerDecoders = new ConcurrentHashMap<>();
+            ConcurrentMap<Integer, Optional<AvroStreamlineEventDecoder>> existing
+                    = writerDecoders.putIfAbsent(writerSchemaVersion, readerDecoders);
+            if (existing != null) {
+                readerDecoders = existing;
+            }
+        }
+        return readerDecoders;
+    }
 
+    /**
+     * Converts an object read by the avro datum reader to the field values of a {@link StreamlineEvent}.
+     * A record or a map is converted to its fields, any other value to the {@link StreamlineEvent#PRIMITIVE_PAYLOAD_FIELD}.
+     */
+    public static Map<String, Object> toKeyValues(Object deserializedObj) {
         Map<String, Object> keyValues = new LinkedHashMap<>();
         Object values = convertValue(deserializedObj);
         if (values instanceof Map) {
@@ -55,7 +147,7 @@ public class AvroStreamsSnapshotDeserializer extends AvroSnapshotDeserializer {
         return keyValues;
     }
 
-    private Object convertValue(Object deserializedObj) {
+    private static Object convertValue(Object deserializedObj) {
         Object value;
 
         //check for specific-record type and build a map from that
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime.storm.tuple;
+
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A dot separated path to a possibly nested field, e.g. outer.inner, split once when the component using it is
+ * created. The first name of the path is looked up in a tuple or an event and the following names in the nested
+ * maps. A missing field, or a nested value which is not a map, yields null.
+ * <p>
+ * The position of the first name is cached for the {@link Fields} of the last tuple and the {@link FieldIndex} of
+ * the last indexed event, since the tuples of a stream share their fields and the events of a schema share their
+ * index. Not thread safe.
+ * </p>
+ */
+public final class FieldPath implements Serializable {
+    private static final String NESTED_FIELD_SPLIT_REGEX = "\\.";
+
+    private final String path;
+    private final String[] names;
+
+    private transient Fields cachedFields;
+    private transient int cachedFieldPosition;
+    private transient FieldIndex cachedFieldIndex;
+    private transient int cachedSlot;
+
+    private FieldPath(String path) {
+        this.path = path;
+        this.names = path.split(NESTED_FIELD_SPLIT_REGEX);
+    }
+
+    public static FieldPath of(String dotSeparatedPath) {
+        return new FieldPath(dotSeparatedPath.trim());
+    }
+
+    public static FieldPath[] of(String... dotSeparatedPaths) {
+        FieldPath[] fieldPaths = new FieldPath[dotSeparatedPaths.length];
+        for (int i = 0; i < dotSeparatedPaths.length; i++) {
+            fieldPaths[i] = of(dotSeparatedPaths[i]);
+        }
+        return fieldPaths;
+    }
+
+    /**
+     * The dot separated path.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the value of the field in the given tuple.
+     */
+    public Object get(Tuple tuple) {
+        Fields fields = tuple.getFields();
+        if (fields != cachedFields) {
+            cachedFieldPosition = fields.contains(names[0]) ? fields.fieldIndex(names[0]) : -1;
+            cachedFields = fields;
+        }
+        return cachedFieldPosition >= 0 ? getNested(tuple.getValue(cachedFieldPosition)) : null;
+    }
+
+    /**
+     * Returns the value of the field in the given map, usually a StreamlineEvent.
+     */
+    public Object get(Map<String, ?> map) {
+        if (map instanceof StreamlineEventWithStream) {
+            map = ((StreamlineEventWithStream) map).getEvent();
+        }
+        if (map instanceof IndexedStreamlineEvent) {
+            IndexedStreamlineEvent event = (IndexedStreamlineEvent) map;
+            FieldIndex fieldIndex = event.getFieldIndex();
+            if (fieldIndex != cachedFieldIndex) {
+                cachedSlot = fieldIndex.indexOf(names[0]);
+                cachedFieldIndex = fieldIndex;
+            }
+            return getNested(cachedSlot >= 0 ? event.getAt(cachedSlot) : event.get(names[0]));
+        }
+        return getNested(map.get(names[0]));
+    }
+
+    // follows the names after the first one
+    private Object getNested(Object value) {
+        for (int i = 1; i < names.length && value != null; i++) {
+            value = value instanceof Map ? ((Map) value).get(names[i]) : null;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return path.equals(((FieldPath) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
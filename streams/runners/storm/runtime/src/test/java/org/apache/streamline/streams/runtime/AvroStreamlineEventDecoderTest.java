@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streamline.streams.runtime;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.storm.Config;
+import org.apache.storm.serialization.SerializationFactory;
+import org.apache.storm.utils.Utils;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
+import org.apache.streamline.streams.runtime.storm.spout.AvroStreamlineEventDecoder;
+import org.apache.streamline.streams.runtime.storm.spout.AvroStreamsSnapshotDeserializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AvroStreamlineEventDecoderTest {
+
+    private static final Schema WRITER_SCHEMA = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"device\", \"fields\": ["
+            + "{\"name\": \"id\", \"type\": \"long\"},"
+            + "{\"name\": \"name\", \"type\": \"string\"},"
+            + "{\"name\": \"suit\", \"type\": {\"type\": \"enum\", \"name\": \"suit\", \"symbols\": [\"SPADES\", \"HEARTS\"]}},"
+            + "{\"name\": \"payload\", \"type\": \"bytes\"},"
+            + "{\"name\": \"temperatures\", \"type\": {\"type\": \"array\", \"items\": \"double\"}},"
+            + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"int\"}},"
+            + "{\"name\": \"address\", \"type\": {\"type\": \"record\", \"name\": \"address\", \"fields\": ["
+            + "    {\"name\": \"city\", \"type\": \"string\"},"
+            + "    {\"name\": \"zip\", \"type\": [\"null\", \"string\"], \"default\": null}]}},"
+            + "{\"name\": \"previous\", \"type\": {\"type\": \"array\", \"items\": \"address\"}}]}");
+
+    // drops name, reorders the fields, adds a field with a default and promotes id
+    private static final Schema READER_SCHEMA = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"device\", \"fields\": ["
+            + "{\"name\": \"address\", \"type\": {\"type\": \"record\", \"name\": \"address\", \"fields\": ["
+            + "    {\"name\": \"city\", \"type\": \"string\"},"
+            + "    {\"name\": \"zip\", \"type\": [\"null\", \"string\"], \"default\": null}]}},"
+            + "{\"name\": \"id\", \"type\": \"float\"},"
+            + "{\"name\": \"suit\", \"type\": {\"type\": \"enum\", \"name\": \"suit\", \"symbols\": [\"HEARTS\", \"CLUBS\", \"SPADES\"]}},"
+            + "{\"name\": \"unit\", \"type\": \"string\", \"default\": \"celsius\"},"
+            + "{\"name\": \"temperatures\", \"type\": {\"type\": \"array\", \"items\": \"double\"}}]}");
+
+    private static final Schema ADDRESS_SCHEMA = WRITER_SCHEMA.getField("address").schema();
+
+    @Test
+    public void testDecodeAsToKeyValues() throws Exception {
+        GenericRecord record = createRecord();
+        byte[] bytes = serialize(record);
+
+        IndexedStreamlineEvent event = new AvroStreamlineEventDecoder(WRITER_SCHEMA, WRITER_SCHEMA)
+                .decode(new ByteArrayInputStream(bytes), "dataSource");
+
+        Map<String, Object> expected = AvroStreamsSnapshotDeserializer.toKeyValues(
+                new GenericDatumReader<>(WRITER_SCHEMA).read(null, DecoderFactory.get().binaryDecoder(bytes, null)));
+        Assert.assertEquals("dataSource", event.getDataSourceId());
+        Assert.assertEquals(expected.keySet(), event.keySet());
+        Assert.assertArrayEquals((byte[]) expected.get("payload"), (byte[]) event.get("payload"));
+        for (String field : expected.keySet()) {
+            if (!"payload".equals(field)) {
+                Assert.assertEquals(field, expected.get(field), event.get(field));
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeWithReaderSchema() throws Exception {
+        AvroStreamlineEventDecoder decoder = new AvroStreamlineEventDecoder(WRITER_SCHEMA, READER_SCHEMA);
+        // the decoders are reused across records
+        for (int i = 0; i < 3; i++) {
+            IndexedStreamlineEvent event = decoder.decode(new ByteArrayInputStream(serialize(createRecord())), "dataSource");
+
+            Assert.assertEquals(Arrays.asList("address", "id", "suit", "unit", "temperatures"),
+                    event.getFieldIndex().getFieldNames());
+            Assert.assertEquals(42.0f, event.get("id"));
+            Assert.assertEquals("HEARTS", event.get("suit"));
+            Assert.assertEquals("celsius", event.get("unit"));
+            Assert.assertEquals(Arrays.asList(20.5, 21.0), event.get("temperatures"));
+            Map<String, Object> address = new LinkedHashMap<>();
+            address.put("city", "Paris");
+            address.put("zip", null);
+            Assert.assertEquals(address, event.get("address"));
+            Assert.assertFalse(event.containsKey("name"));
+        }
+    }
+
+    @Test
+    public void testNestedValuesCopiedOnWrite() throws Exception {
+        IndexedStreamlineEvent event = new AvroStreamlineEventDecoder(WRITER_SCHEMA, WRITER_SCHEMA)
+                .decode(new ByteArrayInputStream(serialize(createRecord())), "dataSource");
+
+        Map<String, Object> address = (Map<String, Object>) event.get("address");
+        Assert.assertNull(address.put("country", "France"));
+        Assert.assertEquals("France", address.get("country"));
+        Assert.assertEquals("Paris", address.remove("city"));
+        Assert.assertEquals(2, address.size());
+
+        List<Object> temperatures = (List<Object>) event.get("temperatures");
+        Assert.assertEquals(20.5, temperatures.set(0, 19.0));
+        temperatures.add(22.0);
+        Assert.assertEquals(Arrays.asList(19.0, 21.0, 22.0), temperatures);
+
+        List<Object> previous = (List<Object>) event.get("previous");
+        Assert.assertEquals(1, previous.size());
+        Assert.assertEquals("Lyon", ((Map<String, Object>) previous.get(0)).get("city"));
+    }
+
+    @Test
+    public void testNestedValuesSerialized() throws Exception {
+        IndexedStreamlineEvent event = new AvroStreamlineEventDecoder(WRITER_SCHEMA, WRITER_SCHEMA)
+                .decode(new ByteArrayInputStream(serialize(createRecord())), "dataSource");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(event.get("address"));
+            objectOut.writeObject(event.get("temperatures"));
+        }
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Object address = objectIn.readObject();
+            Object temperatures = objectIn.readObject();
+            Assert.assertEquals(LinkedHashMap.class, address.getClass());
+            Assert.assertEquals(event.get("address"), address);
+            Assert.assertEquals(Arrays.asList(20.5, 21.0), temperatures);
+        }
+    }
+
+    @Test
+    public void testNestedValuesKryoSerialized() throws Exception {
+        IndexedStreamlineEvent event = new AvroStreamlineEventDecoder(WRITER_SCHEMA, WRITER_SCHEMA)
+                .decode(new ByteArrayInputStream(serialize(createRecord())), "dataSource");
+
+        Map<String, Object> conf = Utils.readDefaultConfig();
+        conf.put(Config.TOPOLOGY_FALL_BACK_ON_JAVA_SERIALIZATION, false);
+        conf.put(Config.TOPOLOGY_KRYO_REGISTER, Arrays.asList(StormTopologyLayoutConstants.STREAMLINE_EVENT_VALUE_CLASSNAMES));
+        Kryo kryo = SerializationFactory.getKryo(conf);
+        Output output = new Output(1024, -1);
+        kryo.writeClassAndObject(output, event.get("address"));
+        kryo.writeClassAndObject(output, event.get("temperatures"));
+        kryo.writeClassAndObject(output, event.get("previous"));
+
+        Input input = new Input(output.toBytes());
+        Assert.assertEquals(event.get("address"), kryo.readClassAndObject(input));
+        Assert.assertEquals(Arrays.asList(20.5, 21.0), kryo.readClassAndObject(input));
+        Assert.assertEquals(event.get("previous"), kryo.readClassAndObject(input));
+    }
+
+    private static GenericRecord createRecord() {
+        GenericRecord address = new GenericData.Record(ADDRESS_SCHEMA);
+        address.put("city", "Paris");
+        GenericRecord previousAddress = new GenericData.Record(ADDRESS_SCHEMA);
+        previousAddress.put("city", "Lyon");
+        previousAddress.put("zip", "69001");
+        Map<String, Integer> tags = new LinkedHashMap<>();
+        tags.put("floor", 3);
+        tags.put("room", 12);
+
+        GenericRecord record = new GenericData.Record(WRITER_SCHEMA);
+        record.put("id", 42L);
+        record.put("name", "sensor");
+        record.put("suit", new GenericData.EnumSymbol(WRITER_SCHEMA.getField("suit").schema(), "HEARTS"));
+        record.put("payload", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        record.put("temperatures", Arrays.asList(20.5, 21.0));
+        record.put("tags", tags);
+        record.put("address", address);
+        record.put("previous", Collections.singletonList(previousAddress));
+        return record;
+    }
+
+    private static byte[] serialize(GenericRecord record) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
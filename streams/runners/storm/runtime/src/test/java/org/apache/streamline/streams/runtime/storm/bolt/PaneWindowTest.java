@@ -0,0 +1,122 @@
+package org.apache.streamline.streams.runtime.storm.bolt;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.runtime.storm.serialization.StreamlineEventSerializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PaneWindowTest {
+    private File directory;
+    private PaneWindow<StreamlineEvent> paneWindow;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("panes").toFile();
+        paneWindow = new PaneWindow<>(new File(directory, "task"), 1, new Kryo(), StreamlineEvent.class,
+                new StreamlineEventSerializer());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        paneWindow.close();
+        new File(directory, "task").delete();
+        directory.delete();
+    }
+
+    private static List<StreamlineEvent> pane(int from, int to) {
+        List<StreamlineEvent> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add(new StreamlineEventImpl(Collections.<String, Object>singletonMap("i", i), "ds", "id" + i,
+                    Collections.<String, Object>emptyMap(), "s1"));
+        }
+        return events;
+    }
+
+    private static List<Object> values(Iterable<StreamlineEvent> events) {
+        List<Object> values = new ArrayList<>();
+        for (StreamlineEvent event : events) {
+            Assert.assertEquals("s1", event.getSourceStream());
+            values.add(event.get("i"));
+        }
+        return values;
+    }
+
+    private int spilledPanes() {
+        return new File(directory, "task").listFiles().length;
+    }
+
+    @Test
+    public void testSpillAndReadBack() throws Exception {
+        paneWindow.add(pane(0, 3));
+        Assert.assertEquals(0, spilledPanes());
+        paneWindow.add(pane(3, 5));
+        paneWindow.add(Collections.<StreamlineEvent>emptyList());
+        paneWindow.add(pane(5, 6));
+        // the first two panes are written to files, the empty pane is not
+        Assert.assertEquals(2, spilledPanes());
+        Assert.assertEquals(4, paneWindow.size());
+        Assert.assertEquals(ImmutableList.<Object>of(0, 1, 2, 3, 4, 5), values(paneWindow.items()));
+        // spilled panes can be iterated several times
+        Assert.assertEquals(ImmutableList.<Object>of(0, 1, 2, 3, 4, 5), values(paneWindow.items()));
+
+        Assert.assertEquals(ImmutableList.<Object>of(0, 1, 2), values(paneWindow.removeOldest()));
+        Assert.assertEquals(1, spilledPanes());
+        Assert.assertEquals(ImmutableList.<Object>of(3, 4), values(paneWindow.removeOldest()));
+        Assert.assertEquals(ImmutableList.<Object>of(), values(paneWindow.removeOldest()));
+        Assert.assertEquals(ImmutableList.<Object>of(5), values(paneWindow.removeOldest()));
+        Assert.assertEquals(0, paneWindow.size());
+        Assert.assertEquals(0, spilledPanes());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        paneWindow.add(pane(0, 3));
+        paneWindow.add(pane(3, 5));
+        Assert.assertEquals(1, spilledPanes());
+        paneWindow.close();
+        Assert.assertEquals(0, paneWindow.size());
+        Assert.assertEquals(0, spilledPanes());
+        Assert.assertTrue(Lists.newArrayList(paneWindow.items()).isEmpty());
+    }
+
+    @Test
+    public void testItemsByKey() throws Exception {
+        paneWindow.close();
+        // even and odd items, 4 and 5 without key
+        paneWindow = new PaneWindow<>(new File(directory, "task"), 1, new Kryo(), StreamlineEvent.class,
+                new StreamlineEventSerializer(), event -> {
+                    int i = (Integer) event.get("i");
+                    return i == 4 || i == 5 ? null : i % 2 == 0 ? "even" : "odd";
+                });
+        paneWindow.add(pane(0, 3));
+        paneWindow.add(pane(3, 7));
+        paneWindow.add(Collections.<StreamlineEvent>emptyList());
+        paneWindow.add(pane(7, 9));
+        Assert.assertEquals(2, spilledPanes());
+        Assert.assertEquals(ImmutableList.<Object>of(0, 2, 6, 8), values(paneWindow.items("even")));
+        Assert.assertEquals(ImmutableList.<Object>of(1, 3, 7), values(paneWindow.items("odd")));
+        Assert.assertTrue(paneWindow.items("none").isEmpty());
+        Assert.assertTrue(paneWindow.items(null).isEmpty());
+
+        paneWindow.removeOldest();
+        Assert.assertEquals(ImmutableList.<Object>of(6, 8), values(paneWindow.items("even")));
+        Assert.assertEquals(ImmutableList.<Object>of(3, 4, 5, 6, 7, 8), values(paneWindow.items()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testItemsByKeyWithoutKeyFunction() throws Exception {
+        paneWindow.items("even");
+    }
+}
@@ -27,9 +27,11 @@ import org.apache.streamline.streams.notification.Notification;
 import org.apache.streamline.streams.notification.NotificationContext;
 import org.apache.streamline.streams.notification.Notifier;
 import org.apache.streamline.streams.notification.service.NotificationQueueHandler;
+import org.apache.streamline.streams.notification.store.NotificationStore;
 import org.apache.streamline.streams.notification.store.hbase.HBaseNotificationStore;
 import org.apache.streamline.streams.notifiers.ConsoleNotifier;
 import org.apache.streamline.streams.runtime.notification.StreamlineEventAdapter;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mock;
 import mockit.MockUp;
@@ -154,6 +156,16 @@ public class NotificationBoltTest {
             }
         };
 
+        // the store persists the status updates right away
+        new Expectations() {{
+            hBaseNotificationStore.onFlush((NotificationStore.FlushCallback) any);
+            minTimes = 0;
+            result = new Delegate<Void>() {
+                void onFlush(NotificationStore.FlushCallback callback) {
+                    callback.onSuccess();
+                }
+            };
+        }};
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -20,6 +20,7 @@ package org.apache.streamline.streams.runtime.storm.bolt.query;
 
 import org.apache.storm.task.GeneralTopologyContext;
 import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.TupleImpl;
@@ -27,12 +28,17 @@ import org.apache.storm.windowing.TupleWindow;
 import org.apache.storm.windowing.TupleWindowImpl;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.rule.expression.Window;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -165,6 +171,51 @@ public class TestWindowedQueryBolt {
         Assert.assertEquals(12, collector.actualResults.size() );
     }
 
+    @Test
+    public void testRightJoin() throws Exception {
+        ArrayList<Tuple> userStream = makeStream("users", userFields, users);
+        ArrayList<Tuple> orderStream = makeStream("orders", orderFields, orders);
+        TupleWindow window = makeTupleWindow(orderStream, userStream);
+
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "orders", "userId")
+                .rightJoin("users", userFields[0], "orders")
+                .select("userId,name,price");
+
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+        bolt.execute(window);
+        printResults(collector);
+        Assert.assertEquals(12, collector.actualResults.size() ); // 9 orders + 3 users without orders
+        int usersWithoutOrders = 0;
+        for (List<Object> result : collector.actualResults) {
+            if (result.get(2) == null) {
+                Assert.assertTrue(Arrays.asList(1, 9, 10).contains(result.get(0)));
+                ++usersWithoutOrders;
+            }
+        }
+        Assert.assertEquals(3, usersWithoutOrders);
+    }
+
+    @Test
+    public void testOuterJoin() throws Exception {
+        ArrayList<Tuple> userStream = makeStream("users", userFields, users);
+        ArrayList<Tuple> cityStream = makeStream("cities", cityFields, cities);
+        TupleWindow window = makeTupleWindow(userStream, cityStream);
+
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[2])
+                .outerJoin("cities", "cityName", "users")
+                .select("name,cityName,country");
+
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+        bolt.execute(window);
+        printResults(collector);
+        // 9 users in a known city, priyank in seattle and chennai without users
+        Assert.assertEquals(11, collector.actualResults.size() );
+        Assert.assertTrue(collector.actualResults.contains(Arrays.<Object>asList("priyank", null, null)));
+        Assert.assertTrue(collector.actualResults.contains(Arrays.<Object>asList(null, "chennai", "India")));
+    }
+
     @Test
     public void testThreeStreamInnerJoin() throws Exception {
         ArrayList<Tuple> userStream = makeStream("users", userFields, users);
@@ -248,6 +299,131 @@ public class TestWindowedQueryBolt {
         Assert.assertEquals(stores.length+1, collector.actualResults.size() ); // stores.length+1 as 2 users in Bengaluru
     }
 
+    @Test
+    public void testSlidingWindow() throws Exception {
+        List<Tuple> tuples = interleave(makeStream("users", userFields, users), makeStream("orders", orderFields, orders));
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                .leftJoin("orders", "userId", "users")
+                .select("userId,name,price");
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+        for (TupleWindow window : slide(tuples, 6, 2)) {
+            // the same join computed from the whole window
+            WindowedQueryBolt expectedBolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                    .leftJoin("orders", "userId", "users")
+                    .select("userId,name,price");
+            MockCollector expected = new MockCollector();
+            expectedBolt.prepare(null, null, expected);
+            expectedBolt.execute(new TupleWindowImpl(window.get(), null, null));
+
+            collector.actualResults.clear();
+            bolt.execute(window);
+            Assert.assertEquals(expected.actualResults, collector.actualResults);
+        }
+    }
+
+    @Test
+    public void testIncrementalResults() throws Exception {
+        List<Tuple> tuples = interleave(makeStream("users", userFields, users), makeStream("orders", orderFields, orders));
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                .join("orders", "userId", "users")
+                .select("userId,name,price")
+                .withIncrementalResults();
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+        HashSet<List<Object>> expected = new HashSet<>();
+        for (TupleWindow window : slide(tuples, 6, 2)) {
+            WindowedQueryBolt expectedBolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                    .join("orders", "userId", "users")
+                    .select("userId,name,price");
+            MockCollector windowResults = new MockCollector();
+            expectedBolt.prepare(null, null, windowResults);
+            expectedBolt.execute(new TupleWindowImpl(window.get(), null, null));
+            expected.addAll(windowResults.actualResults);
+            bolt.execute(window);
+        }
+        // every joined record is emitted once, by the first window it appears in
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), collector.actualResults.size());
+        Assert.assertEquals(expected, new HashSet<>(collector.actualResults));
+    }
+
+    @Test
+    public void testIncrementalResultsInSpilledPanes() throws Exception {
+        List<Tuple> tuples = interleave(makeStream("users", userFields, users), makeStream("orders", orderFields, orders));
+        File spillDirectory = Files.createTempDirectory("spill").toFile();
+        // a window of 6 tuples sliding by 2, the panes of the window all spilled
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                .join("orders", "userId", "users")
+                .select("userId,name,price")
+                .withIncrementalResults();
+        bolt.withWindowConfig(new Window("{\"windowLength\": {\"class\": \".Window$Count\", \"count\": 6},"
+                + " \"slidingInterval\": {\"class\": \".Window$Count\", \"count\": 2}}"));
+        bolt.withSpilling(spillDirectory.getAbsolutePath(), 0);
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, new MockTopologyContext()
+                .withStream("users", userFields)
+                .withStream("orders", orderFields), collector);
+        WindowedQueryBolt expectedBolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                .join("orders", "userId", "users")
+                .select("userId,name,price")
+                .withIncrementalResults();
+        MockCollector expected = new MockCollector();
+        expectedBolt.prepare(null, null, expected);
+        int results = 0;
+        try {
+            for (TupleWindow window : slide(tuples, 6, 2)) {
+                expected.actualResults.clear();
+                expectedBolt.execute(window);
+                // storm activates the bolt once per pane
+                collector.actualResults.clear();
+                bolt.execute(new TupleWindowImpl(window.getNew(), window.getNew(), Collections.<Tuple>emptyList()));
+                Assert.assertEquals(expected.actualResults, collector.actualResults);
+                results += collector.actualResults.size();
+            }
+        } finally {
+            bolt.cleanup();
+            for (File directory : spillDirectory.listFiles()) {
+                directory.delete();
+            }
+            spillDirectory.delete();
+        }
+        Assert.assertTrue(results > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncrementalResultsWithLeftJoin() throws Exception {
+        WindowedQueryBolt bolt = new WindowedQueryBolt(WindowedQueryBolt.StreamSelector.STREAM, "users", userFields[0])
+                .leftJoin("orders", "userId", "users")
+                .select("userId,name,price")
+                .withIncrementalResults();
+        bolt.prepare(null, null, new MockCollector());
+    }
+
+    private static List<Tuple> interleave(List<Tuple> first, List<Tuple> second) {
+        List<Tuple> result = new ArrayList<>();
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size())
+                result.add(first.get(i));
+            if (i < second.size())
+                result.add(second.get(i));
+        }
+        return result;
+    }
+
+    // the windows of a sliding count window over the tuples
+    private static List<TupleWindow> slide(List<Tuple> tuples, int length, int interval) {
+        List<TupleWindow> windows = new ArrayList<>();
+        for (int end = interval; end <= tuples.size(); end += interval) {
+            int start = Math.max(0, end - length);
+            int prevStart = Math.max(0, end - interval - length);
+            windows.add(new TupleWindowImpl(new ArrayList<>(tuples.subList(start, end)),
+                    new ArrayList<>(tuples.subList(end - interval, end)),
+                    new ArrayList<>(tuples.subList(prevStart, start))));
+        }
+        return windows;
+    }
+
     private static void printResults(MockCollector collector) {
         int counter=0;
         for (List<Object> rec : collector.actualResults) {
@@ -359,4 +535,39 @@ public class TestWindowedQueryBolt {
         }
 
     }
+
+    static class MockTopologyContext extends TopologyContext {
+
+        private final Map<String, Fields> streamFields = new HashMap<>();
+
+        public MockTopologyContext() {
+            super(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        }
+
+        public MockTopologyContext withStream(String streamId, String[] fieldNames) {
+            streamFields.put(streamId, new Fields(fieldNames));
+            return this;
+        }
+
+        public String getStormId() {
+            return "topology";
+        }
+
+        public String getThisComponentId() {
+            return "bolt";
+        }
+
+        public int getThisTaskId() {
+            return 1;
+        }
+
+        public String getComponentId(int taskId) {
+            return "component";
+        }
+
+        public Fields getComponentOutputFields(String componentId, String streamId) {
+            return streamFields.get(streamId);
+        }
+
+    }
 }
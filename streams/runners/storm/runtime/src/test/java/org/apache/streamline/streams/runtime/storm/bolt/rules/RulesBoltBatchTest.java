@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.bolt.rules;
+
+import org.apache.storm.Config;
+import org.apache.storm.Constants;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.runtime.processor.RuleProcessorRuntime;
+import org.apache.streamline.streams.runtime.storm.layout.runtime.rule.topology.RulesProcessorMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RulesBoltBatchTest {
+    private static final int SPOUT_TASK_ID = 1;
+
+    private RulesProcessor rulesProcessor;
+    private String matchingStream;
+    private MockCollector collector;
+
+    @Before
+    public void setup() throws Exception {
+        rulesProcessor = new RulesProcessorMock(1, 2, 2).get();
+        // the first rule matches a temperature below 100 and a humidity below 50
+        matchingStream = rulesProcessor.getRules().get(0)
+                .getOutputStreamNameForAction(rulesProcessor.getRules().get(0).getActions().iterator().next());
+        collector = new MockCollector();
+    }
+
+    @Test
+    public void testBatchFlushedWhenFull() throws Exception {
+        RulesBolt rulesBolt = prepare(new RulesBolt(rulesProcessor, RuleProcessorRuntime.ScriptType.GROOVY).withBatchSize(3));
+        List<Tuple> tuples = Arrays.asList(makeTuple(10), makeTuple(11), makeTuple(12));
+
+        rulesBolt.execute(tuples.get(0));
+        rulesBolt.execute(tuples.get(1));
+        Assert.assertTrue(collector.emitted.isEmpty());
+        Assert.assertTrue(collector.acked.isEmpty());
+
+        rulesBolt.execute(tuples.get(2));
+        Assert.assertEquals(tuples, collector.anchors);
+        Assert.assertEquals(Collections.nCopies(3, matchingStream), collector.streams);
+        Assert.assertEquals(Arrays.asList(10, 11, 12), emittedTemperatures());
+        Assert.assertEquals(tuples, collector.acked);
+        Assert.assertTrue(collector.failed.isEmpty());
+    }
+
+    @Test
+    public void testBatchWithoutLingerFlushedOnTick() throws Exception {
+        RulesBolt rulesBolt = prepare(new RulesBolt(rulesProcessor, RuleProcessorRuntime.ScriptType.GROOVY).withBatchSize(10));
+        Assert.assertEquals(1, rulesBolt.getComponentConfiguration().get(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS));
+        List<Tuple> tuples = Arrays.asList(makeTuple(10), makeTuple(11));
+
+        rulesBolt.execute(tuples.get(0));
+        Thread.sleep(5);
+        rulesBolt.execute(tuples.get(1));
+        Assert.assertTrue(collector.acked.isEmpty());
+
+        rulesBolt.execute(makeTickTuple());
+        Assert.assertEquals(Arrays.asList(10, 11), emittedTemperatures());
+        Assert.assertEquals(tuples, collector.acked);
+
+        // an empty batch is not flushed again
+        rulesBolt.execute(makeTickTuple());
+        Assert.assertEquals(2, collector.emitted.size());
+        Assert.assertEquals(2, collector.acked.size());
+    }
+
+    @Test
+    public void testBatchFlushedAfterLinger() throws Exception {
+        RulesBolt rulesBolt = prepare(new RulesBolt(rulesProcessor, RuleProcessorRuntime.ScriptType.GROOVY)
+                .withBatchSize(10).withBatchLingerMs(50));
+        Assert.assertEquals(1, rulesBolt.getComponentConfiguration().get(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS));
+        List<Tuple> tuples = Arrays.asList(makeTuple(10), makeTuple(11));
+
+        rulesBolt.execute(tuples.get(0));
+        rulesBolt.execute(makeTickTuple());
+        Assert.assertTrue(collector.acked.isEmpty());
+
+        Thread.sleep(100);
+        rulesBolt.execute(tuples.get(1));
+        Assert.assertEquals(Arrays.asList(10, 11), emittedTemperatures());
+        Assert.assertEquals(tuples, collector.acked);
+    }
+
+    @Test
+    public void testBatchAckedAndFailedPerTuple() throws Exception {
+        RulesBolt rulesBolt = prepare(new RulesBolt(rulesProcessor, RuleProcessorRuntime.ScriptType.GROOVY)
+                .withBatchSize(3).withBatchLingerMs(60000));
+        List<Tuple> tuples = Arrays.asList(makeTuple(10), makeTuple(11), makeTuple(12));
+        collector.failingAnchor = tuples.get(1);
+
+        for (Tuple tuple : tuples) {
+            rulesBolt.execute(tuple);
+        }
+        // the tuples emitted before the failure are not emitted again
+        Assert.assertEquals(Arrays.asList(tuples.get(0), tuples.get(2)), collector.anchors);
+        Assert.assertEquals(Arrays.asList(10, 12), emittedTemperatures());
+        Assert.assertEquals(Arrays.asList(tuples.get(0), tuples.get(2)), collector.acked);
+        Assert.assertEquals(Collections.singletonList(tuples.get(1)), collector.failed);
+        Assert.assertEquals(1, collector.errors.size());
+    }
+
+    @Test
+    public void testInvalidTupleAckedWithoutBatching() throws Exception {
+        RulesBolt rulesBolt = prepare(new RulesBolt(rulesProcessor, RuleProcessorRuntime.ScriptType.GROOVY).withBatchSize(3));
+        Tuple tuple = new TupleImpl(new MockContext(), Collections.<Object>singletonList("not an event"), SPOUT_TASK_ID, "default");
+
+        rulesBolt.execute(tuple);
+        Assert.assertEquals(Collections.singletonList(tuple), collector.acked);
+        Assert.assertTrue(collector.emitted.isEmpty());
+    }
+
+    private RulesBolt prepare(RulesBolt rulesBolt) {
+        rulesBolt.prepare(null, null, collector);
+        return rulesBolt;
+    }
+
+    private List<Object> emittedTemperatures() {
+        List<Object> temperatures = new ArrayList<>();
+        for (List<Object> values : collector.emitted) {
+            temperatures.add(((StreamlineEvent) values.get(0)).get(RulesProcessorMock.TEMPERATURE));
+        }
+        return temperatures;
+    }
+
+    private static Tuple makeTuple(int temperature) {
+        Map<String, Object> fieldsAndValues = new HashMap<>();
+        fieldsAndValues.put(RulesProcessorMock.TEMPERATURE, temperature);
+        fieldsAndValues.put(RulesProcessorMock.HUMIDITY, 10);
+        StreamlineEvent event = new StreamlineEventImpl(fieldsAndValues, "dataSrcId");
+        return new TupleImpl(new MockContext(), Collections.<Object>singletonList(event), SPOUT_TASK_ID, "default");
+    }
+
+    private static Tuple makeTickTuple() {
+        return new TupleImpl(new MockContext(), Collections.<Object>singletonList(1),
+                (int) Constants.SYSTEM_TASK_ID, Constants.SYSTEM_TICK_STREAM_ID);
+    }
+
+    static class MockCollector extends OutputCollector {
+        final List<String> streams = new ArrayList<>();
+        final List<Tuple> anchors = new ArrayList<>();
+        final List<List<Object>> emitted = new ArrayList<>();
+        final List<Tuple> acked = new ArrayList<>();
+        final List<Tuple> failed = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        Tuple failingAnchor;
+
+        MockCollector() {
+            super(null);
+        }
+
+        @Override
+        public List<Integer> emit(String streamId, Tuple anchor, List<Object> tuple) {
+            if (anchor == failingAnchor) {
+                throw new RuntimeException("emit failed");
+            }
+            streams.add(streamId);
+            anchors.add(anchor);
+            emitted.add(tuple);
+            return null;
+        }
+
+        @Override
+        public void ack(Tuple input) {
+            acked.add(input);
+        }
+
+        @Override
+        public void fail(Tuple input) {
+            failed.add(input);
+        }
+
+        @Override
+        public void reportError(Throwable error) {
+            errors.add(error);
+        }
+    }
+
+    static class MockContext extends GeneralTopologyContext {
+
+        MockContext() {
+            super(null, null, null, null, null, null);
+        }
+
+        @Override
+        public String getComponentId(int taskId) {
+            return taskId == Constants.SYSTEM_TASK_ID ? Constants.SYSTEM_COMPONENT_ID : "spout";
+        }
+
+        @Override
+        public Fields getComponentOutputFields(String componentId, String streamId) {
+            return Constants.SYSTEM_TICK_STREAM_ID.equals(streamId)
+                    ? new Fields("rate_secs") : new Fields(StreamlineEvent.STREAMLINE_EVENT);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -19,15 +20,20 @@ import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.TupleImpl;
 import org.apache.storm.tuple.Values;
 import org.apache.storm.windowing.TupleWindow;
+import org.apache.storm.windowing.TupleWindowImpl;
 import org.apache.streamline.streams.runtime.processor.RuleProcessorRuntime;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -175,6 +181,44 @@ public class WindowRulesBoltTest {
         };
     }
 
+    @Test
+    public void testCountBasedWindowInSpilledPanes() throws Exception {
+        WindowRulesBolt wb = new WindowRulesBolt(readFile("/window-rule-count.json"), RuleProcessorRuntime.ScriptType.JAVA);
+        // a window of 10 tuples sliding by 5, the panes of the window all spilled
+        wb.withWindowConfig(new Window("{\"windowLength\": {\"class\": \".Window$Count\", \"count\": 10},"
+                + " \"slidingInterval\": {\"class\": \".Window$Count\", \"count\": 5}}"));
+        File spillDirectory = Files.createTempDirectory("spill").toFile();
+        wb.withSpilling(spillDirectory.getAbsolutePath(), 0);
+        wb.prepare(new HashMap<>(), mockContext, mockCollector);
+        try {
+            // storm activates the bolt once per pane
+            for (int i = 1; i <= 20; i += 5) {
+                List<Tuple> pane = new ArrayList<>();
+                for (int j = i; j < i + 5; j++) {
+                    pane.add(getNextTuple(j));
+                }
+                wb.execute(new TupleWindowImpl(pane, pane, Collections.<Tuple>emptyList()));
+            }
+        } finally {
+            wb.cleanup();
+            FileUtils.deleteDirectory(spillDirectory);
+        }
+        new Verifications() {
+            {
+                String streamId;
+                List<List<Object>> tuples = new ArrayList<>();
+                mockCollector.emit(streamId = withCapture(), withCapture(tuples));
+                Assert.assertEquals("outputstream", streamId);
+                Assert.assertEquals(4, tuples.size());
+                // the events expired from the window are read back from the spilled panes
+                Assert.assertEquals("min salary is 30, max salary is 50", ((StreamlineEvent) tuples.get(0).get(0)).get("body"));
+                Assert.assertEquals("min salary is 30, max salary is 100", ((StreamlineEvent) tuples.get(1).get(0)).get("body"));
+                Assert.assertEquals("min salary is 60, max salary is 150", ((StreamlineEvent) tuples.get(2).get(0)).get("body"));
+                Assert.assertEquals("min salary is 110, max salary is 200", ((StreamlineEvent) tuples.get(3).get(0)).get("body"));
+            }
+        };
+    }
+
     private boolean doTest(String rulesJson, int expectedExecuteCount) throws Exception {
         RulesProcessor rulesProcessor = Utils.createObjectFromJson(rulesJson, RulesProcessor.class);
         Window windowConfig = rulesProcessor.getRules().get(0).getWindow();
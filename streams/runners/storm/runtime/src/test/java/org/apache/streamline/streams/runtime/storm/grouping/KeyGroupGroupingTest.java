@@ -0,0 +1,61 @@
+package org.apache.streamline.streams.runtime.storm.grouping;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class KeyGroupGroupingTest {
+    private static final List<Integer> TASKS = Arrays.asList(7, 5, 6, 8);
+
+    private static List<Object> values(Object deviceId) {
+        StreamlineEvent event = new StreamlineEventImpl(Collections.<String, Object>singletonMap("deviceId", deviceId), "ds1");
+        return Collections.<Object>singletonList(event);
+    }
+
+    @Test
+    public void testSameKeySameTask() {
+        KeyGroupGrouping grouping = new KeyGroupGrouping("deviceId");
+        grouping.prepare(null, null, TASKS);
+        Set<Integer> chosen = new HashSet<>();
+        for (int i = -1000; i < 1000; i++) {
+            List<Integer> tasks = grouping.chooseTasks(1, values(i));
+            Assert.assertEquals(1, tasks.size());
+            Assert.assertTrue(TASKS.contains(tasks.get(0)));
+            Assert.assertEquals(tasks, grouping.chooseTasks(1, values(i)));
+            chosen.add(tasks.get(0));
+        }
+        Assert.assertEquals(new HashSet<>(TASKS), chosen);
+    }
+
+    @Test
+    public void testNegativeHash() {
+        FieldsGroupingAsCustomGrouping grouping = new FieldsGroupingAsCustomGrouping("deviceId");
+        grouping.prepare(null, null, TASKS);
+        // Arrays.deepHashCode({-100}) is negative
+        Assert.assertTrue(Arrays.deepHashCode(new Object[]{-100}) < 0);
+        Assert.assertTrue(TASKS.contains(grouping.chooseTasks(1, values(-100)).get(0)));
+    }
+
+    @Test
+    public void testParallelismChangeMovesFewKeyGroups() {
+        int[] four = KeyGroupGrouping.assignKeyGroups(128, 4);
+        int[] five = KeyGroupGrouping.assignKeyGroups(128, 5);
+        int moved = 0;
+        for (int keyGroup = 0; keyGroup < 128; keyGroup++) {
+            if (four[keyGroup] != five[keyGroup]) {
+                // only to the added task
+                Assert.assertEquals(4, five[keyGroup]);
+                moved++;
+            }
+        }
+        Assert.assertTrue(moved > 0);
+        Assert.assertTrue("moved " + moved, moved < 128 / 2);
+    }
+}
@@ -0,0 +1,102 @@
+package org.apache.streamline.streams.runtime.storm.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
+import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StreamlineEventSerializerTest {
+    private static final FieldIndex FIELD_INDEX = FieldIndex.of("a", "b", "c");
+
+    private static Kryo createKryo(Map<String, Object> conf) {
+        Kryo kryo = new Kryo();
+        kryo.register(StreamlineEventImpl.class, new StreamlineEventSerializer(kryo, StreamlineEventImpl.class, conf));
+        kryo.register(IndexedStreamlineEvent.class, new StreamlineEventSerializer(kryo, IndexedStreamlineEvent.class, conf));
+        kryo.register(StreamlineEventWithStream.class, new StreamlineEventSerializer(kryo, StreamlineEventWithStream.class, conf));
+        return kryo;
+    }
+
+    private static StreamlineEvent roundTrip(Kryo writer, Kryo reader, StreamlineEvent event) {
+        Output output = new Output(1024, -1);
+        writer.writeClassAndObject(output, event);
+        return (StreamlineEvent) reader.readClassAndObject(new Input(output.toBytes()));
+    }
+
+    private static Map<String, Object> fieldsAndValues() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", "aval");
+        map.put("b", null);
+        map.put("d", 10L);
+        return map;
+    }
+
+    private static void assertEventEquals(StreamlineEvent expected, StreamlineEvent actual) {
+        Assert.assertEquals(expected.getId(), actual.getId());
+        Assert.assertEquals(expected.getDataSourceId(), actual.getDataSourceId());
+        Assert.assertEquals(expected.getSourceStream(), actual.getSourceStream());
+        Assert.assertEquals(expected.getHeader(), actual.getHeader());
+        Assert.assertEquals(expected.getAuxiliaryFieldsAndValues(), actual.getAuxiliaryFieldsAndValues());
+        Assert.assertEquals(new HashMap<>(expected), new HashMap<>(actual));
+    }
+
+    @Test
+    public void testMapEvent() throws Exception {
+        Kryo kryo = createKryo(Collections.<String, Object>emptyMap());
+        StreamlineEvent event = new StreamlineEventImpl(fieldsAndValues(), "ds1", "id1",
+                Collections.<String, Object>singletonMap("h", "hval"), "stream1",
+                Collections.<String, Object>singletonMap("x", "xval"));
+
+        StreamlineEvent result = roundTrip(kryo, kryo, event);
+        Assert.assertTrue(result instanceof StreamlineEventImpl);
+        assertEventEquals(event, result);
+    }
+
+    @Test
+    public void testIndexedEventWithDeclaredFieldIndex() throws Exception {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(StormTopologyLayoutConstants.STREAMLINE_EVENT_FIELD_INDEXES, Collections.singletonList(Arrays.asList("a", "b", "c")));
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "ds1");
+
+        StreamlineEvent result = roundTrip(createKryo(conf), createKryo(conf), event);
+        Assert.assertTrue(result instanceof IndexedStreamlineEvent);
+        Assert.assertTrue(result.containsKey("b"));
+        Assert.assertFalse(result.containsKey("c"));
+        assertEventEquals(event, result);
+    }
+
+    @Test
+    public void testIndexedEventWithUndeclaredFieldIndex() throws Exception {
+        Kryo writer = createKryo(Collections.<String, Object>emptyMap());
+        Kryo reader = createKryo(Collections.<String, Object>emptyMap());
+        IndexedStreamlineEvent event = new IndexedStreamlineEvent(FIELD_INDEX, fieldsAndValues(), "ds1");
+
+        IndexedStreamlineEvent result1 = (IndexedStreamlineEvent) roundTrip(writer, reader, event);
+        IndexedStreamlineEvent result2 = (IndexedStreamlineEvent) roundTrip(writer, reader, event);
+        assertEventEquals(event, result1);
+        Assert.assertSame(result1.getFieldIndex(), result2.getFieldIndex());
+    }
+
+    @Test
+    public void testEventWithStream() throws Exception {
+        Kryo kryo = createKryo(Collections.<String, Object>emptyMap());
+        StreamlineEvent event = StreamlineEventWithStream.of(new StreamlineEventImpl(fieldsAndValues(), "ds1"), "stream2");
+        event.addAuxiliaryFieldAndValue("x", "xval");
+
+        StreamlineEvent result = roundTrip(kryo, kryo, event);
+        Assert.assertTrue(result instanceof StreamlineEventImpl);
+        Assert.assertEquals("stream2", result.getSourceStream());
+        assertEventEquals(event, result);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import org.apache.streamline.streams.layout.storm.AbstractFluxComponent;
+
+/**
+ * Replaces a sink of the topology run by the {@link ThroughputHarness} with a {@link CountingSinkBolt}.
+ */
+public class CountingSinkFluxComponent extends AbstractFluxComponent {
+
+    @Override
+    protected void generateComponent() {
+        String boltId = "countingSinkBolt" + UUID_FOR_COMPONENTS;
+        String boltClassName = CountingSinkBolt.class.getName();
+        component = createComponent(boltId, boltClassName, null, makeConstructorArgs(ThroughputHarness.RUN_ID_KEY), null);
+        addParallelismToComponent();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import org.apache.storm.metric.api.IMetricsConsumer;
+import org.apache.storm.task.IErrorReporter;
+import org.apache.storm.task.TopologyContext;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adds up the time spent by each bolt task executing tuples, from the built-in execute count and latency
+ * metrics of the tasks, into the {@link ThroughputMetrics} of the run given as registration argument.
+ */
+public class ExecuteTimeMetricsConsumer implements IMetricsConsumer {
+    private static final String EXECUTE_COUNT = "__execute-count";
+    private static final String EXECUTE_LATENCY = "__execute-latency";
+    private static final String SYSTEM_COMPONENT_PREFIX = "__";
+
+    private ThroughputMetrics metrics;
+
+    @Override
+    public void prepare(Map stormConf, Object registrationArgument, TopologyContext context, IErrorReporter errorReporter) {
+        metrics = ThroughputMetrics.get((String) registrationArgument);
+    }
+
+    @Override
+    public void handleDataPoints(TaskInfo taskInfo, Collection<DataPoint> dataPoints) {
+        if (taskInfo.srcComponentId.startsWith(SYSTEM_COMPONENT_PREFIX)) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, Double> latencies = new HashMap<>();
+        for (DataPoint dataPoint : dataPoints) {
+            if (EXECUTE_COUNT.equals(dataPoint.name)) {
+                counts = (Map<String, Long>) dataPoint.value;
+            } else if (EXECUTE_LATENCY.equals(dataPoint.name)) {
+                latencies = (Map<String, Double>) dataPoint.value;
+            }
+        }
+        double executeMs = 0;
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            Double latency = latencies.get(count.getKey());
+            if (latency != null) {
+                executeMs += count.getValue() * latency;
+            }
+        }
+        if (!counts.isEmpty()) {
+            metrics.addExecuteMs(taskInfo.srcComponentId, taskInfo.srcTaskId, executeMs);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+    }
+}
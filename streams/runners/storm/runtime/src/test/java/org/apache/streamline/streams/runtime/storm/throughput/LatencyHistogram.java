@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in microseconds, with log-linear buckets whose width is at most 1/16
+ * of their lower bound, so the percentiles are accurate to about 6%.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    void record(long micros) {
+        counts.incrementAndGet(index(Math.max(0, micros)));
+    }
+
+    long[] snapshot() {
+        long[] result = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the lower bound of the bucket of the given percentile of the latencies recorded between
+     * the two snapshots, or 0 if none were recorded.
+     */
+    static long percentile(long[] start, long[] end, double percentile) {
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            total += end[i] - start[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long count = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            count += end[i] - start[i];
+            if (count >= rank) {
+                return lowerBound(i);
+            }
+        }
+        return lowerBound(NUM_BUCKETS - 1);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    }
+}
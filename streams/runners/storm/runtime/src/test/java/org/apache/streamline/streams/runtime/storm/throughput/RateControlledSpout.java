@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.storm.spout.SpoutOutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.topology.base.BaseRichSpout;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.Stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Spout which emits pre-generated events matching the schemas of the output streams of the source it replaces,
+ * at a fixed rate split between its tasks. The events are emitted with a message id so that the complete latency
+ * of each of them is recorded when it is acked.
+ */
+public class RateControlledSpout extends BaseRichSpout {
+    private static final int EVENTS_PER_STREAM = 1024;
+    private static final int MAX_EMITS_PER_CALL = 100;
+
+    private final String runId;
+    private final String outputStreamsJson;
+    private final int eventsPerSecond;
+
+    private List<Stream> outputStreams;
+    private List<List<StreamlineEvent>> events;
+    private SpoutOutputCollector collector;
+    private ThroughputMetrics metrics;
+    // message id -> emit time in nanos
+    private final Map<Long, Long> pending = new HashMap<>();
+    private double taskEventsPerNano;
+    private long startNanos;
+    private long emitted;
+    private int next;
+
+    /**
+     * @param runId the id of the run of the {@link ThroughputHarness}
+     * @param outputStreamsJson the json of the output streams of the replaced source
+     * @param eventsPerSecond the events per second emitted by all the tasks of the spout, or 0 for no limit
+     */
+    public RateControlledSpout(String runId, String outputStreamsJson, int eventsPerSecond) {
+        this.runId = runId;
+        this.outputStreamsJson = outputStreamsJson;
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    @Override
+    public void open(Map conf, TopologyContext context, SpoutOutputCollector collector) {
+        this.collector = collector;
+        this.metrics = ThroughputMetrics.get(runId);
+        this.outputStreams = parseStreams(outputStreamsJson);
+        Random random = new Random(context.getThisTaskId());
+        events = new ArrayList<>(outputStreams.size());
+        for (Stream stream : outputStreams) {
+            List<StreamlineEvent> streamEvents = new ArrayList<>(EVENTS_PER_STREAM);
+            for (int i = 0; i < EVENTS_PER_STREAM; i++) {
+                streamEvents.add(new StreamlineEventImpl(generateValues(stream.getSchema().getFields(), random),
+                        context.getThisComponentId(), Collections.<String, Object>emptyMap(), stream.getId()));
+            }
+            events.add(streamEvents);
+        }
+        int numTasks = context.getComponentTasks(context.getThisComponentId()).size();
+        taskEventsPerNano = (double) eventsPerSecond / numTasks / 1_000_000_000L;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void nextTuple() {
+        long due = eventsPerSecond > 0 ? (long) ((System.nanoTime() - startNanos) * taskEventsPerNano) : Long.MAX_VALUE;
+        for (int i = 0; i < MAX_EMITS_PER_CALL && emitted < due; i++) {
+            int streamIndex = next++ % outputStreams.size();
+            List<StreamlineEvent> streamEvents = events.get(streamIndex);
+            Long msgId = emitted++;
+            pending.put(msgId, System.nanoTime());
+            collector.emit(outputStreams.get(streamIndex).getId(),
+                    new Values(streamEvents.get((int) (msgId % streamEvents.size()))), msgId);
+        }
+    }
+
+    @Override
+    public void ack(Object msgId) {
+        Long emitNanos = pending.remove(msgId);
+        if (emitNanos != null) {
+            metrics.completeLatency.record((System.nanoTime() - emitNanos) / 1000);
+        }
+        metrics.acked.incrementAndGet();
+    }
+
+    @Override
+    public void fail(Object msgId) {
+        pending.remove(msgId);
+        metrics.failed.incrementAndGet();
+    }
+
+    @Override
+    public void declareOutputFields(OutputFieldsDeclarer declarer) {
+        for (Stream stream : parseStreams(outputStreamsJson)) {
+            declarer.declareStream(stream.getId(), new Fields(StreamlineEvent.STREAMLINE_EVENT));
+        }
+    }
+
+    private static List<Stream> parseStreams(String json) {
+        try {
+            return new ObjectMapper().readValue(json, new TypeReference<List<Stream>>() { });
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid output streams " + json, e);
+        }
+    }
+
+    private static Map<String, Object> generateValues(List<Schema.Field> fields, Random random) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Schema.Field field : fields) {
+            values.put(field.getName(), generateValue(field, random));
+        }
+        return values;
+    }
+
+    private static Object generateValue(Schema.Field field, Random random) {
+        switch (field.getType()) {
+            case BOOLEAN:
+                return random.nextBoolean();
+            case BYTE:
+                return (byte) random.nextInt();
+            case SHORT:
+                return (short) random.nextInt();
+            case INTEGER:
+                return random.nextInt(1000);
+            case LONG:
+                return (long) random.nextInt(1000);
+            case FLOAT:
+                return random.nextFloat() * 1000;
+            case DOUBLE:
+                return random.nextDouble() * 1000;
+            case STRING:
+                return Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+            case BINARY:
+                byte[] bytes = new byte[16];
+                random.nextBytes(bytes);
+                return bytes;
+            case NESTED:
+                return generateValues(((Schema.NestedField) field).getFields(), random);
+            case ARRAY:
+                List<Object> members = new ArrayList<>();
+                for (Schema.Field member : ((Schema.ArrayField) field).getMembers()) {
+                    members.add(generateValue(member, random));
+                }
+                return members;
+            default:
+                throw new IllegalArgumentException("Unsupported type " + field.getType());
+        }
+    }
+}
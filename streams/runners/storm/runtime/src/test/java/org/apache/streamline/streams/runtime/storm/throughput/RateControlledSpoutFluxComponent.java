@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.streamline.streams.layout.component.StreamlineSource;
+import org.apache.streamline.streams.layout.storm.AbstractFluxComponent;
+import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces a source of the topology run by the {@link ThroughputHarness} with a {@link RateControlledSpout}
+ * emitting events on the same output streams.
+ */
+public class RateControlledSpoutFluxComponent extends AbstractFluxComponent {
+
+    @Override
+    protected void generateComponent() {
+        StreamlineSource source = (StreamlineSource) conf.get(StormTopologyLayoutConstants.STREAMLINE_COMPONENT_CONF_KEY);
+        String spoutId = "rateControlledSpout" + UUID_FOR_COMPONENTS;
+        String spoutClassName = RateControlledSpout.class.getName();
+        List<Object> constructorArgs = new ArrayList<>();
+        addArg(constructorArgs, ThroughputHarness.RUN_ID_KEY);
+        try {
+            addArgValue(constructorArgs, new ObjectMapper().writeValueAsString(source.getOutputStreams()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize the output streams of " + source, e);
+        }
+        // the generator config only holds strings
+        addArgValue(constructorArgs, Integer.valueOf(String.valueOf(conf.get(ThroughputHarness.EVENTS_PER_SECOND_KEY))));
+        component = createComponent(spoutId, spoutClassName, null, constructorArgs, null);
+        addParallelismToComponent();
+    }
+}
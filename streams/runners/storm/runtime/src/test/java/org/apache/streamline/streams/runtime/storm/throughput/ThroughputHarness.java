@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import org.apache.storm.Config;
+import org.apache.storm.LocalCluster;
+import org.apache.storm.flux.FluxBuilder;
+import org.apache.storm.flux.model.ExecutionContext;
+import org.apache.storm.flux.model.TopologyDef;
+import org.apache.storm.flux.parser.FluxParser;
+import org.apache.storm.generated.StormTopology;
+import org.apache.storm.utils.Utils;
+import org.apache.streamline.streams.layout.component.Component;
+import org.apache.streamline.streams.layout.component.StreamlineComponent;
+import org.apache.streamline.streams.layout.component.StreamlineSink;
+import org.apache.streamline.streams.layout.component.StreamlineSource;
+import org.apache.streamline.streams.layout.component.TopologyLayout;
+import org.apache.streamline.streams.layout.storm.StormTopologyFluxGenerator;
+import org.apache.streamline.streams.layout.storm.StormTopologyLayoutConstants;
+import org.apache.streamline.streams.storm.common.StormTopologyUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Measures the sustained throughput of a topology in an embedded {@link LocalCluster}, without any
+ * external services.
+ * <p>
+ * The topology is generated from its {@link TopologyLayout} by the {@link StormTopologyFluxGenerator} and built
+ * by flux, like a deployed topology, except that its sources are replaced by {@link RateControlledSpout}s emitting
+ * generated events that match the schemas of their output streams, and its sinks by {@link CountingSinkBolt}s.
+ * After a warmup, it reports the events per second acked by the spouts, the percentiles of their complete
+ * latency and the capacity of each bolt, i.e. the fraction of the time its busiest task was executing tuples.
+ * </p>
+ */
+public class ThroughputHarness {
+    private static final Logger LOG = LoggerFactory.getLogger(ThroughputHarness.class);
+    static final String RUN_ID_KEY = "throughputHarness.runId";
+    static final String EVENTS_PER_SECOND_KEY = "throughputHarness.eventsPerSecond";
+    private static final int METRICS_BUCKET_SIZE_SECS = 1;
+
+    private final TopologyLayout topologyLayout;
+    private int eventsPerSecond = 10000;
+    private int warmupSecs = 10;
+    private int measurementSecs = 30;
+    private int maxSpoutPending = 1000;
+    private final Map<String, Object> topologyConfig = new HashMap<>();
+
+    public ThroughputHarness(TopologyLayout topologyLayout) {
+        this.topologyLayout = topologyLayout;
+    }
+
+    /**
+     * The events per second emitted by each source, or 0 to emit as fast as the topology accepts them.
+     */
+    public ThroughputHarness withEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+        return this;
+    }
+
+    public ThroughputHarness withWarmupSecs(int warmupSecs) {
+        this.warmupSecs = warmupSecs;
+        return this;
+    }
+
+    public ThroughputHarness withMeasurementSecs(int measurementSecs) {
+        this.measurementSecs = measurementSecs;
+        return this;
+    }
+
+    public ThroughputHarness withMaxSpoutPending(int maxSpoutPending) {
+        this.maxSpoutPending = maxSpoutPending;
+        return this;
+    }
+
+    /**
+     * Sets a storm config of the topology, overriding the config generated from the layout.
+     */
+    public ThroughputHarness withTopologyConfig(String key, Object value) {
+        topologyConfig.put(key, value);
+        return this;
+    }
+
+    public Report run() throws Exception {
+        String runId = UUID.randomUUID().toString();
+        String topologyName = StormTopologyUtil.generateStormTopologyName(topologyLayout.getId(), topologyLayout.getName());
+        StormTopology topology;
+        Config config;
+        Map<StreamlineComponent, String> transformationClasses = replaceSourcesAndSinks();
+        Path extraJarsLocation = Files.createTempDirectory("throughput-harness");
+        try {
+            TopologyDef topologyDef = FluxParser.parseInputStream(
+                    new ByteArrayInputStream(generateYaml(topologyName, runId, extraJarsLocation).getBytes(StandardCharsets.UTF_8)),
+                    false, true, null, false);
+            config = FluxBuilder.buildConfig(topologyDef);
+            topology = FluxBuilder.buildTopology(new ExecutionContext(topologyDef, config));
+        } finally {
+            for (Map.Entry<StreamlineComponent, String> entry : transformationClasses.entrySet()) {
+                entry.getKey().setTransformationClass(entry.getValue());
+            }
+            Files.deleteIfExists(extraJarsLocation);
+        }
+        config.setMaxSpoutPending(maxSpoutPending);
+        // the execute time of the bolts is reported every second to compute their capacity
+        config.put(Config.TOPOLOGY_BUILTIN_METRICS_BUCKET_SIZE_SECS, METRICS_BUCKET_SIZE_SECS);
+        config.registerMetricsConsumer(ExecuteTimeMetricsConsumer.class, runId, 1);
+        config.putAll(topologyConfig);
+
+        ThroughputMetrics metrics = ThroughputMetrics.get(runId);
+        LocalCluster localCluster = new LocalCluster();
+        try {
+            localCluster.submitTopology(topologyName, config, topology);
+            LOG.info("Warming up topology {} for {} secs", topologyName, warmupSecs);
+            Utils.sleep(warmupSecs * 1000L);
+            Snapshot start = new Snapshot(metrics);
+            LOG.info("Measuring topology {} for {} secs", topologyName, measurementSecs);
+            Utils.sleep(measurementSecs * 1000L);
+            Snapshot end = new Snapshot(metrics);
+            Report report = new Report(start, end);
+            LOG.info("Topology {}: {}", topologyName, report);
+            localCluster.killTopology(topologyName);
+            return report;
+        } finally {
+            localCluster.shutdown();
+            ThroughputMetrics.remove(runId);
+        }
+    }
+
+    private Map<StreamlineComponent, String> replaceSourcesAndSinks() {
+        Map<StreamlineComponent, String> transformationClasses = new HashMap<>();
+        for (Component component : topologyLayout.getTopologyDag().getComponents()) {
+            if (component instanceof StreamlineSource || component instanceof StreamlineSink) {
+                StreamlineComponent streamlineComponent = (StreamlineComponent) component;
+                transformationClasses.put(streamlineComponent, streamlineComponent.getTransformationClass());
+                streamlineComponent.setTransformationClass(component instanceof StreamlineSource
+                        ? RateControlledSpoutFluxComponent.class.getName()
+                        : CountingSinkFluxComponent.class.getName());
+            }
+        }
+        return transformationClasses;
+    }
+
+    // same as the flux yaml of a deployed topology, see StormTopologyActionsImpl
+    private String generateYaml(String topologyName, String runId, Path extraJarsLocation) {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(RUN_ID_KEY, runId);
+        conf.put(EVENTS_PER_SECOND_KEY, String.valueOf(eventsPerSecond));
+        StormTopologyFluxGenerator fluxGenerator = new StormTopologyFluxGenerator(topologyLayout, conf, extraJarsLocation);
+        topologyLayout.getTopologyDag().traverse(fluxGenerator);
+        Map<String, Object> yamlMap = new LinkedHashMap<>();
+        yamlMap.put(StormTopologyLayoutConstants.YAML_KEY_NAME, topologyName);
+        for (Map.Entry<String, Map<String, Object>> entry : fluxGenerator.getYamlKeysAndComponents()) {
+            List<Map<String, Object>> components = (List<Map<String, Object>>) yamlMap.get(entry.getKey());
+            if (components == null) {
+                components = new ArrayList<>();
+                yamlMap.put(entry.getKey(), components);
+            }
+            components.add(entry.getValue());
+        }
+        yamlMap.put(StormTopologyLayoutConstants.YAML_KEY_CONFIG, fluxGenerator.getTopologyConfig().getProperties());
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        String yaml = new Yaml(options).dump(yamlMap);
+        LOG.debug("Generated flux yaml {}", yaml);
+        return yaml;
+    }
+
+    private static final class Snapshot {
+        final long nanos = System.nanoTime();
+        final long acked;
+        final long failed;
+        final long sinkEvents;
+        final long[] completeLatencies;
+        final Map<String, Map<Integer, Double>> executeMs;
+
+        Snapshot(ThroughputMetrics metrics) {
+            acked = metrics.acked.get();
+            failed = metrics.failed.get();
+            sinkEvents = metrics.sinkEvents.get();
+            completeLatencies = metrics.completeLatency.snapshot();
+            executeMs = metrics.getExecuteMs();
+        }
+    }
+
+    /**
+     * The results of a run, over the measurement period.
+     */
+    public static final class Report {
+        private final double eventsPerSecond;
+        private final double sinkEventsPerSecond;
+        private final long failed;
+        private final double p50CompleteLatencyMs;
+        private final double p99CompleteLatencyMs;
+        private final Map<String, Double> boltCapacities = new TreeMap<>();
+
+        Report(Snapshot start, Snapshot end) {
+            double secs = (end.nanos - start.nanos) / 1e9;
+            eventsPerSecond = (end.acked - start.acked) / secs;
+            sinkEventsPerSecond = (end.sinkEvents - start.sinkEvents) / secs;
+            failed = end.failed - start.failed;
+            p50CompleteLatencyMs = LatencyHistogram.percentile(start.completeLatencies, end.completeLatencies, 50) / 1000.0;
+            p99CompleteLatencyMs = LatencyHistogram.percentile(start.completeLatencies, end.completeLatencies, 99) / 1000.0;
+            for (Map.Entry<String, Map<Integer, Double>> bolt : end.executeMs.entrySet()) {
+                Map<Integer, Double> startTasks = start.executeMs.get(bolt.getKey());
+                double capacity = 0;
+                for (Map.Entry<Integer, Double> task : bolt.getValue().entrySet()) {
+                    Double startMs = startTasks != null ? startTasks.get(task.getKey()) : null;
+                    double busyMs = task.getValue() - (startMs != null ? startMs : 0);
+                    capacity = Math.max(capacity, busyMs / (secs * 1000));
+                }
+                boltCapacities.put(bolt.getKey(), capacity);
+            }
+        }
+
+        /**
+         * The events acked per second, i.e. fully processed by the topology.
+         */
+        public double getEventsPerSecond() {
+            return eventsPerSecond;
+        }
+
+        /**
+         * The events per second received by all the sinks.
+         */
+        public double getSinkEventsPerSecond() {
+            return sinkEventsPerSecond;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public double getP50CompleteLatencyMs() {
+            return p50CompleteLatencyMs;
+        }
+
+        public double getP99CompleteLatencyMs() {
+            return p99CompleteLatencyMs;
+        }
+
+        /**
+         * The capacity of each bolt by component id, from 0 when idle to 1 when its busiest task
+         * is always executing tuples.
+         */
+        public Map<String, Double> getBoltCapacities() {
+            return boltCapacities;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                    "eventsPerSecond=" + eventsPerSecond +
+                    ", sinkEventsPerSecond=" + sinkEventsPerSecond +
+                    ", failed=" + failed +
+                    ", p50CompleteLatencyMs=" + p50CompleteLatencyMs +
+                    ", p99CompleteLatencyMs=" + p99CompleteLatencyMs +
+                    ", boltCapacities=" + boltCapacities +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.common.test.IntegrationTest;
+import org.apache.streamline.streams.layout.component.Stream;
+import org.apache.streamline.streams.layout.component.StreamlineSink;
+import org.apache.streamline.streams.layout.component.StreamlineSource;
+import org.apache.streamline.streams.layout.component.TopologyDag;
+import org.apache.streamline.streams.layout.component.TopologyLayout;
+import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
+import org.apache.streamline.streams.layout.component.rule.Rule;
+import org.apache.streamline.streams.layout.component.rule.action.Action;
+import org.apache.streamline.streams.layout.component.rule.action.TransformAction;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.layout.storm.RuleBoltFluxComponent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a generated topology in a LocalCluster through the {@link ThroughputHarness}, during the integration-test phase.
+ */
+@Category(IntegrationTest.class)
+public class ThroughputHarnessIntegrationTest {
+
+    @Test
+    public void testRunRulesTopology() throws Exception {
+        ThroughputHarness.Report report = new ThroughputHarness(createRulesTopology())
+                .withEventsPerSecond(1000)
+                .withWarmupSecs(5)
+                .withMeasurementSecs(5)
+                .run();
+        Assert.assertTrue(report.toString(), report.getEventsPerSecond() > 0);
+        Assert.assertTrue(report.toString(), report.getSinkEventsPerSecond() > 0);
+        Assert.assertTrue(report.toString(), report.getP99CompleteLatencyMs() >= report.getP50CompleteLatencyMs());
+        Assert.assertTrue(report.toString(), report.getBoltCapacities().containsKey("2-rules"));
+        Assert.assertTrue(report.toString(), report.getBoltCapacities().containsKey("3-sink"));
+    }
+
+    // source -> rules (temperature > 50) -> sink
+    private TopologyLayout createRulesTopology() throws Exception {
+        List<Schema.Field> fields = Arrays.asList(Schema.Field.of("temperature", Schema.Type.INTEGER),
+                Schema.Field.of("humidity", Schema.Type.INTEGER));
+        StreamlineSource source = new StreamlineSource(Collections.singleton(new Stream("sourceStream", fields)));
+        source.setId("1");
+        source.setName("source");
+        source.setTransformationClass("org.apache.streamline.streams.layout.storm.KafkaSpoutFluxComponent");
+
+        Condition condition = new Condition();
+        condition.setExpression(new BinaryExpression(Operator.GREATER_THAN,
+                new FieldExpression(Schema.Field.of("temperature", Schema.Type.INTEGER)), new Literal("50")));
+        TransformAction action = new TransformAction();
+        action.setOutputStreams(Collections.singleton("ruleStream"));
+        Rule rule = new Rule();
+        rule.setId(1L);
+        rule.setName("rule");
+        rule.setRuleProcessorName("rules");
+        rule.setStreams(Collections.singleton("sourceStream"));
+        rule.setCondition(condition);
+        rule.setActions(Collections.<Action>singletonList(action));
+        RulesProcessor rulesProcessor = new RulesProcessor();
+        rulesProcessor.setId("2");
+        rulesProcessor.setName("rules");
+        rulesProcessor.addOutputStream(new Stream("ruleStream", fields));
+        rulesProcessor.setRules(Collections.singletonList(rule));
+        rulesProcessor.getConfig().setAny(RulesProcessor.CONFIG_KEY_SCRIPT_TYPE, "GROOVY");
+        rulesProcessor.setTransformationClass(RuleBoltFluxComponent.class.getName());
+
+        StreamlineSink sink = new StreamlineSink();
+        sink.setId("3");
+        sink.setName("sink");
+        sink.setTransformationClass("org.apache.streamline.streams.layout.storm.HdfsBoltFluxComponent");
+
+        TopologyDag topologyDag = new TopologyDag();
+        topologyDag.add(source).add(rulesProcessor).add(sink);
+        topologyDag.addEdge(source, rulesProcessor);
+        topologyDag.addEdge(rulesProcessor, sink, "ruleStream");
+        return new TopologyLayout(1L, "throughput", "{}", topologyDag);
+    }
+}
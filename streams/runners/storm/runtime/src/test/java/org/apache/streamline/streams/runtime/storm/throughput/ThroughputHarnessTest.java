@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThroughputHarnessTest {
+
+    @Test
+    public void testLatencyHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] start = histogram.snapshot();
+        for (long micros = 1; micros <= 10000; micros++) {
+            histogram.record(micros);
+        }
+        long[] end = histogram.snapshot();
+        long p50 = LatencyHistogram.percentile(start, end, 50);
+        long p99 = LatencyHistogram.percentile(start, end, 99);
+        Assert.assertTrue(String.valueOf(p50), p50 <= 5000 && p50 > 5000 * 15 / 16);
+        Assert.assertTrue(String.valueOf(p99), p99 <= 9900 && p99 > 9900 * 15 / 16);
+        Assert.assertEquals(0, LatencyHistogram.percentile(end, end, 50));
+        for (long value : new long[] {0, 15, 16, 17, 1000, Long.MAX_VALUE}) {
+            long lowerBound = LatencyHistogram.lowerBound(LatencyHistogram.index(value));
+            Assert.assertTrue(value + " " + lowerBound, lowerBound <= value && lowerBound >= value - value / 16);
+        }
+    }
+}
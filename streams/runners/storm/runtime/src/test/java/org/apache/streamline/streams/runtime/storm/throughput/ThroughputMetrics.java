@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.storm.throughput;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and latencies of a run of the {@link ThroughputHarness}. The spouts and bolts of the topology are
+ * deserialized in the same JVM by the local cluster, so they find the metrics of their run by its id.
+ */
+class ThroughputMetrics {
+    private static final ConcurrentHashMap<String, ThroughputMetrics> RUNS = new ConcurrentHashMap<>();
+
+    final AtomicLong acked = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    final AtomicLong sinkEvents = new AtomicLong();
+    final LatencyHistogram completeLatency = new LatencyHistogram();
+    // bolt -> task -> total execute time in ms
+    private final Map<String, Map<Integer, Double>> executeMs = new HashMap<>();
+
+    static ThroughputMetrics get(String runId) {
+        ThroughputMetrics metrics = RUNS.get(runId);
+        if (metrics == null) {
+            RUNS.putIfAbsent(runId, new ThroughputMetrics());
+            metrics = RUNS.get(runId);
+        }
+        return metrics;
+    }
+
+    synchronized void addExecuteMs(String componentId, int taskId, double ms) {
+        Map<Integer, Double> tasks = executeMs.get(componentId);
+        if (tasks == null) {
+            tasks = new HashMap<>();
+            executeMs.put(componentId, tasks);
+        }
+        Double total = tasks.get(taskId);
+        tasks.put(taskId, total != null ? total + ms : ms);
+    }
+
+    synchronized Map<String, Map<Integer, Double>> getExecuteMs() {
+        Map<String, Map<Integer, Double>> copy = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Double>> entry : executeMs.entrySet()) {
+            copy.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    static void remove(String runId) {
+        RUNS.remove(runId);
+    }
+}
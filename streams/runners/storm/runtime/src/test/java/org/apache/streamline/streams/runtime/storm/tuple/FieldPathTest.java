@@ -0,0 +1,55 @@
+package org.apache.streamline.streams.runtime.storm.tuple;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.FieldIndex;
+import org.apache.streamline.streams.common.IndexedStreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FieldPathTest {
+
+    private static Map<String, Object> fieldsAndValues() {
+        Map<String, Object> fieldsAndValues = new HashMap<>();
+        fieldsAndValues.put("a", 1);
+        fieldsAndValues.put("outer", ImmutableMap.of("inner", "x", "deeper", ImmutableMap.of("innermost", 2L)));
+        return fieldsAndValues;
+    }
+
+    @Test
+    public void testMapEvent() {
+        StreamlineEvent event = new StreamlineEventImpl(fieldsAndValues(), "ds1");
+        Assert.assertEquals(1, FieldPath.of("a").get(event));
+        Assert.assertEquals("x", FieldPath.of(" outer.inner ").get(event));
+        Assert.assertEquals(2L, FieldPath.of("outer.deeper.innermost").get(event));
+        Assert.assertNull(FieldPath.of("b").get(event));
+        Assert.assertNull(FieldPath.of("outer.missing.innermost").get(event));
+        // a nested value which is not a map
+        Assert.assertNull(FieldPath.of("a.inner").get(event));
+    }
+
+    @Test
+    public void testIndexedEvent() {
+        FieldPath inner = FieldPath.of("outer.inner");
+        FieldPath overflow = FieldPath.of("c");
+        FieldIndex fieldIndex = FieldIndex.of("a", "outer");
+        Map<String, Object> fieldsAndValues = fieldsAndValues();
+        fieldsAndValues.put("c", 3);
+        StreamlineEvent event = new IndexedStreamlineEvent(fieldIndex, fieldsAndValues, "ds1");
+        Assert.assertEquals("x", inner.get(event));
+        Assert.assertEquals(3, overflow.get(event));
+        Assert.assertEquals("x", inner.get(StreamlineEventWithStream.of(event, "s1")));
+        // another index with the fields in other slots
+        StreamlineEvent other = new IndexedStreamlineEvent(FieldIndex.of("outer", "c"),
+                Collections.<String, Object>singletonMap("outer", ImmutableMap.of("inner", "y")), "ds1");
+        Assert.assertEquals("y", inner.get(other));
+        Assert.assertNull(overflow.get(other));
+        Assert.assertEquals("x", inner.get(event));
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.streamline.streams.exception.ProcessingException;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
 import org.apache.streamline.streams.layout.component.rule.Rule;
 import org.apache.streamline.streams.layout.component.rule.action.Action;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
 import org.apache.streamline.streams.layout.component.rule.expression.Expression;
 import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
 import org.apache.streamline.streams.layout.component.rule.expression.GroupBy;
@@ -36,7 +37,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.streamline.streams.runtime.rule.action.ActionRuntime;
 import org.apache.streamline.streams.runtime.rule.action.ActionRuntimeContext;
 import org.apache.streamline.streams.runtime.rule.condition.expression.GroovyExpression;
+import org.apache.streamline.streams.runtime.rule.condition.expression.JavaExpression;
 import org.apache.streamline.streams.runtime.rule.condition.expression.StormSqlExpression;
+import org.apache.streamline.streams.runtime.rule.java.CompiledRuleSet;
+import org.apache.streamline.streams.runtime.rule.java.ExpressionCompiler;
+import org.apache.streamline.streams.runtime.rule.java.JavaExpressionScript;
+import org.apache.streamline.streams.runtime.rule.java.WindowAggregationScript;
 import org.apache.streamline.streams.runtime.rule.sql.SqlEngine;
 import org.apache.streamline.streams.runtime.rule.sql.SqlScript;
 import org.apache.streamline.streams.runtime.script.GroovyScript;
@@ -65,13 +71,15 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
     protected static final Logger LOG = LoggerFactory.getLogger(RuleProcessorRuntime.class);
     private static final GroupBy GROUP_BY_WINDOWID = new GroupBy(new FieldExpression(Schema.Field.of(WINDOW_ID, Schema.Type.LONG)));
 
-    public enum ScriptType {GROOVY, SQL}
+    public enum ScriptType {GROOVY, SQL, JAVA}
 
     private final RulesProcessor rulesProcessor;
     private final ScriptType scriptType;
     private List<RuleRuntime> rulesRuntime = new ArrayList<>();
     private Map<String, List<RuleRuntime>> streamToRuleRuntimes;
     private List<RuleRuntime> allRuleRuntimes;
+    // conditions of the rules of each stream compiled together, for script type JAVA
+    private Map<String, CompiledRuleSet> streamToRuleSet = Collections.emptyMap();
     private boolean processAll = true;
 
     public RuleProcessorRuntime(RulesProcessor rulesProcessor, ScriptType scriptType) {
@@ -95,30 +103,100 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
 
     @Override
     public List<Result> process(StreamlineEvent event) throws ProcessingException {
-        List<Result> results = new ArrayList<>();
         try {
-            List<RuleRuntime> ruleRuntimes = getRulesRuntime(event);
-            LOG.debug("Process event {}, rule runtimes {}", event, ruleRuntimes);
-            for (RuleRuntime rr : ruleRuntimes) {
-                boolean succeeded = false;
-                for (StreamlineEvent result : rr.evaluate(event)) {
-                    if (result != null) {
-                        results.addAll(rr.process(result));
-                        succeeded = true;
-                    }
+            return process(event, getRulesRuntime(event), getRuleSet(event));
+        } catch (Exception e) {
+            throw processingException(e);
+        }
+    }
+
+    /**
+     * Processes the given events in order and returns the results of each event at the same position.
+     * The rule runtimes are looked up once for every run of consecutive events from the same stream.
+     */
+    public List<List<Result>> processBatch(List<StreamlineEvent> events) throws ProcessingException {
+        List<List<Result>> results = new ArrayList<>(events.size());
+        try {
+            String curStream = null;
+            List<RuleRuntime> ruleRuntimes = null;
+            CompiledRuleSet ruleSet = null;
+            for (StreamlineEvent event : events) {
+                if (ruleRuntimes == null || event == GROUP_BY_TRIGGER_EVENT || curStream == null
+                        || !curStream.equals(event.getSourceStream())) {
+                    ruleRuntimes = getRulesRuntime(event);
+                    ruleSet = getRuleSet(event);
+                    curStream = event == GROUP_BY_TRIGGER_EVENT ? null : event.getSourceStream();
                 }
-                if(!processAll && succeeded)
-                    break;
+                results.add(process(event, ruleRuntimes, ruleSet));
             }
         } catch (Exception e) {
-            String message = String.format("Error evaluating rule processor with id: %s, error: %s",
-                    rulesProcessor.getId(), e.getMessage());
-            LOG.error(message, e);
-            throw new ProcessingException(message, e);
+            throw processingException(e);
+        }
+        return results;
+    }
+
+    private List<Result> process(StreamlineEvent event, List<RuleRuntime> ruleRuntimes, CompiledRuleSet ruleSet)
+            throws Exception {
+        if (ruleSet != null) {
+            return process(event, ruleRuntimes, ruleSet.match(event));
+        }
+        List<Result> results = new ArrayList<>();
+        LOG.debug("Process event {}, rule runtimes {}", event, ruleRuntimes);
+        for (RuleRuntime rr : ruleRuntimes) {
+            boolean succeeded = false;
+            for (StreamlineEvent result : rr.evaluate(event)) {
+                if (result != null) {
+                    results.addAll(rr.process(result));
+                    succeeded = true;
+                }
+            }
+            if(!processAll && succeeded)
+                break;
+        }
+        return results;
+    }
+
+    // the rules are matched together, only the projections and actions of the matching rules are run
+    private List<Result> process(StreamlineEvent event, List<RuleRuntime> ruleRuntimes, CompiledRuleSet.Match match)
+            throws Exception {
+        List<Result> results = new ArrayList<>();
+        LOG.debug("Process event {} with compiled rule set, rule runtimes {}", event, ruleRuntimes);
+        for (int i = match.next(); i >= 0; i = match.next()) {
+            RuleRuntime rr = ruleRuntimes.get(i);
+            StreamlineEvent result = ((JavaExpressionScript) rr.getScript()).project(event);
+            if (result != null) {
+                results.addAll(rr.process(result));
+                if (!processAll) {
+                    break;
+                }
+            }
         }
         return results;
     }
 
+    /**
+     * Removes an event which expired from the window from the aggregates of the windowed rules of its stream.
+     * Only rules with script type {@link ScriptType#JAVA} aggregate windows incrementally.
+     */
+    public void retract(StreamlineEvent event) throws ProcessingException {
+        try {
+            for (RuleRuntime rr : getRulesRuntime(event)) {
+                if (rr.getScript() instanceof WindowAggregationScript) {
+                    ((WindowAggregationScript) rr.getScript()).retract(event);
+                }
+            }
+        } catch (Exception e) {
+            throw processingException(e);
+        }
+    }
+
+    private ProcessingException processingException(Exception e) {
+        String message = String.format("Error evaluating rule processor with id: %s, error: %s",
+                rulesProcessor.getId(), e.getMessage());
+        LOG.error(message, e);
+        return new ProcessingException(message, e);
+    }
+
     @Override
     public String toString() {
         return "RuleProcessorRuntime{" + rulesProcessor + ", " + rulesRuntime + '}';
@@ -145,6 +223,10 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
         return result;
     }
 
+    private CompiledRuleSet getRuleSet(StreamlineEvent event) {
+        return event == GROUP_BY_TRIGGER_EVENT ? null : streamToRuleSet.get(event.getSourceStream());
+    }
+
     private void initializeRuleRuntimes(Map<String, Object> config) {
         List<Rule> rules = rulesProcessor.getRules();
         if (rules != null) {
@@ -155,6 +237,8 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
                     script = createGroovyScript(rule);
                 } else if (ScriptType.SQL.equals(scriptType)) {
                     script = createSqlScript(rule);
+                } else if (ScriptType.JAVA.equals(scriptType)) {
+                    script = createJavaScript(rule);
                 } else {
                     throw new RuntimeException("Ruleruntime scriptType unsupported: " + scriptType );
                 }
@@ -184,6 +268,29 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
             builder.addAll(ruleRuntimes);
         }
         allRuleRuntimes = builder.build().asList();
+        if (ScriptType.JAVA.equals(scriptType)) {
+            buildStreamToRuleSet();
+        }
+    }
+
+    private void buildStreamToRuleSet() {
+        Map<String, CompiledRuleSet> map = new HashMap<>();
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        for (Map.Entry<String, List<RuleRuntime>> entry : streamToRuleRuntimes.entrySet()) {
+            List<Expression> conditions = new ArrayList<>();
+            for (RuleRuntime rr : entry.getValue()) {
+                if (!(rr.getScript() instanceof JavaExpressionScript)) {
+                    conditions = null;
+                    break;
+                }
+                Condition condition = ((JavaExpressionScript) rr.getScript()).getCondition();
+                conditions.add(condition != null ? condition.getExpression() : null);
+            }
+            if (conditions != null) {
+                map.put(entry.getKey(), new CompiledRuleSet(conditions, compiler));
+            }
+        }
+        streamToRuleSet = ImmutableMap.copyOf(map);
     }
 
     private List<ActionRuntime> createActionRuntimes(Rule rule) {
@@ -251,6 +358,25 @@ public class RuleProcessorRuntime implements Serializable, ProcessorRuntime {
         return sqlScript;
     }
 
+    private Script createJavaScript(Rule rule) {
+        if (rule.getWindow() != null) {
+            // an empty group by aggregates all the events of the window
+            JavaExpression javaExpression = new JavaExpression(rule.getCondition(), rule.getProjection(),
+                    rule.getGroupBy() != null ? rule.getGroupBy() : new GroupBy(new ArrayList<Expression>()),
+                    rule.getHaving());
+            WindowAggregationScript windowAggregationScript = new WindowAggregationScript(javaExpression, new ExpressionCompiler());
+            LOG.info("Built WindowAggregationScript {}", windowAggregationScript);
+            return windowAggregationScript;
+        } else if (rule.getGroupBy() != null) {
+            throw new UnsupportedOperationException("Rules with group by and without window are not supported with script type "
+                    + ScriptType.JAVA + ", rule: " + rule.getName());
+        }
+        JavaExpression javaExpression = new JavaExpression(rule.getCondition(), rule.getProjection());
+        JavaExpressionScript javaExpressionScript = new JavaExpressionScript(javaExpression, new ExpressionCompiler());
+        LOG.info("Built JavaExpressionScript {}", javaExpressionScript);
+        return javaExpressionScript;
+    }
+
     private StormSqlExpression createSqlExpression(Rule rule) {
         List<Expression> groupByExpressions = new ArrayList<>();
         if (rule.getWindow() != null) {
@@ -103,6 +103,10 @@ public class RuleRuntime implements Serializable, ProcessorRuntime {
         return rule;
     }
 
+    public Script<StreamlineEvent, Collection<StreamlineEvent>, ?> getScript() {
+        return script;
+    }
+
     @Override
     public String toString() {
         return "RuleRuntime{" +
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.condition.expression;
+
+import com.google.common.base.Joiner;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.ExpressionTranslator;
+import org.apache.streamline.streams.layout.component.rule.expression.GroupBy;
+import org.apache.streamline.streams.layout.component.rule.expression.Having;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.layout.component.rule.expression.Projection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the expression of this {@link Condition} and {@link Projection} in Java language syntax.
+ * The expressions are not evaluated from this string, they are compiled from the expression tree by
+ * {@link org.apache.streamline.streams.runtime.rule.java.ExpressionCompiler}.
+ **/
+public class JavaExpression extends ExpressionRuntime {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaExpression.class);
+    private final List<String> outputFields = new ArrayList<>();
+
+    public JavaExpression(Condition condition) {
+        this(condition, null);
+    }
+
+    public JavaExpression(Condition condition, Projection projection) {
+        this(condition, projection, null, null);
+    }
+
+    /**
+     * Aggregate functions are allowed in the projection and having only if there is a group by,
+     * which can be empty to aggregate all the events.
+     */
+    public JavaExpression(Condition condition, Projection projection, GroupBy groupBy, Having having) {
+        super(condition, projection, groupBy, having);
+        handleProjection();
+        handleFilter();
+        handleGroupByHaving();
+    }
+
+    private void handleProjection() {
+        if (projection != null) {
+            for (Expression expr : projection.getExpressions()) {
+                ExpressionTranslator translator = new JavaExpressionTranslator();
+                expr.accept(translator);
+                if (groupBy == null && !translator.getAggregateFunctions().isEmpty()) {
+                    throw new IllegalArgumentException("Aggregate functions are not supported in projection: " + expr);
+                }
+                if (!translator.getAliases().isEmpty()) {
+                    outputFields.add(translator.getAliases().get(0));
+                } else {
+                    outputFields.add(translator.getTranslatedExpression());
+                }
+            }
+        }
+    }
+
+    private void handleFilter() {
+        if (condition != null) {
+            ExpressionTranslator conditionTranslator = new JavaExpressionTranslator();
+            condition.getExpression().accept(conditionTranslator);
+            if (!conditionTranslator.getAggregateFunctions().isEmpty()) {
+                throw new IllegalArgumentException("Cannot have aggregate functions filter condition.");
+            }
+            expression = conditionTranslator.getTranslatedExpression();
+            LOG.debug("Built expression [{}] for filter condition [{}]", expression, condition);
+        }
+    }
+
+    private void handleGroupByHaving() {
+        if (groupBy != null) {
+            List<String> groupByExpressions = new ArrayList<>();
+            for (Expression expr : groupBy.getExpressions()) {
+                ExpressionTranslator groupByTranslator = new JavaExpressionTranslator();
+                expr.accept(groupByTranslator);
+                groupByExpressions.add(groupByTranslator.getTranslatedExpression());
+            }
+            groupByExpression = Joiner.on(", ").join(groupByExpressions);
+            if (having != null) {
+                ExpressionTranslator havingTranslator = new JavaExpressionTranslator();
+                having.getExpression().accept(havingTranslator);
+                havingExpression = havingTranslator.getTranslatedExpression();
+                LOG.debug("Built expression [{}] for having [{}]", havingExpression, having);
+            }
+        } else if (having != null) {
+            throw new IllegalArgumentException("Having without group by: " + having);
+        }
+    }
+
+    @Override
+    public String asString() {
+        return expression;
+    }
+
+    /**
+     * @return the names of the fields in the output event, in projection order
+     */
+    public List<String> getOutputFields() {
+        return outputFields;
+    }
+
+    private static class JavaExpressionTranslator extends ExpressionTranslator {
+        protected String getOperator(Operator operator) {
+            switch (operator) {
+                case AND:
+                    return " && ";
+                case OR:
+                    return " || ";
+                case EQUALS:
+                    return " == ";
+                case NOT_EQUAL:
+                    return " != ";
+                case GREATER_THAN:
+                    return " > ";
+                case LESS_THAN:
+                    return " < ";
+                case GREATER_THAN_EQUALS_TO:
+                    return " >= ";
+                case LESS_THAN_EQUALS_TO:
+                    return " <= ";
+                default:
+                    throw new UnsupportedOperationException(
+                            String.format("Operator [%s] not supported. List of supported operators: %s",
+                                          operator, Arrays.toString(Operator.values())));
+            }
+        }
+    }
+}
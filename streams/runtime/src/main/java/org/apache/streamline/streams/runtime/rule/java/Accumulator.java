@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+/**
+ * The running state of an aggregate function over the events of a group.
+ */
+public interface Accumulator {
+    /**
+     * Adds the values of the function's arguments for an event.
+     */
+    void add(Object[] values);
+
+    /**
+     * Removes the values of the function's arguments for an event which was added before.
+     *
+     * @return false if the function can not remove values, the accumulator then has to be rebuilt
+     * from the remaining events
+     */
+    boolean retract(Object[] values);
+
+    /**
+     * Adds the values of another accumulator of the same function, which is not modified.
+     *
+     * @return false if the function can not merge aggregates
+     */
+    boolean merge(Accumulator other);
+
+    Object result();
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.MergeableUDAF2;
+import org.apache.streamline.streams.rule.RetractableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF2;
+import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.rule.UDAF2;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates the {@link Accumulator}s of aggregate functions. The built in COUNT, SUM, AVG, MIN and MAX
+ * can remove values and be merged. User defined aggregate functions ({@link UDAF} and {@link UDAF2})
+ * can remove values if they implement {@link RetractableUDAF} or {@link RetractableUDAF2}, and can
+ * be merged if they implement {@link MergeableUDAF} or {@link MergeableUDAF2}.
+ * Like SQL aggregate functions, all the functions ignore null values.
+ */
+public final class Accumulators {
+
+    private Accumulators() {
+    }
+
+    public static Supplier<Accumulator> supplier(FunctionExpression.Function function) {
+        if (function.isUdf()) {
+            return udafSupplier(udaf(function));
+        }
+        switch (function.getName().toUpperCase()) {
+            case "COUNT":
+                return Count::new;
+            case "SUM":
+                return Sum::new;
+            case "AVG":
+                return Avg::new;
+            case "MIN":
+                return () -> new MinMax(false);
+            case "MAX":
+                return () -> new MinMax(true);
+            default:
+                throw new UnsupportedOperationException("Aggregate function " + function.getName()
+                        + " cannot be compiled to java");
+        }
+    }
+
+    /**
+     * Whether the accumulators of the function can remove values.
+     */
+    public static boolean isRetractable(FunctionExpression.Function function) {
+        if (!function.isUdf()) {
+            return true;
+        }
+        Object udaf = udaf(function);
+        return udaf instanceof RetractableUDAF || udaf instanceof RetractableUDAF2;
+    }
+
+    /**
+     * Whether the accumulators of the function can be merged.
+     */
+    public static boolean isMergeable(FunctionExpression.Function function) {
+        if (!function.isUdf()) {
+            return true;
+        }
+        Object udaf = udaf(function);
+        return udaf instanceof MergeableUDAF || udaf instanceof MergeableUDAF2;
+    }
+
+    private static Object udaf(FunctionExpression.Function function) {
+        Object udaf;
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            udaf = Class.forName(function.getClassName(), true,
+                    classLoader != null ? classLoader : Accumulators.class.getClassLoader()).newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Could not instantiate udaf " + function.getClassName(), e);
+        }
+        if (!(udaf instanceof UDAF) && !(udaf instanceof UDAF2)) {
+            throw new IllegalArgumentException("Class " + function.getClassName() + " is not a UDAF or UDAF2");
+        }
+        return udaf;
+    }
+
+    private static Supplier<Accumulator> udafSupplier(Object udaf) {
+        if (udaf instanceof UDAF) {
+            return () -> new UdafAccumulator((UDAF<Object, Object, Object>) udaf);
+        }
+        return () -> new Udaf2Accumulator((UDAF2<Object, Object, Object, Object>) udaf);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static class Count implements Accumulator {
+        private long count;
+
+        @Override
+        public void add(Object[] values) {
+            if (values[0] != null) {
+                count++;
+            }
+        }
+
+        @Override
+        public boolean retract(Object[] values) {
+            if (values[0] != null) {
+                count--;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean merge(Accumulator other) {
+            count += ((Count) other).count;
+            return true;
+        }
+
+        @Override
+        public Object result() {
+            return count;
+        }
+    }
+
+    /*
+     * Integral values are summed as longs. Like SQL, the sum of integers is an integer and the sum
+     * of integral values is a long, unless there are floating point values.
+     */
+    private static class Sum implements Accumulator {
+        protected long count;
+        protected long longSum;
+        protected double doubleSum;
+        protected long longs;
+        protected long doubles;
+
+        @Override
+        public void add(Object[] values) {
+            update(values[0], 1);
+        }
+
+        @Override
+        public boolean retract(Object[] values) {
+            update(values[0], -1);
+            return true;
+        }
+
+        private void update(Object value, int sign) {
+            if (value instanceof Number) {
+                count += sign;
+                if (isIntegral(value)) {
+                    longSum += sign * ((Number) value).longValue();
+                    if (!(value instanceof Integer)) {
+                        longs += sign;
+                    }
+                } else {
+                    doubleSum += sign * ((Number) value).doubleValue();
+                    doubles += sign;
+                }
+            }
+        }
+
+        @Override
+        public boolean merge(Accumulator other) {
+            Sum sum = (Sum) other;
+            count += sum.count;
+            longSum += sum.longSum;
+            doubleSum += sum.doubleSum;
+            longs += sum.longs;
+            doubles += sum.doubles;
+            return true;
+        }
+
+        @Override
+        public Object result() {
+            if (count == 0) {
+                return null;
+            } else if (doubles > 0) {
+                return longSum + doubleSum;
+            } else if (longs > 0) {
+                return longSum;
+            }
+            return (int) longSum;
+        }
+    }
+
+    private static class Avg extends Sum {
+        @Override
+        public Object result() {
+            if (count == 0) {
+                return null;
+            } else if (doubles > 0) {
+                return (longSum + doubleSum) / count;
+            } else if (longs > 0) {
+                return longSum / count;
+            }
+            return (int) (longSum / count);
+        }
+    }
+
+    // counts of the distinct values, so that the minimum or maximum is known after a value is removed
+    private static class MinMax implements Accumulator {
+        private static final Comparator<Object> COMPARATOR = (o1, o2) -> {
+            if (o1 instanceof Number && o2 instanceof Number) {
+                if (isIntegral(o1) && isIntegral(o2)) {
+                    return Long.compare(((Number) o1).longValue(), ((Number) o2).longValue());
+                }
+                return Double.compare(((Number) o1).doubleValue(), ((Number) o2).doubleValue());
+            }
+            return ((Comparable<Object>) o1).compareTo(o2);
+        };
+
+        private final boolean max;
+        private final TreeMap<Object, Integer> counts = new TreeMap<>(COMPARATOR);
+
+        MinMax(boolean max) {
+            this.max = max;
+        }
+
+        @Override
+        public void add(Object[] values) {
+            if (values[0] != null) {
+                Integer count = counts.get(values[0]);
+                counts.put(values[0], count == null ? 1 : count + 1);
+            }
+        }
+
+        @Override
+        public boolean retract(Object[] values) {
+            if (values[0] != null) {
+                Integer count = counts.get(values[0]);
+                if (count != null) {
+                    if (count == 1) {
+                        counts.remove(values[0]);
+                    } else {
+                        counts.put(values[0], count - 1);
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean merge(Accumulator other) {
+            for (Map.Entry<Object, Integer> entry : ((MinMax) other).counts.entrySet()) {
+                Integer count = counts.get(entry.getKey());
+                counts.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+            }
+            return true;
+        }
+
+        @Override
+        public Object result() {
+            if (counts.isEmpty()) {
+                return null;
+            }
+            Map.Entry<Object, Integer> entry = max ? counts.lastEntry() : counts.firstEntry();
+            return entry.getKey();
+        }
+    }
+
+    private static class UdafAccumulator implements Accumulator {
+        private final UDAF<Object, Object, Object> udaf;
+        private Object aggregate;
+
+        UdafAccumulator(UDAF<Object, Object, Object> udaf) {
+            this.udaf = udaf;
+            this.aggregate = udaf.init();
+        }
+
+        @Override
+        public void add(Object[] values) {
+            if (values[0] != null) {
+                aggregate = udaf.add(aggregate, values[0]);
+            }
+        }
+
+        @Override
+        public boolean retract(Object[] values) {
+            if (!(udaf instanceof RetractableUDAF)) {
+                return false;
+            }
+            if (values[0] != null) {
+                aggregate = ((RetractableUDAF<Object, Object, Object>) udaf).retract(aggregate, values[0]);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean merge(Accumulator other) {
+            if (!(udaf instanceof MergeableUDAF)) {
+                return false;
+            }
+            aggregate = ((MergeableUDAF<Object, Object, Object>) udaf).merge(aggregate, ((UdafAccumulator) other).aggregate);
+            return true;
+        }
+
+        @Override
+        public Object result() {
+            return udaf.result(aggregate);
+        }
+    }
+
+    private static class Udaf2Accumulator implements Accumulator {
+        private final UDAF2<Object, Object, Object, Object> udaf;
+        private Object aggregate;
+
+        Udaf2Accumulator(UDAF2<Object, Object, Object, Object> udaf) {
+            this.udaf = udaf;
+            this.aggregate = udaf.init();
+        }
+
+        @Override
+        public void add(Object[] values) {
+            if (values[0] != null && values[1] != null) {
+                aggregate = udaf.add(aggregate, values[0], values[1]);
+            }
+        }
+
+        @Override
+        public boolean retract(Object[] values) {
+            if (!(udaf instanceof RetractableUDAF2)) {
+                return false;
+            }
+            if (values[0] != null && values[1] != null) {
+                aggregate = ((RetractableUDAF2<Object, Object, Object, Object>) udaf).retract(aggregate, values[0], values[1]);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean merge(Accumulator other) {
+            if (!(udaf instanceof MergeableUDAF2)) {
+                return false;
+            }
+            aggregate = ((MergeableUDAF2<Object, Object, Object, Object>) udaf).merge(aggregate,
+                    ((Udaf2Accumulator) other).aggregate);
+            return true;
+        }
+
+        @Override
+        public Object result() {
+            return udaf.result(aggregate);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The conditions of an ordered list of rules compiled into a single structure, which finds the rules
+ * whose condition holds for an event without evaluating every condition.
+ * <p>
+ * Each condition is split into its top level AND terms. The rules are dispatched on the field most often
+ * compared for equality with a literal, through a hash lookup of the event's value. Comparisons of a field
+ * with a numeric literal are looked up in thresholds sorted per field and direction. The remaining terms
+ * are compiled once across all the rules and evaluated at most once per event, and only for the rules
+ * which passed the lookups.
+ * </p>
+ * The matches are returned in rule order and evaluated lazily, so that a caller interested in the first
+ * match only evaluates the rules up to it.
+ */
+public class CompiledRuleSet {
+    private static final byte UNKNOWN = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+
+    private final int ruleCount;
+    // field dispatched on, null if there is no equality term shared by rules
+    private String dispatchField;
+    private final Map<Object, BitSet> dispatch = new HashMap<>();
+    // rules without an equality term on the dispatch field
+    private final BitSet undispatched = new BitSet();
+    private final List<RangeIndex> rangeIndexes = new ArrayList<>();
+    // distinct remaining terms and, per rule, the ids of its remaining terms
+    private final List<Evaluator> terms = new ArrayList<>();
+    private final int[][] ruleTerms;
+
+    public CompiledRuleSet(List<Expression> conditions, ExpressionCompiler compiler) {
+        ruleCount = conditions.size();
+        List<List<Expression>> conjuncts = new ArrayList<>();
+        for (Expression condition : conditions) {
+            List<Expression> terms = new ArrayList<>();
+            if (condition != null) {
+                flatten(condition, terms);
+            }
+            conjuncts.add(terms);
+        }
+        buildDispatch(conjuncts);
+        buildRangeIndexes(conjuncts);
+        ruleTerms = new int[ruleCount][];
+        Map<Expression, Integer> termIds = new HashMap<>();
+        for (int rule = 0; rule < ruleCount; rule++) {
+            List<Expression> remaining = conjuncts.get(rule);
+            ruleTerms[rule] = new int[remaining.size()];
+            for (int i = 0; i < remaining.size(); i++) {
+                Expression term = remaining.get(i);
+                Integer id = termIds.get(term);
+                if (id == null) {
+                    id = terms.size();
+                    termIds.put(term, id);
+                    terms.add(compiler.compile(term));
+                }
+                ruleTerms[rule][i] = id;
+            }
+        }
+    }
+
+    private static void flatten(Expression expression, List<Expression> terms) {
+        if (expression instanceof BinaryExpression && ((BinaryExpression) expression).getOperator() == Operator.AND) {
+            flatten(((BinaryExpression) expression).getFirst(), terms);
+            flatten(((BinaryExpression) expression).getSecond(), terms);
+        } else {
+            terms.add(expression);
+        }
+    }
+
+    // the terms used by the dispatch are removed from the rule's conjuncts
+    private void buildDispatch(List<List<Expression>> conjuncts) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (List<Expression> terms : conjuncts) {
+            Map<String, Object> equalities = new HashMap<>();
+            for (Expression term : terms) {
+                FieldComparison comparison = FieldComparison.of(term);
+                if (comparison != null && comparison.operator == Operator.EQUALS && !equalities.containsKey(comparison.field)) {
+                    equalities.put(comparison.field, comparison.value);
+                    Integer count = counts.get(comparison.field);
+                    counts.put(comparison.field, count == null ? 1 : count + 1);
+                }
+            }
+        }
+        int max = 1;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                dispatchField = entry.getKey();
+            }
+        }
+        if (dispatchField == null) {
+            return;
+        }
+        for (int rule = 0; rule < ruleCount; rule++) {
+            boolean dispatched = false;
+            List<Expression> terms = conjuncts.get(rule);
+            for (int i = 0; i < terms.size(); i++) {
+                FieldComparison comparison = FieldComparison.of(terms.get(i));
+                if (comparison != null && comparison.operator == Operator.EQUALS && comparison.field.equals(dispatchField)) {
+                    Object key = normalize(comparison.value);
+                    BitSet rules = dispatch.get(key);
+                    if (rules == null) {
+                        rules = new BitSet(ruleCount);
+                        dispatch.put(key, rules);
+                    }
+                    rules.set(rule);
+                    terms.remove(i);
+                    dispatched = true;
+                    break;
+                }
+            }
+            if (!dispatched) {
+                undispatched.set(rule);
+            }
+        }
+    }
+
+    private void buildRangeIndexes(List<List<Expression>> conjuncts) {
+        Map<String, RangeIndex> lowerBounds = new LinkedHashMap<>();
+        Map<String, RangeIndex> upperBounds = new LinkedHashMap<>();
+        for (int rule = 0; rule < ruleCount; rule++) {
+            List<Expression> terms = conjuncts.get(rule);
+            for (int i = 0; i < terms.size(); i++) {
+                FieldComparison comparison = FieldComparison.of(terms.get(i));
+                if (comparison == null || !(comparison.value instanceof Number)) {
+                    continue;
+                }
+                Map<String, RangeIndex> indexes;
+                switch (comparison.operator) {
+                    case GREATER_THAN:
+                    case GREATER_THAN_EQUALS_TO:
+                        indexes = lowerBounds;
+                        break;
+                    case LESS_THAN:
+                    case LESS_THAN_EQUALS_TO:
+                        indexes = upperBounds;
+                        break;
+                    default:
+                        continue;
+                }
+                RangeIndex index = indexes.get(comparison.field);
+                if (index == null) {
+                    index = new RangeIndex(comparison.field, indexes == lowerBounds, ruleCount);
+                    indexes.put(comparison.field, index);
+                }
+                // only one bound per rule, field and direction is indexed, the others are evaluated as terms
+                if (index.add(rule, (Number) comparison.value, comparison.operator)) {
+                    terms.remove(i--);
+                }
+            }
+        }
+        rangeIndexes.addAll(lowerBounds.values());
+        rangeIndexes.addAll(upperBounds.values());
+        for (RangeIndex index : rangeIndexes) {
+            index.build();
+        }
+    }
+
+    /**
+     * Returns the rules matching the given event, in rule order.
+     */
+    public Match match(Map<String, Object> fields) {
+        BitSet candidates;
+        if (dispatchField != null) {
+            candidates = (BitSet) undispatched.clone();
+            Object value = fields.get(dispatchField);
+            if (value != null) {
+                BitSet rules = dispatch.get(normalize(value));
+                if (rules != null) {
+                    candidates.or(rules);
+                }
+            }
+        } else {
+            candidates = new BitSet(ruleCount);
+            candidates.set(0, ruleCount);
+        }
+        for (int i = 0; i < rangeIndexes.size() && !candidates.isEmpty(); i++) {
+            rangeIndexes.get(i).filter(fields, candidates);
+        }
+        return new Match(fields, candidates);
+    }
+
+    /**
+     * The matches of an event, evaluated when iterated.
+     */
+    public class Match {
+        private final Map<String, Object> fields;
+        private final BitSet candidates;
+        private final byte[] termValues;
+        private int next;
+
+        private Match(Map<String, Object> fields, BitSet candidates) {
+            this.fields = fields;
+            this.candidates = candidates;
+            this.termValues = new byte[terms.size()];
+        }
+
+        /**
+         * @return the index of the next matching rule, or -1 if there are no more matches
+         */
+        public int next() {
+            for (int rule = candidates.nextSetBit(next); rule >= 0; rule = candidates.nextSetBit(rule + 1)) {
+                if (holds(rule)) {
+                    next = rule + 1;
+                    return rule;
+                }
+            }
+            next = ruleCount;
+            return -1;
+        }
+
+        private boolean holds(int rule) {
+            for (int id : ruleTerms[rule]) {
+                if (termValues[id] == UNKNOWN) {
+                    termValues[id] = Boolean.TRUE.equals(terms.get(id).eval(fields)) ? TRUE : FALSE;
+                }
+                if (termValues[id] == FALSE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // numbers are compared by value regardless of their type, as the compiled comparisons do
+    private static Object normalize(Object value) {
+        if (value instanceof Number && !(value instanceof Long)) {
+            Number number = (Number) value;
+            double d = number.doubleValue();
+            if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 0x1p53) {
+                return (long) d;
+            }
+            return d;
+        }
+        return value;
+    }
+
+    private static int compareNumbers(Number first, Number second) {
+        if (isIntegral(first) && isIntegral(second)) {
+            return Long.compare(first.longValue(), second.longValue());
+        }
+        return Double.compare(first.doubleValue(), second.doubleValue());
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * A comparison of a field with a literal, with the field on the left.
+     */
+    private static class FieldComparison {
+        private final String field;
+        private final Operator operator;
+        private final Object value;
+
+        private FieldComparison(String field, Operator operator, Object value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        static FieldComparison of(Expression expression) {
+            if (!(expression instanceof BinaryExpression)) {
+                return null;
+            }
+            BinaryExpression binaryExpression = (BinaryExpression) expression;
+            Expression first = binaryExpression.getFirst();
+            Expression second = binaryExpression.getSecond();
+            Operator operator = binaryExpression.getOperator();
+            if (first instanceof Literal && second instanceof FieldExpression) {
+                Expression swap = first;
+                first = second;
+                second = swap;
+                operator = mirror(operator);
+            }
+            if (first instanceof FieldExpression && !FieldExpression.STAR.equals(first) && second instanceof Literal) {
+                Object value = ExpressionCompiler.parseLiteral(((Literal) second).getValue());
+                if (value != null) {
+                    return new FieldComparison(((FieldExpression) first).getValue().getName(), operator, value);
+                }
+            }
+            return null;
+        }
+
+        private static Operator mirror(Operator operator) {
+            switch (operator) {
+                case GREATER_THAN:
+                    return Operator.LESS_THAN;
+                case LESS_THAN:
+                    return Operator.GREATER_THAN;
+                case GREATER_THAN_EQUALS_TO:
+                    return Operator.LESS_THAN_EQUALS_TO;
+                case LESS_THAN_EQUALS_TO:
+                    return Operator.GREATER_THAN_EQUALS_TO;
+                default:
+                    return operator;
+            }
+        }
+    }
+
+    /**
+     * Lower (or upper) bounds on a field, sorted so that the bounds satisfied by a value form a prefix.
+     * The rules whose bound is not satisfied are precomputed for every prefix.
+     */
+    private static class RangeIndex {
+        private final String field;
+        private final boolean lower;
+        private final BitSet constrained;
+        private final List<Bound> bounds = new ArrayList<>();
+        private Number[] thresholds;
+        private BitSet[] unsatisfied;
+
+        RangeIndex(String field, boolean lower, int ruleCount) {
+            this.field = field;
+            this.lower = lower;
+            this.constrained = new BitSet(ruleCount);
+        }
+
+        boolean add(int rule, Number threshold, Operator operator) {
+            if (constrained.get(rule)) {
+                return false;
+            }
+            constrained.set(rule);
+            bounds.add(new Bound(rule, threshold,
+                    operator == Operator.GREATER_THAN || operator == Operator.LESS_THAN));
+            return true;
+        }
+
+        void build() {
+            // lower bounds ascending, upper bounds descending, inclusive bounds first on ties
+            Comparator<Bound> comparator = (b1, b2) -> {
+                int cmp = compareNumbers(b1.threshold, b2.threshold);
+                if (cmp == 0) {
+                    return Boolean.compare(b1.strict, b2.strict);
+                }
+                return lower ? cmp : -cmp;
+            };
+            Collections.sort(bounds, comparator);
+            thresholds = new Number[bounds.size()];
+            unsatisfied = new BitSet[bounds.size() + 1];
+            unsatisfied[0] = (BitSet) constrained.clone();
+            for (int i = 0; i < bounds.size(); i++) {
+                thresholds[i] = bounds.get(i).threshold;
+                unsatisfied[i + 1] = (BitSet) unsatisfied[i].clone();
+                unsatisfied[i + 1].clear(bounds.get(i).rule);
+            }
+        }
+
+        // removes the candidates bounded on this field whose bound is not satisfied
+        void filter(Map<String, Object> fields, BitSet candidates) {
+            Object value = fields.get(field);
+            candidates.andNot(unsatisfied[value instanceof Number ? satisfiedCount((Number) value) : 0]);
+        }
+
+        private int satisfiedCount(Number value) {
+            // first bound with a threshold beyond the value
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareNumbers(thresholds[mid], value);
+                if (lower ? cmp <= 0 : cmp >= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            // strict bounds equal to the value are not satisfied
+            while (low > 0 && bounds.get(low - 1).strict && compareNumbers(thresholds[low - 1], value) == 0) {
+                low--;
+            }
+            return low;
+        }
+    }
+
+    private static class Bound {
+        private final int rule;
+        private final Number threshold;
+        private final boolean strict;
+
+        Bound(int rule, Number threshold, boolean strict) {
+            this.rule = rule;
+            this.threshold = threshold;
+            this.strict = strict;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.streams.layout.component.rule.exception.ConditionEvaluationException;
+import org.apache.streamline.streams.layout.component.rule.expression.AggregateFunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.ArrayFieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.AsExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.ExpressionVisitor;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.MapFieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.runtime.script.engine.ScriptEngine;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Compiles an {@link Expression} tree into a tree of {@link Evaluator}s, so that the expression is
+ * evaluated without being interpreted or translated to another language.
+ * <p>
+ * Comparisons against numeric literals compare primitive longs or doubles. Field access is null safe and
+ * comparisons and logical operators follow SQL three-valued logic, i.e. a comparison with a missing field
+ * evaluates to {@code null}, which is neither true nor false.
+ * </p>
+ * User defined functions are invoked through their public {@code eval} method, which can be static.
+ * The supported built in functions are UPPER, LOWER, CHAR_LENGTH, CHARACTER_LENGTH and ABS.
+ * Aggregate functions can only be compiled to a lookup of their result, computed elsewhere and passed in
+ * the fields under the name given when creating the compiler.
+ */
+public class ExpressionCompiler implements ScriptEngine<ExpressionCompiler>, Serializable {
+    private final Map<Expression, String> aggregateFields;
+
+    public ExpressionCompiler() {
+        this(Collections.<Expression, String>emptyMap());
+    }
+
+    /**
+     * @param aggregateFields the names of the fields holding the result of each aggregate function expression
+     */
+    public ExpressionCompiler(Map<Expression, String> aggregateFields) {
+        this.aggregateFields = aggregateFields;
+    }
+
+    @Override
+    public ExpressionCompiler getEngine() {
+        return this;
+    }
+
+    public Evaluator compile(Expression expression) {
+        CompilingVisitor visitor = new CompilingVisitor();
+        expression.accept(visitor);
+        return visitor.result;
+    }
+
+    private class CompilingVisitor implements ExpressionVisitor {
+        private Evaluator result;
+
+        @Override
+        public void visit(BinaryExpression binaryExpression) {
+            Operator operator = binaryExpression.getOperator();
+            Expression first = binaryExpression.getFirst();
+            Expression second = binaryExpression.getSecond();
+            switch (operator) {
+                case AND:
+                    result = and(compile(first), compile(second));
+                    break;
+                case OR:
+                    result = or(compile(first), compile(second));
+                    break;
+                default:
+                    result = comparison(operator, first, second);
+            }
+        }
+
+        @Override
+        public void visit(FieldExpression fieldExpression) {
+            if (FieldExpression.STAR.equals(fieldExpression)) {
+                throw new UnsupportedOperationException("'*' is supported only as the sole projection expression");
+            }
+            final String name = fieldExpression.getValue().getName();
+            result = fields -> fields.get(name);
+        }
+
+        @Override
+        public void visit(ArrayFieldExpression arrayFieldExpression) {
+            final Evaluator array = compile(arrayFieldExpression.getExpression());
+            final int index = arrayFieldExpression.getIndex();
+            result = fields -> {
+                Object value = array.eval(fields);
+                if (value instanceof List) {
+                    List<?> list = (List<?>) value;
+                    return index >= 0 && index < list.size() ? list.get(index) : null;
+                } else if (value instanceof Object[]) {
+                    Object[] objects = (Object[]) value;
+                    return index >= 0 && index < objects.length ? objects[index] : null;
+                }
+                return null;
+            };
+        }
+
+        @Override
+        public void visit(MapFieldExpression mapFieldExpression) {
+            final Evaluator map = compile(mapFieldExpression.getExpression());
+            final String key = mapFieldExpression.getKey();
+            result = fields -> {
+                Object value = map.eval(fields);
+                return value instanceof Map ? ((Map<?, ?>) value).get(key) : null;
+            };
+        }
+
+        @Override
+        public void visit(Literal literal) {
+            final Object value = parseLiteral(literal.getValue());
+            result = fields -> value;
+        }
+
+        @Override
+        public void visit(FunctionExpression functionExpression) {
+            List<Evaluator> operands = new ArrayList<>();
+            for (Expression operand : functionExpression.getOperands()) {
+                operands.add(compile(operand));
+            }
+            FunctionExpression.Function function = functionExpression.getFunction();
+            result = function.isUdf() ? udf(function, operands) : builtin(function.getName(), operands);
+        }
+
+        @Override
+        public void visit(AggregateFunctionExpression aggregateFunctionExpression) {
+            final String name = aggregateFields.get(aggregateFunctionExpression);
+            if (name != null) {
+                result = fields -> fields.get(name);
+                return;
+            }
+            throw new UnsupportedOperationException("Aggregate function " + aggregateFunctionExpression.getFunction().getName()
+                    + " cannot be compiled to java");
+        }
+
+        @Override
+        public void visit(AsExpression asExpression) {
+            result = compile(asExpression.getExpression());
+        }
+    }
+
+    private static Evaluator and(final Evaluator first, final Evaluator second) {
+        return fields -> {
+            Object left = first.eval(fields);
+            if (Boolean.FALSE.equals(left)) {
+                return Boolean.FALSE;
+            }
+            Object right = second.eval(fields);
+            if (Boolean.FALSE.equals(right)) {
+                return Boolean.FALSE;
+            }
+            return Boolean.TRUE.equals(left) && Boolean.TRUE.equals(right) ? Boolean.TRUE : null;
+        };
+    }
+
+    private static Evaluator or(final Evaluator first, final Evaluator second) {
+        return fields -> {
+            Object left = first.eval(fields);
+            if (Boolean.TRUE.equals(left)) {
+                return Boolean.TRUE;
+            }
+            Object right = second.eval(fields);
+            if (Boolean.TRUE.equals(right)) {
+                return Boolean.TRUE;
+            }
+            return Boolean.FALSE.equals(left) && Boolean.FALSE.equals(right) ? Boolean.FALSE : null;
+        };
+    }
+
+    private Evaluator comparison(Operator operator, Expression first, Expression second) {
+        Object secondValue = second instanceof Literal ? parseLiteral(((Literal) second).getValue()) : null;
+        Object firstValue = first instanceof Literal ? parseLiteral(((Literal) first).getValue()) : null;
+        if (secondValue instanceof Number && !(first instanceof Literal)) {
+            return numericComparison(outcome(operator), compile(first), (Number) secondValue);
+        } else if (firstValue instanceof Number && !(second instanceof Literal)) {
+            return numericComparison(outcome(mirror(operator)), compile(second), (Number) firstValue);
+        }
+        final IntPredicate outcome = outcome(operator);
+        final boolean equality = operator == Operator.EQUALS || operator == Operator.NOT_EQUAL;
+        final Evaluator left = compile(first);
+        final Evaluator right = compile(second);
+        return fields -> {
+            Object leftValue = left.eval(fields);
+            if (leftValue == null) {
+                return null;
+            }
+            Object rightValue = right.eval(fields);
+            if (rightValue == null) {
+                return null;
+            }
+            Integer cmp = compare(leftValue, rightValue);
+            if (cmp == null) {
+                // values of different kinds are never equal and can not be ordered
+                return equality ? outcome.test(1) : null;
+            }
+            return outcome.test(cmp);
+        };
+    }
+
+    // compares the value of a field or function with a numeric literal
+    private static Evaluator numericComparison(final IntPredicate outcome, final Evaluator value, Number literal) {
+        if (isIntegral(literal)) {
+            final long constant = literal.longValue();
+            return fields -> {
+                Object v = value.eval(fields);
+                if (v == null) {
+                    return null;
+                } else if (isIntegral(v)) {
+                    return outcome.test(Long.compare(((Number) v).longValue(), constant));
+                } else if (v instanceof Number) {
+                    return outcome.test(Double.compare(((Number) v).doubleValue(), constant));
+                }
+                return null;
+            };
+        } else {
+            final double constant = literal.doubleValue();
+            return fields -> {
+                Object v = value.eval(fields);
+                if (v instanceof Number) {
+                    return outcome.test(Double.compare(((Number) v).doubleValue(), constant));
+                }
+                return null;
+            };
+        }
+    }
+
+    private static IntPredicate outcome(Operator operator) {
+        switch (operator) {
+            case EQUALS:
+                return cmp -> cmp == 0;
+            case NOT_EQUAL:
+                return cmp -> cmp != 0;
+            case GREATER_THAN:
+                return cmp -> cmp > 0;
+            case LESS_THAN:
+                return cmp -> cmp < 0;
+            case GREATER_THAN_EQUALS_TO:
+                return cmp -> cmp >= 0;
+            case LESS_THAN_EQUALS_TO:
+                return cmp -> cmp <= 0;
+            default:
+                throw new UnsupportedOperationException("Operator [" + operator + "] is not a comparison");
+        }
+    }
+
+    // the operator to use when the operands are swapped
+    private static Operator mirror(Operator operator) {
+        switch (operator) {
+            case GREATER_THAN:
+                return Operator.LESS_THAN;
+            case LESS_THAN:
+                return Operator.GREATER_THAN;
+            case GREATER_THAN_EQUALS_TO:
+                return Operator.LESS_THAN_EQUALS_TO;
+            case LESS_THAN_EQUALS_TO:
+                return Operator.GREATER_THAN_EQUALS_TO;
+            default:
+                return operator;
+        }
+    }
+
+    private static Integer compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            if (isIntegral(left) && isIntegral(right)) {
+                return Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+            }
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        } else if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right);
+        } else if (left instanceof Boolean && right instanceof Boolean) {
+            return ((Boolean) left).compareTo((Boolean) right);
+        } else if (left instanceof Comparable && left.getClass().isInstance(right)) {
+            return ((Comparable<Object>) left).compareTo(right);
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /*
+     * Literals are kept as strings in the expression tree, e.g. 10, 10.5, TRUE or 'abc' (SQL quoting)
+     */
+    static Object parseLiteral(String literal) {
+        if (literal == null || literal.equalsIgnoreCase("NULL")) {
+            return null;
+        } else if (literal.equalsIgnoreCase("TRUE")) {
+            return Boolean.TRUE;
+        } else if (literal.equalsIgnoreCase("FALSE")) {
+            return Boolean.FALSE;
+        }
+        int quote = literal.indexOf('\'');
+        if (quote >= 0 && literal.length() > quote + 1 && literal.endsWith("'")) {
+            // may be prefixed with the character set, e.g. _ISO-8859-1'abc'
+            return literal.substring(quote + 1, literal.length() - 1).replace("''", "'");
+        }
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            // not a long
+        }
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+
+    private static Evaluator builtin(String name, List<Evaluator> operands) {
+        if (operands.size() != 1) {
+            throw new UnsupportedOperationException("Function " + name + " with " + operands.size()
+                    + " operands cannot be compiled to java");
+        }
+        final Evaluator operand = operands.get(0);
+        switch (name.toUpperCase()) {
+            case "UPPER":
+                return fields -> {
+                    Object value = operand.eval(fields);
+                    return value != null ? value.toString().toUpperCase() : null;
+                };
+            case "LOWER":
+                return fields -> {
+                    Object value = operand.eval(fields);
+                    return value != null ? value.toString().toLowerCase() : null;
+                };
+            case "CHAR_LENGTH":
+            case "CHARACTER_LENGTH":
+                return fields -> {
+                    Object value = operand.eval(fields);
+                    return value != null ? value.toString().length() : null;
+                };
+            case "ABS":
+                return fields -> {
+                    Object value = operand.eval(fields);
+                    if (value instanceof Long) {
+                        return Math.abs((Long) value);
+                    } else if (isIntegral(value)) {
+                        return Math.abs(((Number) value).intValue());
+                    } else if (value instanceof Number) {
+                        return Math.abs(((Number) value).doubleValue());
+                    }
+                    return null;
+                };
+            default:
+                throw new UnsupportedOperationException("Built in function " + name + " cannot be compiled to java");
+        }
+    }
+
+    private static Evaluator udf(FunctionExpression.Function function, final List<Evaluator> operands) {
+        final Method method = getEvalMethod(function, operands.size());
+        final Class<?>[] types = method.getParameterTypes();
+        final Object instance;
+        try {
+            instance = Modifier.isStatic(method.getModifiers()) ? null : method.getDeclaringClass().newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Could not instantiate udf " + function.getClassName(), e);
+        }
+        final String name = function.getName();
+        return fields -> {
+            Object[] args = new Object[types.length];
+            for (int i = 0; i < args.length; i++) {
+                Object value = operands.get(i).eval(fields);
+                if (value == null && types[i].isPrimitive()) {
+                    return null;
+                }
+                args[i] = coerce(value, types[i]);
+            }
+            try {
+                return method.invoke(instance, args);
+            } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
+                throw new ConditionEvaluationException("Error invoking udf " + name, e);
+            }
+        };
+    }
+
+    private static Method getEvalMethod(FunctionExpression.Function function, int arity) {
+        Class<?> clazz;
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            clazz = Class.forName(function.getClassName(), true,
+                    classLoader != null ? classLoader : ExpressionCompiler.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Could not load udf " + function.getName(), e);
+        }
+        for (Method method : clazz.getMethods()) {
+            if (method.getName().equals("eval") && method.getParameterTypes().length == arity) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Udf " + function.getClassName() + " has no public eval method with "
+                + arity + " parameters");
+    }
+
+    // converts numbers to the parameter type of the udf, e.g. a long field passed to an int parameter
+    private static Object coerce(Object value, Class<?> type) {
+        if (!(value instanceof Number) || type.isInstance(value)) {
+            return value;
+        }
+        Number number = (Number) value;
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+        } else if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        } else if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        } else if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(number.toString());
+        } else if (type == BigInteger.class) {
+            return BigInteger.valueOf(number.longValue());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Projection;
+import org.apache.streamline.streams.runtime.rule.condition.expression.JavaExpression;
+import org.apache.streamline.streams.runtime.script.Script;
+import org.apache.streamline.streams.runtime.script.engine.ScriptEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.streamline.streams.common.StreamlineEventImpl.GROUP_BY_TRIGGER_EVENT;
+
+/**
+ * Evaluates the condition and projection of a {@link JavaExpression} compiled by the {@link ExpressionCompiler}.
+ * An event matches if the condition evaluates to true; the result is then the projected event, or the input
+ * event itself when the rule has no projection.
+ */
+public class JavaExpressionScript extends Script<StreamlineEvent, Collection<StreamlineEvent>, ExpressionCompiler> {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaExpressionScript.class);
+    private final JavaExpression javaExpression;
+    // transient since the compiled evaluators are not serializable, compiled again if needed
+    private transient Evaluator condition;
+    private transient List<Evaluator> projections;
+    private transient boolean compiled;
+
+    public JavaExpressionScript(JavaExpression javaExpression, ScriptEngine<ExpressionCompiler> scriptEngine) {
+        super(javaExpression.asString(), scriptEngine);
+        this.javaExpression = javaExpression;
+        compile();
+    }
+
+    private void compile() {
+        condition = javaExpression.getCondition() != null
+                ? scriptEngine.compile(javaExpression.getCondition().getExpression()) : null;
+        projections = null;
+        Projection projection = javaExpression.getProjection();
+        if (projection != null && !isStar(projection)) {
+            projections = new ArrayList<>();
+            for (Expression expression : projection.getExpressions()) {
+                projections.add(scriptEngine.compile(expression));
+            }
+        }
+        compiled = true;
+    }
+
+    private boolean isStar(Projection projection) {
+        List<Expression> expressions = projection.getExpressions();
+        return expressions.size() == 1 && FieldExpression.STAR.equals(expressions.get(0));
+    }
+
+    @Override
+    public Collection<StreamlineEvent> evaluate(StreamlineEvent event) {
+        if (event == null) {
+            LOG.error("Cannot evaluate null event");
+            return Collections.emptyList();
+        } else if (event == GROUP_BY_TRIGGER_EVENT) {
+            return Collections.emptyList();
+        }
+        if (!compiled) {
+            compile();
+        }
+        if (condition != null && !Boolean.TRUE.equals(condition.eval(event))) {
+            LOG.debug("Expression [{}] did not match [{}]", expression, event);
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(project(event));
+    }
+
+    /**
+     * Returns the result of this script for an event which is known to satisfy the condition,
+     * e.g. matched by a {@link CompiledRuleSet}.
+     */
+    public StreamlineEvent project(StreamlineEvent event) {
+        if (!compiled) {
+            compile();
+        }
+        if (projections == null) {
+            return event;
+        }
+        List<String> outputFields = javaExpression.getOutputFields();
+        Map<String, Object> fieldsAndValues = new HashMap<>();
+        for (int i = 0; i < projections.size(); i++) {
+            fieldsAndValues.put(outputFields.get(i), projections.get(i).eval(event));
+        }
+        return new StreamlineEventImpl(fieldsAndValues, event.getDataSourceId(), event.getId(),
+                event.getHeader(), event.getSourceStream());
+    }
+
+    public Condition getCondition() {
+        return javaExpression.getCondition();
+    }
+
+    public List<String> getOutputFields() {
+        return javaExpression.getOutputFields();
+    }
+
+    @Override
+    public String toString() {
+        return "JavaExpressionScript{" +
+                "javaExpression=" + javaExpression +
+                "} " + super.toString();
+    }
+}
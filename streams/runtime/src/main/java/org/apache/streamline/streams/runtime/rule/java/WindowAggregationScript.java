@@ -0,0 +1,492 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.rule.expression.AggregateFunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.ArrayFieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.AsExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.ExpressionVisitor;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.MapFieldExpression;
+import org.apache.streamline.streams.runtime.rule.condition.expression.JavaExpression;
+import org.apache.streamline.streams.runtime.script.Script;
+import org.apache.streamline.streams.runtime.script.engine.ScriptEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.apache.streamline.streams.common.StreamlineEventImpl.GROUP_BY_TRIGGER_EVENT;
+import static org.apache.streamline.streams.runtime.transform.AddHeaderTransformRuntime.HEADER_FIELD_DATASOURCE_IDS;
+import static org.apache.streamline.streams.runtime.transform.AddHeaderTransformRuntime.HEADER_FIELD_EVENT_IDS;
+
+/**
+ * Aggregates the events of a window incrementally, grouped by the group by expressions of a {@link JavaExpression}.
+ * <p>
+ * Each event satisfying the condition is added to the aggregates of its group when it enters the window and
+ * removed from them via {@link #retract(StreamlineEvent)} when it expires, so the aggregates of a window activation
+ * are not computed again from the events of the window. The results of all the groups satisfying the having clause
+ * are returned when evaluating the {@link StreamlineEventImpl#GROUP_BY_TRIGGER_EVENT}, any other event returns no
+ * result. The header of each result lists the ids of the events and data sources of its group, which are copied on
+ * every window activation, so a window activation still takes time linear in the number of events in the window.
+ * </p>
+ * <p>
+ * The events of each group are retained if a rule uses user defined aggregate functions which can not remove
+ * values. If these functions can be merged, they are computed for each pane of events added between two window
+ * activations and the aggregates of the panes are merged, so only a pane whose events partially expired is
+ * computed again, once per window activation. Otherwise they are computed again from the events of the group,
+ * once per window activation after some of its events expired.
+ * </p>
+ */
+public class WindowAggregationScript extends Script<StreamlineEvent, Collection<StreamlineEvent>, ExpressionCompiler> {
+    private static final Logger LOG = LoggerFactory.getLogger(WindowAggregationScript.class);
+    private static final String AGGREGATE_FIELD_PREFIX = "$agg";
+
+    private final JavaExpression javaExpression;
+    private final List<AggregateFunctionExpression> aggregates;
+    private final boolean[] retractable;
+    // whether aggregates which can not remove values are computed per pane and merged
+    private final boolean mergePanes;
+    private final boolean retainEvents;
+    // transient since the compiled evaluators are not serializable, compiled again if needed
+    private transient Evaluator condition;
+    private transient List<Evaluator> groupBy;
+    private transient List<Evaluator[]> aggregateOperands;
+    private transient List<Supplier<Accumulator>> accumulatorSuppliers;
+    private transient List<Evaluator> projections;
+    private transient Evaluator having;
+    private transient Map<List<Object>, Group> groups;
+    // the events added between two window activations belong to the same pane
+    private transient long paneId;
+    private transient boolean compiled;
+
+    public WindowAggregationScript(JavaExpression javaExpression, ScriptEngine<ExpressionCompiler> scriptEngine) {
+        super(javaExpression.asString(), scriptEngine);
+        if (javaExpression.getProjection() == null) {
+            throw new IllegalArgumentException("A projection is required to aggregate a window: " + javaExpression);
+        }
+        this.javaExpression = javaExpression;
+        AggregateCollector collector = new AggregateCollector();
+        for (Expression expression : javaExpression.getProjection().getExpressions()) {
+            expression.accept(collector);
+        }
+        if (javaExpression.getHaving() != null) {
+            javaExpression.getHaving().getExpression().accept(collector);
+        }
+        this.aggregates = new ArrayList<>(collector.aggregates);
+        this.retractable = new boolean[aggregates.size()];
+        boolean mergePanes = true;
+        boolean retainEvents = false;
+        for (int i = 0; i < aggregates.size(); i++) {
+            FunctionExpression.Function function = aggregates.get(i).getFunction();
+            retractable[i] = Accumulators.isRetractable(function);
+            if (!retractable[i]) {
+                retainEvents = true;
+                mergePanes &= Accumulators.isMergeable(function);
+            }
+        }
+        this.mergePanes = mergePanes;
+        this.retainEvents = retainEvents;
+        compile();
+    }
+
+    private void compile() {
+        condition = javaExpression.getCondition() != null
+                ? scriptEngine.compile(javaExpression.getCondition().getExpression()) : null;
+        groupBy = new ArrayList<>();
+        if (javaExpression.getGroupBy() != null) {
+            for (Expression expression : javaExpression.getGroupBy().getExpressions()) {
+                groupBy.add(scriptEngine.compile(expression));
+            }
+        }
+        Map<Expression, String> aggregateFields = new HashMap<>();
+        aggregateOperands = new ArrayList<>();
+        accumulatorSuppliers = new ArrayList<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            AggregateFunctionExpression aggregate = aggregates.get(i);
+            aggregateFields.put(aggregate, AGGREGATE_FIELD_PREFIX + i);
+            List<Expression> operands = aggregate.getOperands();
+            Evaluator[] evaluators = new Evaluator[operands.size()];
+            for (int j = 0; j < evaluators.length; j++) {
+                // COUNT(*) counts all the events
+                evaluators[j] = FieldExpression.STAR.equals(operands.get(j))
+                        ? fields -> Boolean.TRUE : scriptEngine.compile(operands.get(j));
+            }
+            aggregateOperands.add(evaluators);
+            accumulatorSuppliers.add(Accumulators.supplier(aggregate.getFunction()));
+        }
+        ExpressionCompiler aggregateCompiler = new ExpressionCompiler(aggregateFields);
+        projections = new ArrayList<>();
+        for (Expression expression : javaExpression.getProjection().getExpressions()) {
+            projections.add(aggregateCompiler.compile(expression));
+        }
+        having = javaExpression.getHaving() != null
+                ? aggregateCompiler.compile(javaExpression.getHaving().getExpression()) : null;
+        groups = new LinkedHashMap<>();
+        compiled = true;
+    }
+
+    /**
+     * Adds an event entering the window, or returns the results of the window for the
+     * {@link StreamlineEventImpl#GROUP_BY_TRIGGER_EVENT}.
+     */
+    @Override
+    public Collection<StreamlineEvent> evaluate(StreamlineEvent event) {
+        if (event == null) {
+            LOG.error("Cannot evaluate null event");
+            return Collections.emptyList();
+        }
+        if (!compiled) {
+            compile();
+        }
+        if (event == GROUP_BY_TRIGGER_EVENT) {
+            Collection<StreamlineEvent> results = results();
+            ++paneId;
+            return results;
+        }
+        if (matches(event)) {
+            List<Object> key = groupKey(event);
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group(key);
+                groups.put(key, group);
+            }
+            group.add(event);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes an event, which was added before, when it expires from the window.
+     */
+    public void retract(StreamlineEvent event) {
+        if (!compiled) {
+            compile();
+        }
+        if (matches(event)) {
+            List<Object> key = groupKey(event);
+            Group group = groups.get(key);
+            if (group != null && group.retract(event)) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    private boolean matches(StreamlineEvent event) {
+        return condition == null || Boolean.TRUE.equals(condition.eval(event));
+    }
+
+    private List<Object> groupKey(StreamlineEvent event) {
+        if (groupBy.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Object[] key = new Object[groupBy.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = groupBy.get(i).eval(event);
+        }
+        return Arrays.asList(key);
+    }
+
+    private Collection<StreamlineEvent> results() {
+        List<StreamlineEvent> results = new ArrayList<>();
+        List<String> outputFields = javaExpression.getOutputFields();
+        for (Group group : groups.values()) {
+            Map<String, Object> fields = group.fields();
+            if (having != null && !Boolean.TRUE.equals(having.eval(fields))) {
+                continue;
+            }
+            Map<String, Object> fieldsAndValues = new HashMap<>();
+            for (int i = 0; i < projections.size(); i++) {
+                fieldsAndValues.put(outputFields.get(i), projections.get(i).eval(fields));
+            }
+            Map<String, Object> header = new HashMap<>();
+            header.put(HEADER_FIELD_EVENT_IDS, new ArrayList<>(group.eventIds));
+            header.put(HEADER_FIELD_DATASOURCE_IDS, new ArrayList<>(group.dataSourceIds.keySet()));
+            results.add(new StreamlineEventImpl(fieldsAndValues, "", header));
+        }
+        LOG.debug("Expression [{}] evaluated to {} results for {} groups", expression, results.size(), groups.size());
+        return results;
+    }
+
+    /*
+     * The aggregates of the events of a group in the window. The events are retained, in panes of the events
+     * added between two window activations, only if some aggregates can not remove values.
+     */
+    private class Group {
+        private final List<Object> key;
+        // the aggregates which are computed per pane are null
+        private final Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        private final Deque<Pane> panes = retainEvents ? new ArrayDeque<Pane>() : null;
+        private final Set<String> eventIds = new LinkedHashSet<>();
+        private final Map<String, Integer> dataSourceIds = new LinkedHashMap<>();
+        private int count;
+        // whether events expired since the aggregates which can not remove values were computed
+        private boolean stale;
+
+        Group(List<Object> key) {
+            this.key = key;
+            for (int i = 0; i < accumulators.length; i++) {
+                if (!perPane(i)) {
+                    accumulators[i] = accumulatorSuppliers.get(i).get();
+                }
+            }
+        }
+
+        void add(StreamlineEvent event) {
+            Pane pane = null;
+            if (panes != null) {
+                pane = panes.peekLast();
+                if (pane == null || pane.id != paneId) {
+                    pane = new Pane(paneId);
+                    panes.addLast(pane);
+                }
+                pane.events.addLast(event);
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                (perPane(i) ? pane.accumulators[i] : accumulators[i]).add(operands(i, event));
+            }
+            eventIds.add(event.getId());
+            Integer dataSourceCount = dataSourceIds.get(event.getDataSourceId());
+            dataSourceIds.put(event.getDataSourceId(), dataSourceCount == null ? 1 : dataSourceCount + 1);
+            count++;
+        }
+
+        /**
+         * Returns true if the group has no more events.
+         */
+        boolean retract(StreamlineEvent event) {
+            if (panes != null) {
+                Pane pane = remove(event);
+                if (pane == null) {
+                    return false;
+                }
+                if (pane.events.isEmpty()) {
+                    panes.remove(pane);
+                } else if (mergePanes) {
+                    pane.stale = true;
+                }
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                if (retractable[i]) {
+                    accumulators[i].retract(operands(i, event));
+                }
+            }
+            if (panes != null && !mergePanes) {
+                stale = true;
+            }
+            eventIds.remove(event.getId());
+            Integer dataSourceCount = dataSourceIds.get(event.getDataSourceId());
+            if (dataSourceCount != null) {
+                if (dataSourceCount == 1) {
+                    dataSourceIds.remove(event.getDataSourceId());
+                } else {
+                    dataSourceIds.put(event.getDataSourceId(), dataSourceCount - 1);
+                }
+            }
+            return --count <= 0;
+        }
+
+        // events expire in the order they were added, so the event is usually the first of the first pane
+        private Pane remove(StreamlineEvent event) {
+            for (Pane pane : panes) {
+                if (pane.events.removeFirstOccurrence(event)) {
+                    return pane;
+                }
+            }
+            return null;
+        }
+
+        // computes the aggregates which can not remove values from the remaining events
+        private void recompute() {
+            for (int i = 0; i < accumulators.length; i++) {
+                if (!retractable[i]) {
+                    accumulators[i] = accumulatorSuppliers.get(i).get();
+                    for (Pane pane : panes) {
+                        for (StreamlineEvent e : pane.events) {
+                            accumulators[i].add(operands(i, e));
+                        }
+                    }
+                }
+            }
+        }
+
+        private Object result(int aggregate) {
+            if (!perPane(aggregate)) {
+                return accumulators[aggregate].result();
+            }
+            Accumulator merged = accumulatorSuppliers.get(aggregate).get();
+            for (Pane pane : panes) {
+                merged.merge(pane.accumulators[aggregate]);
+            }
+            return merged.result();
+        }
+
+        // the group by fields and the aggregates, to evaluate the projection and having
+        Map<String, Object> fields() {
+            if (stale) {
+                recompute();
+                stale = false;
+            }
+            if (mergePanes && panes != null) {
+                for (Pane pane : panes) {
+                    if (pane.stale) {
+                        pane.recompute();
+                    }
+                }
+            }
+            Map<String, Object> fields = new HashMap<>();
+            if (javaExpression.getGroupBy() != null) {
+                List<Expression> expressions = javaExpression.getGroupBy().getExpressions();
+                for (int i = 0; i < expressions.size(); i++) {
+                    if (expressions.get(i) instanceof FieldExpression) {
+                        fields.put(((FieldExpression) expressions.get(i)).getValue().getName(), key.get(i));
+                    }
+                }
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                fields.put(AGGREGATE_FIELD_PREFIX + i, result(i));
+            }
+            return fields;
+        }
+    }
+
+    /*
+     * The events of a group added between two window activations, and the aggregates of the pane
+     * for the aggregates which can not remove values but can be merged.
+     */
+    private class Pane {
+        private final long id;
+        private final Deque<StreamlineEvent> events = new ArrayDeque<>();
+        private final Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        // whether some events of the pane expired since its aggregates were computed
+        private boolean stale;
+
+        Pane(long id) {
+            this.id = id;
+            reset();
+        }
+
+        private void reset() {
+            for (int i = 0; i < accumulators.length; i++) {
+                if (perPane(i)) {
+                    accumulators[i] = accumulatorSuppliers.get(i).get();
+                }
+            }
+        }
+
+        // only when some events of the pane expired
+        void recompute() {
+            stale = false;
+            reset();
+            for (StreamlineEvent e : events) {
+                for (int i = 0; i < accumulators.length; i++) {
+                    if (perPane(i)) {
+                        accumulators[i].add(operands(i, e));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean perPane(int aggregate) {
+        return mergePanes && !retractable[aggregate];
+    }
+
+    private Object[] operands(int aggregate, StreamlineEvent event) {
+        Evaluator[] evaluators = aggregateOperands.get(aggregate);
+        Object[] values = new Object[evaluators.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = evaluators[i].eval(event);
+        }
+        return values;
+    }
+
+    /*
+     * Collects the distinct aggregate function expressions in the order they appear.
+     */
+    private static class AggregateCollector implements ExpressionVisitor {
+        private final Set<AggregateFunctionExpression> aggregates = new LinkedHashSet<>();
+
+        @Override
+        public void visit(BinaryExpression binaryExpression) {
+            binaryExpression.getFirst().accept(this);
+            binaryExpression.getSecond().accept(this);
+        }
+
+        @Override
+        public void visit(FieldExpression fieldExpression) {
+        }
+
+        @Override
+        public void visit(ArrayFieldExpression arrayFieldExpression) {
+            arrayFieldExpression.getExpression().accept(this);
+        }
+
+        @Override
+        public void visit(MapFieldExpression mapFieldExpression) {
+            mapFieldExpression.getExpression().accept(this);
+        }
+
+        @Override
+        public void visit(Literal literal) {
+        }
+
+        @Override
+        public void visit(FunctionExpression functionExpression) {
+            for (Expression operand : functionExpression.getOperands()) {
+                operand.accept(this);
+            }
+        }
+
+        @Override
+        public void visit(AggregateFunctionExpression aggregateFunctionExpression) {
+            aggregates.add(aggregateFunctionExpression);
+        }
+
+        @Override
+        public void visit(AsExpression asExpression) {
+            asExpression.getExpression().accept(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WindowAggregationScript{" +
+                "javaExpression=" + javaExpression +
+                "} " + super.toString();
+    }
+}
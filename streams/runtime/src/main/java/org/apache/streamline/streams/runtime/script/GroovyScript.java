@@ -21,27 +21,41 @@ package org.apache.streamline.streams.runtime.script;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.layout.component.rule.expression.Expression;
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.MissingPropertyException;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Evaluates the {@link Expression} for each {@code Input} using the provided Groovy Engine
+ * <p>
+ * The expression is compiled once per process into a script class which is shared by all the {@code GroovyScript}s
+ * with the same expression text. Each thread evaluates its own instance of that class against a binding which looks
+ * up the variables referenced by the script in the event when they are read, instead of copying the event into it.
+ * </p>
  *
  * @param <O> Type of output returned after the script is evaluated with {@link GroovyScript#evaluate(StreamlineEvent)}.
  */
 public class GroovyScript<O> extends Script<StreamlineEvent, O, javax.script.ScriptEngine> {
     private static final Logger LOG = LoggerFactory.getLogger(GroovyScript.class);
 
-    // instance of parsed Script is not thread-safe so we want to store parsed script per each thread
+    private static final GroovyClassLoader CLASS_LOADER = new GroovyClassLoader(GroovyScript.class.getClassLoader());
+    // compiled script classes keyed by expression text
+    private static final ConcurrentMap<String, Class<? extends groovy.lang.Script>> COMPILED_SCRIPTS = new ConcurrentHashMap<>();
+
+    // instance of Script and its binding are not thread-safe so we want to store them per each thread
     // transient to avoid NotSerializableException
     // volatile to safe lazy-init via Double Checking Lock
-    private transient volatile ThreadLocal<groovy.lang.Script> parsedScript;
+    private transient volatile ThreadLocal<EventBinding> eventBinding;
     private final Map<String, Object> initialBindings;
 
     public GroovyScript(String expression, org.apache.streamline.streams.runtime.script.engine.ScriptEngine<ScriptEngine> scriptEngine) {
@@ -56,52 +70,113 @@ public class GroovyScript<O> extends Script<StreamlineEvent, O, javax.script.Scr
     @Override
     public O evaluate(StreamlineEvent event) throws ScriptException {
         LOG.debug("Evaluating [{}] with [{}]", expression, event);
-        groovy.lang.Script parsedScript = getParsedScript();
         O evaluatedResult = null;
 
         if (event != null) {
+            EventBinding binding = getEventBinding();
             try {
-                Binding binding = createBinding(event);
-                parsedScript.setBinding(binding);
+                binding.bind(event);
                 LOG.debug("Set script binding to [{}]", event);
 
-                evaluatedResult = (O) parsedScript.run();
+                evaluatedResult = (O) binding.script.run();
 
                 LOG.debug("Expression [{}] evaluated to [{}]", expression, evaluatedResult);
-            } catch (groovy.lang.MissingPropertyException e) {
+            } catch (MissingPropertyException e) {
                 LOG.debug("Missing property: Expression [{}] params [{}]", expression, event);
                 throw new ScriptException(e);
+            } finally {
+                binding.unbind();
             }
         }
         return evaluatedResult;
     }
 
-    private Binding createBinding(Map<String, Object> fieldsToValues) {
-        Binding binding = new Binding();
-        addToBinding(initialBindings, binding);
-        addToBinding(fieldsToValues, binding);
-
-        return binding;
+    private EventBinding getEventBinding() {
+        if (eventBinding == null) {
+            synchronized (this) {
+                if (eventBinding == null) {
+                    final Class<? extends groovy.lang.Script> scriptClass = getScriptClass(expression);
+                    eventBinding = new ThreadLocal<EventBinding>() {
+                        @Override
+                        protected EventBinding initialValue() {
+                            return new EventBinding(scriptClass, initialBindings);
+                        }
+                    };
+                }
+            }
+        }
+        return eventBinding.get();
     }
 
-    private void addToBinding(Map<String, Object> fieldsToValues, Binding binding) {
-        for (Map.Entry<String, Object> entry : fieldsToValues.entrySet()) {
-            binding.setProperty(entry.getKey(), entry.getValue());
+    private static Class<? extends groovy.lang.Script> getScriptClass(String expression) {
+        Class<? extends groovy.lang.Script> scriptClass = COMPILED_SCRIPTS.get(expression);
+        if (scriptClass == null) {
+            scriptClass = COMPILED_SCRIPTS.computeIfAbsent(expression, text -> {
+                LOG.debug("Compiling script [{}]", text);
+                return CLASS_LOADER.parseClass(text);
+            });
         }
+        return scriptClass;
     }
 
-    private groovy.lang.Script getParsedScript() {
-        if (parsedScript == null) {
-            synchronized (this) {
-                parsedScript = new ThreadLocal<groovy.lang.Script>() {
-                    @Override
-                    protected groovy.lang.Script initialValue() {
-                        return new GroovyShell().parse(expression);
-                    }
-                };
+    /**
+     * Binding of a script instance which resolves variables from the event being evaluated, then from the initial
+     * bindings. Variables assigned by the script are kept in the binding until the evaluation completes and never
+     * written to the event.
+     */
+    private static class EventBinding extends Binding {
+        private final groovy.lang.Script script;
+        private final Map<String, Object> initialBindings;
+        private final Map<String, Object> assigned = new HashMap<>();
+        private Map<String, Object> event = Collections.emptyMap();
+
+        EventBinding(Class<? extends groovy.lang.Script> scriptClass, Map<String, Object> initialBindings) {
+            this.initialBindings = initialBindings;
+            this.script = InvokerHelper.createScript(scriptClass, this);
+        }
+
+        void bind(Map<String, Object> event) {
+            this.event = event;
+        }
+
+        void unbind() {
+            event = Collections.emptyMap();
+            assigned.clear();
+        }
+
+        @Override
+        public Object getVariable(String name) {
+            Object value = assigned.get(name);
+            if (value != null || assigned.containsKey(name)) {
+                return value;
+            }
+            value = event.get(name);
+            if (value != null || event.containsKey(name)) {
+                return value;
+            }
+            value = initialBindings.get(name);
+            if (value != null || initialBindings.containsKey(name)) {
+                return value;
             }
+            throw new MissingPropertyException(name, getClass());
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            assigned.put(name, value);
+        }
+
+        @Override
+        public boolean hasVariable(String name) {
+            return assigned.containsKey(name) || event.containsKey(name) || initialBindings.containsKey(name);
         }
-        return parsedScript.get();
-    }
 
+        @Override
+        public Map getVariables() {
+            Map<String, Object> variables = new HashMap<>(initialBindings);
+            variables.putAll(event);
+            variables.putAll(assigned);
+            return variables;
+        }
+    }
 }
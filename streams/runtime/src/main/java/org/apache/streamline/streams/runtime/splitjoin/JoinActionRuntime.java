@@ -22,7 +22,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.Result;
-import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.common.StreamlineEventWithStream;
 import org.apache.streamline.streams.layout.component.impl.splitjoin.JoinAction;
 import org.apache.streamline.streams.layout.component.rule.action.Action;
 import org.apache.streamline.streams.runtime.RuntimeService;
@@ -94,7 +94,7 @@ public class JoinActionRuntime extends AbstractSplitJoinActionRuntime {
     }
 
     private StreamlineEvent getStreamlineEvent(StreamlineEvent event, String stream) {
-        return new StreamlineEventImpl(event, event.getDataSourceId(), event.getId(), event.getHeader(), stream, event.getAuxiliaryFieldsAndValues());
+        return StreamlineEventWithStream.of(event, stream);
     }
 
     protected EventGroup groupEvents(StreamlineEvent event) {
@@ -2,6 +2,7 @@ package org.apache.streamline.streams.runtime.processor;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import org.apache.streamline.streams.Result;
 import org.apache.streamline.streams.StreamlineEvent;
 import org.apache.streamline.streams.exception.ProcessingException;
 import org.apache.streamline.streams.layout.component.impl.RulesProcessor;
@@ -11,11 +12,13 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Unit tests for {@link RuleProcessorRuntime}
@@ -118,6 +121,28 @@ public class RuleProcessorRuntimeTest {
         }};
     }
 
+    @Test
+    public void testProcessBatch() throws Exception {
+        RuleProcessorRuntime rpr = new RuleProcessorRuntime(mockRulesProcessor, RuleProcessorRuntime.ScriptType.SQL);
+        rpr.initializeWithRuleRuntimesForTesting(Collections.emptyMap(), ImmutableList.of(mockRr1, mockRr2));
+        List<List<Result>> results = rpr.processBatch(ImmutableList.of(event1, event2, event3));
+        Assert.assertEquals(3, results.size());
+        new Verifications() {{
+            mockRr1.evaluate(event1);
+            times=1;
+            mockRr2.evaluate(event1);
+            times=1;
+            mockRr1.evaluate(event2);
+            times=0;
+            mockRr2.evaluate(event2);
+            times=1;
+            mockRr1.evaluate(event3);
+            times=0;
+            mockRr2.evaluate(event3);
+            times=0;
+        }};
+    }
+
     @Test(expected = ProcessingException.class)
     public void testEventWithEmptyStream() throws Exception {
         RuleProcessorRuntime rpr = new RuleProcessorRuntime(mockRulesProcessor, RuleProcessorRuntime.ScriptType.SQL);
@@ -0,0 +1,115 @@
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CompiledRuleSetTest {
+    private static final Expression DEVICE_TYPE = new FieldExpression(Schema.Field.of("deviceType", Schema.Type.STRING));
+    private static final Expression TEMP = new FieldExpression(Schema.Field.of("temp", Schema.Type.INTEGER));
+    private static final Expression HUMIDITY = new FieldExpression(Schema.Field.of("humidity", Schema.Type.DOUBLE));
+    private static final Operator[] COMPARISONS = {Operator.GREATER_THAN, Operator.GREATER_THAN_EQUALS_TO,
+            Operator.LESS_THAN, Operator.LESS_THAN_EQUALS_TO, Operator.EQUALS, Operator.NOT_EQUAL};
+
+    private final ExpressionCompiler compiler = new ExpressionCompiler();
+
+    @Test
+    public void testMatchesSameRulesAsConditions() throws Exception {
+        Random random = new Random(42);
+        List<Expression> conditions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            conditions.add(randomCondition(random));
+        }
+        conditions.add(null);
+        CompiledRuleSet ruleSet = new CompiledRuleSet(conditions, compiler);
+        List<Evaluator> evaluators = new ArrayList<>();
+        for (Expression condition : conditions) {
+            evaluators.add(condition != null ? compiler.compile(condition) : null);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            Map<String, Object> event = randomEvent(random);
+            List<Integer> expected = new ArrayList<>();
+            for (int rule = 0; rule < evaluators.size(); rule++) {
+                if (evaluators.get(rule) == null || Boolean.TRUE.equals(evaluators.get(rule).eval(event))) {
+                    expected.add(rule);
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            CompiledRuleSet.Match match = ruleSet.match(event);
+            for (int rule = match.next(); rule >= 0; rule = match.next()) {
+                actual.add(rule);
+            }
+            Assert.assertEquals("event " + event, expected, actual);
+        }
+    }
+
+    @Test
+    public void testFirstMatch() throws Exception {
+        List<Expression> conditions = new ArrayList<>();
+        conditions.add(and(new BinaryExpression(Operator.EQUALS, DEVICE_TYPE, new Literal("'a'")),
+                new BinaryExpression(Operator.GREATER_THAN, TEMP, new Literal("10"))));
+        conditions.add(new BinaryExpression(Operator.EQUALS, DEVICE_TYPE, new Literal("'a'")));
+        conditions.add(new BinaryExpression(Operator.EQUALS, new Literal("'b'"), DEVICE_TYPE));
+        CompiledRuleSet ruleSet = new CompiledRuleSet(conditions, compiler);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("deviceType", "a");
+        event.put("temp", 10L);
+        CompiledRuleSet.Match match = ruleSet.match(event);
+        Assert.assertEquals(1, match.next());
+        Assert.assertEquals(-1, match.next());
+
+        event.put("temp", 11);
+        match = ruleSet.match(event);
+        Assert.assertEquals(0, match.next());
+        Assert.assertEquals(1, match.next());
+
+        event.put("deviceType", "b");
+        Assert.assertEquals(2, ruleSet.match(event).next());
+    }
+
+    private Expression randomCondition(Random random) {
+        Expression condition = new BinaryExpression(Operator.EQUALS, DEVICE_TYPE,
+                new Literal("'type" + random.nextInt(5) + "'"));
+        int terms = random.nextInt(3);
+        for (int i = 0; i < terms; i++) {
+            Expression field = random.nextBoolean() ? TEMP : HUMIDITY;
+            Operator operator = COMPARISONS[random.nextInt(COMPARISONS.length)];
+            Literal literal = new Literal(field == TEMP ? String.valueOf(random.nextInt(20)) : String.valueOf(random.nextInt(20) / 2.0));
+            Expression term = random.nextBoolean() ? new BinaryExpression(operator, field, literal)
+                    : new BinaryExpression(operator, literal, field);
+            condition = random.nextInt(4) == 0 ? new BinaryExpression(Operator.OR, condition, term) : and(condition, term);
+        }
+        return random.nextInt(10) == 0 ? and(new BinaryExpression(Operator.GREATER_THAN, TEMP, new Literal("5")), condition) : condition;
+    }
+
+    private Map<String, Object> randomEvent(Random random) {
+        Map<String, Object> event = new HashMap<>();
+        if (random.nextInt(10) > 0) {
+            event.put("deviceType", "type" + random.nextInt(6));
+        }
+        if (random.nextInt(10) > 0) {
+            event.put("temp", random.nextBoolean() ? (Object) random.nextInt(20) : (Object) (long) random.nextInt(20));
+        }
+        if (random.nextInt(10) > 0) {
+            event.put("humidity", random.nextBoolean() ? (Object) (random.nextInt(20) / 2.0) : (Object) random.nextInt(10));
+        }
+        return event;
+    }
+
+    private static Expression and(Expression first, Expression second) {
+        return new BinaryExpression(Operator.AND, first, second);
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.streamline.streams.runtime.rule.java;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.rule.expression.ArrayFieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.AsExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.FunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.MapFieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.layout.component.rule.expression.Projection;
+import org.apache.streamline.streams.runtime.rule.condition.expression.JavaExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JavaExpressionScriptTest {
+    private static final Expression X = new FieldExpression(Schema.Field.of("x", Schema.Type.INTEGER));
+    private static final Expression Y = new FieldExpression(Schema.Field.of("y", Schema.Type.DOUBLE));
+    private static final Expression NAME = new FieldExpression(Schema.Field.of("name", Schema.Type.STRING));
+
+    public static class Twice {
+        public static long eval(long value) {
+            return value * 2;
+        }
+    }
+
+    private Collection<StreamlineEvent> evaluate(Expression condition, Map<String, Object> kv) {
+        JavaExpressionScript script = new JavaExpressionScript(new JavaExpression(new Condition(condition)),
+                new ExpressionCompiler());
+        return script.evaluate(new StreamlineEventImpl(kv, "1"));
+    }
+
+    private Map<String, Object> kv(Object... keyValues) {
+        Map<String, Object> kv = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            kv.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return kv;
+    }
+
+    @Test
+    public void testNumericComparison() throws Exception {
+        Expression condition = new BinaryExpression(Operator.AND,
+                new BinaryExpression(Operator.GREATER_THAN, X, new Literal("10")),
+                new BinaryExpression(Operator.LESS_THAN_EQUALS_TO, new Literal("2.5"), Y));
+        Assert.assertEquals(1, evaluate(condition, kv("x", 11, "y", 2.5)).size());
+        Assert.assertEquals(1, evaluate(condition, kv("x", 11L, "y", 3)).size());
+        Assert.assertTrue(evaluate(condition, kv("x", 10, "y", 3.0)).isEmpty());
+        Assert.assertTrue(evaluate(condition, kv("x", 11, "y", 2.4f)).isEmpty());
+    }
+
+    @Test
+    public void testMissingField() throws Exception {
+        Expression gt = new BinaryExpression(Operator.GREATER_THAN, X, new Literal("10"));
+        Assert.assertTrue(evaluate(gt, kv("y", 1)).isEmpty());
+        Expression notEqual = new BinaryExpression(Operator.NOT_EQUAL, X, new Literal("10"));
+        Assert.assertTrue(evaluate(notEqual, kv("y", 1)).isEmpty());
+        // unknown OR true is true
+        Expression or = new BinaryExpression(Operator.OR, gt, new BinaryExpression(Operator.EQUALS, Y, new Literal("1")));
+        Assert.assertEquals(1, evaluate(or, kv("y", 1)).size());
+    }
+
+    @Test
+    public void testStringComparisonAndBuiltinFunction() throws Exception {
+        Expression upper = new FunctionExpression("UPPER", Collections.singletonList(NAME));
+        Expression condition = new BinaryExpression(Operator.EQUALS, upper, new Literal("'ABC'"));
+        Assert.assertEquals(1, evaluate(condition, kv("name", "abc")).size());
+        Assert.assertTrue(evaluate(condition, kv("name", "abd")).isEmpty());
+    }
+
+    @Test
+    public void testNestedFields() throws Exception {
+        Expression y = new FieldExpression(Schema.Field.of("y", Schema.Type.NESTED));
+        Expression yA0 = new ArrayFieldExpression(new MapFieldExpression(y, "a"), 0);
+        Expression condition = new BinaryExpression(Operator.LESS_THAN, yA0, new Literal("100"));
+        List<Integer> list = new ArrayList<>();
+        list.add(5);
+        Assert.assertEquals(1, evaluate(condition, kv("y", kv("a", list))).size());
+        Assert.assertTrue(evaluate(condition, kv("y", kv("a", new ArrayList<>()))).isEmpty());
+    }
+
+    @Test
+    public void testProjectionWithUdf() throws Exception {
+        Expression twice = new FunctionExpression("TWICE", Twice.class.getName(), Collections.singletonList(X));
+        Projection projection = new Projection(ImmutableList.of(NAME, new AsExpression(twice, "doubled")));
+        Condition condition = new Condition(new BinaryExpression(Operator.GREATER_THAN, twice, new Literal("10")));
+        JavaExpressionScript script = new JavaExpressionScript(new JavaExpression(condition, projection),
+                new ExpressionCompiler());
+
+        Collection<StreamlineEvent> result = script.evaluate(new StreamlineEventImpl(kv("x", 6, "name", "a", "z", 1), "1"));
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(kv("name", "a", "doubled", 12L), result.iterator().next());
+        Assert.assertTrue(script.evaluate(new StreamlineEventImpl(kv("x", 5, "name", "a"), "1")).isEmpty());
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streamline.streams.runtime.rule.java;
+
+import org.apache.streamline.common.Schema;
+import org.apache.streamline.streams.StreamlineEvent;
+import org.apache.streamline.streams.common.StreamlineEventImpl;
+import org.apache.streamline.streams.layout.component.rule.expression.AggregateFunctionExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.AsExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.BinaryExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.Condition;
+import org.apache.streamline.streams.layout.component.rule.expression.Expression;
+import org.apache.streamline.streams.layout.component.rule.expression.FieldExpression;
+import org.apache.streamline.streams.layout.component.rule.expression.GroupBy;
+import org.apache.streamline.streams.layout.component.rule.expression.Having;
+import org.apache.streamline.streams.layout.component.rule.expression.Literal;
+import org.apache.streamline.streams.layout.component.rule.expression.Operator;
+import org.apache.streamline.streams.layout.component.rule.expression.Projection;
+import org.apache.streamline.streams.rule.MergeableUDAF;
+import org.apache.streamline.streams.rule.RetractableUDAF;
+import org.apache.streamline.streams.rule.UDAF;
+import org.apache.streamline.streams.runtime.rule.condition.expression.JavaExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.streamline.streams.common.StreamlineEventImpl.GROUP_BY_TRIGGER_EVENT;
+
+public class WindowAggregationScriptTest {
+    private static final Expression X = new FieldExpression(Schema.Field.of("x", Schema.Type.INTEGER));
+    private static final Expression NAME = new FieldExpression(Schema.Field.of("name", Schema.Type.STRING));
+    private static final Expression COUNT = new AggregateFunctionExpression("COUNT",
+            Collections.singletonList(FieldExpression.STAR));
+
+    public static class Product implements UDAF<Long, Integer, Long> {
+        @Override
+        public Long init() {
+            return 1L;
+        }
+
+        @Override
+        public Long add(Long aggregate, Integer val) {
+            return aggregate * val;
+        }
+
+        @Override
+        public Long result(Long aggregate) {
+            return aggregate;
+        }
+    }
+
+    // counts the values added to all its aggregates
+    public static class CountingProduct extends Product {
+        static final AtomicLong ADDED = new AtomicLong();
+
+        @Override
+        public Long add(Long aggregate, Integer val) {
+            ADDED.incrementAndGet();
+            return super.add(aggregate, val);
+        }
+    }
+
+    public static class MergeableProduct extends Product implements MergeableUDAF<Long, Integer, Long> {
+        @Override
+        public Long merge(Long aggregate, Long other) {
+            return aggregate * other;
+        }
+    }
+
+    public static class CountingMergeableProduct extends MergeableProduct {
+        static final AtomicLong ADDED = new AtomicLong();
+
+        @Override
+        public Long add(Long aggregate, Integer val) {
+            ADDED.incrementAndGet();
+            return super.add(aggregate, val);
+        }
+    }
+
+    public static class RetractableSum implements RetractableUDAF<Long, Integer, Long> {
+        @Override
+        public Long init() {
+            return 0L;
+        }
+
+        @Override
+        public Long add(Long aggregate, Integer val) {
+            return aggregate + val;
+        }
+
+        @Override
+        public Long retract(Long aggregate, Integer val) {
+            return aggregate - val;
+        }
+
+        @Override
+        public Long result(Long aggregate) {
+            return aggregate;
+        }
+    }
+
+    private WindowAggregationScript script(Condition condition, Having having, Expression... projection) {
+        JavaExpression javaExpression = new JavaExpression(condition, new Projection(Arrays.asList(projection)),
+                new GroupBy(NAME), having);
+        return new WindowAggregationScript(javaExpression, new ExpressionCompiler());
+    }
+
+    private StreamlineEvent event(int id, String name, Integer x) {
+        Map<String, Object> kv = new HashMap<>();
+        kv.put("name", name);
+        kv.put("x", x);
+        return new StreamlineEventImpl(kv, "ds" + (id % 2), String.valueOf(id));
+    }
+
+    private Set<Map<String, Object>> results(Collection<StreamlineEvent> events) {
+        Set<Map<String, Object>> results = new HashSet<>();
+        for (StreamlineEvent event : events) {
+            results.add(new HashMap<>(event));
+        }
+        return results;
+    }
+
+    // slides a window over the events and compares the results with aggregating each window from scratch
+    private void assertSlidingWindow(Condition condition, Having having, Expression... projection) {
+        assertSlidingWindow(1, condition, having, projection);
+        assertSlidingWindow(3, condition, having, projection);
+    }
+
+    private void assertSlidingWindow(int slide, Condition condition, Having having, Expression... projection) {
+        Random random = new Random(7);
+        List<StreamlineEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            events.add(event(i, "n" + random.nextInt(3), random.nextInt(10) == 0 ? null : random.nextInt(20)));
+        }
+        int length = 10;
+        WindowAggregationScript incremental = script(condition, having, projection);
+        for (int i = 0; i < events.size(); i++) {
+            if (i >= length) {
+                incremental.retract(events.get(i - length));
+            }
+            incremental.evaluate(events.get(i));
+            if (i % slide != 0) {
+                continue;
+            }
+            WindowAggregationScript recomputed = script(condition, having, projection);
+            for (StreamlineEvent event : events.subList(Math.max(0, i - length + 1), i + 1)) {
+                recomputed.evaluate(event);
+            }
+            Assert.assertEquals("window ending at " + i, results(recomputed.evaluate(GROUP_BY_TRIGGER_EVENT)),
+                    results(incremental.evaluate(GROUP_BY_TRIGGER_EVENT)));
+        }
+    }
+
+    @Test
+    public void testSlidingWindow() throws Exception {
+        assertSlidingWindow(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("SUM", Collections.singletonList(X)), "total"),
+                new AsExpression(new AggregateFunctionExpression("AVG", Collections.singletonList(X)), "average"),
+                new AsExpression(new AggregateFunctionExpression("MIN", Collections.singletonList(X)), "low"),
+                new AsExpression(new AggregateFunctionExpression("MAX", Collections.singletonList(X)), "high"),
+                new AsExpression(COUNT, "n"));
+    }
+
+    @Test
+    public void testSlidingWindowWithConditionAndHaving() throws Exception {
+        Condition condition = new Condition(new BinaryExpression(Operator.GREATER_THAN, X, new Literal("5")));
+        Having having = new Having(new BinaryExpression(Operator.GREATER_THAN_EQUALS_TO, COUNT, new Literal("3")));
+        assertSlidingWindow(condition, having, NAME,
+                new AsExpression(new AggregateFunctionExpression("MAX", Collections.singletonList(X)), "high"));
+    }
+
+    @Test
+    public void testSlidingWindowWithUdaf() throws Exception {
+        assertSlidingWindow(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("PRODUCT", Product.class.getName(),
+                        Collections.singletonList(X)), "product"),
+                new AsExpression(COUNT, "n"));
+    }
+
+    @Test
+    public void testSlidingWindowWithMergeableUdaf() throws Exception {
+        assertSlidingWindow(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("PRODUCT", MergeableProduct.class.getName(),
+                        Collections.singletonList(X)), "product"),
+                new AsExpression(new AggregateFunctionExpression("MIN", Collections.singletonList(X)), "low"));
+    }
+
+    @Test
+    public void testSlidingWindowWithRetractableUdaf() throws Exception {
+        assertSlidingWindow(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("TOTAL", RetractableSum.class.getName(),
+                        Collections.singletonList(X)), "total"));
+    }
+
+    @Test
+    public void testUdafComputedAgainOncePerActivation() throws Exception {
+        WindowAggregationScript script = script(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("PRODUCT", CountingProduct.class.getName(),
+                        Collections.singletonList(X)), "product"));
+        List<StreamlineEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event(i, "a", 2));
+            script.evaluate(events.get(i));
+        }
+        script.evaluate(GROUP_BY_TRIGGER_EVENT);
+        long added = CountingProduct.ADDED.get();
+        for (int i = 0; i < 5; i++) {
+            script.retract(events.get(i));
+        }
+        List<StreamlineEvent> results = new ArrayList<>(script.evaluate(GROUP_BY_TRIGGER_EVENT));
+        Assert.assertEquals(32L, results.get(0).get("product"));
+        // the 5 remaining events are added once, not once per expired event
+        Assert.assertEquals(added + 5, CountingProduct.ADDED.get());
+    }
+
+    @Test
+    public void testPaneComputedAgainOncePerActivation() throws Exception {
+        WindowAggregationScript script = script(null, null, NAME,
+                new AsExpression(new AggregateFunctionExpression("PRODUCT", CountingMergeableProduct.class.getName(),
+                        Collections.singletonList(X)), "product"));
+        List<StreamlineEvent> events = new ArrayList<>();
+        // two panes of 10 events
+        for (int i = 0; i < 20; i++) {
+            events.add(event(i, "a", 2));
+            script.evaluate(events.get(i));
+            if (i % 10 == 9) {
+                script.evaluate(GROUP_BY_TRIGGER_EVENT);
+            }
+        }
+        long added = CountingMergeableProduct.ADDED.get();
+        for (int i = 0; i < 5; i++) {
+            script.retract(events.get(i));
+        }
+        List<StreamlineEvent> results = new ArrayList<>(script.evaluate(GROUP_BY_TRIGGER_EVENT));
+        Assert.assertEquals(1L << 15, results.get(0).get("product"));
+        // only the 5 remaining events of the first pane are added again, once
+        Assert.assertEquals(added + 5, CountingMergeableProduct.ADDED.get());
+    }
+
+    @Test
+    public void testGroupHeaderAndExpiry() throws Exception {
+        WindowAggregationScript script = script(null, null, NAME, new AsExpression(COUNT, "n"));
+        StreamlineEvent e1 = event(1, "a", 1);
+        StreamlineEvent e2 = event(2, "a", 2);
+        script.evaluate(e1);
+        script.evaluate(e2);
+        List<StreamlineEvent> results = new ArrayList<>(script.evaluate(GROUP_BY_TRIGGER_EVENT));
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals(2L, results.get(0).get("n"));
+        Assert.assertEquals(Arrays.asList("1", "2"), results.get(0).getHeader().get("eventIds"));
+        Assert.assertEquals(Arrays.asList("ds1", "ds0"), results.get(0).getHeader().get("dataSourceIds"));
+        script.retract(e1);
+        script.retract(e2);
+        Assert.assertTrue(script.evaluate(GROUP_BY_TRIGGER_EVENT).isEmpty());
+    }
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class GroovyScriptTest {
@@ -66,6 +67,23 @@ public class GroovyScriptTest {
         }
     }
 
+    @Test
+    public void testScriptAssignmentsAreNotWrittenToEvent() throws ScriptException {
+        GroovyScriptEngine groovyScriptEngine = new GroovyScriptEngine();
+        GroovyScript<Boolean> groovyScript = new GroovyScript<>("b = a * 2; b > 3", groovyScriptEngine);
+        HashMap<String, Object> fieldsAndValue = new HashMap<>();
+        fieldsAndValue.put("a", 2);
+        StreamlineEventImpl event = new StreamlineEventImpl(fieldsAndValue, "1");
+
+        assertTrue(groovyScript.evaluate(event));
+        assertEquals(1, event.size());
+
+        // same expression text shares the compiled class, but not the assigned variables
+        GroovyScript<Boolean> other = new GroovyScript<>("b = a * 2; b > 3", groovyScriptEngine);
+        fieldsAndValue.put("a", 1);
+        assertFalse(other.evaluate(new StreamlineEventImpl(fieldsAndValue, "1")));
+    }
+
     @Test
     public void testGroovyScriptEnsuresThreadSafe() throws InterruptedException {
         GroovyScriptEngine groovyScriptEngine = new GroovyScriptEngine();
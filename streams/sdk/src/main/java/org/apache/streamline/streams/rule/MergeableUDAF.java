@@ -0,0 +1,32 @@
+package org.apache.streamline.streams.rule;
+
+/**
+ * A {@link UDAF} whose aggregates of disjoint groups of values can be combined. Aggregating the values
+ * of each part of a group and merging the partial aggregates should produce a result equivalent to
+ * aggregating all the values of the group:
+ * <pre>
+ *   A aggregate = udafObj.init();
+ *   // for each partial aggregate of the group
+ *   for (...) {
+ *     aggregate = udafObj.merge(aggregate, partial);
+ *   }
+ *   R result = udafObj.result(aggregate);
+ * </pre>
+ * This allows aggregating the panes of a sliding window once, or aggregating locally before
+ * combining the aggregates of many executors.
+ *
+ * @param <A> the aggregate type
+ * @param <V> the value type
+ * @param <R> the result type
+ */
+public interface MergeableUDAF<A, V, R> extends UDAF<A, V, R> {
+    /**
+     * Return the aggregate of the values of both aggregates. The first aggregate can be modified
+     * and returned, the second aggregate must not be modified.
+     *
+     * @param aggregate the aggregate to merge into
+     * @param other     the aggregate to merge
+     * @return the merged aggregate
+     */
+    A merge(A aggregate, A other);
+}
@@ -0,0 +1,22 @@
+package org.apache.streamline.streams.rule;
+
+/**
+ * A {@link UDAF2} whose aggregates of disjoint groups of values can be combined.
+ *
+ * @param <A>  the aggregate type
+ * @param <V1> the type of the first argument
+ * @param <V2> the type of the second argument
+ * @param <R>  the result type
+ * @see MergeableUDAF
+ */
+public interface MergeableUDAF2<A, V1, V2, R> extends UDAF2<A, V1, V2, R> {
+    /**
+     * Return the aggregate of the values of both aggregates. The first aggregate can be modified
+     * and returned, the second aggregate must not be modified.
+     *
+     * @param aggregate the aggregate to merge into
+     * @param other     the aggregate to merge
+     * @return the merged aggregate
+     */
+    A merge(A aggregate, A other);
+}
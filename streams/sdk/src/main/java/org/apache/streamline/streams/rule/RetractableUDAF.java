@@ -0,0 +1,23 @@
+package org.apache.streamline.streams.rule;
+
+/**
+ * A {@link UDAF} which can remove a value that was added to an aggregate. Removing a value
+ * should produce a result equivalent to never having added it, so the aggregate of a sliding
+ * window can be updated when values expire instead of being computed again. Since the aggregate
+ * keeps changing after its result is emitted, {@link #result(Object)} must not return a mutable
+ * aggregate itself.
+ *
+ * @param <A> the aggregate type
+ * @param <V> the value type
+ * @param <R> the result type
+ */
+public interface RetractableUDAF<A, V, R> extends UDAF<A, V, R> {
+    /**
+     * Return a new aggregate by removing a value which was added before.
+     *
+     * @param aggregate the current aggregate
+     * @param val       the value to remove
+     * @return the new aggregate
+     */
+    A retract(A aggregate, V val);
+}
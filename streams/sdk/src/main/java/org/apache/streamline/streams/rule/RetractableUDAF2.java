@@ -0,0 +1,22 @@
+package org.apache.streamline.streams.rule;
+
+/**
+ * A {@link UDAF2} which can remove values that were added to an aggregate.
+ *
+ * @param <A>  the aggregate type
+ * @param <V1> the type of the first argument
+ * @param <V2> the type of the second argument
+ * @param <R>  the result type
+ * @see RetractableUDAF
+ */
+public interface RetractableUDAF2<A, V1, V2, R> extends UDAF2<A, V1, V2, R> {
+    /**
+     * Return a new aggregate by removing values which were added before.
+     *
+     * @param aggregate the current aggregate
+     * @param val1      the value of the first argument to remove
+     * @param val2      the value of the second argument to remove
+     * @return the new aggregate
+     */
+    A retract(A aggregate, V1 val1, V2 val2);
+}
@@ -165,7 +165,9 @@ public class StreamsModule implements ModuleRegistration, StorageManagerAware {
         conf.put(StormTopologyLayoutConstants.STORM_JAR_LOCATION_KEY, jar);
         conf.put(StormTopologyLayoutConstants.YAML_KEY_CATALOG_ROOT_URL, (String) config.get(Constants.CONFIG_CATALOG_ROOT_URL));
         conf.put(StormTopologyLayoutConstants.STORM_HOME_DIR, (String) config.get(StormTopologyLayoutConstants.STORM_HOME_DIR));
-        conf.put(TopologyLayoutConstants.JAVA_JAR_COMMAND, (String) config.get(TopologyLayoutConstants.JAVA_JAR_COMMAND));
+        Object jarCacheSize = config.get(StormTopologyLayoutConstants.STORM_JAR_CACHE_SIZE_KEY);
+        conf.put(StormTopologyLayoutConstants.STORM_JAR_CACHE_SIZE_KEY, jarCacheSize != null ? jarCacheSize.toString() : null);
+        conf.put(StormTopologyLayoutConstants.STORM_JAR_DUPLICATE_ENTRY_POLICY_KEY, (String) config.get(StormTopologyLayoutConstants.STORM_JAR_DUPLICATE_ENTRY_POLICY_KEY));
         conf.put(TopologyLayoutConstants.SCHEMA_REGISTRY_URL, (String) config.get(TopologyLayoutConstants.SCHEMA_REGISTRY_URL));
         conf.put(TopologyLayoutConstants.STORM_API_ROOT_URL_KEY, (String) config.get(TopologyLayoutConstants.STORM_API_ROOT_URL_KEY));
         topologyActions.init(conf);
@@ -40,7 +40,8 @@ export default class EdgeConfigContainer extends Component {
             grouping: data.grouping ? data.grouping : 'SHUFFLE',
             rules: [],
             streamsArr: [],
-            groupingsArr: [{value: "SHUFFLE", label: "SHUFFLE"},{value: "FIELDS", label: "FIELDS"}],
+            groupingsArr: [{value: "SHUFFLE", label: "SHUFFLE"},{value: "FIELDS", label: "FIELDS"},
+                {value: "KEY_GROUPS", label: "KEY_GROUPS"}],
             groupingFieldsArr: [],
             groupingFields: data.groupingFields ? data.groupingFields : [],
             rulesArr: [],
@@ -123,6 +124,10 @@ export default class EdgeConfigContainer extends Component {
             this.setState({streamId: obj.value, streamFields: JSON.stringify(obj.fields, null, "  ")})
         } else this.setState({streamId: '', streamFields: ''});
     }
+    // the groupings on fields, which need the grouping fields
+    isFieldsGrouping(grouping){
+        return grouping === 'FIELDS' || grouping === 'KEY_GROUPS';
+    }
     handleGroupingChange(obj){
         if(obj) {
             this.setState({grouping: obj.value})
@@ -167,7 +172,7 @@ export default class EdgeConfigContainer extends Component {
         if(showRules && rules.length === 0){
             validDataFlag = false;
         }
-        if(grouping === 'FIELDS' && groupingFields === '') {
+        if(this.isFieldsGrouping(grouping) && groupingFields === '') {
             validDataFlag = false;
         }
         if(!validDataFlag)
@@ -188,7 +193,7 @@ export default class EdgeConfigContainer extends Component {
                 grouping: grouping
             }]
         };
-        if(grouping === "FIELDS")
+        if(this.isFieldsGrouping(grouping))
             edgeData.streamGroupings[0].fields = groupingFields;
         if(nodeType === 'window' || nodeType === 'rule' || nodeType === 'branch'){
             if(sourceNode.config.properties.rules && sourceNode.config.properties.rules.length > 0){
@@ -338,7 +343,7 @@ export default class EdgeConfigContainer extends Component {
                         />
                     </div>
                 </div>
-                {grouping === 'FIELDS' ?
+                {this.isFieldsGrouping(grouping) ?
                <div className="form-group">
                    <label>Select Fields <span className="text-danger">*</span></label>
                    <div>